@@ -0,0 +1,55 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.util.CellRefUtils;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: decode the "r" attributes of the cells of a wide sheet,
+ *                 compare the CellRangeAddress parsing which SheetReader used before with CellRefUtils.
+ * @Title: CellReferenceBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 13:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellReferenceBenchmark {
+    private String[] refs;
+
+    @Setup
+    public void setup() {
+        refs = new String[1024];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = CellReference.convertNumToColString(i % 600) + (i * 977 + 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void cellRangeAddress(Blackhole bh) {
+        for (String ref : refs) {
+            CellRangeAddress address = CellRangeAddress.valueOf(ref);
+            bh.consume(address.getFirstColumn());
+            bh.consume(address.getFirstRow());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void cellRefUtils(Blackhole bh) {
+        for (String ref : refs) {
+            long packed = CellRefUtils.decode(ref);
+            bh.consume(CellRefUtils.column(packed));
+            bh.consume(CellRefUtils.row(packed));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.DataUtil;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: convert the cells of a synthetic sheet into their values with DataUtil.getCellValue, one kind of cells at a time,
+ *                 the cells are read in advance, so only the conversion is measured.
+ * @Title: CellValueBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 23:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellValueBenchmark {
+    private static final int CELLS = 4096;
+
+    @Param({"STRING", "INTEGER", "DECIMAL", "DATE", "FORMULA", "BOOLEAN"})
+    public WorkbookGenerator.Kind kind;
+
+    private File file;
+    private Workbook workbook;
+    private Cell[] cells;
+
+    @Setup
+    public void setup() throws IOException {
+        // a cell of every kind in every row
+        file = new WorkbookGenerator().rows(CELLS).columns(WorkbookGenerator.Kind.values().length).styleCount(4).write();
+        workbook = StreamReader.builder().open(file);
+        cells = new Cell[CELLS];
+        int i = 0;
+        for (Row row : workbook.getSheetAt(0)) {
+            cells[i++] = row.getCell(kind.ordinal());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.close();
+        file.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void getCellValue(Blackhole bh) {
+        for (Cell cell : cells) {
+            bh.consume(DataUtil.getCellValue(cell));
+        }
+    }
+}
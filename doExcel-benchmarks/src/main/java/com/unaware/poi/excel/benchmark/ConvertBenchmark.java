@@ -0,0 +1,91 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.UploadExcel;
+import com.unaware.poi.excel.util.MixedFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: convert a synthetic sheet of 1M rows into the .csv files with UploadExcel.analyzeExcelFile, from the file to the files.
+ *                 By default every row has a string, an integer, a decimal with the format "0.00", a date and a formula,
+ *                 like the sheets of production data this project is used for, see {@link WorkbookGenerator}.
+ *                 analyzeDirectCsv writes the cells of the same sheet as they are parsed, see {@link SSConverter#directCsv(boolean)}.
+ * @Title: ConvertBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 18:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class ConvertBenchmark {
+    /**
+     * the number of the rows of the sheet
+     */
+    @Param({"1000000"})
+    public int rows;
+    /**
+     * the number of the columns of the sheet, see {@link WorkbookGenerator.Kind}
+     */
+    @Param({"5"})
+    public int columns;
+    /**
+     * the number of the distinct strings
+     */
+    @Param({"1000"})
+    public int sstCardinality;
+    /**
+     * the probability that a block of 2x2 cells is merged
+     */
+    @Param({"0", "0.05"})
+    public double mergedDensity;
+    /**
+     * the number of the styles of every kind of cells
+     */
+    @Param({"1"})
+    public int styleCount;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = new WorkbookGenerator().rows(rows).columns(columns).sstCardinality(sstCardinality)
+                .mergedDensity(mergedDensity).styleCount(styleCount).write();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public List<MixedFile> analyzeExcelFile() throws Exception {
+        return deleteOutputs(new UploadExcel().analyzeExcelFile(file));
+    }
+
+    @Benchmark
+    public List<MixedFile> analyzeDirectCsv() throws Exception {
+        try (SSConverter ssConverter = new SSConverter()) {
+            ssConverter.enableAvailableInfo(true);
+            ssConverter.directCsv(true);
+            ssConverter.path(file, -1, 10, -1);
+            return deleteOutputs(ssConverter.getMixedFiles());
+        }
+    }
+
+    private static List<MixedFile> deleteOutputs(List<MixedFile> mixedFiles) {
+        for (MixedFile mixedFile : mixedFiles) {
+            mixedFile.getOriginal().delete();
+            mixedFile.getMerge().delete();
+        }
+        return mixedFiles;
+    }
+}
@@ -0,0 +1,124 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.util.ColumnarReader;
+import com.unaware.poi.excel.util.ColumnarWriter;
+import com.unaware.poi.excel.util.DecimalUtils;
+import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: load a converted sheet by a downstream job, from its .csv file parsed by commons-csv,
+ *                 or from its columnar file read by {@link ColumnarReader}.
+ *                 Every value is loaded as a number if it is one, or as a string, see {@link WorkbookGenerator}.
+ * @Title: LoadBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/18 02:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class LoadBenchmark {
+    /**
+     * the number of the rows of the sheet
+     */
+    @Param({"200000"})
+    public int rows;
+    /**
+     * the number of the columns of the sheet, see {@link WorkbookGenerator.Kind}
+     */
+    @Param({"6"})
+    public int columns;
+    /**
+     * the number of the distinct strings
+     */
+    @Param({"1000"})
+    public int sstCardinality;
+
+    private File directory;
+    private File csv;
+    private File columnar;
+
+    @Setup
+    public void setup() throws Exception {
+        File file = new WorkbookGenerator().rows(rows).columns(columns).sstCardinality(sstCardinality).write();
+        directory = Files.createTempDirectory("load_").toFile();
+        try (SSConverter converter = new SSConverter()) {
+            converter.outputSink(OutputSink.directory(directory));
+            converter.columnarOutputSink(OutputSink.directory(directory, ColumnarWriter.EXTENSION));
+            converter.path(file);
+            MixedFile mixedFile = converter.getMixedFiles().get(0);
+            csv = mixedFile.getOriginal();
+            columnar = mixedFile.getColumnar();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public void csv(Blackhole blackhole) throws IOException {
+        try (Reader reader = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            for (CSVRecord record : CSVFormat.INFORMIX_UNLOAD_CSV.parse(reader)) {
+                for (String value : record) {
+                    double number = value.isEmpty() ? Double.NaN : DecimalUtils.parse(value);
+                    if (Double.isNaN(number)) {
+                        blackhole.consume(value);
+                    } else {
+                        blackhole.consume(number);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void columnar(Blackhole blackhole) throws IOException {
+        try (ColumnarReader reader = ColumnarReader.open(columnar)) {
+            for (int group = 0; group < reader.getNumRowGroups(); group++) {
+                for (int column = 0; column < reader.getNumColumns(); column++) {
+                    ColumnarReader.ColumnVector vector = reader.read(reader.getChunk(group, column));
+                    for (int row = 0; row < vector.size(); row++) {
+                        if (vector.isNull(row)) {
+                            continue;
+                        }
+                        switch (vector.getType()) {
+                            case LONG:
+                            case DECIMAL:
+                            case DOUBLE:
+                                blackhole.consume(vector.getDouble(row));
+                                break;
+                            default:
+                                blackhole.consume(vector.getDictionary()[vector.getCodes()[row]]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
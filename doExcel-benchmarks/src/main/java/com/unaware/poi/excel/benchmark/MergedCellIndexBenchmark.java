@@ -0,0 +1,76 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.util.AvailableInfoUtils;
+import com.unaware.poi.excel.util.MergedCell;
+import com.unaware.poi.excel.util.MergedCellIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: look up every cell of a synthetic heavily-merged sheet the way SSConverter does,
+ *                 compare the scans of the list in AvailableInfoUtils with MergedCellIndex.
+ *                 The sheet has 40 columns, and every 2x2 block of cells in the even columns is merged.
+ * @Title: MergedCellIndexBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 16:05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergedCellIndexBenchmark {
+    private static final int COLUMNS = 40;
+    private static final int CELLS = 4096;
+
+    /**
+     * the number of the rows of the sheet
+     */
+    @Param({"100", "2000"})
+    public int rows;
+
+    private List<MergedCell> mergedCells;
+
+    @Setup
+    public void setup() {
+        mergedCells = new ArrayList<>();
+        for (int row = 0; row < rows; row += 2) {
+            for (int col = 0; col < COLUMNS; col += 4) {
+                mergedCells.add(new MergedCell(mergedCells.size(), "", row, row + 1, col, col + 1));
+            }
+        }
+    }
+
+    /**
+     * the first cells of the sheet, row by row
+     *
+     * @param bh
+     */
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void list(Blackhole bh) {
+        for (int i = 0; i < CELLS; i++) {
+            int row = i / COLUMNS % rows, col = i % COLUMNS;
+            bh.consume(AvailableInfoUtils.isMergedBegin(row, col, mergedCells));
+            bh.consume(AvailableInfoUtils.getMergedIndex(row, col, mergedCells));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void index(Blackhole bh) {
+        // SSConverter builds the index once per sheet
+        MergedCellIndex index = new MergedCellIndex(mergedCells);
+        for (int i = 0; i < CELLS; i++) {
+            int row = i / COLUMNS % rows, col = i % COLUMNS;
+            bh.consume(index.isMergedBegin(row, col));
+            bh.consume(index.getMergedIndex(row, col));
+        }
+    }
+}
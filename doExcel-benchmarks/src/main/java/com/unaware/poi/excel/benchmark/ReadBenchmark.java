@@ -0,0 +1,96 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: read a synthetic sheet with StreamReader, the latency to open the workbook and get its first row,
+ *                 and the rows and the cells read per second through SheetReader.
+ * @Title: ReadBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 23:20
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class ReadBenchmark {
+    /**
+     * the number of the rows of the sheet
+     */
+    @Param({"200000"})
+    public int rows;
+    /**
+     * the number of the columns of the sheet, see {@link WorkbookGenerator.Kind}
+     */
+    @Param({"12"})
+    public int columns;
+    /**
+     * the number of the distinct strings
+     */
+    @Param({"1000", "100000"})
+    public int sstCardinality;
+    @Param({"false", "true"})
+    public boolean singlePass;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = new WorkbookGenerator().rows(rows).columns(columns).sstCardinality(sstCardinality).mergedDensity(0.01).write();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * the rows and the cells read, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long rows;
+        public long cells;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+            cells = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Row open() throws IOException {
+        try (Workbook workbook = StreamReader.builder().singlePass(singlePass).open(file)) {
+            return workbook.getSheetAt(0).iterator().next();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void readRows(Counters counters, Blackhole bh) throws IOException {
+        try (Workbook workbook = StreamReader.builder().singlePass(singlePass).reuseRows(true).open(file)) {
+            for (Row row : workbook.getSheetAt(0)) {
+                for (Cell cell : row) {
+                    bh.consume(cell);
+                    counters.cells++;
+                }
+                counters.rows++;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.unaware.poi.excel.benchmark;
+
+import com.unaware.poi.excel.sstimpl.StreamSST;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Unaware
+ * @Description: look up the entries of the SharedString table of a synthetic workbook with StreamSST.getStringAt, like the sheet readers,
+ *                 at several sizes of its cache, in the order of the rows and at random.
+ * @Title: SharedStringsBenchmark
+ * @ProjectName doExcel
+ * @date 2026/10/17 23:35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedStringsBenchmark {
+    private static final int LOOKUPS = 4096;
+
+    /**
+     * the number of the distinct strings, the table has nearly as many entries
+     */
+    @Param({"100000"})
+    public int sstCardinality;
+    /**
+     * see {@link com.unaware.poi.excel.streamreader.StreamReader.Builder#sstCacheSize}
+     */
+    @Param({"-1", "10", "4096"})
+    public int sstCacheSize;
+
+    private File file;
+    private File cache;
+    private OPCPackage pkg;
+    private StreamSST sst;
+    private int[] sequential;
+    private int[] random;
+
+    @Setup
+    public void setup() throws Exception {
+        // a string cell in every row
+        file = new WorkbookGenerator().rows(sstCardinality * 3).columns(1).sstCardinality(sstCardinality).write();
+        cache = File.createTempFile("sst_cache", ".tmp");
+        pkg = OPCPackage.open(file.getPath(), PackageAccess.READ);
+        sst = StreamSST.getSharedStringTable(cache, sstCacheSize, pkg);
+        int count = sst.getUniqueCount();
+        sequential = new int[LOOKUPS];
+        random = new int[LOOKUPS];
+        Random r = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            sequential[i] = i % count;
+            random[i] = r.nextInt(count);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        sst.close();
+        pkg.revert();
+        cache.delete();
+        file.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void sequential(Blackhole bh) {
+        for (int idx : sequential) {
+            bh.consume(sst.getStringAt(idx));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void random(Blackhole bh) {
+        for (int idx : random) {
+            bh.consume(sst.getStringAt(idx));
+        }
+    }
+}
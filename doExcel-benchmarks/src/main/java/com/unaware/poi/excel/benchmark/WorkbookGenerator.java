@@ -0,0 +1,201 @@
+package com.unaware.poi.excel.benchmark;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * @author Unaware
+ * @Description: write a synthetic .xlsx file for the benchmarks, the same parameters and seed always give the same cells,
+ *                 so the results are reproducible without the real workbooks.
+ *                 The columns repeat the kinds of {@link Kind} in order, the strings are in the SharedString table,
+ *                 and the cells of every kind use styleCount styles of the format of the kind.
+ *                 Usage: java -cp target/benchmarks.jar com.unaware.poi.excel.benchmark.WorkbookGenerator file rows [columns sstCardinality mergedDensity styleCount seed]
+ * @Title: WorkbookGenerator
+ * @ProjectName doExcel
+ * @date 2026/10/17 23:05
+ */
+public class WorkbookGenerator {
+    /**
+     * the kinds of the cells, the column i has the kind i % 6
+     */
+    public enum Kind {
+        STRING("General"), INTEGER("0"), DECIMAL("0.00"), DATE("yyyy-mm-dd"), FORMULA("General"), BOOLEAN("General");
+
+        private final String format;
+
+        Kind(String format) {
+            this.format = format;
+        }
+
+        public static Kind of(int column) {
+            return values()[column % values().length];
+        }
+    }
+
+    /**
+     * the number of the rows of the sheet
+     */
+    private int rows = 10000;
+    /**
+     * the number of the columns of the sheet
+     */
+    private int columns = Kind.values().length;
+    /**
+     * the number of the distinct strings of the string cells
+     */
+    private int sstCardinality = 1000;
+    /**
+     * the probability that a block of 2x2 cells is merged, the blocks start at the even rows and the even columns
+     */
+    private double mergedDensity = 0;
+    /**
+     * the number of the styles of every kind of cells, they have different fonts, fills and borders
+     */
+    private int styleCount = 1;
+    private long seed = 42;
+
+    public WorkbookGenerator rows(int rows) {
+        this.rows = rows;
+        return this;
+    }
+
+    public WorkbookGenerator columns(int columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public WorkbookGenerator sstCardinality(int sstCardinality) {
+        this.sstCardinality = sstCardinality;
+        return this;
+    }
+
+    public WorkbookGenerator mergedDensity(double mergedDensity) {
+        this.mergedDensity = mergedDensity;
+        return this;
+    }
+
+    public WorkbookGenerator styleCount(int styleCount) {
+        this.styleCount = styleCount;
+        return this;
+    }
+
+    public WorkbookGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * write the workbook into a temporary file
+     *
+     * @return the file, delete it after the benchmark
+     * @throws IOException
+     */
+    public File write() throws IOException {
+        File file = File.createTempFile("bench_", ".xlsx");
+        write(file);
+        return file;
+    }
+
+    public void write(File file) throws IOException {
+        Random random = new Random(seed);
+        // keep 100 rows in memory and put the strings into the SharedString table
+        SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, true);
+        try (OutputStream os = new FileOutputStream(file)) {
+            CellStyle[][] styles = createStyles(workbook);
+            Sheet sheet = workbook.createSheet("data");
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < columns; j++) {
+                    Kind kind = Kind.of(j);
+                    Cell cell = row.createCell(j);
+                    switch (kind) {
+                        case STRING:
+                            cell.setCellValue("value-" + random.nextInt(sstCardinality));
+                            break;
+                        case INTEGER:
+                            cell.setCellValue(random.nextInt(1000000));
+                            break;
+                        case DECIMAL:
+                            cell.setCellValue(random.nextInt(100000000) / 100.0);
+                            break;
+                        case DATE:
+                            cell.setCellValue(43000 + random.nextInt(3650));
+                            break;
+                        case FORMULA:
+                            // the integer in the same row
+                            cell.setCellFormula(CellReference.convertNumToColString(j - 3) + (i + 1) + "*2");
+                            break;
+                        default:
+                            cell.setCellValue(random.nextBoolean());
+                    }
+                    cell.setCellStyle(styles[kind.ordinal()][random.nextInt(styleCount)]);
+                }
+                if ((i & 1) == 1) {
+                    for (int j = 0; j + 1 < columns; j += 2) {
+                        if (random.nextDouble() < mergedDensity) {
+                            sheet.addMergedRegion(new CellRangeAddress(i - 1, i, j, j + 1));
+                        }
+                    }
+                }
+            }
+            workbook.write(os);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private CellStyle[][] createStyles(Workbook workbook) {
+        DataFormat dataFormat = workbook.createDataFormat();
+        CellStyle[][] styles = new CellStyle[Kind.values().length][styleCount];
+        for (Kind kind : Kind.values()) {
+            for (int i = 0; i < styleCount; i++) {
+                CellStyle style = workbook.createCellStyle();
+                style.setDataFormat(dataFormat.getFormat(kind.format));
+                if (i > 0) {
+                    Font font = workbook.createFont();
+                    font.setBold((i & 1) == 1);
+                    font.setFontHeightInPoints((short) (10 + i % 8));
+                    style.setFont(font);
+                    style.setFillForegroundColor((short) (IndexedColors.BLACK.getIndex() + i % 56));
+                    style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                    style.setBorderBottom(BorderStyle.values()[i % BorderStyle.values().length]);
+                }
+                styles[kind.ordinal()][i] = style;
+            }
+        }
+        return styles;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: WorkbookGenerator file rows [columns sstCardinality mergedDensity styleCount seed]");
+            return;
+        }
+        WorkbookGenerator generator = new WorkbookGenerator().rows(Integer.parseInt(args[1]));
+        if (args.length > 2) {
+            generator.columns(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            generator.sstCardinality(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            generator.mergedDensity(Double.parseDouble(args[4]));
+        }
+        if (args.length > 5) {
+            generator.styleCount(Integer.parseInt(args[5]));
+        }
+        if (args.length > 6) {
+            generator.seed(Long.parseLong(args[6]));
+        }
+        generator.write(new File(args[0]));
+    }
+}
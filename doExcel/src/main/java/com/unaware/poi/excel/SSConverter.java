@@ -0,0 +1,733 @@
+package com.unaware.poi.excel;
+
+import com.unaware.poi.excel.exception.ParameterException;
+import com.unaware.poi.excel.exception.ReadException;
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.CellEvent;
+import com.unaware.poi.excel.streamreader.CellHandler;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.*;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Unaware
+ * @Description: write the data and style of .xls/.xlsx File into the .csv file, and optionally the data into a columnar file and JSON Lines
+ * @Title: SSConverter
+ * @ProjectName step1
+ * @date 2018/7/31 11:23
+ */
+public class SSConverter implements AutoCloseable {
+
+    /**
+     * the Excel file
+     */
+    private File file;
+
+    /**
+     * parse xls和xlsx
+     */
+    private Workbook workbook;
+
+    /**
+     * determine whether obtaining the style information
+     */
+    private boolean enableAvailableInfo = false;
+
+    /**
+     * determine whether parsing every sheet of .xlsx File in a single pass
+     */
+    private boolean singlePass = false;
+
+    /**
+     * determine whether writing the cells of .xlsx File into the .csv file as they are parsed, without creating the rows and the cells
+     */
+    private boolean directCsv = false;
+
+    /**
+     * the number of the sheets of .xlsx File which are converted at the same time, 1 represents one by one
+     */
+    private int parallelism = 1;
+
+    /**
+     * the executor to convert the sheets of .xlsx File, it's not shut down by this converter
+     */
+    private ExecutorService executor;
+
+    /**
+     * where the .csv files are written, the directory "src/test/resources/output" by default
+     */
+    private OutputSink outputSink = OutputSink.directory(new File("src/test/resources/output"));
+
+    /**
+     * where the columnar files of the values are written, null represents only writing the .csv files
+     */
+    private OutputSink columnarOutputSink;
+
+    /**
+     * where the JSON Lines of the values are written, null represents not writing them
+     */
+    private OutputSink jsonOutputSink;
+
+    /**
+     * the index of the header row of the JSON Lines, -1 represents the first row which has a value
+     */
+    private int jsonHeaderRow = -1;
+
+    /**
+     * the information of .csv file
+     */
+    private List<MixedFile> mixedFiles;
+
+    public void path(File file, int sstCacheSize, int rowCacheSize, int sheetIndex) throws Exception {
+        this.file = file;
+        this.workbook = StreamReader.builder().sstCacheSize(sstCacheSize).rowCacheSize(rowCacheSize).sheetIndex(sheetIndex).singlePass(singlePass).xmlScanner(directCsv)
+                .open(file);
+        this.mixedFiles = writeIntoCSV();
+        this.close();
+    }
+
+    /**
+     * use default parameters
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void path(File file) throws Exception {
+        this.file = file;
+        this.workbook = StreamReader.builder().singlePass(singlePass).xmlScanner(directCsv).open(file);
+        this.mixedFiles = writeIntoCSV();
+        this.close();
+    }
+
+    /**
+     * Filter line symbol "\r\n" and the quotes in cell data.
+     * Most of the values have none of them, and are returned as they are.
+     *
+     * @param cellValue
+     * @return
+     */
+    private static CharSequence filterCell(CharSequence cellValue) {
+        if (cellValue == null) {
+            return "";
+        }
+        int i = 0, length = cellValue.length();
+        while (i < length && !isFiltered(cellValue.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return cellValue;
+        }
+        StringBuilder filtered = new StringBuilder(length);
+        filtered.append(cellValue, 0, i);
+        for (; i < length; i++) {
+            char c = cellValue.charAt(i);
+            if (!isFiltered(c)) {
+                filtered.append(c);
+            }
+        }
+        return filtered;
+    }
+
+    private static boolean isFiltered(char c) {
+        return c == '\r' || c == '\n' || c == '"';
+    }
+
+
+    public File getFile() {
+        return file;
+    }
+
+
+    /**
+     * determine whether obtaining the style information
+     *
+     * @param enable true: obtain
+     */
+    public void enableAvailableInfo(boolean enable) {
+        enableAvailableInfo = enable;
+    }
+
+    /**
+     * determine whether parsing every sheet in a single pass.
+     * The merged regions of a sheet are only known after its last row in single pass,
+     * so the converted rows are spooled and written again if the sheet has merged regions.
+     *
+     * @param enable true: single pass
+     */
+    public void singlePass(boolean enable) {
+        singlePass = enable;
+    }
+
+    /**
+     * determine whether writing the cells of every sheet of .xlsx File into the .csv file as they are parsed, see {@link CellHandler}.
+     * The values are formatted into a reusable buffer by {@link CellValueFormatter} and encoded into the .csv file at once,
+     * instead of creating a row, a cell and a String for every value. The .csv file is the same either way.
+     * It only applies when the merged regions are known before the rows, and neither the columnar file nor the JSON Lines are written.
+     * The sheets are then parsed by {@link com.unaware.poi.excel.streamreader.SheetXmlScanner} from their bytes,
+     * see {@link StreamReader.Builder#xmlScanner(boolean)}.
+     *
+     * @param enable true: write the cells as they are parsed (defaults to false)
+     */
+    public void directCsv(boolean enable) {
+        directCsv = enable;
+    }
+
+    /**
+     * convert the sheets at the same time.
+     * Every sheet has its own stream and .csv files, and the shared strings and styles of the workbook are safe to be read concurrently.
+     * The .xls File opened as HSSFWorkbook, see {@link StreamReader.Builder#streamingXls(boolean)}, is always converted one sheet after another.
+     *
+     * @param parallelism the number of the sheets converted at the same time (defaults to 1, greater than 0)
+     */
+    public void parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new ParameterException("the parallelism must be greater than 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * convert the sheets in the executor, instead of creating a thread pool of the parallelism.
+     * The executor isn't shut down by this converter.
+     *
+     * @param executor null represents using the parallelism
+     */
+    public void executor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * write the .csv files into the sink, instead of the directory "src/test/resources/output"
+     *
+     * @param outputSink see {@link OutputSink#directory(File)}, {@link OutputSink#memory()} and {@link OutputSink#streams(OutputSink.StreamFactory)}
+     */
+    public void outputSink(OutputSink outputSink) {
+        if (outputSink == null) {
+            throw new ParameterException("the outputSink must not be null");
+        }
+        this.outputSink = outputSink;
+    }
+
+    /**
+     * also write the values of the cells into a columnar file for every sheet, see {@link ColumnarWriter},
+     * so they are loaded by {@link ColumnarReader} without parsing the .csv file
+     *
+     * @param columnarOutputSink like {@code OutputSink.directory(directory, ColumnarWriter.EXTENSION)}, null represents only writing the .csv files (defaults to null)
+     */
+    public void columnarOutputSink(OutputSink columnarOutputSink) {
+        this.columnarOutputSink = columnarOutputSink;
+    }
+
+    /**
+     * also write every row after the header row as a JSON object for every sheet, see {@link JsonLinesWriter},
+     * while the rows are converted, instead of converting the .csv file afterwards
+     *
+     * @param jsonOutputSink like {@code OutputSink.directory(directory, JsonLinesWriter.EXTENSION)}, null represents not writing them (defaults to null)
+     */
+    public void jsonOutputSink(OutputSink jsonOutputSink) {
+        this.jsonOutputSink = jsonOutputSink;
+    }
+
+    /**
+     * the header row of the JSON Lines, whose values are the names of the fields.
+     * The conversion of a sheet fails if the configured header row is blank, or is not among the converted rows
+     *
+     * @param jsonHeaderRow the index of the row (0-based), -1 represents the first row which has a value (defaults to -1)
+     */
+    public void jsonHeaderRow(int jsonHeaderRow) {
+        if (jsonHeaderRow < -1) {
+            throw new ParameterException("the header row must be -1 or an index of a row");
+        }
+        this.jsonHeaderRow = jsonHeaderRow;
+    }
+
+    /**
+     * Get the number of the sheet the beginning and the end
+     *
+     * @return
+     */
+    private int availableInfoRowNum() {
+        return 200;
+    }
+
+    /**
+     * get the value in top left corner and the merge area, and assign this value to every cell in the merged cell area.
+     *
+     * @param sheet
+     * @return
+     */
+    private List<MergedCell> handleMergedRegion(Sheet sheet) {
+        int numMergedRegions = sheet.getNumMergedRegions();
+        List<MergedCell> MergedCells = new ArrayList<>(numMergedRegions);
+        for (int i = 0; i < numMergedRegions; i++) {
+            CellRangeAddress cellRangeAddress = sheet.getMergedRegion(i);
+            MergedCells.add(new MergedCell(i, cellRangeAddress));
+        }
+        return MergedCells;
+    }
+
+    /**
+     * @return original file and available information of file
+     */
+    public List<MixedFile> getMixedFiles() {
+        return this.mixedFiles;
+    }
+
+    /**
+     * respectively write the contents of cells and style of cells into the .csv file
+     *
+     * @return original file and available information of file
+     */
+    private List<MixedFile> writeIntoCSV() {
+        int sheetNum = workbook.getNumberOfSheets();
+        if (sheetNum == 0) {
+            return new ArrayList<>(0);
+        }
+        List<Sheet> sheets = new ArrayList<>(sheetNum);
+        workbook.forEach(sheets::add);
+        if (workbook instanceof StreamWorkbook && sheets.size() > 1 && (executor != null || parallelism > 1)) {
+            return writeInParallel(sheets);
+        }
+        List<MixedFile> mixedFiles = new ArrayList<>(sheets.size());
+        sheets.forEach(sheet -> mixedFiles.add(writeSheet(sheet)));
+        return mixedFiles;
+    }
+
+    /**
+     * write the sheets at the same time, the results are kept in the order of the sheets
+     *
+     * @param sheets
+     * @return original file and available information of file
+     */
+    private List<MixedFile> writeInParallel(List<Sheet> sheets) {
+        ExecutorService service = executor != null ? executor : Executors.newFixedThreadPool(Math.min(parallelism, sheets.size()));
+        List<Future<MixedFile>> futures = new ArrayList<>(sheets.size());
+        try {
+            for (Sheet sheet : sheets) {
+                futures.add(service.submit(() -> writeSheet(sheet)));
+            }
+            List<MixedFile> mixedFiles = new ArrayList<>(sheets.size());
+            for (Future<MixedFile> future : futures) {
+                mixedFiles.add(future.get());
+            }
+            return mixedFiles;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReadException("Interrupted while converting the sheets", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ReadException("Unable to convert the sheets", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            if (service != executor) {
+                service.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * respectively write the contents of cells and style of cells of a sheet into the .csv file
+     *
+     * @param sheet
+     * @return original file and available information of the sheet
+     */
+    private MixedFile writeSheet(Sheet sheet) {
+        SheetOutput originalOutput = outputSink.newOutput(sheet.getSheetName(), false);
+        SheetOutput availableInfoOutput = outputSink.newOutput(sheet.getSheetName(), true);
+        SheetOutput columnarOutput = columnarOutputSink == null ? null : columnarOutputSink.newOutput(sheet.getSheetName(), false);
+        SheetOutput jsonOutput = jsonOutputSink == null ? null : jsonOutputSink.newOutput(sheet.getSheetName(), false);
+        int ltNum = availableInfoRowNum(), rtNum = sheet.getLastRowNum() - availableInfoRowNum();
+        rtNum = rtNum < ltNum ? Integer.MAX_VALUE : rtNum;
+        if (sheet instanceof StreamSheet && !((StreamSheet) sheet).isMergedRegionsLoaded()) {
+            writeSheetInSinglePass(sheet, originalOutput, availableInfoOutput, columnarOutput, jsonOutput, ltNum, rtNum);
+        } else {
+            // handle mergedCell
+            List<MergedCell> mergedCells = handleMergedRegion(sheet);
+            try (
+                    CsvWriter writerOriginal = CsvWriter.utf8(originalOutput);
+                    CsvWriter writerAvailableInfo = CsvWriter.utf8(availableInfoOutput);
+                    ColumnarWriter writerColumnar = columnarWriter(columnarOutput, sheet);
+                    JsonLinesWriter writerJson = jsonWriter(jsonOutput)) {
+                RowWriter rowWriter = new RowWriter(writerOriginal, writerAvailableInfo, writerColumnar, writerJson, MergedCellIndex.of(mergedCells), ltNum, rtNum);
+                if (!directCsv || writerColumnar != null || writerJson != null || !writeCells(sheet, rowWriter)) {
+                    sheet.forEach(row -> {
+                        rowWriter.startRow(row.getRowNum());
+                        row.forEach(c -> rowWriter.writeCell(c.getColumnIndex(), filterCell(DataUtil.getCellValue(c)), c.getCellStyle(), writerJson != null && isTyped(c)));
+                        rowWriter.endRow();
+                    });
+                }
+            } catch (IOException e) {
+                throw new ReadException("Unable to write the columnar file or the JSON Lines of sheet '" + sheet.getSheetName() + "'", e);
+            }
+            mergedCells.clear();
+        }
+        return new MixedFile(originalOutput, availableInfoOutput, columnarOutput, jsonOutput, sheet.getSheetName());
+    }
+
+    /**
+     * write the cells of the sheet as they are parsed
+     *
+     * @param sheet
+     * @param rowWriter
+     * @return false if the reader of the sheet doesn't report the cells as they are parsed, then nothing is written
+     */
+    private static boolean writeCells(Sheet sheet, RowWriter rowWriter) {
+        if (!(sheet instanceof StreamSheet)) {
+            return false;
+        }
+        CellValueFormatter formatter = new CellValueFormatter();
+        return ((StreamSheet) sheet).readCells(new CellHandler() {
+            @Override
+            public void startRow(int rowNum) {
+                rowWriter.startRow(rowNum);
+            }
+
+            @Override
+            public void cell(CellEvent cell) {
+                StyleInfo style = cell.getStyleInfo();
+                rowWriter.writeCell(cell.getColumnIndex(), filterCell(formatter.format(cell)), style == null ? null : style.getCellStyle(), false);
+            }
+
+            @Override
+            public void endRow() {
+                rowWriter.endRow();
+            }
+        });
+    }
+
+    /**
+     * @param output the output of the columnar file, null represents there is no columnar file
+     * @param sheet
+     * @return the writer of the columnar file, or null
+     * @throws IOException
+     */
+    private static ColumnarWriter columnarWriter(SheetOutput output, Sheet sheet) throws IOException {
+        return output == null ? null : ColumnarWriter.open(output, sheet.getSheetName());
+    }
+
+    /**
+     * @param output the output of the JSON Lines, null represents there are no JSON Lines
+     * @return the writer of the JSON Lines, or null
+     * @throws IOException
+     */
+    private JsonLinesWriter jsonWriter(SheetOutput output) throws IOException {
+        return output == null ? null : JsonLinesWriter.open(output, jsonHeaderRow);
+    }
+
+    /**
+     * @param cell
+     * @return whether the cell or the result of its formula is numeric or boolean, the dates are numeric as well
+     */
+    private static boolean isTyped(Cell cell) {
+        if (cell instanceof StreamCell) {
+            StreamCell.ValueKind kind = ((StreamCell) cell).getValueKind();
+            return kind == StreamCell.ValueKind.NUMBER || kind == StreamCell.ValueKind.DATE || kind == StreamCell.ValueKind.BOOLEAN;
+        }
+        CellType type = cell.getCellTypeEnum() == CellType.FORMULA ? cell.getCachedFormulaResultTypeEnum() : cell.getCellTypeEnum();
+        return type == CellType.NUMERIC || type == CellType.BOOLEAN;
+    }
+
+    /**
+     * The merged regions are unknown until the last row is read in single pass.
+     * Write the rows as if there were no merged regions, and spool the converted values at the same time.
+     * If the sheet turns out to have merged regions, write the sheet again from the spooled rows
+     * instead of parsing it for a second time.
+     * The outputs which can't be rewritten are only written from the spooled rows, once the merged regions are known.
+     *
+     * @param sheet
+     * @param originalOutput
+     * @param availableInfoOutput
+     * @param columnarOutput      null represents there is no columnar file
+     * @param jsonOutput          null represents there are no JSON Lines
+     * @param ltNum
+     * @param rtNum
+     */
+    private void writeSheetInSinglePass(Sheet sheet, SheetOutput originalOutput, SheetOutput availableInfoOutput, SheetOutput columnarOutput,
+                                        SheetOutput jsonOutput, int ltNum, int rtNum) {
+        boolean rewritable = originalOutput.isRewritable() && availableInfoOutput.isRewritable()
+                && (columnarOutput == null || columnarOutput.isRewritable()) && (jsonOutput == null || jsonOutput.isRewritable());
+        try (RowSpool spool = new RowSpool()) {
+            if (rewritable) {
+                try (
+                        CsvWriter writerOriginal = CsvWriter.utf8(originalOutput);
+                        CsvWriter writerAvailableInfo = CsvWriter.utf8(availableInfoOutput);
+                        ColumnarWriter writerColumnar = columnarWriter(columnarOutput, sheet);
+                        JsonLinesWriter writerJson = jsonWriter(jsonOutput)) {
+                    RowWriter rowWriter = new RowWriter(writerOriginal, writerAvailableInfo, writerColumnar, writerJson, MergedCellIndex.EMPTY, ltNum, rtNum);
+                    spoolRows(sheet, spool, rowWriter);
+                }
+            } else {
+                spoolRows(sheet, spool, null);
+            }
+            List<MergedCell> mergedCells = handleMergedRegion(sheet);
+            if (rewritable && mergedCells.isEmpty()) {
+                return;
+            }
+            try (
+                    CsvWriter writerOriginal = CsvWriter.utf8(originalOutput);
+                    CsvWriter writerAvailableInfo = CsvWriter.utf8(availableInfoOutput);
+                    ColumnarWriter writerColumnar = columnarWriter(columnarOutput, sheet);
+                    JsonLinesWriter writerJson = jsonWriter(jsonOutput)) {
+                RowWriter rowWriter = new RowWriter(writerOriginal, writerAvailableInfo, writerColumnar, writerJson, MergedCellIndex.of(mergedCells), ltNum, rtNum);
+                while (spool.nextRow()) {
+                    rowWriter.startRow(spool.getRowNum());
+                    for (int i = 0; i < spool.getCellCount(); i++) {
+                        int styleIndex = spool.getStyleIndex(i);
+                        rowWriter.writeCell(spool.getColumn(i), spool.getValue(i), styleIndex == -1 ? null : workbook.getCellStyleAt(styleIndex), spool.isTyped(i));
+                    }
+                    rowWriter.endRow();
+                }
+            }
+            mergedCells.clear();
+        } catch (IOException e) {
+            throw new ReadException("Unable to spool or write the rows of sheet '" + sheet.getSheetName() + "'", e);
+        }
+    }
+
+    /**
+     * spool the converted values of the sheet
+     *
+     * @param sheet
+     * @param spool
+     * @param rowWriter writes the rows at the same time as if there were no merged regions, null represents only spooling
+     */
+    private void spoolRows(Sheet sheet, RowSpool spool, RowWriter rowWriter) {
+        sheet.forEach(row -> {
+            if (rowWriter != null) {
+                rowWriter.startRow(row.getRowNum());
+            }
+            spool.startRow(row.getRowNum());
+            row.forEach(c -> {
+                String value = filterCell(DataUtil.getCellValue(c)).toString();
+                CellStyle style = c.getCellStyle();
+                boolean typed = jsonOutputSink != null && isTyped(c);
+                if (rowWriter != null) {
+                    rowWriter.writeCell(c.getColumnIndex(), value, style, typed);
+                }
+                spool.addCell(c.getColumnIndex(), value, style == null ? -1 : style.getIndex(), typed);
+            });
+            if (rowWriter != null) {
+                rowWriter.endRow();
+            }
+            spool.endRow();
+        });
+    }
+
+    /**
+     * write the values of cells row by row into the original .csv file,
+     * and write the style information of cells into the available information .csv file
+     */
+    private class RowWriter {
+        private final CsvWriter writerOriginal;
+        private final CsvWriter writerAvailableInfo;
+        /**
+         * null represents there is no columnar file
+         */
+        private final ColumnarWriter writerColumnar;
+        /**
+         * null represents there are no JSON Lines
+         */
+        private final JsonLinesWriter writerJson;
+        private final MergedCellIndex mergedCells;
+        private final int ltNum;
+        private final int rtNum;
+
+        private int rowNum;
+        private int col;
+        /**
+         * the number of the values of the current row
+         */
+        private int fields;
+        /**
+         * the values of the current row, the list is written and cleared for every row.
+         * null if only the .csv file is written, then the values are written into it one by one
+         */
+        private final List<String> originalData;
+        /**
+         * the values of the current row whose cells are numeric or boolean, for the JSON Lines
+         */
+        private final BitSet typedData = new BitSet();
+
+        RowWriter(CsvWriter writerOriginal, CsvWriter writerAvailableInfo, ColumnarWriter writerColumnar, JsonLinesWriter writerJson,
+                  MergedCellIndex mergedCells, int ltNum, int rtNum) {
+            this.writerOriginal = writerOriginal;
+            this.writerAvailableInfo = writerAvailableInfo;
+            this.writerColumnar = writerColumnar;
+            this.writerJson = writerJson;
+            this.mergedCells = mergedCells;
+            this.ltNum = ltNum;
+            this.rtNum = rtNum;
+            this.originalData = writerColumnar == null && writerJson == null ? null : new ArrayList<>(32);
+        }
+
+        void startRow(int rowNum) {
+            this.rowNum = rowNum;
+            this.col = 0;
+            this.fields = 0;
+            if (originalData != null) {
+                this.originalData.clear();
+            }
+            this.typedData.clear();
+        }
+
+        /**
+         * @param columnIndex the index of the cell
+         * @param value       the filtered value of the cell, it's only read during the call
+         * @param style       the style of the cell
+         * @param typed       whether the cell is numeric or boolean
+         */
+        void writeCell(int columnIndex, CharSequence value, CellStyle style, boolean typed) {
+            int mergedIndex = mergedCells.isMergedBegin(rowNum, col);
+            if (mergedIndex != -1) {
+                mergedCells.get(mergedIndex).setValue(value.toString());
+                mergedCells.get(mergedIndex).setTyped(typed);
+            }
+            // blank cell
+            while (fields < columnIndex) {
+                addValue("");
+                // As long as there is a combination of information, write its style information
+                if (enableAvailableInfo && (rowNum < ltNum || rowNum > rtNum)) {
+                    Map<OutputField, Object> map = AvailableInfoUtils.initDefault(rowNum, col);
+                    if (AvailableInfoUtils.fillingIndexAndMergeInfo(map, rowNum, col, mergedCells)) {
+                        writerAvailableInfo.write(AvailableInfoUtils.toList(map));
+                    }
+                }
+                col++;
+            }
+            mergedIndex = mergedCells.getMergedIndex(rowNum, col);
+            if (mergedIndex == -1 ? typed : mergedCells.get(mergedIndex).isTyped()) {
+                typedData.set(fields);
+            }
+            addValue(mergedIndex == -1 ? value : mergedCells.get(mergedIndex).getValue());
+            col = columnIndex;
+            // write the style information into .csv file
+            if (enableAvailableInfo && (rowNum < ltNum || rowNum > rtNum)) {
+                Map<OutputField, Object> map;
+                if (style != null) {
+                    map = AvailableInfoUtils.initStyle(style);
+                    Font font = workbook.getFontAt(style.getFontIndex());
+                    AvailableInfoUtils.initFont(map, font);
+                } else {
+                    map = AvailableInfoUtils.initDefault(rowNum, col);
+                }
+                // As long as it's a merged cell or it has the style , write its style information
+                if (AvailableInfoUtils.fillingIndexAndMergeInfo(map, rowNum, col, mergedCells) || style != null) {
+                    writerAvailableInfo.write(AvailableInfoUtils.toList(map));
+                }
+            }
+            col++;
+        }
+
+        /**
+         * @param value the value of the next column of the current row
+         */
+        private void addValue(CharSequence value) {
+            if (originalData == null) {
+                writerOriginal.writeField(value);
+            } else {
+                originalData.add(value.toString());
+            }
+            fields++;
+        }
+
+        void endRow() {
+            if (originalData == null) {
+                writerOriginal.endRecord();
+                return;
+            }
+            writerOriginal.write(originalData);
+            if (writerColumnar != null) {
+                try {
+                    writerColumnar.write(originalData);
+                } catch (IOException e) {
+                    throw new ReadException("Unable to write the columnar file", e);
+                }
+            }
+            if (writerJson != null) {
+                try {
+                    writerJson.write(rowNum, originalData, typedData);
+                } catch (IOException e) {
+                    throw new ReadException("Unable to write the JSON Lines", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes this resource, relinquishing any underlying resources.
+     * This method is invoked automatically on objects managed by the
+     * {@code try}-with-resources statement.
+     * <p>
+     * <p>While this interface method is declared to throw {@code
+     * exception}, implementers are <em>strongly</em> encouraged to
+     * declare concrete implementations of the {@code close} method to
+     * throw more specific exceptions, or to throw no exception at all
+     * if the close operation cannot fail.
+     * <p>
+     * <p> Cases where the close operation may fail require careful
+     * attention by implementers. It is strongly advised to relinquish
+     * the underlying resources and to internally <em>mark</em> the
+     * resource as closed, prior to throwing the exception. The {@code
+     * close} method is unlikely to be invoked more than once and so
+     * this ensures that the resources are released in a timely manner.
+     * Furthermore it reduces problems that could arise when the resource
+     * wraps, or is wrapped, by another resource.
+     * <p>
+     * <p><em>Implementers of this interface are also strongly advised
+     * to not have the {@code close} method throw {@link
+     * InterruptedException}.</em>
+     * <p>
+     * This exception interacts with a thread's interrupted status,
+     * and runtime misbehavior is likely to occur if an {@code
+     * InterruptedException} is {@linkplain Throwable#addSuppressed
+     * suppressed}.
+     * <p>
+     * More generally, if it would cause problems for an
+     * exception to be suppressed, the {@code AutoCloseable.close}
+     * method should not throw it.
+     * <p>
+     * <p>Note that unlike the {@link Closeable#close close}
+     * method of {@link Closeable}, this {@code close} method
+     * is <em>not</em> required to be idempotent.  In other words,
+     * calling this {@code close} method more than once may have some
+     * visible side effect, unlike {@code Closeable.close} which is
+     * required to have no effect if called more than once.
+     * <p>
+     * However, implementers of this interface are strongly encouraged
+     * to make their {@code close} methods idempotent.
+     *
+     * @throws Exception if this resource cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        if (workbook != null) {
+            workbook.close();
+            workbook = null;
+        }
+    }
+}
@@ -47,7 +47,8 @@ public class SpecialExcelConverter {
         Elements trs = doc.getElementsByTag("tr");
         //得到列宽集合
         Elements colgroups = doc.getElementsByTag("colgroup");
-        File file1 = new File("src\\test\\resources\\output\\" + DataUtil.getUUID() + ".xls");
+        // 临时文件, 写完后覆盖源文件
+        File file1 = Files.createTempFile(DataUtil.getUUID(), ".xls").toFile();
         WritableWorkbook book = Workbook.createWorkbook(file1);
         WritableSheet sheet = book.createSheet("sheet1", 0);
         setColWidth(colgroups, sheet);
@@ -2,6 +2,7 @@ package com.unaware.poi.excel;
 
 import com.unaware.poi.excel.exception.ReadException;
 import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
 import org.apache.poi.hssf.record.RecordInputStream;
 import org.apache.poi.poifs.filesystem.NotOLE2FileException;
 import org.slf4j.Logger;
@@ -62,4 +63,21 @@ public class UploadExcel {
             return ssConverter.getMixedFiles();
         }
     }
+
+    /**
+     * process Excel file and write its data into the sink, such as the streams of an upload
+     * use default parameters
+     *
+     * @param file       文件
+     * @param outputSink 输出
+     * @return 文件信息
+     */
+    public List<MixedFile> analyzeExcelFile(File file, OutputSink outputSink) throws Exception {
+        try (SSConverter ssConverter = new SSConverter()) {
+            ssConverter.enableAvailableInfo(true);
+            ssConverter.outputSink(outputSink);
+            ssConverter.path(file, -1, 10, -1);
+            return ssConverter.getMixedFiles();
+        }
+    }
 }
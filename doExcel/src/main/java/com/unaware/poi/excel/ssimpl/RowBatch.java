@@ -0,0 +1,241 @@
+package com.unaware.poi.excel.ssimpl;
+
+import com.unaware.poi.excel.exception.ParameterException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * @author Unaware
+ * @Description: A batch of the rows of a sheet in columns, for the consumers which load the values column by column.
+ *                 Every column keeps the values of the rows in primitive arrays: the kind of the value, the number of
+ *                 the numeric, date and boolean values, the key of the strings in the dictionary, and a bitmap of the cells which have a value.
+ *                 The strings of the SharedString table are keyed by their index in it, the other strings, like the inline strings,
+ *                 the string results of the formulas and the errors, by negative keys which are only valid in this batch.
+ *                 A batch is filled by {@link StreamSheet#batchIterator(int)}, and refilled by the next call of the iterator.
+ * @Title: RowBatch
+ * @ProjectName doExcel
+ * @date 2026/10/18 01:10
+ */
+public class RowBatch {
+    private static final StreamCell.ValueKind[] KINDS = StreamCell.ValueKind.values();
+
+    private final int capacity;
+    private final int[] rowNums;
+    private int size;
+    private Column[] columns = new Column[0];
+    /**
+     * the number of the columns, the index of the last column which has a value in this batch plus 1
+     */
+    private int numColumns;
+    /**
+     * look up the strings of the SharedString table by their index
+     */
+    private final IntFunction<String> sharedStrings;
+    /**
+     * the strings which are not in the SharedString table, the key -1 is the first one
+     */
+    private final List<String> localStrings = new ArrayList<>();
+
+    /**
+     * @param capacity      the maximum number of the rows of the batch
+     * @param sharedStrings look up the strings of the SharedString table by their index
+     */
+    public RowBatch(int capacity, IntFunction<String> sharedStrings) {
+        if (capacity <= 0) {
+            throw new ParameterException("the size of a batch must be greater than 0");
+        }
+        this.capacity = capacity;
+        this.rowNums = new int[capacity];
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * clear this batch to be refilled
+     */
+    public void clear() {
+        for (int i = 0; i < numColumns; i++) {
+            if (columns[i] != null) {
+                columns[i].clear(size);
+            }
+        }
+        size = 0;
+        numColumns = 0;
+        localStrings.clear();
+    }
+
+    /**
+     * copy the values of a row into this batch, the row can be recycled afterwards
+     *
+     * @param row
+     * @throws IllegalStateException if the batch is full
+     */
+    public void add(Row row) {
+        if (isFull()) {
+            throw new IllegalStateException("the batch is full");
+        }
+        int pos = size++;
+        rowNums[pos] = row.getRowNum();
+        for (Cell cell : row) {
+            StreamCell.ValueKind kind = ((StreamCell) cell).getValueKind();
+            if (kind == StreamCell.ValueKind.BLANK) {
+                continue;
+            }
+            Column column = column(cell.getColumnIndex());
+            column.kinds[pos] = (byte) kind.ordinal();
+            column.present[pos >>> 6] |= 1L << pos;
+            switch (kind) {
+                case NUMBER:
+                case DATE:
+                    // a formula is kept as its result
+                    column.numbers[pos] = cell.getNumericCellValue();
+                    break;
+                case BOOLEAN:
+                    column.numbers[pos] = cell.getBooleanCellValue() ? 1 : 0;
+                    break;
+                default:
+                    int index = ((StreamCell) cell).getSharedStringIndex();
+                    column.strings[pos] = index >= 0 ? index : localKey(cell.getStringCellValue());
+            }
+        }
+    }
+
+    private Column column(int index) {
+        if (index >= columns.length) {
+            columns = Arrays.copyOf(columns, Math.max(index + 1, columns.length << 1));
+        }
+        if (columns[index] == null) {
+            columns[index] = new Column(capacity);
+        }
+        numColumns = Math.max(numColumns, index + 1);
+        return columns[index];
+    }
+
+    private int localKey(String value) {
+        localStrings.add(value);
+        return -localStrings.size();
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * @return the number of the rows of this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of the columns, the index of the last column which has a value in this batch plus 1
+     */
+    public int getNumColumns() {
+        return numColumns;
+    }
+
+    /**
+     * @param row the position of the row in this batch
+     * @return the index of the row in the sheet
+     */
+    public int getRowNum(int row) {
+        return rowNums[row];
+    }
+
+    /**
+     * @return the indexes of the rows in the sheet, only the first {@link #size()} are valid
+     */
+    public int[] getRowNums() {
+        return rowNums;
+    }
+
+    /**
+     * @param column the index of the column
+     * @return the column, or null if none of the rows of this batch has a value in it
+     */
+    public Column getColumn(int column) {
+        return column < numColumns ? columns[column] : null;
+    }
+
+    /**
+     * @param key the key of a string in a column of this batch
+     * @return the string
+     */
+    public String getString(int key) {
+        return key >= 0 ? sharedStrings.apply(key) : localStrings.get(-key - 1);
+    }
+
+    /**
+     * The values of a column of a batch, the position of a value is the position of its row in the batch.
+     * Only the values of the rows which are not null are valid.
+     */
+    public static final class Column {
+        private final byte[] kinds;
+        private final double[] numbers;
+        private final int[] strings;
+        private final long[] present;
+
+        private Column(int capacity) {
+            this.kinds = new byte[capacity];
+            this.numbers = new double[capacity];
+            this.strings = new int[capacity];
+            this.present = new long[(capacity + 63) >>> 6];
+        }
+
+        private void clear(int size) {
+            Arrays.fill(present, 0, (size + 63) >>> 6, 0L);
+        }
+
+        /**
+         * @param row the position of the row in the batch
+         * @return whether the cell is missing or blank
+         */
+        public boolean isNull(int row) {
+            return (present[row >>> 6] & (1L << row)) == 0;
+        }
+
+        /**
+         * @param row the position of the row in the batch
+         * @return the kind of the value, BLANK if it is null
+         */
+        public StreamCell.ValueKind getKind(int row) {
+            return isNull(row) ? StreamCell.ValueKind.BLANK : KINDS[kinds[row]];
+        }
+
+        /**
+         * @return the bitmap of the rows which have a value, the bit (row &amp; 63) of the word (row &gt;&gt;&gt; 6)
+         */
+        public long[] getPresent() {
+            return present;
+        }
+
+        /**
+         * @return the ordinals of the {@link StreamCell.ValueKind} of the values
+         */
+        public byte[] getKinds() {
+            return kinds;
+        }
+
+        /**
+         * @return the values of the kinds NUMBER and DATE (the serial number of Excel) and BOOLEAN (1 or 0)
+         */
+        public double[] getNumbers() {
+            return numbers;
+        }
+
+        /**
+         * @return the keys of the values of the kinds STRING and ERROR, see {@link RowBatch#getString(int)}
+         */
+        public int[] getStrings() {
+            return strings;
+        }
+    }
+}
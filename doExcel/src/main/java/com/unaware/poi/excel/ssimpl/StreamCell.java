@@ -1,7 +1,11 @@
 package com.unaware.poi.excel.ssimpl;
 
 import com.unaware.poi.excel.exception.NotSupportedException;
+import com.unaware.poi.excel.util.CompiledFormat;
 import com.unaware.poi.excel.util.DataUtil;
+import com.unaware.poi.excel.util.DecimalUtils;
+import com.unaware.poi.excel.util.StringPool;
+import com.unaware.poi.excel.util.StyleInfo;
 import org.apache.poi.hssf.usermodel.HSSFDateUtil;
 import org.apache.poi.ss.formula.FormulaParseException;
 import org.apache.poi.ss.usermodel.*;
@@ -10,10 +14,9 @@ import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.regex.Pattern;
 
 import static org.apache.poi.ss.usermodel.CellType.*;
 
@@ -32,27 +35,84 @@ public class StreamCell implements Cell {
     private static final String FALSE_AS_STRING = "0";
     private static final String TRUE_AS_STRING = "1";
 
-    private final int colIndex;
-    private final int rowIndex;
+    /**
+     * the kinds of the values of the cells, see {@link #getValueKind()}
+     */
+    public enum ValueKind {BLANK, NUMBER, DATE, STRING, BOOLEAN, ERROR}
+
+    private int colIndex;
+    private int rowIndex;
     private final boolean use1904Dates;
 
     private String formula;
     private String cachedFormulaResultType;
     private Row row;
-    private CellStyle cellStyle;
 
     /**
-     * The type of the cell data
+     * the styles of the workbook, and the index of the style of this cell, -1 represents there is no style
+     */
+    private final StreamStyles styles;
+    private int styleIndex = -1;
+    /**
+     * the pool of the values shared by the cells of the workbook, or null
+     */
+    private final StringPool stringPool;
+
+    /**
+     * The type of the cell data, and its CellType which is decided once, null if the type is not supported
      */
     private String type;
-    private String numericFormat;
-    private Short numericFormatIndex;
+    private CellType cellType;
     private String rawContents;
+    /**
+     * the index of the string in the SharedString table, -1 if the contents are not a shared string
+     */
+    private int sharedStringIndex = -1;
+    /**
+     * the numeric value of rawContents, it's parsed once when it's needed, NaN represents the contents are not a number
+     */
+    private double numericValue;
+    private boolean numericParsed;
+    /**
+     * the kind of the value, it's decided once when it's needed
+     */
+    private ValueKind valueKind;
 
     public StreamCell(int colIndex, int rowIndex, boolean use1904Dates) {
+        this(colIndex, rowIndex, use1904Dates, null);
+    }
+
+    public StreamCell(int colIndex, int rowIndex, boolean use1904Dates, StreamStyles styles) {
+        this(colIndex, rowIndex, use1904Dates, styles, null);
+    }
+
+    public StreamCell(int colIndex, int rowIndex, boolean use1904Dates, StreamStyles styles, StringPool stringPool) {
         this.colIndex = colIndex;
         this.rowIndex = rowIndex;
         this.use1904Dates = use1904Dates;
+        this.styles = styles;
+        this.stringPool = stringPool;
+    }
+
+    /**
+     * clear this cell to be used for another cell
+     *
+     * @param colIndex
+     * @param rowIndex
+     */
+    public void reset(int colIndex, int rowIndex) {
+        this.colIndex = colIndex;
+        this.rowIndex = rowIndex;
+        this.formula = null;
+        this.cachedFormulaResultType = null;
+        this.row = null;
+        this.styleIndex = -1;
+        this.type = null;
+        this.cellType = null;
+        this.rawContents = null;
+        this.sharedStringIndex = -1;
+        this.numericParsed = false;
+        this.valueKind = null;
     }
 
     @Override
@@ -106,7 +166,19 @@ public class StreamCell implements Cell {
      * @param type
      * @return
      */
-    private  CellType judgeType(String type) {
+    private static CellType judgeType(String type) {
+        CellType cellType = typeOf(type);
+        if (cellType == null) {
+            throw new UnsupportedOperationException("Unsupported cell type '" + type + "'");
+        }
+        return cellType;
+    }
+
+    /**
+     * @param type
+     * @return the CellType of the type, null if it's not supported
+     */
+    private static CellType typeOf(String type) {
         switch (type) {
             case "n":
                 return CellType.NUMERIC;
@@ -120,7 +192,7 @@ public class StreamCell implements Cell {
             case "e":
                 return CellType.ERROR;
             default:
-                throw new UnsupportedOperationException("Unsupported cell type '" + type + "'");
+                return null;
         }
     }
 
@@ -128,8 +200,11 @@ public class StreamCell implements Cell {
     public CellType getCellTypeEnum() {
         if (rawContents == null || rawContents.length() == 0 || type == null) {
             return CellType.BLANK;
-        } else {
+        } else if (cellType == null) {
+            // throw the exception of the unsupported type
             return judgeType(type);
+        } else {
+            return cellType;
         }
     }
 
@@ -210,14 +285,89 @@ public class StreamCell implements Cell {
                 if(rawContents == null || rawContents.isEmpty()) {
                     return 0.0;
                 }
+                double value = numericValue();
+                if (Double.isNaN(value)) {
+                    throw typeMismatch("NUMERIC", CellType.STRING.name(), false);
+                }
+                return value;
+            default:
+                throw typeMismatch("NUMERIC", getCellTypeEnum().name(), false);
+        }
+    }
+
+    /**
+     * the plain decimals are parsed by {@link DecimalUtils}, the others by BigDecimal, which gives the same value.
+     * The contents which are not numbers are known by their syntax, so no exception is thrown and caught for them.
+     *
+     * @return the value of the contents, NaN if they are not a number
+     */
+    private double numericValue() {
+        if (!numericParsed) {
+            double value = DecimalUtils.parse(rawContents);
+            if (Double.isNaN(value) && DecimalUtils.isDecimal(rawContents)) {
                 try {
-                    BigDecimal bd = new BigDecimal(rawContents);
-                    return bd.doubleValue();
+                    value = new BigDecimal(rawContents).doubleValue();
                 } catch(NumberFormatException e) {
-                        throw typeMismatch("NUMERIC", CellType.STRING.name(), false);
+                    // the exponent is out of range
+                }
+            }
+            numericValue = value;
+            numericParsed = true;
+        }
+        return numericValue;
+    }
+
+    /**
+     * The kind of the value is decided once from the type, the contents and the style of the cell:
+     * BLANK for the blank cells, DATE for the numeric cells of a date format, NUMBER for the other numeric cells
+     * and the formula cells whose result is a number, otherwise STRING, BOOLEAN or ERROR by the type of the cell or its result.
+     *
+     * @return the kind of the value
+     */
+    public ValueKind getValueKind() {
+        if (valueKind == null) {
+            valueKind = valueKindOf();
+        }
+        return valueKind;
+    }
+
+    private ValueKind valueKindOf() {
+        switch (getCellTypeEnum()) {
+            case BLANK:
+                return ValueKind.BLANK;
+            case NUMERIC:
+                return isDate() ? ValueKind.DATE : ValueKind.NUMBER;
+            case FORMULA:
+                if (!Double.isNaN(numericValue())) {
+                    return ValueKind.NUMBER;
+                } else if ("b".equals(cachedFormulaResultType)) {
+                    return ValueKind.BOOLEAN;
+                } else if ("e".equals(cachedFormulaResultType)) {
+                    return ValueKind.ERROR;
                 }
+                return ValueKind.STRING;
+            case BOOLEAN:
+                return ValueKind.BOOLEAN;
+            case ERROR:
+                return ValueKind.ERROR;
             default:
-                throw typeMismatch("NUMERIC", getCellTypeEnum().name(), false);
+                return ValueKind.STRING;
+        }
+    }
+
+    /**
+     * @return whether the numeric value is written as a date or a time by {@link #getStringCellValue()}
+     */
+    private boolean isDate() {
+        StyleInfo style = getStyleInfo();
+        if (style == null) {
+            return false;
+        }
+        switch (style.getFormatIndex()) {
+            case 14: case 20: case 30: case 31: case 32: case 33: case 55: case 56: case 57: case 58:
+                return true;
+            default:
+                return DataUtil.isDateFormat(this);
         }
     }
 
@@ -284,28 +434,22 @@ public class StreamCell implements Cell {
               yyyy"年"m"月": dataFormat=57,dataFormatString=null
               m"月"d"日": dataFormat=58,dataFormatString=reserved-0x1C
              */
-            Date d;
-            short dfIndex = this.getCellStyle().getDataFormat();
-            if (dfIndex == 31 || dfIndex ==14 || dfIndex == 30) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue(), use1904Dates);
-                return new SimpleDateFormat("yyyy-MM-dd").format(d);
-            } else if (dfIndex == 55 || dfIndex == 32 || dfIndex == 20) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue(), use1904Dates);
-                return new SimpleDateFormat("HH:mm").format(d);
-            } else if (dfIndex == 56 || dfIndex ==33) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue(), use1904Dates);
-                return new SimpleDateFormat("HH:mm:ss").format(d);
-            } else if (dfIndex == 57) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue(), use1904Dates);
-                return new SimpleDateFormat("yyyy-MM").format(d);
-            } else if (dfIndex == 58) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue(), use1904Dates);
-                return new SimpleDateFormat("MM-dd").format(d);
-            }
-            //Check if a cell contains a date
-            if (DataUtil.isDateFormat(this)) {
-                d = HSSFDateUtil.getJavaDate(this.getNumericCellValue());
-                return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(d);
+            if (getValueKind() == ValueKind.DATE) {
+                switch (this.getStyleInfo().getFormatIndex()) {
+                    case 14: case 30: case 31:
+                        return formatDate(CompiledFormat.DATE_FORMATTER, use1904Dates);
+                    case 20: case 32: case 55:
+                        return formatDate(CompiledFormat.HOUR_MINUTE_FORMATTER, use1904Dates);
+                    case 33: case 56:
+                        return formatDate(CompiledFormat.TIME_FORMATTER, use1904Dates);
+                    case 57:
+                        return formatDate(CompiledFormat.YEAR_MONTH_FORMATTER, use1904Dates);
+                    case 58:
+                        return formatDate(CompiledFormat.MONTH_DAY_FORMATTER, use1904Dates);
+                    default:
+                        // the other date formats
+                        return formatDate(CompiledFormat.DATE_TIME_FORMATTER, false);
+                }
             }
             //return NUMERIC
             return String.valueOf(this.getNumericCellValue());
@@ -317,6 +461,15 @@ public class StreamCell implements Cell {
         return rawContents == null ? "" : rawContents;
     }
 
+    /**
+     * @param formatter
+     * @param date1904
+     * @return the numeric value written as a date
+     */
+    private String formatDate(DateTimeFormatter formatter, boolean date1904) {
+        return DataUtil.formatDate(formatter, HSSFDateUtil.getJavaDate(getNumericCellValue(), date1904));
+    }
+
     @Override
     public void setCellValue(boolean b) {
         throw new NotSupportedException();
@@ -334,10 +487,9 @@ public class StreamCell implements Cell {
             case BLANK:
                 return false;
             case BOOLEAN:
-                return TRUE_AS_STRING.equals(getStringCellValue());
             case FORMULA:
                 //YK: should throw an exception if requesting boolean value from a non-boolean formula
-                return TRUE_AS_STRING.equals(getStringCellValue());
+                return TRUE_AS_STRING.equals(rawContents);
             default:
                 throw typeMismatch("BOOLEAN", cellType.name(), false);
         }
@@ -361,14 +513,60 @@ public class StreamCell implements Cell {
     }
 
     /**
-     *  determine whether a string is numeric using a regular expression
+     * determine whether a string is numeric, it's the same as matching the regular expressions
+     * "^-?[1-9]\\d*$" (an integer) or "^[-+]?([1-9]\\d*\\.\\d*|0\\.\\d*[1-9]\\d*|0?\\.0+|0)$" (a decimal)
      * @param str
      * @return
      */
-    private static boolean isNumber(String str) {
-        boolean isInt = Pattern.compile("^-?[1-9]\\d*$").matcher(str).find();
-        boolean isDouble = Pattern.compile("^[-+]?([1-9]\\d*\\.\\d*|0\\.\\d*[1-9]\\d*|0?\\.0+|0)$").matcher(str).find();
-        return isInt || isDouble;
+    static boolean isNumber(String str) {
+        int end = str.length();
+        // "$" also matches before a line terminator at the end
+        if (end > 0) {
+            char last = str.charAt(end - 1);
+            if (last == '\n') {
+                end -= end > 1 && str.charAt(end - 2) == '\r' ? 2 : 1;
+            } else if (last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+                end--;
+            }
+        }
+        int i = 0;
+        char sign = end > 0 ? str.charAt(0) : 0;
+        if (sign == '-' || sign == '+') {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        char first = str.charAt(i);
+        if (first >= '1' && first <= '9') {
+            int j = skipDigits(str, i + 1, end);
+            if (j == end) {
+                // an integer, the decimal needs a point
+                return sign != '+';
+            }
+            return str.charAt(j) == '.' && skipDigits(str, j + 1, end) == end;
+        } else if (first == '0') {
+            if (i + 1 == end) {
+                return true;
+            }
+            // "0." and one digit at least
+            return str.charAt(i + 1) == '.' && i + 2 < end && skipDigits(str, i + 2, end) == end;
+        } else if (first == '.') {
+            // ".0+"
+            int j = i + 1;
+            while (j < end && str.charAt(j) == '0') {
+                j++;
+            }
+            return j > i + 1 && j == end;
+        }
+        return false;
+    }
+
+    private static int skipDigits(String str, int from, int end) {
+        while (from < end && str.charAt(from) >= '0' && str.charAt(from) <= '9') {
+            from++;
+        }
+        return from;
     }
 
     /**
@@ -383,14 +581,47 @@ public class StreamCell implements Cell {
         return new IllegalStateException(msg);
     }
 
+    /**
+     * only the styles of the workbook which this cell belongs to are supported
+     *
+     * @param cellStyle
+     */
     @Override
     public void setCellStyle(CellStyle cellStyle) {
-        this.cellStyle = cellStyle;
+        if (styles == null) {
+            throw new NotSupportedException();
+        }
+        this.styleIndex = cellStyle == null ? -1 : cellStyle.getIndex() & 0xFFFF;
+        this.valueKind = null;
     }
 
     @Override
     public CellStyle getCellStyle() {
-        return this.cellStyle;
+        StyleInfo style = getStyleInfo();
+        return style == null ? null : style.getCellStyle();
+    }
+
+    /**
+     * @return the pool of the values shared by the cells of the workbook, null if the values are not pooled
+     */
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * @return the classified style of this cell, null if there is no style
+     */
+    public StyleInfo getStyleInfo() {
+        return styles == null ? null : styles.get(styleIndex);
+    }
+
+    public int getStyleIndex() {
+        return styleIndex;
+    }
+
+    public void setStyleIndex(int styleIndex) {
+        this.styleIndex = styleIndex;
+        this.valueKind = null;
     }
 
     @Override
@@ -448,23 +679,37 @@ public class StreamCell implements Cell {
     }
 
     public String getNumericFormat() {
-        return this.numericFormat;
+        StyleInfo style = getStyleInfo();
+        return style == null ? null : style.getNumericFormat();
     }
 
     public Short getNumericFormatIndex() {
-        return this.numericFormatIndex;
+        StyleInfo style = getStyleInfo();
+        return style == null ? null : style.getFormatIndex();
     }
 
-    public void setNumericFormatIndex(Short dataFormat) {
-        this.numericFormatIndex = dataFormat;
-    }
-
-    public void setNumericFormat(String formatString) {
-        this.numericFormat = formatString;
+    /**
+     * @return the contents as they are read from the sheet, with no formatting applied. A shared string is the string of the SharedString table
+     */
+    public String getRawContents() {
+        return rawContents;
     }
 
     public void setRawContents(String contents) {
         this.rawContents = contents;
+        this.numericParsed = false;
+        this.valueKind = null;
+    }
+
+    /**
+     * @return the index of the string in the SharedString table, -1 if the contents are not a shared string
+     */
+    public int getSharedStringIndex() {
+        return sharedStringIndex;
+    }
+
+    public void setSharedStringIndex(int sharedStringIndex) {
+        this.sharedStringIndex = sharedStringIndex;
     }
 
     public void setType(String value) {
@@ -473,6 +718,8 @@ public class StreamCell implements Cell {
             cachedFormulaResultType = this.type;
         }
         this.type = value;
+        this.cellType = value == null ? null : typeOf(value);
+        this.valueKind = null;
     }
 
     public void setFormula(String formula) {
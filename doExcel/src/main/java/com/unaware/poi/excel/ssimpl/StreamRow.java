@@ -0,0 +1,320 @@
+package com.unaware.poi.excel.ssimpl;
+
+import com.unaware.poi.excel.exception.NotSupportedException;
+import org.apache.poi.ss.usermodel.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * @author Unaware
+ * @Title: StreamRow
+ * @ProjectName excel
+ * @Description: High level representation of a row of a spreadsheet.
+ *                It's based on org.apache.poi.ss.usermodel.Row, override the methods of poi. Therefore you could use this like poi.
+ *                There is only part of the reading method implemented
+ *                The cells are kept in a primitive array of column indexes and a parallel array of cells, both sorted by the column index.
+ *                The cells arrive in column order from the sheet, so adding a cell is an append in general.
+ * @date 2018/7/12 15:22
+ */
+public class StreamRow implements Row {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int rowIndex;
+    private int[] columns;
+    private Cell[] cells;
+    private int size;
+    /**
+     * the cells of the previous use of this row, which can be recycled
+     */
+    private StreamCell[] spareCells;
+    private int spareSize;
+
+    public StreamRow(int rowIndex) {
+        this.rowIndex = rowIndex;
+        this.columns = new int[INITIAL_CAPACITY];
+        this.cells = new Cell[INITIAL_CAPACITY];
+    }
+
+    /**
+     * the cells of this row by their column index.
+     * The map is built on every call, changing it doesn't change this row, see {@link #addCell(Cell)} and {@link #removeCell(Cell)}.
+     *
+     * @return
+     * @deprecated the cells are no longer kept in a map, use {@link #getCell(int)} or {@link #cellIterator()} instead
+     */
+    @Deprecated
+    public TreeMap<Integer, Cell> getCellMap() {
+        TreeMap<Integer, Cell> cellMap = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            cellMap.put(columns[i], cells[i]);
+        }
+        return cellMap;
+    }
+
+    /**
+     * add a cell to this row, a cell which has the same column index is replaced
+     *
+     * @param cell
+     */
+    public void addCell(Cell cell) {
+        int column = cell.getColumnIndex();
+        if (size == 0 || columns[size - 1] < column) {
+            ensureCapacity();
+            columns[size] = column;
+            cells[size++] = cell;
+            return;
+        }
+        int pos = indexOf(column);
+        if (pos >= 0) {
+            cells[pos] = cell;
+            return;
+        }
+        pos = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(columns, pos, columns, pos + 1, size - pos);
+        System.arraycopy(cells, pos, cells, pos + 1, size - pos);
+        columns[pos] = column;
+        cells[pos] = cell;
+        size++;
+    }
+
+    /**
+     * clear this row to be used for another row, its cells are kept to be recycled by {@link #recycleCell()}
+     *
+     * @param rowIndex
+     */
+    public void reset(int rowIndex) {
+        this.rowIndex = rowIndex;
+        if (spareCells == null || spareCells.length < cells.length) {
+            spareCells = new StreamCell[cells.length];
+        }
+        spareSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (cells[i] instanceof StreamCell) {
+                spareCells[spareSize++] = (StreamCell) cells[i];
+            }
+            cells[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return a cell of the previous use of this row, or null if there is no more
+     */
+    public StreamCell recycleCell() {
+        if (spareSize == 0) {
+            return null;
+        }
+        StreamCell cell = spareCells[--spareSize];
+        spareCells[spareSize] = null;
+        return cell;
+    }
+
+    private void ensureCapacity() {
+        if (size == columns.length) {
+            columns = Arrays.copyOf(columns, size << 1);
+            cells = Arrays.copyOf(cells, size << 1);
+        }
+    }
+
+    /**
+     * look up the position of a column index.
+     * If the cells of this row are contiguous, the position is computed directly.
+     *
+     * @param column
+     * @return the position of the column index, or (-(insertion point) - 1) if it does not exist
+     */
+    private int indexOf(int column) {
+        if (size == 0) {
+            return -1;
+        }
+        int pos = column - columns[0];
+        if (pos >= 0 && pos < size && columns[pos] == column) {
+            return pos;
+        }
+        return Arrays.binarySearch(columns, 0, size, column);
+    }
+
+    @Override
+    public Cell createCell(int i) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param i
+     * @param i1
+     * @deprecated
+     */
+    @Override
+    public Cell createCell(int i, int i1) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Cell createCell(int i, CellType cellType) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * remove the cell from this row, nothing happens if the cell is not one of this row
+     *
+     * @param cell
+     */
+    @Override
+    public void removeCell(Cell cell) {
+        int pos = indexOf(cell.getColumnIndex());
+        if (pos < 0 || cells[pos] != cell) {
+            return;
+        }
+        size--;
+        System.arraycopy(columns, pos + 1, columns, pos, size - pos);
+        System.arraycopy(cells, pos + 1, cells, pos, size - pos);
+        cells[size] = null;
+    }
+
+    @Override
+    public void setRowNum(int i) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Get row number this row represents
+     * @return the row number (0 based)
+     */
+    @Override
+    public int getRowNum() {
+        return this.rowIndex;
+    }
+
+    @Override
+    public Cell getCell(int i) {
+        int pos = indexOf(i);
+        return pos < 0 ? null : this.cells[pos];
+    }
+
+    @Override
+    public Cell getCell(int i, MissingCellPolicy missingCellPolicy) {
+        StreamCell cell = (StreamCell)this.getCell(i);
+        if (missingCellPolicy == MissingCellPolicy.CREATE_NULL_AS_BLANK) {
+            if (cell == null) {
+                return new StreamCell(i, this.rowIndex, false);
+            }
+        }else if (missingCellPolicy == MissingCellPolicy.RETURN_BLANK_AS_NULL) {
+                if(cell == null || cell.getCellTypeEnum() == CellType.BLANK) {
+                    return null;
+                }
+        }
+        return cell;
+    }
+
+    @Override
+    public short getFirstCellNum() {
+        if(this.size == 0){
+            return  -1;
+        }
+        return (short) this.columns[0];
+    }
+
+    @Override
+    public short getLastCellNum() {
+        return (short) (this.size == 0?-1:this.cells[size - 1].getColumnIndex() + 1);
+    }
+
+    @Override
+    public int getPhysicalNumberOfCells() {
+        return size;
+    }
+
+    @Override
+    public void setHeight(short i) {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public void setZeroHeight(boolean b) {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public boolean getZeroHeight() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public void setHeightInPoints(float v) {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public short getHeight() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public float getHeightInPoints() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public boolean isFormatted() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public CellStyle getRowStyle() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public void setRowStyle(CellStyle cellStyle) {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public Iterator<Cell> cellIterator() {
+        return new CellIterator();
+    }
+
+    @Override
+    public Sheet getSheet() {
+        throw new NotSupportedException();
+    }
+
+    @Override
+    public int getOutlineLevel() {
+        throw new NotSupportedException();
+    }
+
+    /**
+     * Returns an iterator over elements of type {@code T}.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<Cell> iterator() {
+        return new CellIterator();
+    }
+
+    /**
+     * iterate the cells in the order of their column index
+     */
+    private class CellIterator implements Iterator<Cell> {
+        private int pos;
+
+        @Override
+        public boolean hasNext() {
+            return pos < size;
+        }
+
+        @Override
+        public Cell next() {
+            if (pos >= size) {
+                throw new NoSuchElementException();
+            }
+            return cells[pos++];
+        }
+    }
+}
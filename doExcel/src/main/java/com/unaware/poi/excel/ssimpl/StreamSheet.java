@@ -1,6 +1,7 @@
 package com.unaware.poi.excel.ssimpl;
 
-import com.unaware.poi.excel.streamreader.SheetReader;
+import com.unaware.poi.excel.streamreader.AbstractSheetReader;
+import com.unaware.poi.excel.streamreader.CellHandler;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.ss.util.CellRangeAddress;
@@ -25,14 +26,14 @@ import java.util.Map;
  */
 public class StreamSheet implements Sheet {
     private final String name;
-    private final SheetReader sheetReader;
+    private final AbstractSheetReader sheetReader;
 
     /**
      * constructor
      * @param name
      * @param sheetReader
      */
-    public StreamSheet(String name, SheetReader sheetReader) {
+    public StreamSheet(String name, AbstractSheetReader sheetReader) {
         this.name = name;
         this.sheetReader = sheetReader;
     }
@@ -197,6 +198,16 @@ public class StreamSheet implements Sheet {
         return sheetReader.getMergedRegions();
     }
 
+    /**
+     * whether all the merged regions of this sheet are known.
+     * When the sheet is parsed in a single pass, the merged regions are only known after the last row has been read.
+     *
+     * @return
+     */
+    public boolean isMergedRegionsLoaded() {
+        return sheetReader.isMergedRegionsLoaded();
+    }
+
     @Override
     public Iterator<Row> rowIterator() {
         return sheetReader.iterator();
@@ -632,7 +643,29 @@ public class StreamSheet implements Sheet {
         return sheetReader.iterator();
     }
 
-    public SheetReader getReader() {
+    /**
+     * read the rows in batches of columns, see {@link AbstractSheetReader#batchIterator(int)}.
+     * Don't read the rows by {@link #rowIterator()} at the same time.
+     *
+     * @param batchSize the maximum number of the rows of a batch
+     * @return the iterator of the batches, it returns the same batch refilled every time
+     */
+    public Iterator<RowBatch> batchIterator(int batchSize) {
+        return sheetReader.batchIterator(batchSize);
+    }
+
+    /**
+     * hand the cells to the handler as they are parsed, see {@link AbstractSheetReader#readCells(CellHandler)}.
+     * Don't read the rows by {@link #rowIterator()} at the same time.
+     *
+     * @param handler
+     * @return false if the reader of this sheet doesn't report the cells as they are parsed, then nothing is read
+     */
+    public boolean readCells(CellHandler handler) {
+        return sheetReader.readCells(handler);
+    }
+
+    public AbstractSheetReader getReader() {
         return sheetReader;
     }
 }
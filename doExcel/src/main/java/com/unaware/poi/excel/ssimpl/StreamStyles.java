@@ -0,0 +1,71 @@
+package com.unaware.poi.excel.ssimpl;
+
+import com.unaware.poi.excel.util.StyleInfo;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import java.util.List;
+
+/**
+ * @author Unaware
+ * @Description: The cell styles of a workbook, indexed by the attribute "s" of the cells in .xlsx, or the XF index of the cells in .xls.
+ *                 Every style is resolved and classified once when the workbook is opened,
+ *                 so a cell only keeps the index of its style, see {@link StreamCell#getStyleInfo()}.
+ *                 It's not modified after it is created, so the sheets of a workbook can share it.
+ * @Title: StreamStyles
+ * @ProjectName doExcel
+ * @date 2026/10/17 14:25
+ */
+public class StreamStyles {
+    private static final StyleInfo[] EMPTY = new StyleInfo[0];
+
+    private final StyleInfo[] styles;
+
+    /**
+     * @param stylesSource the styles table of the workbook, it may be null if the workbook has no styles
+     */
+    public StreamStyles(StylesTable stylesSource) {
+        if (stylesSource == null) {
+            this.styles = EMPTY;
+            return;
+        }
+        this.styles = new StyleInfo[stylesSource.getNumCellStyles()];
+        for (int i = 0; i < styles.length; i++) {
+            XSSFCellStyle style = stylesSource.getStyleAt(i);
+            styles[i] = style == null ? null : StyleInfo.of(style);
+        }
+    }
+
+    /**
+     * @param cellStyles the cell styles of the workbook in the order of their indexes
+     */
+    public StreamStyles(List<? extends CellStyle> cellStyles) {
+        this.styles = new StyleInfo[cellStyles.size()];
+        for (int i = 0; i < styles.length; i++) {
+            CellStyle style = cellStyles.get(i);
+            styles[i] = style == null ? null : StyleInfo.of(style);
+        }
+    }
+
+    /**
+     * @param index the index of the style
+     * @return the classified style, null if there is no style at the index
+     */
+    public StyleInfo get(int index) {
+        return index >= 0 && index < styles.length ? styles[index] : null;
+    }
+
+    /**
+     * @param index the index of the style
+     * @return the style, null if there is no style at the index
+     */
+    public CellStyle getCellStyle(int index) {
+        StyleInfo style = get(index);
+        return style == null ? null : style.getCellStyle();
+    }
+
+    public int size() {
+        return styles.length;
+    }
+}
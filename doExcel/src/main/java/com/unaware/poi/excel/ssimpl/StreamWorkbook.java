@@ -1,12 +1,10 @@
 package com.unaware.poi.excel.ssimpl;
 
 import com.unaware.poi.excel.exception.MissingSheetException;
-import com.unaware.poi.excel.streamreader.WorkbookReader;
+import com.unaware.poi.excel.streamreader.AbstractWorkbookReader;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.udf.UDFFinder;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFont;
 
 import java.io.OutputStream;
 import java.util.Iterator;
@@ -22,13 +20,13 @@ import java.util.List;
  * @date 2018/7/12 15:18
  */
 public class StreamWorkbook implements Workbook, AutoCloseable {
-    private  final WorkbookReader workbookReader;
+    private  final AbstractWorkbookReader workbookReader;
 
     /**
      * constructor
      * @param workbookReader
      */
-    public StreamWorkbook(WorkbookReader workbookReader) {
+    public StreamWorkbook(AbstractWorkbookReader workbookReader) {
         this.workbookReader = workbookReader;
     }
 
@@ -137,9 +135,7 @@ public class StreamWorkbook implements Workbook, AutoCloseable {
      */
     @Override
     public Font createFont() {
-        XSSFFont font = new XSSFFont(CTFont.Factory.newInstance());
-        font.registerTo(workbookReader.getStylesSource());
-        return font;
+        return workbookReader.createFont();
     }
 
     @Override
@@ -149,16 +145,12 @@ public class StreamWorkbook implements Workbook, AutoCloseable {
 
     @Override
     public short getNumberOfFonts() {
-        return (short) workbookReader.getStylesSource().getFonts().size();
+        return workbookReader.getNumberOfFonts();
     }
 
     @Override
     public Font getFontAt(short i) {
-        if(i < 0 || i >= workbookReader.getStylesSource().getFonts().size()){
-            return null;
-        } else {
-            return workbookReader.getStylesSource().getFonts().get(i);
-        }
+        return workbookReader.getFontAt(i);
     }
 
     @Override
@@ -168,12 +160,12 @@ public class StreamWorkbook implements Workbook, AutoCloseable {
 
     @Override
     public int getNumCellStyles() {
-        return workbookReader.getStylesSource().getNumCellStyles();
+        return workbookReader.getStyles().size();
     }
 
     @Override
     public CellStyle getCellStyleAt(int i) {
-        return workbookReader.getStylesSource().getStyleAt(i);
+        return workbookReader.getStyles().getCellStyle(i);
     }
 
     @Override
@@ -0,0 +1,268 @@
+package com.unaware.poi.excel.sstimpl;
+
+import com.unaware.poi.excel.exception.ParseException;
+import com.unaware.poi.excel.streamreader.SheetXmlScanner;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
+
+import javax.xml.stream.XMLStreamConstants;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Unaware
+ * @Description: A SharedString table which is read on demand.
+ *                 The part is only inflated as far as the entries which have been looked up, and its bytes are copied into a file on the way.
+ *                 Nothing is decoded while the part is scanned, only the bounds of every {@code <si>} element are kept in a primitive long[].
+ *                 An entry is decoded from its bytes the first time it is looked up, and up to cacheSize decoded strings are kept in memory.
+ *                 Both the part and the entries are read by {@link SheetXmlScanner}, like the sheets.
+ *                 So the first rows of a sheet are read without waiting for the whole table, whatever its size is.
+ *                 Only a table encoded in UTF-8 is read on demand, see {@link #getSharedStringTable(File, int, OPCPackage)}.
+ * @Title: LazySST
+ * @ProjectName doExcel
+ * @date 2026/10/17 21:30
+ */
+public class LazySST extends SharedStringsTable implements StringTable, AutoCloseable {
+    private static final String PART = "SharedString table";
+
+    private final SheetXmlScanner scanner;
+    private final RandomAccessFile raFile;
+    private final FileChannel channel;
+    private final Map<Integer, String> cache;
+    private boolean eof;
+
+    /**
+     * the offset of the start and the offset behind the end of every entry which has been scanned
+     */
+    private long[] bounds = new long[2048];
+    private int size;
+
+    private LazySST(PackagePart part, File file, final int cacheSize) throws IOException {
+        this.raFile = new RandomAccessFile(file, "rw");
+        this.raFile.setLength(0);
+        this.channel = raFile.getChannel();
+        this.scanner = new SheetXmlScanner(new CopyingInputStream(part.getInputStream()), PART);
+        this.cache = new LinkedHashMap<Integer, String>(cacheSize > 0 ? Math.max(cacheSize, 16) : 1024, 0.75f, true) {
+            @Override
+            public boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return cacheSize > 0 && size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @param file         the file to hold the bytes of the part, its content will be overwritten
+     * @param sstCacheSize the number of decoded strings to keep in memory, -1 keeps all of them
+     * @param opCpkg
+     * @return the table, or null if there is no SharedString table or it's not encoded in UTF-8
+     * @throws IOException
+     */
+    public static LazySST getSharedStringTable(File file, int sstCacheSize, OPCPackage opCpkg) throws IOException {
+        List<PackagePart> parts = opCpkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        return parts.size() == 0 || !isUtf8(parts.get(0)) ? null : new LazySST(parts.get(0), file, sstCacheSize);
+    }
+
+    /**
+     * @param part
+     * @return whether the part is encoded in UTF-8, by its byte order mark and its XML declaration
+     * @throws IOException
+     */
+    private static boolean isUtf8(PackagePart part) throws IOException {
+        byte[] head = new byte[128];
+        int length = 0;
+        try (InputStream is = part.getInputStream()) {
+            int n;
+            while (length < head.length && (n = is.read(head, length, head.length - length)) > 0) {
+                length += n;
+            }
+        }
+        if (length >= 2 && ((head[0] & 0xFF) == 0xFE || (head[0] & 0xFF) == 0xFF || head[0] == 0 || head[1] == 0)) {
+            // UTF-16 or UTF-32
+            return false;
+        }
+        String declaration = new String(head, 0, length, StandardCharsets.ISO_8859_1);
+        int end = declaration.indexOf("?>");
+        int encoding = declaration.indexOf("encoding");
+        if (!declaration.startsWith("<?xml", declaration.startsWith("\u00EF\u00BB\u00BF") ? 3 : 0) || end == -1 || encoding == -1 || encoding > end) {
+            return true;
+        }
+        String value = declaration.substring(encoding + 8, end).replaceAll("[\\s=\"']", " ").trim();
+        return value.toUpperCase().startsWith("UTF-8") || value.toUpperCase().startsWith("UTF8");
+    }
+
+    @Override
+    public CTRst getEntryAt(int idx) {
+        String result = getStringAt(idx);
+        return result.isEmpty() ? StreamCTRst.EMPTY : new StreamCTRst(result);
+    }
+
+    @Override
+    public synchronized String getStringAt(int idx) {
+        try {
+            while (idx >= size && scanEntry()) {
+                // the part is scanned up to the entry
+            }
+            if (idx < 0 || idx >= size) {
+                throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + size);
+            }
+            String result = cache.get(idx);
+            if (result == null && !cache.containsKey(idx)) {
+                result = decode(read(bounds[2 * idx], bounds[2 * idx + 1]));
+                cache.put(idx, result);
+            }
+            return result != null ? result : "";
+        } catch (IOException e) {
+            throw new ParseException("Error reading the SharedString table", e);
+        }
+    }
+
+    /**
+     * the whole part is scanned to count the entries
+     *
+     * @return
+     */
+    @Override
+    public synchronized int getUniqueCount() {
+        try {
+            while (scanEntry()) {
+                // the part is scanned up to its end
+            }
+        } catch (IOException e) {
+            throw new ParseException("Error reading the SharedString table", e);
+        }
+        return size;
+    }
+
+    /**
+     * scan the part up to the end of the next entry, without decoding anything
+     *
+     * @return whether an entry has been scanned, false at the end of the part
+     * @throws IOException
+     */
+    private boolean scanEntry() throws IOException {
+        if (!eof && scanner.nextStartElement("si")) {
+            long start = scanner.getMarkupOffset();
+            if (scanner.skipElement() == XMLStreamConstants.END_ELEMENT) {
+                if (2 * size + 2 > bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length << 1);
+                }
+                bounds[2 * size] = start;
+                bounds[2 * size + 1] = scanner.getOffset();
+                size++;
+                return true;
+            }
+        }
+        if (!eof) {
+            eof = true;
+            scanner.close();
+        }
+        return false;
+    }
+
+    /**
+     * read the bytes of an entry back from the file, the part has been copied into it up to the end of the entry
+     *
+     * @param start
+     * @param end
+     * @return
+     * @throws IOException
+     */
+    private byte[] read(long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        ByteBuffer dst = ByteBuffer.wrap(bytes);
+        while (dst.hasRemaining()) {
+            if (channel.read(dst, start + dst.position()) < 0) {
+                throw new IOException("Unexpected end of the SharedString table at " + (start + dst.position()));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * decode a {@code <si>} String Item like {@link StreamSST}: returns just the text and drops the formatting and the phonetic runs
+     *
+     * @param bytes the bytes of the element
+     * @return the text, null if it's empty
+     * @throws IOException
+     */
+    private static String decode(byte[] bytes) throws IOException {
+        SheetXmlScanner item = new SheetXmlScanner(bytes, PART);
+        StringBuilder sb = new StringBuilder();
+        boolean text = false;
+        int phonetic = 0;
+        for (int event; (event = item.next()) != XMLStreamConstants.END_DOCUMENT; ) {
+            if (event == XMLStreamConstants.CHARACTERS) {
+                if (text && phonetic == 0) {
+                    sb.append(item.getText());
+                }
+            } else if (item.isLocalName("t")) {
+                text = event == XMLStreamConstants.START_ELEMENT;
+            } else if (item.isLocalName("rPh") || item.isLocalName("phoneticPr")) {
+                phonetic += event == XMLStreamConstants.START_ELEMENT ? 1 : -1;
+            }
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    /**
+     * close the part and the file
+     *
+     * @throws IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        cache.clear();
+        try {
+            scanner.close();
+        } finally {
+            raFile.close();
+        }
+    }
+
+    /**
+     * the stream of the part, which appends the bytes to the file as they are inflated.
+     * The entries are read back from the file
+     */
+    private final class CopyingInputStream extends FilterInputStream {
+        CopyingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) <= 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                ByteBuffer bytes = ByteBuffer.wrap(b, off, n);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] b = new byte[(int) Math.min(n, 8192)];
+            return Math.max(read(b, 0, b.length), 0);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.unaware.poi.excel.sstimpl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Unaware
+ * @Description: A compact binary store for the strings of the SharedString table.
+ *                 Every entry is written as a length-prefixed UTF-8 record, the offsets are kept in a primitive long[].
+ *                 After all entries are written, call {@link #seal()} and the file is mapped into memory,
+ *                 so a cache miss is served from a {@link MappedByteBuffer} instead of a FileChannel read.
+ *                 The file is mapped in segments of {@link #SEGMENT_SIZE} bytes, and a record never crosses a segment,
+ *                 which keeps workbooks whose table is larger than 2GB readable.
+ * @Title: MappedStringList
+ * @ProjectName excel
+ * @date 2026/10/17 10:12
+ */
+public class MappedStringList implements AutoCloseable {
+    /**
+     * the length of a null entry
+     */
+    private static final int NULL_LENGTH = -1;
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final RandomAccessFile raFile;
+    private final FileChannel channel;
+    private final Map<Integer, String> cache;
+
+    private ByteBuffer writeBuffer;
+    private MappedByteBuffer[] segments;
+    private long[] offsets;
+    private int size;
+    private long fileSize;
+
+    /**
+     * @param file      the file to hold the records, its content will be overwritten
+     * @param cacheSize the number of decoded strings to keep in memory
+     * @throws IOException
+     */
+    public MappedStringList(File file, final int cacheSize) throws IOException {
+        this.raFile = new RandomAccessFile(file, "rw");
+        this.raFile.setLength(0);
+        this.channel = raFile.getChannel();
+        this.writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        this.offsets = new long[1024];
+        this.cache = new LinkedHashMap<Integer, String>(Math.max(cacheSize, 16), 0.75f, true) {
+            @Override
+            public boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * append a string to the end of this list
+     *
+     * @param value the string, null is allowed
+     */
+    public void add(String value) {
+        if (segments != null) {
+            throw new IllegalStateException("The list has been sealed");
+        }
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        int recordSize = 4 + (bytes == null ? 0 : bytes.length);
+        if (recordSize > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The string is too large: " + recordSize + " bytes");
+        }
+        try {
+            // a record never crosses the boundary of a segment
+            long remaining = SEGMENT_SIZE - fileSize % SEGMENT_SIZE;
+            if (recordSize > remaining) {
+                pad(remaining);
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size << 1);
+            }
+            offsets[size++] = fileSize;
+            ensureWritable(4);
+            writeBuffer.putInt(bytes == null ? NULL_LENGTH : bytes.length);
+            if (bytes != null) {
+                if (bytes.length > writeBuffer.remaining()) {
+                    flush();
+                }
+                if (bytes.length > writeBuffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(bytes));
+                } else {
+                    writeBuffer.put(bytes);
+                }
+            }
+            fileSize += recordSize;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * finish writing and map the file into memory.
+     * No more string can be added after this.
+     */
+    public void seal() {
+        if (segments != null) {
+            return;
+        }
+        try {
+            flush();
+            writeBuffer = null;
+            int count = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, fileSize - position));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param index the index of the entry
+     * @return the string at the index, it may be null
+     */
+    public synchronized String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (segments == null) {
+            seal();
+        }
+        String val = cache.get(index);
+        if (val == null && !cache.containsKey(index)) {
+            val = read(offsets[index]);
+            cache.put(index, val);
+        }
+        return val;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private String read(long offset) {
+        MappedByteBuffer segment = segments[(int) (offset / SEGMENT_SIZE)];
+        int position = (int) (offset % SEGMENT_SIZE);
+        int length = segment.getInt(position);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = segment.duplicate();
+        view.position(position + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void pad(long length) throws IOException {
+        while (length > 0) {
+            ensureWritable(1);
+            int n = (int) Math.min(length, writeBuffer.remaining());
+            writeBuffer.position(writeBuffer.position() + n);
+            length -= n;
+            fileSize += n;
+        }
+    }
+
+    private void ensureWritable(int length) throws IOException {
+        if (writeBuffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Closes this resource, relinquishing any underlying resources.
+     * The mapped segments are released when they are garbage collected.
+     *
+     * @throws IOException if this resource cannot be closed
+     * @see Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        segments = null;
+        cache.clear();
+        raFile.close();
+    }
+}
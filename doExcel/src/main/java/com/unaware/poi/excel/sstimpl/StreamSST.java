@@ -23,12 +23,13 @@ import java.util.List;
  * @ProjectName excel
  * @date 2018/7/13 13:46
  */
-public class StreamSST extends SharedStringsTable implements AutoCloseable {
-    private final FileBackedList<StreamCTRst> list;
+public class StreamSST extends SharedStringsTable implements StringTable, AutoCloseable {
+    private final MappedStringList list;
 
     private StreamSST(PackagePart part, File file, int cacheSize) throws IOException {
-        this.list = new FileBackedList<>(StreamCTRst.class, file, cacheSize);
+        this.list = new MappedStringList(file, cacheSize);
         readFrom(part.getInputStream());
+        this.list.seal();
     }
 
     public static StreamSST getSharedStringTable(File file, int sstCacheSize, OPCPackage opCpkg) throws IOException {
@@ -64,7 +65,7 @@ public class StreamSST extends SharedStringsTable implements AutoCloseable {
      * Parses a {@code <si>} String Item. Returns just the text and drops the formatting.
      * See <a href="https://msdn.microsoft.com/en-us/library/documentformat.openxml.spreadsheet.sharedstringitem.aspx">xmlschema type {@code CT_Rst}</a>.
      */
-    private StreamCTRst parseCT_Rst(XMLEventReader xmlEventReader) throws XMLStreamException {
+    private String parseCT_Rst(XMLEventReader xmlEventReader) throws XMLStreamException {
         // Precondition: pointing to <si>;  Post condition: pointing to </si>
         StringBuilder buf = new StringBuilder();
         XMLEvent xmlEvent;
@@ -84,7 +85,7 @@ public class StreamSST extends SharedStringsTable implements AutoCloseable {
                     throw new IllegalArgumentException(xmlEvent.asStartElement().getName().getLocalPart());
             }
         }
-        return buf.length() > 0 ? new StreamCTRst(buf.toString()) : null;
+        return buf.length() > 0 ? buf.toString() : null;
     }
 
     /**
@@ -120,9 +121,21 @@ public class StreamSST extends SharedStringsTable implements AutoCloseable {
         }
     }
 
+    @Override
     public CTRst getEntryAt(int idx) {
-        CTRst result = list.getAt(idx);
-        return result != null ? result : StreamCTRst.EMPTY;
+        String result = list.get(idx);
+        return result != null ? new StreamCTRst(result) : StreamCTRst.EMPTY;
+    }
+
+    @Override
+    public String getStringAt(int idx) {
+        String result = list.get(idx);
+        return result != null ? result : "";
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return list.size();
     }
 
 
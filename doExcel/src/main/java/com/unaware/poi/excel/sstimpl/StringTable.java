@@ -0,0 +1,20 @@
+package com.unaware.poi.excel.sstimpl;
+
+/**
+ * @author Unaware
+ * @Description: A SharedString table which hands out the text of its entries as they are stored,
+ *                 without wrapping every entry looked up into a new CTRst.
+ *                 It is shared by the sheets which are read in parallel, so it keeps no state per lookup.
+ * @Title: StringTable
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:20
+ */
+public interface StringTable {
+
+    /**
+     * @param idx
+     * @return the text of the entry at the index, "" for an empty entry.
+     *         The escaped characters like "_x000D_" are not decoded.
+     */
+    String getStringAt(int idx);
+}
@@ -0,0 +1,384 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.ssimpl.RowBatch;
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamRow;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.util.StringPool;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * @author Unaware
+ * @Description: The part of a sheet reader which does not depend on the format of the file.
+ *                 The rows are read into the rowCache up to rowCacheSize at a time, and handed out by the iterator.
+ *                 A subclass reads the records of its format one by one, and puts a row into the rowCache once it is complete,
+ *                 see {@link SheetReader} for .xlsx and {@link XlsSheetReader} for .xls.
+ * @Title: AbstractSheetReader
+ * @ProjectName doExcel
+ * @date 2026/10/17 17:20
+ */
+public abstract class AbstractSheetReader implements Iterable<Row>, AutoCloseable {
+    protected final StreamStyles styles;
+    protected final List<CellRangeAddress> mergedRegions = new ArrayList<>();
+    protected final List<Double> colWidth = new ArrayList<>();
+    protected final List<Row> rowCache = new ArrayList<>();
+    protected final int rowCacheSize;
+    protected final boolean use1904Dates;
+    /**
+     * the indexes of the columns which are read, null represents all the columns
+     */
+    protected final BitSet columns;
+    /**
+     * the range of the rows which are read, both are 0-based and inclusive
+     */
+    protected final int fromRow;
+    protected final int toRow;
+    /**
+     * the pool of the values of the cells shared by the sheets of the workbook, null represents the values are not pooled
+     */
+    protected final StringPool stringPool;
+
+    private Iterator<Row> rowCacheIterator;
+    /**
+     * the rows which are recycled when reuseRows is enabled or the rows are read in batches.
+     * A row returns to the pool when the iterator hands out the row after it, see {@link StreamRowIterator#next()},
+     * so refilling the rowCache in hasNext() never recycles the row which has been handed out last.
+     */
+    private StreamRow[] rowPool;
+    private int pooledRows;
+    /**
+     * the row which has been handed out last by the iterator, when the rows are recycled
+     */
+    private StreamRow lastRow;
+
+    protected int numMergedRegions = 0;
+    /**
+     * whether all the merged regions of this sheet are known
+     */
+    protected boolean mergedRegionsLoaded = false;
+    /**
+     * whether the sheet has been closed once the parser passed the toRow, before the end of the sheet
+     */
+    protected boolean stopped = false;
+    protected int firstRowNum;
+    protected int lastRowNum;
+    protected StreamRow currentRow;
+
+    /**
+     * constructor
+     * @param styles       the classified styles of the workbook
+     * @param use1904Dates
+     * @param rowCacheSize
+     * @param reuseRows    whether to recycle the rows and their cells once the iterator is advanced
+     * @param columns      the indexes of the columns which are read, the other cells are skipped. null represents all the columns
+     * @param fromRow      the index of the first row which is read, the rows before it are skipped
+     * @param toRow        the index of the last row which is read, the rest of the sheet is not read
+     * @param stringPool   the pool of the values of the cells, null represents the values are not pooled
+     */
+    protected AbstractSheetReader(StreamStyles styles, boolean use1904Dates, int rowCacheSize, boolean reuseRows, BitSet columns,
+                                  int fromRow, int toRow, StringPool stringPool) {
+        this.styles = styles;
+        this.use1904Dates = use1904Dates;
+        this.rowCacheSize = rowCacheSize;
+        this.rowPool = reuseRows ? new StreamRow[rowCacheSize + 1] : null;
+        this.columns = columns;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+        this.stringPool = stringPool;
+    }
+
+    /**
+     * @return whether there are records of the sheet left to read
+     */
+    protected abstract boolean hasMoreRecords();
+
+    /**
+     * read the next record of the sheet, and put the current row into the rowCache once it is complete
+     */
+    protected abstract void readNextRecord();
+
+    /**
+     * release the streams of the sheet
+     *
+     * @throws Exception
+     */
+    protected abstract void closeSource() throws Exception;
+
+    /**
+     * @param index the index of the string in the SharedString table
+     * @return the string, read from the SharedString table
+     */
+    protected abstract String sharedStringAt(int index);
+
+    /**
+     * obtain the merged regions in advance, when they are asked for the first time.
+     * The sheet readers which scan the sheet in advance override it, so the scan is skipped if they are never asked for,
+     * like a preview of the first rows.
+     */
+    protected void loadMergedRegions() {
+    }
+
+    /**
+     * @Description: read through a number of rows equal to the rowCacheSize
+     *                 Or until there is no more data to read
+     * @return boolean
+     */
+    private boolean getRow() {
+        rowCache.clear();
+        while (rowCache.size() < rowCacheSize && hasMoreRecords()) {
+            readNextRecord();
+        }
+        if (!hasMoreRecords() && !stopped) {
+            mergedRegionsLoaded = true;
+        }
+        rowCacheIterator = rowCache.iterator();
+        return rowCacheIterator.hasNext();
+    }
+
+    /**
+     * @param colIndex
+     * @return whether the cells of the column are read
+     */
+    protected boolean isSelected(int colIndex) {
+        return columns == null || columns.get(colIndex);
+    }
+
+    /**
+     * @param rowIndex
+     * @return whether the row is before the range of the rows which are read
+     */
+    protected boolean isBeforeRows(int rowIndex) {
+        return rowIndex < fromRow;
+    }
+
+    /**
+     * @param rowIndex
+     * @return whether the row is behind the range of the rows which are read
+     */
+    protected boolean isAfterRows(int rowIndex) {
+        return rowIndex > toRow;
+    }
+
+    /**
+     * create a row, or recycle a row of the pool which the iterator has moved past.
+     * At most rowCacheSize + 1 rows are created when the rows are recycled: those of the rowCache and the one handed out last.
+     *
+     * @param rowIndex
+     * @return
+     */
+    protected StreamRow newRow(int rowIndex) {
+        if (rowPool == null || pooledRows == 0) {
+            return new StreamRow(rowIndex);
+        }
+        StreamRow row = rowPool[--pooledRows];
+        rowPool[pooledRows] = null;
+        row.reset(rowIndex);
+        return row;
+    }
+
+    /**
+     * create a cell, or recycle a cell of the current row
+     *
+     * @param colIndex
+     * @param rowIndex
+     * @return
+     */
+    protected StreamCell newCell(int colIndex, int rowIndex) {
+        StreamCell cell = rowPool == null || currentRow == null ? null : currentRow.recycleCell();
+        if (cell == null) {
+            return new StreamCell(colIndex, rowIndex, use1904Dates, styles, stringPool);
+        }
+        cell.reset(colIndex, rowIndex);
+        return cell;
+    }
+
+    /**
+     * @param index  the index of the string in the SharedString table
+     * @param loader read the string from the SharedString table
+     * @return the string, which is shared by the cells of the same index if the values are pooled
+     */
+    protected String sharedString(int index, IntFunction<String> loader) {
+        return stringPool == null ? loader.apply(index) : stringPool.sharedString(index, loader);
+    }
+
+    /**
+     * @param chars the contents of a cell
+     * @return the string, which is shared by the cells of the same contents if the values are pooled
+     */
+    protected String contentsOf(CharSequence chars) {
+        return stringPool == null ? chars.toString() : stringPool.intern(chars);
+    }
+
+    /**
+     * return all the merged regions of this sheet.
+     * In single pass, only the merged regions which have been parsed are returned,
+     * see {@link #isMergedRegionsLoaded()}
+     *
+     * @return
+     */
+    public List<CellRangeAddress> getMergedRegions() {
+        loadMergedRegions();
+        return mergedRegions;
+    }
+
+    /**
+     * return the number of all merged regions
+     *
+     * @return
+     */
+    public int getNumMergedRegions() {
+        loadMergedRegions();
+        return numMergedRegions;
+    }
+
+    /**
+     * whether all the merged regions of this sheet are known.
+     * It is always true unless the sheet is parsed in a single pass,
+     * in which case it becomes true once the parser passes the merged regions at the end of the sheet,
+     * and stays false if the sheet is closed after the toRow.
+     *
+     * @return
+     */
+    public boolean isMergedRegionsLoaded() {
+        loadMergedRegions();
+        return mergedRegionsLoaded;
+    }
+
+    /**
+     * return the index of the first row which is not empty
+     *
+     * @return
+     */
+    public int getFirstRowNum() {
+        return firstRowNum;
+    }
+
+    /**
+     * return the index of the last row which is not empty
+     *
+     * @return
+     */
+    public int getLastRowNum() {
+        return lastRowNum;
+    }
+
+    /**
+     * Return the width of each column in characters
+     *
+     * @return
+     */
+    public List<Double> getColWidth() {
+        return colWidth;
+    }
+
+    /**
+     * release the streams of the sheet, and clear what has been read
+     *
+     * @throws Exception if this resource cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            closeSource();
+        } finally {
+            mergedRegions.clear();
+            colWidth.clear();
+            rowCache.clear();
+        }
+    }
+
+    /**
+     * Returns an iterator over elements of type {@code T}.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        return new StreamRowIterator();
+    }
+
+    /**
+     * Returns an iterator over the rows in batches of columns.
+     * The rows and their cells are recycled like reuseRows if the rows haven't been read yet,
+     * they are only the buffer of the values which are copied into the batch.
+     * The iterator returns the same batch refilled every time, so it is only valid until the next call of the iterator.
+     *
+     * @param batchSize the maximum number of the rows of a batch
+     * @return an Iterator.
+     */
+    public Iterator<RowBatch> batchIterator(int batchSize) {
+        RowBatch batch = new RowBatch(batchSize, index -> sharedString(index, this::sharedStringAt));
+        if (rowPool == null && rowCacheIterator == null) {
+            rowPool = new StreamRow[rowCacheSize + 1];
+        }
+        Iterator<Row> rows = iterator();
+        return new Iterator<RowBatch>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public RowBatch next() {
+                batch.clear();
+                while (!batch.isFull() && rows.hasNext()) {
+                    batch.add(rows.next());
+                }
+                return batch;
+            }
+        };
+    }
+
+    /**
+     * read the rest of the sheet and hand its cells to the handler one by one, without creating the rows and the cells.
+     * Don't read the rows by {@link #iterator()} or {@link #batchIterator(int)} at the same time.
+     *
+     * @param handler
+     * @return false if this reader doesn't report the cells as they are parsed, then nothing is read
+     */
+    public boolean readCells(CellHandler handler) {
+        return false;
+    }
+
+    private class StreamRowIterator implements Iterator<Row> {
+        StreamRowIterator() {
+            if (rowCacheIterator == null) {
+                hasNext();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (rowCacheIterator != null && rowCacheIterator.hasNext()) || getRow();
+        }
+
+        /**
+         * the row handed out before goes back to the pool when the rows are recycled
+         *
+         * @return
+         */
+        @Override
+        public Row next() {
+            Row row = rowCacheIterator.next();
+            if (rowPool != null) {
+                if (lastRow != null && pooledRows < rowPool.length) {
+                    rowPool[pooledRows++] = lastRow;
+                }
+                lastRow = row instanceof StreamRow ? (StreamRow) row : null;
+            }
+            return row;
+        }
+
+        @Override
+        public void remove() {
+            throw new RuntimeException("NotSupported");
+        }
+    }
+}
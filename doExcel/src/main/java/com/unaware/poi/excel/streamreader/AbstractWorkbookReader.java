@@ -0,0 +1,182 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.ParameterException;
+import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.util.StringPool;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Unaware
+ * @Description: The part of a workbook reader which does not depend on the format of the file:
+ *                 the sheets, their properties and the classified cell styles.
+ *                 {@link com.unaware.poi.excel.ssimpl.StreamWorkbook} only depends on this,
+ *                 see {@link WorkbookReader} for .xlsx and {@link XlsWorkbookReader} for .xls.
+ * @Title: AbstractWorkbookReader
+ * @ProjectName doExcel
+ * @date 2026/10/17 17:30
+ */
+public abstract class AbstractWorkbookReader implements Iterable<Sheet>, AutoCloseable {
+    /**
+     * this holds the StreamSheet objects attached to this workbook
+     */
+    protected final List<StreamSheet> sheets;
+    protected final List<Map<String, String>> sheetProperties;
+    protected final StreamReader.Builder builder;
+
+    /**
+     * the cell styles of the workbook, resolved and classified once for all sheets
+     */
+    protected StreamStyles styles;
+
+    protected boolean use1904Dates = false;
+
+    /**
+     * the pool of the values of the cells shared by the sheets, null represents the values are not pooled
+     */
+    protected final StringPool stringPool;
+
+    protected AbstractWorkbookReader(StreamReader.Builder builder) {
+        this.sheets = new ArrayList<>();
+        this.sheetProperties = new ArrayList<>();
+        this.builder = builder;
+        this.stringPool = builder.getStringPoolSize() > 0 ? new StringPool(builder.getStringPoolSize()) : null;
+    }
+
+    /**
+     * read the workbook from the inputStream
+     *
+     * @param is
+     */
+    public abstract void init(InputStream is);
+
+    /**
+     * read the workbook from the file
+     *
+     * @param file
+     */
+    public abstract void init(File file);
+
+    /**
+     * @return the number of fonts of the workbook
+     */
+    public abstract short getNumberOfFonts();
+
+    /**
+     * @param idx the index of the font
+     * @return the font, null if there is no font at the index
+     */
+    public abstract Font getFontAt(short idx);
+
+    /**
+     * create a new font and add it to the font table of the workbook
+     *
+     * @return
+     */
+    public abstract Font createFont();
+
+    /**
+     * Return the cell styles of the workbook, which are indexed by the index of the style
+     */
+    public StreamStyles getStyles() {
+        return this.styles;
+    }
+
+    public List<StreamSheet> getSheets() {
+        return sheets;
+    }
+
+    public List<Map<String, String>> getSheetProperties() {
+        return sheetProperties;
+    }
+
+    /**
+     * check the sheets selected by the builder, once the properties of the sheets are known
+     */
+    protected void checkSelectedSheets() {
+        int sheetIndex = builder.getSheetIndex();
+        if (sheetIndex != -1 && (sheetIndex < 0 || sheetIndex >= sheetProperties.size())) {
+            throw new ParameterException("the sheet with the index '" + sheetIndex + "' does not exist");
+        }
+        String sheetName = builder.getSheetName();
+        if (sheetName != null && sheetProperties.stream().noneMatch(props -> sheetName.equalsIgnoreCase(props.get("name")))) {
+            throw new ParameterException("the sheet with the name '" + sheetName + "' does not exist");
+        }
+    }
+
+    /**
+     * @param index the index of the sheet
+     * @return whether the sheet is selected by the builder, by its index, its name and the predicate of the names
+     */
+    protected boolean isSelectedSheet(int index) {
+        String name = sheetProperties.get(index).get("name");
+        return (builder.getSheetIndex() == -1 || builder.getSheetIndex() == index)
+                && (builder.getSheetName() == null || builder.getSheetName().equalsIgnoreCase(name))
+                && (builder.getSheets() == null || builder.getSheets().test(name));
+    }
+
+    /**
+     * create the temporary file
+     *
+     * @param is
+     * @param bufferSize
+     * @param suffix     the extension of the file
+     * @return
+     * @throws IOException
+     */
+    protected static File writeInputStreamToTempFile(InputStream is, int bufferSize, String suffix) throws IOException {
+        File file = Files.createTempFile("temp_", suffix).toFile();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            int num;
+            byte[] bytes = new byte[bufferSize];
+            while ((num = is.read(bytes)) != -1) {
+                fos.write(bytes, 0, num);
+            }
+            is.close();
+            return file;
+        }
+    }
+
+    @Override
+    public Iterator<Sheet> iterator() {
+        return new StreamSheetIterator(sheets.iterator());
+    }
+
+    /**
+     * add inner class to achieve iterator Sheets
+     * implements Iterator<Sheet>
+     */
+    private static class StreamSheetIterator implements Iterator<Sheet> {
+        private final Iterator<StreamSheet> iterator;
+
+        public StreamSheetIterator(Iterator<StreamSheet> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Sheet next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new RuntimeException("NotSupported");
+        }
+    }
+}
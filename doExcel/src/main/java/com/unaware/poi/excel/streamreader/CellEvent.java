@@ -0,0 +1,123 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.util.StringPool;
+import com.unaware.poi.excel.util.StyleInfo;
+
+/**
+ * @author Unaware
+ * @Description: A cell of a sheet as it is parsed: its position, the type of its value, the index of its style and its contents,
+ *                 as {@link StreamCell} would be given them, see {@link CellHandler}.
+ *                 A sheet reader refills the same event for every cell, so the contents are only valid until the next cell.
+ *                 The value of a cell can still be read like the value of a {@link StreamCell} by {@link #toCell()},
+ *                 which refills a single cell of the event.
+ * @Title: CellEvent
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:05
+ */
+public final class CellEvent {
+    private final StreamStyles styles;
+    private final boolean use1904Dates;
+    /**
+     * the cell which is refilled by {@link #toCell()}
+     */
+    private final StreamCell cell;
+
+    private int columnIndex;
+    private int rowIndex;
+    private String type;
+    private boolean formula;
+    private int styleIndex;
+    private CharSequence contents;
+
+    CellEvent(StreamStyles styles, boolean use1904Dates, StringPool stringPool) {
+        this.styles = styles;
+        this.use1904Dates = use1904Dates;
+        this.cell = new StreamCell(0, 0, use1904Dates, styles, stringPool);
+    }
+
+    /**
+     * clear the event for the next cell
+     *
+     * @param columnIndex
+     * @param rowIndex
+     * @param type        the type of the cell data
+     * @param styleIndex  the index of the style, -1 represents there is no style
+     */
+    void reset(int columnIndex, int rowIndex, String type, int styleIndex) {
+        this.columnIndex = columnIndex;
+        this.rowIndex = rowIndex;
+        this.type = type;
+        this.formula = false;
+        this.styleIndex = styleIndex;
+        this.contents = null;
+    }
+
+    void setFormula() {
+        this.formula = true;
+    }
+
+    void setContents(CharSequence contents) {
+        this.contents = contents;
+    }
+
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * @return the type of the cell data, the attribute "t" of .xlsx: "n", "s", "inlineStr", "str", "b" or "e"
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return whether the cell has a formula, then its contents are the cached result of the type {@link #getType()}
+     */
+    public boolean isFormula() {
+        return formula;
+    }
+
+    public int getStyleIndex() {
+        return styleIndex;
+    }
+
+    /**
+     * @return the classified style of the cell, null if there is no style
+     */
+    public StyleInfo getStyleInfo() {
+        return styles == null ? null : styles.get(styleIndex);
+    }
+
+    public boolean isUse1904Dates() {
+        return use1904Dates;
+    }
+
+    /**
+     * @return the contents of the cell with no formatting applied, the string itself for a shared string.
+     * null if the cell has no value. It's only valid until the next cell is parsed
+     */
+    public CharSequence getContents() {
+        return contents;
+    }
+
+    /**
+     * @return the cell of this event, which is refilled on every call
+     */
+    public StreamCell toCell() {
+        cell.reset(columnIndex, rowIndex);
+        cell.setType(type);
+        if (formula) {
+            cell.setType("str");
+        }
+        cell.setStyleIndex(styleIndex);
+        cell.setRawContents(contents == null ? null : contents.toString());
+        return cell;
+    }
+}
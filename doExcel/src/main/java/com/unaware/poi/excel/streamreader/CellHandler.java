@@ -0,0 +1,28 @@
+package com.unaware.poi.excel.streamreader;
+
+/**
+ * @author Unaware
+ * @Description: Receive the rows and the cells of a sheet straight from the events of the parser, see {@link AbstractSheetReader#readCells(CellHandler)}.
+ *                 No row or cell is created, the handler is called with the same {@link CellEvent} refilled for every cell.
+ * @Title: CellHandler
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:05
+ */
+public interface CellHandler {
+    /**
+     * a row starts, its cells follow in the order of the sheet
+     *
+     * @param rowNum the index of the row
+     */
+    void startRow(int rowNum);
+
+    /**
+     * @param cell the cell which has been parsed, it's only valid during the call
+     */
+    void cell(CellEvent cell);
+
+    /**
+     * the row ends
+     */
+    void endRow();
+}
@@ -0,0 +1,101 @@
+package com.unaware.poi.excel.streamreader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * @author Unaware
+ * @Description: The cursor over the XML of a sheet which {@link SheetReader} reads the nodes with.
+ *                 It's the XMLStreamReader of StAX by default, see {@link StaxSheetCursor},
+ *                 or {@link SheetXmlScanner} which reads the nodes from the bytes of the sheet, see {@link StreamReader.Builder#xmlScanner(boolean)}.
+ *                 Only START_ELEMENT, END_ELEMENT and CHARACTERS of {@link javax.xml.stream.XMLStreamConstants} are read,
+ *                 the other events are ignored.
+ * @Title: SheetCursor
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:40
+ */
+interface SheetCursor extends Closeable {
+    /**
+     * @return whether there are events left
+     * @throws IOException
+     */
+    boolean hasNext() throws IOException;
+
+    /**
+     * move the cursor to the next event
+     *
+     * @return the event of {@link javax.xml.stream.XMLStreamConstants}
+     * @throws IOException
+     */
+    int next() throws IOException;
+
+    /**
+     * move the cursor to the next start element of SpreadsheetML with the local name, like the mergeCells behind the sheetData
+     *
+     * @param localName
+     * @return false if the document ends before such an element
+     * @throws IOException
+     */
+    boolean nextStartElement(String localName) throws IOException;
+
+    /**
+     * move the cursor past the end of the start element at the cursor, like a cell which is not read
+     *
+     * @return END_ELEMENT, or END_DOCUMENT if the document ends before the end of the element
+     * @throws IOException
+     */
+    int skipElement() throws IOException;
+
+    /**
+     * @return the local name of the element at the cursor
+     */
+    String getLocalName();
+
+    /**
+     * @return whether the element at the cursor is in the namespace of SpreadsheetML
+     */
+    boolean isSpreadsheetTag();
+
+    /**
+     * look up the attribute without prefix of the start element at the cursor
+     *
+     * @param localName
+     * @return the index of the attribute, -1 if it does not exist
+     */
+    int attributeIndex(String localName);
+
+    /**
+     * @param index the index of the attribute
+     * @return the normalized value of the attribute
+     */
+    String getAttributeValue(int index);
+
+    /**
+     * the value of the attribute, which may be a view of the buffer of the cursor.
+     * The returned chars are only valid until the cursor is advanced.
+     *
+     * @param index the index of the attribute
+     * @return the normalized value of the attribute
+     */
+    CharSequence getAttributeChars(int index);
+
+    /**
+     * @return the text at the cursor, it's only valid until the cursor is advanced
+     */
+    CharSequence getText();
+
+    /**
+     * Returns true if the namespace is the main namespace for SpreadsheetML:
+     * <ul>
+     * <li>http://schemas.openxmlformats.org/spreadsheetml/2006/main
+     * <li>http://purl.oclc.org/ooxml/spreadsheetml/main
+     * </ul>
+     * As opposed to http://schemas.openxmlformats.org/drawingml/2006/spreadsheetDrawing, etc.
+     *
+     * @param namespaceURI
+     * @return
+     */
+    static boolean isSpreadsheetNamespace(String namespaceURI) {
+        return namespaceURI != null && namespaceURI.endsWith("/main");
+    }
+}
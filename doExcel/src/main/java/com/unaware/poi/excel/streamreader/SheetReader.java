@@ -0,0 +1,535 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.ParseException;
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.sstimpl.StringTable;
+import com.unaware.poi.excel.util.CellRefUtils;
+import com.unaware.poi.excel.util.StringPool;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+import javax.xml.stream.XMLStreamConstants;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * @author Unaware
+ * @Title: SheetReader
+ * @ProjectName excel
+ * @Description: Parse the xml node using the cursor of XMLStreamReader line by line, see {@link StaxSheetCursor}
+ *                 Unlike XMLEventReader, no event object is allocated for every node.
+ *                 The attributes are looked up by their index and the text of nodes is collected into a reusable buffer.
+ *                 With {@link StreamReader.Builder#xmlScanner(boolean)}, the cursor is the one of {@link SheetXmlScanner} instead,
+ *                 which reads the names of the elements, the cell references and the indexes from the bytes of the stream without creating a String.
+ *                 The cells are either put into the rows of the rowCache, or handed to a {@link CellHandler} in a single {@link CellEvent}
+ *                 without creating the rows, the cells and the Strings of their contents.
+ * @date 2018/7/12 15:23
+ */
+public class SheetReader extends AbstractSheetReader {
+    /**
+     * the number of the shared strings kept by {@link #readCells(CellHandler)} when the values are not pooled
+     */
+    private static final int SHARED_STRING_POOL_SIZE = 4096;
+
+    private final SharedStringsTable sharedStringSource;
+    private final SheetCursor parser;
+    private final boolean singlePass;
+    private final boolean xmlScanner;
+    /**
+     * open the second stream of this sheet, null once the mergeCells have been obtained in advance
+     */
+    private SheetStream mergedStream;
+
+    private int currentRowNum;
+    private int firstColNum = 0;
+    private int currentColNum;
+    private final StringBuilder lastContents = new StringBuilder(64);
+    private StreamCell currentCell;
+
+    /**
+     * the handler of the cells of {@link #readCells(CellHandler)}, null while the rows are read into the rowCache
+     */
+    private CellHandler cellHandler;
+    private CellEvent cellEvent;
+    private boolean inCell;
+    /**
+     * the contents of the cell of the event, which are kept apart from the text after the element "v"
+     */
+    private final StringBuilder cellContents = new StringBuilder(64);
+    /**
+     * the strings of the SharedString table which have been looked up by the events
+     */
+    private StringPool sharedStrings;
+    private final IntFunction<String> sharedStringLoader = this::sharedStringAt;
+
+    /**
+     * constructor
+     * @param sharedStringSource
+     * @param styles       the classified styles of the workbook
+     * @param inputStream
+     * @param mergedStream open the second stream of this sheet used to obtain the mergeCells in advance,
+     *                     it's only opened when the merged regions are asked for.
+     *                     If it is null, the sheet is parsed in a single pass,
+     *                     and the mergeCells are collected when the parser reaches them at the end of the sheet.
+     * @param use1904Dates
+     * @param rowCacheSize
+     * @param reuseRows    whether to recycle the rows and their cells once the iterator is advanced
+     * @param columns      the indexes of the columns which are read, the other cells are skipped without reading their values. null represents all the columns
+     * @param fromRow      the index of the first row which is read, the rows before it are skipped without reading their cells
+     * @param toRow        the index of the last row which is read, the stream is closed once the parser passes it
+     * @param stringPool   the pool of the values of the cells, null represents the values are not pooled
+     * @param xmlScanner   whether to parse the sheet by {@link SheetXmlScanner} instead of XMLStreamReader
+     * @throws IOException
+     */
+    SheetReader(SharedStringsTable sharedStringSource, StreamStyles styles, InputStream inputStream, SheetStream mergedStream, boolean use1904Dates,
+                int rowCacheSize, boolean reuseRows, BitSet columns, int fromRow, int toRow, StringPool stringPool, boolean xmlScanner) throws IOException {
+        super(styles, use1904Dates, rowCacheSize, reuseRows, columns, fromRow, toRow, stringPool);
+        this.sharedStringSource = sharedStringSource;
+        this.xmlScanner = xmlScanner;
+        this.parser = openCursor(inputStream);
+        this.singlePass = mergedStream == null;
+        this.mergedStream = mergedStream;
+    }
+
+    /**
+     * @param inputStream
+     * @return the cursor over the stream of the sheet
+     * @throws IOException
+     */
+    private SheetCursor openCursor(InputStream inputStream) throws IOException {
+        return xmlScanner ? new SheetXmlScanner(inputStream) : new StaxSheetCursor(inputStream);
+    }
+
+    /**
+     * obtain the mergeCells using the cursor of the sheet.
+     * we can't get merged cells information until sheet is parsed.
+     * So we traverse the sheet in advance to get merged cells information, the first time they are asked for.
+     */
+    @Override
+    protected synchronized void loadMergedRegions() {
+        if (mergedStream == null) {
+            return;
+        }
+        SheetStream stream = mergedStream;
+        mergedStream = null;
+        int i;
+        try (SheetCursor mergedReader = openCursor(stream.open())) {
+            // the rows are skipped, only the mergeCells behind the sheetData are read
+            if (mergedReader.nextStartElement("mergeCells")) {
+                // obtain the number of mergeCells
+                if ((i = mergedReader.attributeIndex("count")) != -1) {
+                    numMergedRegions = parseIndex(mergedReader.getAttributeChars(i));
+                }
+                // obtain the mergeCell
+                while (mergedReader.nextStartElement("mergeCell")) {
+                    if ((i = mergedReader.attributeIndex("ref")) != -1) {
+                        mergedRegions.add(rangeOf(mergedReader.getAttributeChars(i)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ParseException("Error reading XML stream", e);
+        }
+        mergedRegionsLoaded = true;
+    }
+
+    /**
+     * the cells of the rest of the sheet are handed to the handler as they are parsed.
+     * The shared strings are looked up in the pool of the values, or in a pool of this sheet if the values are not pooled,
+     * so a string which repeats is read from the SharedString table once.
+     *
+     * @param handler
+     * @return true
+     */
+    @Override
+    public boolean readCells(CellHandler handler) {
+        cellHandler = handler;
+        cellEvent = new CellEvent(styles, use1904Dates, stringPool);
+        sharedStrings = stringPool != null ? stringPool : new StringPool(SHARED_STRING_POOL_SIZE);
+        try {
+            while (hasMoreRecords()) {
+                readNextRecord();
+            }
+        } finally {
+            cellHandler = null;
+        }
+        if (!stopped) {
+            mergedRegionsLoaded = true;
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean hasMoreRecords() {
+        try {
+            return !stopped && parser.hasNext();
+        } catch (IOException e) {
+            throw new ParseException("Error reading XML stream", e);
+        }
+    }
+
+    @Override
+    protected void readNextRecord() {
+        try {
+            handleEvent(parser.next());
+        } catch (IOException e) {
+            throw new ParseException("Error reading XML stream", e);
+        }
+    }
+
+    /**
+     * parse the node at the cursor of the parser to get the cell information
+     * @param eventType
+     */
+    private void handleEvent(int eventType) throws IOException {
+        if (eventType == XMLStreamConstants.CHARACTERS) {
+            lastContents.append(parser.getText());
+        } else if (eventType == XMLStreamConstants.START_ELEMENT && parser.isSpreadsheetTag()) {
+            switch (parser.getLocalName()) {
+                case "row":
+                    int rowNumAttr = parser.attributeIndex("r");
+                    int rowIndex = currentRowNum;
+                    if (rowNumAttr != -1) {
+                        rowIndex = parseIndex(parser.getAttributeChars(rowNumAttr)) - 1;
+                        currentRowNum = rowIndex;
+                    }
+                    if (isBeforeRows(rowIndex)) {
+                        // the cells of the row are not read
+                        parser.skipElement();
+                        currentRowNum++;
+                        break;
+                    }
+                    if (isAfterRows(rowIndex)) {
+                        // the rest of the sheet is not read
+                        stopped = true;
+                        parser.close();
+                        break;
+                    }
+                    if (cellHandler != null) {
+                        cellHandler.startRow(rowIndex);
+                    } else {
+                        currentRow = newRow(rowIndex);
+                    }
+                    currentColNum = firstColNum;
+                    break;
+                case "col":
+                    int widthAttr = parser.attributeIndex("width");
+                    if (widthAttr != -1) {
+                        colWidth.add(Double.parseDouble(parser.getAttributeValue(widthAttr)));
+                    }
+                    break;
+                case "c":
+                    handleCell();
+                    break;
+                case "dimension":
+                    int refAttr = parser.attributeIndex("ref");
+                    CharSequence ref = refAttr != -1 ? parser.getAttributeChars(refAttr) : null;
+                    if (ref != null) {
+                        // ref is formatted as A1 or A1:F25. Take the last numbers of this string and use it as lastRowNum
+                        int separator = CellRefUtils.rangeSeparator(ref);
+                        long first = separator == -1 ? CellRefUtils.decode(ref) : CellRefUtils.decode(ref, 0, separator);
+                        long last = separator == -1 ? first : CellRefUtils.decode(ref, separator + 1, ref.length());
+                        firstColNum = CellRefUtils.column(first);
+                        firstRowNum = CellRefUtils.row(first);
+                        lastRowNum = CellRefUtils.row(last);
+                    }
+                    break;
+                case "f":
+                    if (currentCell != null) {
+                        currentCell.setType("str");
+                    } else if (inCell) {
+                        cellEvent.setFormula();
+                    }
+                    break;
+                case "mergeCell":
+                    // in single pass, the mergeCells are collected here
+                    if (singlePass) {
+                        int mergedRefAttr = parser.attributeIndex("ref");
+                        if (mergedRefAttr != -1) {
+                            mergedRegions.add(rangeOf(parser.getAttributeChars(mergedRefAttr)));
+                        }
+                    }
+                    break;
+                case "mergeCells":
+                    if (singlePass) {
+                        int countAttr = parser.attributeIndex("count");
+                        if (countAttr != -1) {
+                            numMergedRegions = parseIndex(parser.getAttributeChars(countAttr));
+                        }
+                    }
+                    break;
+            }
+            // Clear contents cache
+            lastContents.setLength(0);
+        } else if (eventType == XMLStreamConstants.END_ELEMENT && parser.isSpreadsheetTag()) {
+            switch (parser.getLocalName()) {
+                case "v":
+                case "t":
+                    if (cellHandler == null) {
+                        currentCell.setRawContents(unformattedContents());
+                    } else if (inCell) {
+                        cellEvent.setContents(eventContents());
+                    }
+                    break;
+                case "row":
+                    if (cellHandler != null) {
+                        cellHandler.endRow();
+                        currentRowNum++;
+                    } else if (currentRow != null) {
+                        rowCache.add(currentRow);
+                        currentRowNum++;
+                    }
+                    break;
+                case "c":
+                    if (cellHandler != null) {
+                        cellHandler.cell(cellEvent);
+                        inCell = false;
+                    } else {
+                        currentRow.addCell(currentCell);
+                        currentCell = null;
+                    }
+                    currentColNum++;
+                    break;
+                case "f":
+                    if (currentCell != null) {
+                        currentCell.setFormula(lastContents.toString());
+                    }
+                    break;
+                case "mergeCells":
+                    // the mergeCells are behind the sheetData, so all of them are known now
+                    mergedRegionsLoaded = true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * create the cell for the start element "c", or refill the event of the cell.
+     * The attributes of the element are split up once, and read without creating a String.
+     * A cell of a column which is not read is skipped up to its end element,
+     * so neither its shared string nor its style is looked up.
+     *
+     * @throws IOException
+     */
+    private void handleCell() throws IOException {
+        int rAttr = parser.attributeIndex("r");
+
+        //obtain the index of cell
+        int colIndex = currentColNum, rowIndex = currentRowNum;
+        if (rAttr != -1) {
+            long ref = CellRefUtils.decode(parser.getAttributeChars(rAttr));
+            colIndex = CellRefUtils.column(ref);
+            rowIndex = CellRefUtils.row(ref);
+        }
+        if (!isSelected(colIndex)) {
+            parser.skipElement();
+            currentColNum++;
+            return;
+        }
+        int typeAttr = parser.attributeIndex("t"), styleAttr = parser.attributeIndex("s");
+
+        //obtain the type of the cell data
+        String type = typeAttr != -1 ? typeOf(parser.getAttributeChars(typeAttr)) : "n";
+
+        //obtain the style of the cell, the cells without the attribute "s" use the default style
+        int styleIndex = 0;
+        if (styleAttr != -1) {
+            CharSequence styleString = parser.getAttributeChars(styleAttr);
+            try {
+                styleIndex = parseIndex(styleString);
+            } catch (NumberFormatException e) {
+                System.out.println("Warn: Ignoring invalid style index " + styleString);
+                styleIndex = -1;
+            }
+        }
+
+        if (cellHandler != null) {
+            cellEvent.reset(colIndex, rowIndex, type, styleIndex);
+            inCell = true;
+        } else {
+            currentCell = newCell(colIndex, rowIndex);
+            currentCell.setType(type);
+            currentCell.setStyleIndex(styleIndex);
+        }
+    }
+
+    /**
+     * create the range of a reference formatted as A1 or A1:F25
+     *
+     * @param ref
+     * @return
+     */
+    private static CellRangeAddress rangeOf(CharSequence ref) {
+        int separator = CellRefUtils.rangeSeparator(ref);
+        long first = separator == -1 ? CellRefUtils.decode(ref) : CellRefUtils.decode(ref, 0, separator);
+        long last = separator == -1 ? first : CellRefUtils.decode(ref, separator + 1, ref.length());
+        return new CellRangeAddress(CellRefUtils.row(first), CellRefUtils.row(last), CellRefUtils.column(first), CellRefUtils.column(last));
+    }
+
+    /**
+     * the types of the cells are shared instead of creating a String for every cell
+     *
+     * @param type the value of the attribute "t"
+     * @return
+     */
+    private static String typeOf(CharSequence type) {
+        if (type.length() == 1) {
+            switch (type.charAt(0)) {
+                case 's':
+                    return "s";
+                case 'n':
+                    return "n";
+                case 'b':
+                    return "b";
+                case 'e':
+                    return "e";
+            }
+        } else if ("str".contentEquals(type)) {
+            return "str";
+        } else if ("inlineStr".contentEquals(type)) {
+            return "inlineStr";
+        }
+        return type.toString();
+    }
+
+    /**
+     * Returns the contents of the cell, with no formatting applied
+     *
+     * @return
+     */
+    private String unformattedContents() {
+        switch (currentCell.getType()) {
+            case "s":           //string stored in shared table
+                if (lastContents.length() > 0) {
+                    int index = parseIndex(lastContents);
+                    currentCell.setSharedStringIndex(index);
+                    return sharedString(index, this::sharedStringAt);
+                }
+                return "";
+            case "inlineStr":   //inline string (not in sst)
+                // only the escaped characters like "_x000D_" need to be decoded by XSSFRichTextString
+                String text = contentsOf(lastContents);
+                return text.indexOf("_x") == -1 ? text : new XSSFRichTextString(text).toString();
+            default:
+                return contentsOf(lastContents);
+        }
+    }
+
+    /**
+     * Returns the contents of the cell of the event like {@link #unformattedContents()},
+     * the text is copied into a buffer of the event instead of creating a String
+     *
+     * @return
+     */
+    private CharSequence eventContents() {
+        switch (cellEvent.isFormula() ? "str" : cellEvent.getType()) {
+            case "s":           //string stored in shared table
+                return lastContents.length() > 0 ? sharedStrings.sharedString(parseIndex(lastContents), sharedStringLoader) : "";
+            case "inlineStr":   //inline string (not in sst)
+                if (lastContents.indexOf("_x") != -1) {
+                    return new XSSFRichTextString(lastContents.toString()).toString();
+                }
+                // fall through
+            default:
+                cellContents.setLength(0);
+                cellContents.append(lastContents);
+                return cellContents;
+        }
+    }
+
+    /**
+     * @param idx
+     * @return the string of the SharedString table at the index
+     */
+    @Override
+    protected String sharedStringAt(int idx) {
+        if (sharedStringSource instanceof StringTable) {
+            // only the escaped characters like "_x000D_" need to be decoded by XSSFRichTextString
+            String text = ((StringTable) sharedStringSource).getStringAt(idx);
+            return text.indexOf("_x") == -1 ? text : new XSSFRichTextString(text).toString();
+        }
+        return new XSSFRichTextString(sharedStringSource.getEntryAt(idx)).toString();
+    }
+
+    /**
+     * parse the index of the shared string from the buffer without creating a String
+     *
+     * @param chars
+     * @return
+     */
+    private static int parseIndex(CharSequence chars) {
+        int length = chars.length();
+        if (length > 9) {
+            return Integer.parseInt(chars.toString());
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.parseInt(chars.toString());
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Closes the parsers of this sheet
+     *
+     * @throws IOException
+     */
+    @Override
+    protected void closeSource() throws IOException {
+        parser.close();
+        mergedStream = null;
+    }
+
+    /**
+     * open a new stream of the sheet
+     */
+    @FunctionalInterface
+    interface SheetStream {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * obtain the mergeCells from InputStream using XMLReader
+     * @param mergedStream
+     */
+    private void parseMergedCellsByXMLReader (InputStream mergedStream) {
+        try {
+            XMLReader xmlReader = XMLReaderFactory.createXMLReader();
+            ObtainMergedRegions obtainMergedRegions = new ObtainMergedRegions();
+            xmlReader.setContentHandler(obtainMergedRegions);
+            xmlReader.parse(new InputSource(mergedStream));
+            mergedStream.close();
+        } catch (SAXException | IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * obtain the mergeCells using XMLReader
+     */
+    private class ObtainMergedRegions extends DefaultHandler {
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes attributes) {
+            String value = attributes.getValue("ref");
+            if ("mergeCell".equalsIgnoreCase(name) && value != null) {
+                mergedRegions.add(CellRangeAddress.valueOf(value));
+            } else if ("mergeCells".equalsIgnoreCase(name) && value != null) {
+                numMergedRegions = Integer.parseInt(value);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1091 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.ParseException;
+
+import javax.xml.stream.XMLStreamConstants;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author Unaware
+ * @Description: A cursor over the XML of a sheet which works on the UTF-8 bytes of the stream, like a small XMLStreamReader.
+ *                 The sheet XML only uses a few elements of SpreadsheetML, most of the nodes are "row", "c" and "v",
+ *                 so the generic machinery of a StAX parser (symbol tables, namespace contexts, attribute objects, ...) is not needed.
+ *                 The tag at the cursor stays in the buffer until the cursor is advanced,
+ *                 its attributes are only split up when one of them is looked up.
+ *                 The text is decoded with the entities replaced and the line endings normalized, as the XML specification requires.
+ *                 The namespace declarations are kept in scope like XMLStreamReader does, whatever element declares them,
+ *                 and the elements whose prefix is bound to SpreadsheetML are the spreadsheet tags.
+ *                 The other elements (extLst, markup compatibility, ...) are reported but not recognized as spreadsheet tags.
+ *                 A part which is not encoded in UTF-8 is transcoded to UTF-8 while it is read, and malformed bytes are rejected in either case.
+ *                 The SharedString table read on demand is scanned by the same cursor, which reports the offsets of the tags in the part.
+ * @Title: SheetXmlScanner
+ * @ProjectName doExcel
+ * @date 2026/10/17 18:10
+ */
+public final class SheetXmlScanner implements SheetCursor {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * the names of the elements which are looked up by the sheet readers, they are returned without creating a String
+     */
+    private static final String[] NAMES = {"c", "v", "f", "t", "r", "is", "row", "col", "cols", "dimension", "mergeCell", "mergeCells", "sheetData", "worksheet"};
+
+    /**
+     * the smallest code point of a UTF-8 sequence of every length, the smaller ones are overlong
+     */
+    private static final int[] MIN_CODE_POINTS = {0, 0, 0x80, 0x800, 0x10000};
+
+    /**
+     * the name of the part in the messages of the errors, like "sheet"
+     */
+    private final String part;
+
+    private InputStream in;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    /**
+     * the offset of buf[0] in the part, and the offset of the markup at the cursor
+     */
+    private long base;
+    private long markupOffset;
+
+    /**
+     * the reader and the encoder to transcode a part which is not encoded in UTF-8
+     */
+    private Reader reader;
+    private CharBuffer chars;
+    private CharsetEncoder encoder;
+
+    private int event = XMLStreamConstants.START_DOCUMENT;
+    private boolean pendingEnd;
+    private final StringBuilder text = new StringBuilder(64);
+
+    /**
+     * the bounds of the tag at the cursor: the local name, the prefix and the attributes
+     */
+    private int nameStart;
+    private int localStart;
+    private int nameEnd;
+    private int attrsEnd;
+
+    /**
+     * the bounds of the attributes of the tag at the cursor, -1 represents they are not split up yet
+     */
+    private int attrCount = -1;
+    private int[] attrBounds = new int[16];
+
+    /**
+     * the namespace declarations in scope: their prefix, whether they bind SpreadsheetML, and the depth of the element which declares them.
+     * The default namespace is declared with an empty prefix
+     */
+    private byte[][] nsPrefixes = new byte[8][];
+    private boolean[] nsMain = new boolean[8];
+    private int[] nsDepths = new int[8];
+    private int nsCount;
+    /**
+     * whether the elements without prefix are in the namespace of SpreadsheetML
+     */
+    private boolean defaultMain;
+    /**
+     * the depth of the element at the cursor, the root element is at depth 1
+     */
+    private int depth;
+    /**
+     * whether the element at the cursor has ended, its namespace declarations go out of scope once the cursor is advanced
+     */
+    private boolean leaving;
+    private boolean rootRead;
+
+    private final AsciiChars asciiChars = new AsciiChars();
+
+    SheetXmlScanner(InputStream in) {
+        this(in, "sheet");
+    }
+
+    /**
+     * @param in   the stream of the part
+     * @param part the name of the part in the messages of the errors
+     */
+    public SheetXmlScanner(InputStream in, String part) {
+        this.in = in;
+        this.part = part;
+        this.buf = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * scan the XML in the bytes, which are encoded in UTF-8, like an element cut out of a part.
+     * The namespaces declared outside of the bytes are not known, so the elements are looked up by {@link #isLocalName(String)}.
+     *
+     * @param bytes the bytes, they are not modified
+     * @param part  the name of the part in the messages of the errors
+     */
+    public SheetXmlScanner(byte[] bytes, String part) {
+        this.part = part;
+        this.buf = bytes;
+        this.limit = bytes.length;
+    }
+
+    /**
+     * @return whether there are events left, false once END_DOCUMENT has been returned
+     */
+    @Override
+    public boolean hasNext() {
+        return event != XMLStreamConstants.END_DOCUMENT;
+    }
+
+    /**
+     * move the cursor to the next event
+     *
+     * @return START_ELEMENT, END_ELEMENT, CHARACTERS or END_DOCUMENT of {@link XMLStreamConstants}
+     * @throws IOException
+     */
+    @Override
+    public int next() throws IOException {
+        if (pendingEnd) {
+            // the end of an empty element like <c r="A1"/>, the tag is still in the buffer
+            pendingEnd = false;
+            leaving = true;
+            return event = XMLStreamConstants.END_ELEMENT;
+        }
+        if (event == XMLStreamConstants.START_DOCUMENT) {
+            detectEncoding();
+        }
+        text.setLength(0);
+        boolean hasText = false;
+        while (true) {
+            if (pos >= limit && !fill()) {
+                return event = hasText ? XMLStreamConstants.CHARACTERS : XMLStreamConstants.END_DOCUMENT;
+            }
+            byte b = buf[pos];
+            if (b == '<') {
+                if (hasText) {
+                    return event = XMLStreamConstants.CHARACTERS;
+                }
+                int markup = readMarkup();
+                if (markup == XMLStreamConstants.CDATA) {
+                    hasText = true;
+                } else if (markup != 0) {
+                    return event = markup;
+                }
+            } else if (!rootRead) {
+                // the whitespace before the root element is not text
+                pos++;
+            } else {
+                hasText = true;
+                readText();
+            }
+        }
+    }
+
+    /**
+     * move the cursor to the next start element of SpreadsheetML with the local name, like the mergeCells behind the sheetData.
+     * A '<' can only start markup, so the text is skipped from '<' to '<' without decoding it.
+     * The tags of the other elements are only read as far as their namespace declarations.
+     *
+     * @param localName
+     * @return false if the document ends before such an element
+     * @throws IOException
+     */
+    @Override
+    public boolean nextStartElement(String localName) throws IOException {
+        if (event == XMLStreamConstants.START_DOCUMENT) {
+            detectEncoding();
+        }
+        if (pendingEnd) {
+            pendingEnd = false;
+            leaving = true;
+        }
+        text.setLength(0);
+        while (true) {
+            while (pos < limit && buf[pos] != '<') {
+                pos++;
+            }
+            if (pos >= limit) {
+                if (!fill()) {
+                    event = XMLStreamConstants.END_DOCUMENT;
+                    return false;
+                }
+                continue;
+            }
+            // comments and CDATA sections may contain '<'
+            int markup = readMarkup();
+            if (markup == XMLStreamConstants.START_ELEMENT) {
+                event = markup;
+                if (isSpreadsheetTag() && equalsAscii(localStart, nameEnd, localName)) {
+                    return true;
+                }
+                if (pendingEnd) {
+                    pendingEnd = false;
+                    leaving = true;
+                }
+            } else if (markup == XMLStreamConstants.END_ELEMENT) {
+                event = markup;
+            }
+            text.setLength(0);
+        }
+    }
+
+    /**
+     * move the cursor past the end of the start element at the cursor, like a cell which is not read.
+     * The elements and the text inside are skipped from '<' to '<' without decoding them.
+     *
+     * @return END_ELEMENT, or END_DOCUMENT if the document ends before the end of the element
+     * @throws IOException
+     */
+    @Override
+    public int skipElement() throws IOException {
+        if (pendingEnd) {
+            pendingEnd = false;
+            leaving = true;
+            return event = XMLStreamConstants.END_ELEMENT;
+        }
+        int skipped = 1;
+        while (true) {
+            while (pos < limit && buf[pos] != '<') {
+                pos++;
+            }
+            if (pos >= limit) {
+                if (!fill()) {
+                    text.setLength(0);
+                    return event = XMLStreamConstants.END_DOCUMENT;
+                }
+                continue;
+            }
+            int markup = readMarkup();
+            if (markup == XMLStreamConstants.START_ELEMENT) {
+                if (pendingEnd) {
+                    pendingEnd = false;
+                    leaving = true;
+                } else {
+                    skipped++;
+                }
+            } else if (markup == XMLStreamConstants.END_ELEMENT && --skipped == 0) {
+                // the text of the CDATA sections inside is dropped
+                text.setLength(0);
+                return event = XMLStreamConstants.END_ELEMENT;
+            }
+        }
+    }
+
+    /**
+     * @return the local name of the element at the cursor
+     */
+    @Override
+    public String getLocalName() {
+        int length = nameEnd - localStart;
+        for (String name : NAMES) {
+            if (name.length() == length && equalsAscii(localStart, nameEnd, name)) {
+                return name;
+            }
+        }
+        return new String(buf, localStart, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param localName
+     * @return whether the local name of the element at the cursor is the localName, whatever its prefix is
+     */
+    public boolean isLocalName(String localName) {
+        return equalsAscii(localStart, nameEnd, localName);
+    }
+
+    /**
+     * @return whether the element at the cursor is in the namespace of SpreadsheetML
+     */
+    @Override
+    public boolean isSpreadsheetTag() {
+        if (localStart == nameStart) {
+            return defaultMain;
+        }
+        // the prefix without ':'
+        int prefixLength = localStart - nameStart - 1;
+        for (int i = nsCount - 1; i >= 0; i--) {
+            byte[] prefix = nsPrefixes[i];
+            if (prefix.length == prefixLength && regionEquals(nameStart, prefix)) {
+                return nsMain[i];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * look up the attribute without prefix of the start element at the cursor
+     *
+     * @param localName
+     * @return the index of the attribute, -1 if it does not exist
+     */
+    @Override
+    public int attributeIndex(String localName) {
+        if (attrCount == -1) {
+            splitAttributes();
+        }
+        for (int i = 0; i < attrCount; i++) {
+            int start = attrBounds[i * 4], end = attrBounds[i * 4 + 1];
+            if (end - start == localName.length() && equalsAscii(start, end, localName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index the index of the attribute
+     * @return the normalized value of the attribute
+     */
+    @Override
+    public String getAttributeValue(int index) {
+        int start = attrBounds[index * 4 + 2], end = attrBounds[index * 4 + 3];
+        if (isPlainAscii(start, end)) {
+            return new String(buf, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        StringBuilder value = new StringBuilder(end - start);
+        decode(start, end, value, true);
+        return value.toString();
+    }
+
+    /**
+     * the value of the attribute without creating a String if it's plain ASCII, like a cell reference or an index.
+     * The returned chars are only valid until the cursor is advanced.
+     *
+     * @param index the index of the attribute
+     * @return the normalized value of the attribute
+     */
+    @Override
+    public CharSequence getAttributeChars(int index) {
+        int start = attrBounds[index * 4 + 2], end = attrBounds[index * 4 + 3];
+        if (isPlainAscii(start, end)) {
+            asciiChars.set(start, end);
+            return asciiChars;
+        }
+        return getAttributeValue(index);
+    }
+
+    /**
+     * @return the text at the cursor, it's only valid until the cursor is advanced
+     */
+    @Override
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * @return the offset in the part of the '<' of the tag at the cursor, the offsets are the ones of the bytes encoded in UTF-8
+     */
+    public long getMarkupOffset() {
+        return markupOffset;
+    }
+
+    /**
+     * @return the offset in the part behind the cursor, like behind the end tag which has just been read
+     */
+    public long getOffset() {
+        return base + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        } else if (in != null) {
+            in.close();
+        }
+        in = null;
+        reader = null;
+    }
+
+    /**
+     * read the markup at '<'
+     *
+     * @return START_ELEMENT or END_ELEMENT for a tag, CDATA if the text of a CDATA section was appended to the text,
+     * 0 for a comment, a processing instruction or a declaration
+     * @throws IOException
+     */
+    private int readMarkup() throws IOException {
+        if (leaving) {
+            leaveElement();
+        }
+        markupOffset = base + pos;
+        ensure(2);
+        byte b = buf[pos + 1];
+        if (b == '?') {
+            skipPast("?>");
+            return 0;
+        } else if (b == '!') {
+            ensure(9);
+            if (startsWith("<!--")) {
+                skipPast("-->");
+                return 0;
+            } else if (startsWith("<![CDATA[")) {
+                pos += 9;
+                readCData();
+                return XMLStreamConstants.CDATA;
+            }
+            skipDeclaration();
+            return 0;
+        }
+        int end = findTagEnd();
+        boolean endTag = b == '/';
+        nameStart = pos + (endTag ? 2 : 1);
+        int i = nameStart;
+        localStart = nameStart;
+        while (i < end && !isWhitespace(buf[i]) && buf[i] != '/') {
+            if (buf[i] == ':') {
+                localStart = i + 1;
+            }
+            i++;
+        }
+        nameEnd = i;
+        attrCount = -1;
+        pos = end + 1;
+        if (endTag) {
+            leaving = true;
+            return XMLStreamConstants.END_ELEMENT;
+        }
+        pendingEnd = buf[end - 1] == '/';
+        attrsEnd = pendingEnd ? end - 1 : end;
+        depth++;
+        rootRead = true;
+        if (hasNamespaceDeclaration()) {
+            declareNamespaces();
+        }
+        return XMLStreamConstants.START_ELEMENT;
+    }
+
+    /**
+     * find the '>' of the tag at the cursor outside of the attribute values,
+     * the whole tag is kept in the buffer
+     *
+     * @return the position of '>'
+     * @throws IOException
+     */
+    private int findTagEnd() throws IOException {
+        int i = pos + 1;
+        byte quote = 0;
+        while (true) {
+            if (i >= limit) {
+                int offset = pos;
+                if (!fill()) {
+                    throw new ParseException("Unexpected end of the " + part + " in a tag");
+                }
+                i -= offset - pos;
+                continue;
+            }
+            byte b = buf[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * split up the attributes of the start element at the cursor.
+     * The bounds of the local name and the value of every attribute without prefix are kept.
+     */
+    private void splitAttributes() {
+        attrCount = 0;
+        int i = nameEnd;
+        while (true) {
+            while (i < attrsEnd && isWhitespace(buf[i])) {
+                i++;
+            }
+            if (i >= attrsEnd) {
+                return;
+            }
+            int start = i;
+            boolean prefixed = false;
+            while (i < attrsEnd && buf[i] != '=' && !isWhitespace(buf[i])) {
+                prefixed |= buf[i] == ':';
+                i++;
+            }
+            int end = i;
+            while (i < attrsEnd && buf[i] != '"' && buf[i] != '\'') {
+                i++;
+            }
+            if (i >= attrsEnd) {
+                throw new ParseException("Malformed attribute in the " + part);
+            }
+            byte quote = buf[i++];
+            int valueStart = i;
+            while (i < attrsEnd && buf[i] != quote) {
+                i++;
+            }
+            int valueEnd = i++;
+            if (prefixed) {
+                continue;
+            }
+            if (attrCount * 4 + 4 > attrBounds.length) {
+                attrBounds = Arrays.copyOf(attrBounds, attrBounds.length * 2);
+            }
+            attrBounds[attrCount * 4] = start;
+            attrBounds[attrCount * 4 + 1] = end;
+            attrBounds[attrCount * 4 + 2] = valueStart;
+            attrBounds[attrCount * 4 + 3] = valueEnd;
+            attrCount++;
+        }
+    }
+
+    /**
+     * @return whether an attribute of the start element at the cursor may be a namespace declaration,
+     * most of the tags have none, so their attributes are not split up
+     */
+    private boolean hasNamespaceDeclaration() {
+        for (int i = nameEnd, last = attrsEnd - 5; i <= last; i++) {
+            if (buf[i] == 'x' && buf[i + 1] == 'm' && buf[i + 2] == 'l' && buf[i + 3] == 'n' && buf[i + 4] == 's') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * put the namespace declarations of the start element at the cursor in scope,
+     * like xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" or xmlns:x="..."
+     */
+    private void declareNamespaces() {
+        int i = nameEnd;
+        while (i < attrsEnd) {
+            while (i < attrsEnd && isWhitespace(buf[i])) {
+                i++;
+            }
+            int start = i;
+            while (i < attrsEnd && buf[i] != '=' && !isWhitespace(buf[i])) {
+                i++;
+            }
+            int end = i;
+            while (i < attrsEnd && buf[i] != '"' && buf[i] != '\'') {
+                i++;
+            }
+            if (i >= attrsEnd) {
+                break;
+            }
+            byte quote = buf[i++];
+            int valueStart = i;
+            while (i < attrsEnd && buf[i] != quote) {
+                i++;
+            }
+            int valueEnd = i++;
+            if (equalsAscii(start, end, "xmlns") || end - start > 6 && equalsAscii(start, start + 6, "xmlns:")) {
+                StringBuilder uri = new StringBuilder(valueEnd - valueStart);
+                decode(valueStart, valueEnd, uri, true);
+                int prefixStart = end - start == 5 ? end : start + 6;
+                declareNamespace(Arrays.copyOfRange(buf, prefixStart, end), SheetCursor.isSpreadsheetNamespace(uri.toString()));
+            }
+        }
+    }
+
+    private void declareNamespace(byte[] prefix, boolean main) {
+        if (nsCount == nsDepths.length) {
+            nsPrefixes = Arrays.copyOf(nsPrefixes, nsCount * 2);
+            nsMain = Arrays.copyOf(nsMain, nsCount * 2);
+            nsDepths = Arrays.copyOf(nsDepths, nsCount * 2);
+        }
+        nsPrefixes[nsCount] = prefix;
+        nsMain[nsCount] = main;
+        nsDepths[nsCount] = depth;
+        nsCount++;
+        if (prefix.length == 0) {
+            defaultMain = main;
+        }
+    }
+
+    /**
+     * the element which has ended goes out of scope together with its namespace declarations
+     */
+    private void leaveElement() {
+        leaving = false;
+        boolean defaultDeclared = false;
+        while (nsCount > 0 && nsDepths[nsCount - 1] == depth) {
+            nsCount--;
+            defaultDeclared |= nsPrefixes[nsCount].length == 0;
+        }
+        depth--;
+        if (defaultDeclared) {
+            defaultMain = false;
+            for (int i = nsCount - 1; i >= 0; i--) {
+                if (nsPrefixes[i].length == 0) {
+                    defaultMain = nsMain[i];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * decode the text up to the next '<' into the text
+     *
+     * @throws IOException
+     */
+    private void readText() throws IOException {
+        while (true) {
+            int i = pos;
+            // the plain ASCII text is copied at once
+            while (i < limit) {
+                byte b = buf[i];
+                if (b < 0 || b == '<' || b == '&' || b == '\r') {
+                    break;
+                }
+                i++;
+            }
+            for (int j = pos; j < i; j++) {
+                text.append((char) buf[j]);
+            }
+            pos = i;
+            if (pos >= limit) {
+                if (!fill()) {
+                    return;
+                }
+                continue;
+            }
+            byte b = buf[pos];
+            if (b == '<') {
+                return;
+            }
+            if (b == '&') {
+                ensureEntity();
+                pos = readEntity(pos, limit, text);
+            } else {
+                ensure(4);
+                pos = decodeChar(pos, limit, text, false);
+            }
+        }
+    }
+
+    /**
+     * append the text of the CDATA section up to "]]>" to the text, without replacing the entities
+     *
+     * @throws IOException
+     */
+    private void readCData() throws IOException {
+        while (true) {
+            ensure(4);
+            if (pos >= limit) {
+                throw new ParseException("Unexpected end of the " + part + " in a CDATA section");
+            }
+            if (startsWith("]]>")) {
+                pos += 3;
+                return;
+            }
+            pos = decodeChar(pos, limit, text, false);
+        }
+    }
+
+    /**
+     * decode the bytes in [start, end), which have no markup, into the chars
+     *
+     * @param start
+     * @param end
+     * @param chars
+     * @param attribute whether the bytes are the value of an attribute, whose whitespace is normalized to spaces
+     */
+    private void decode(int start, int end, StringBuilder chars, boolean attribute) {
+        int i = start;
+        while (i < end) {
+            i = buf[i] == '&' ? readEntity(i, end, chars) : decodeChar(i, end, chars, attribute);
+        }
+    }
+
+    /**
+     * decode a UTF-8 character, and normalize the line endings
+     *
+     * @param i         the position of the character
+     * @param end
+     * @param chars
+     * @param attribute whether the character is in the value of an attribute
+     * @return the position after the character
+     */
+    private int decodeChar(int i, int end, StringBuilder chars, boolean attribute) {
+        int b = buf[i];
+        if (b >= 0) {
+            if (b == '\r') {
+                // "\r\n" and "\r" are normalized to "\n"
+                if (i + 1 < end && buf[i + 1] == '\n') {
+                    i++;
+                }
+                b = '\n';
+            }
+            chars.append(attribute && (b == '\n' || b == '\t') ? ' ' : (char) b);
+            return i + 1;
+        }
+        int length = (b & 0xE0) == 0xC0 ? 2 : (b & 0xF0) == 0xE0 ? 3 : (b & 0xF8) == 0xF0 ? 4 : 1;
+        if (length == 1 || i + length > end) {
+            throw malformedUtf8(i, Math.min(i + length, end));
+        }
+        int codePoint = b & (0x7F >> length);
+        for (int j = 1; j < length; j++) {
+            if ((buf[i + j] & 0xC0) != 0x80) {
+                throw malformedUtf8(i, i + j + 1);
+            }
+            codePoint = codePoint << 6 | buf[i + j] & 0x3F;
+        }
+        // the overlong forms, the surrogates and the code points above U+10FFFF are not UTF-8
+        if (codePoint < MIN_CODE_POINTS[length] || !Character.isValidCodePoint(codePoint)
+                || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            throw malformedUtf8(i, i + length);
+        }
+        chars.appendCodePoint(codePoint);
+        return i + length;
+    }
+
+    /**
+     * @param start
+     * @param end
+     * @return the error of the malformed bytes in [start, end)
+     */
+    private ParseException malformedUtf8(int start, int end) {
+        StringBuilder bytes = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            bytes.append(bytes.length() > 0 ? " " : "").append(String.format("%02X", buf[i] & 0xFF));
+        }
+        return new ParseException("Invalid UTF-8 sequence '" + bytes + "' at offset " + (base + start) + " in the " + part);
+    }
+
+    /**
+     * replace the entity at '&'
+     *
+     * @param i     the position of '&'
+     * @param end
+     * @param chars
+     * @return the position after ';'
+     */
+    private int readEntity(int i, int end, StringBuilder chars) {
+        int semicolon = i + 1;
+        while (semicolon < end && isEntityByte(buf[semicolon])) {
+            semicolon++;
+        }
+        if (semicolon >= end || buf[semicolon] != ';') {
+            throw new ParseException("Malformed entity in the " + part);
+        }
+        if (buf[i + 1] == '#') {
+            chars.appendCodePoint(charReference(i, semicolon));
+        } else if (equalsAscii(i + 1, semicolon, "lt")) {
+            chars.append('<');
+        } else if (equalsAscii(i + 1, semicolon, "gt")) {
+            chars.append('>');
+        } else if (equalsAscii(i + 1, semicolon, "amp")) {
+            chars.append('&');
+        } else if (equalsAscii(i + 1, semicolon, "quot")) {
+            chars.append('"');
+        } else if (equalsAscii(i + 1, semicolon, "apos")) {
+            chars.append('\'');
+        } else {
+            throw new ParseException("Undeclared entity '" + new String(buf, i, semicolon + 1 - i, StandardCharsets.UTF_8) + "' in the " + part);
+        }
+        return semicolon + 1;
+    }
+
+    /**
+     * @param i         the position of '&'
+     * @param semicolon the position of ';'
+     * @return the character of the reference like "&#65;" or "&#x41;"
+     * @throws ParseException if it's not a number, or not a character which XML allows
+     */
+    private int charReference(int i, int semicolon) {
+        boolean hex = buf[i + 2] == 'x';
+        int radix = hex ? 16 : 10;
+        int from = i + (hex ? 3 : 2);
+        int codePoint = 0;
+        for (int j = from; j < semicolon && codePoint <= Character.MAX_CODE_POINT; j++) {
+            int digit = Character.digit(buf[j], radix);
+            if (digit < 0) {
+                codePoint = -1;
+                break;
+            }
+            codePoint = codePoint * radix + digit;
+        }
+        if (from == semicolon || codePoint <= 0 || codePoint > Character.MAX_CODE_POINT
+                || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            throw new ParseException("Malformed character reference '" + new String(buf, i, semicolon + 1 - i, StandardCharsets.UTF_8) + "' in the " + part);
+        }
+        return codePoint;
+    }
+
+    /**
+     * skip a declaration like <!DOCTYPE ...>, together with its internal subset
+     *
+     * @throws IOException
+     */
+    private void skipDeclaration() throws IOException {
+        int depth = 0;
+        while (true) {
+            if (pos >= limit && !fill()) {
+                throw new ParseException("Unexpected end of the " + part + " in a declaration");
+            }
+            byte b = buf[pos++];
+            if (b == '[') {
+                depth++;
+            } else if (b == ']') {
+                depth--;
+            } else if (b == '>' && depth == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * skip the bytes up to the end of the delimiter
+     *
+     * @param delimiter
+     * @throws IOException
+     */
+    private void skipPast(String delimiter) throws IOException {
+        while (true) {
+            ensure(delimiter.length());
+            if (limit - pos < delimiter.length()) {
+                throw new ParseException("Unexpected end of the " + part + ", '" + delimiter + "' is missing");
+            }
+            if (startsWith(delimiter)) {
+                pos += delimiter.length();
+                return;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * make sure that the entity at the cursor is in the buffer up to its ';', however long it is, like "&#0000000065;"
+     *
+     * @throws IOException
+     */
+    private void ensureEntity() throws IOException {
+        int i = pos + 1;
+        while (true) {
+            if (i >= limit) {
+                int offset = pos;
+                if (!fill()) {
+                    // readEntity reports the entity without ';'
+                    return;
+                }
+                i -= offset - pos;
+                continue;
+            }
+            if (!isEntityByte(buf[i])) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * @param b
+     * @return whether the byte may be in an entity before its ';'
+     */
+    private static boolean isEntityByte(byte b) {
+        return b != ';' && b != '<' && b != '&' && b != '"' && b != '\'' && !isWhitespace(b);
+    }
+
+    private boolean regionEquals(int start, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buf[start + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(String ascii) {
+        return limit - pos >= ascii.length() && equalsAscii(pos, pos + ascii.length(), ascii);
+    }
+
+    private boolean equalsAscii(int start, int end, String ascii) {
+        if (end - start != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buf[start + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPlainAscii(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buf[i];
+            if (b < 0 || b == '&' || b == '\r' || b == '\n' || b == '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * make sure that at least the number of bytes are in the buffer after the cursor, unless the stream ends
+     *
+     * @param length
+     * @throws IOException
+     */
+    private void ensure(int length) throws IOException {
+        while (limit - pos < length && fill()) {
+        }
+    }
+
+    /**
+     * read more bytes into the buffer, the bytes after the cursor are kept
+     *
+     * @return false if the stream has ended
+     * @throws IOException
+     */
+    private boolean fill() throws IOException {
+        if (in == null && reader == null) {
+            // the bytes given to the constructor, or a closed stream
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            base += pos;
+            limit -= pos;
+            pos = 0;
+        } else if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        if (reader != null) {
+            return transcode();
+        }
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n <= 0) {
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    /**
+     * read the chars of a part which is not encoded in UTF-8, and encode them into the buffer in UTF-8
+     *
+     * @return false if the stream has ended
+     * @throws IOException
+     */
+    private boolean transcode() throws IOException {
+        int n = reader.read(chars.array(), chars.position(), chars.remaining());
+        if (n < 0 && chars.position() == 0) {
+            return false;
+        }
+        chars.position(chars.position() + Math.max(n, 0));
+        chars.flip();
+        ByteBuffer bytes = ByteBuffer.wrap(buf, limit, buf.length - limit);
+        CoderResult result = encoder.encode(chars, bytes, n < 0);
+        if (result.isError()) {
+            result.throwException();
+        }
+        chars.compact();
+        limit = bytes.position();
+        return true;
+    }
+
+    /**
+     * detect the encoding of the part from its byte order mark or its XML declaration, see appendix F of the XML specification.
+     * The byte order mark of UTF-8 is skipped, the other encodings are transcoded.
+     *
+     * @throws IOException
+     */
+    private void detectEncoding() throws IOException {
+        ensure(4);
+        Charset charset = null;
+        if (limit >= 3 && (buf[0] & 0xFF) == 0xEF && (buf[1] & 0xFF) == 0xBB && (buf[2] & 0xFF) == 0xBF) {
+            pos = 3;
+        } else if (limit >= 2 && ((buf[0] & 0xFF) == 0xFE && (buf[1] & 0xFF) == 0xFF || buf[0] == 0 && buf[1] == '<')) {
+            charset = StandardCharsets.UTF_16BE;
+        } else if (limit >= 2 && ((buf[0] & 0xFF) == 0xFF && (buf[1] & 0xFF) == 0xFE || buf[0] == '<' && buf[1] == 0)) {
+            charset = StandardCharsets.UTF_16LE;
+        } else if (startsWith("<?xml")) {
+            charset = declaredCharset();
+        }
+        if (charset == null || charset.equals(StandardCharsets.UTF_8)) {
+            return;
+        }
+        // the malformed bytes are reported instead of being replaced, like the ones of UTF-8
+        reader = new InputStreamReader(new SequenceInputStream(new ByteArrayInputStream(Arrays.copyOf(buf, limit)), in),
+                charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT));
+        chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+        encoder = StandardCharsets.UTF_8.newEncoder();
+        pos = limit = 0;
+        fill();
+        if (pos < limit && buf[pos] == (byte) 0xEF) {
+            // the byte order mark of UTF-16 is encoded as the one of UTF-8
+            pos = 3;
+        }
+    }
+
+    /**
+     * @return the encoding in the XML declaration, null if there is none
+     * @throws IOException
+     */
+    private Charset declaredCharset() throws IOException {
+        ensure(128);
+        int end = pos;
+        while (end < limit && buf[end] != '>') {
+            end++;
+        }
+        String declaration = new String(buf, pos, end - pos, StandardCharsets.ISO_8859_1);
+        int i = declaration.indexOf("encoding");
+        if (i == -1) {
+            return null;
+        }
+        int quote = i + 8;
+        while (quote < declaration.length() && declaration.charAt(quote) != '"' && declaration.charAt(quote) != '\'') {
+            quote++;
+        }
+        int close = quote + 1 < declaration.length() ? declaration.indexOf(declaration.charAt(quote), quote + 1) : -1;
+        if (close == -1) {
+            return null;
+        }
+        try {
+            return Charset.forName(declaration.substring(quote + 1, close));
+        } catch (IllegalArgumentException e) {
+            throw new ParseException("Unsupported encoding of the " + part, e);
+        }
+    }
+
+    /**
+     * a view of the ASCII bytes of the buffer
+     */
+    private final class AsciiChars implements CharSequence {
+        private int start;
+        private int end;
+
+        void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) buf[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new String(buf, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buf, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
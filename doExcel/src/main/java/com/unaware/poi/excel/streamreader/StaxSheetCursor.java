@@ -0,0 +1,156 @@
+package com.unaware.poi.excel.streamreader;
+
+import org.apache.poi.util.StaxHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author Unaware
+ * @Description: The cursor of XMLStreamReader over the XML of a sheet, the general engine of {@link SheetReader}.
+ *                 Unlike XMLEventReader, no event object is allocated for every node.
+ *                 The attributes are looked up by their index and the text of nodes is copied into a reusable buffer.
+ *                 The parser is created by {@link StaxHelper}, with the DTD and the external entities disabled.
+ * @Title: StaxSheetCursor
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:40
+ */
+final class StaxSheetCursor implements SheetCursor {
+    private final InputStream in;
+    private final XMLStreamReader parser;
+    private final StringBuilder text = new StringBuilder(64);
+    private boolean closed;
+
+    /**
+     * @param in the stream of the sheet, it's closed together with the cursor
+     * @throws IOException
+     */
+    StaxSheetCursor(InputStream in) throws IOException {
+        this.in = in;
+        try {
+            this.parser = StaxHelper.newXMLInputFactory().createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            in.close();
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        try {
+            return !closed && parser.hasNext();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @return the event of the parser, a CDATA section is reported as CHARACTERS
+     * @throws IOException
+     */
+    @Override
+    public int next() throws IOException {
+        try {
+            int event = parser.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.setLength(0);
+                text.append(parser.getTextCharacters(), parser.getTextStart(), parser.getTextLength());
+                return XMLStreamConstants.CHARACTERS;
+            }
+            return event;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public boolean nextStartElement(String localName) throws IOException {
+        try {
+            while (parser.hasNext()) {
+                if (parser.next() == XMLStreamConstants.START_ELEMENT && isSpreadsheetTag() && localName.equals(parser.getLocalName())) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public int skipElement() throws IOException {
+        try {
+            int depth = 1;
+            while (parser.hasNext()) {
+                int event = parser.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT && --depth == 0) {
+                    return event;
+                }
+            }
+            return XMLStreamConstants.END_DOCUMENT;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public String getLocalName() {
+        return parser.getLocalName();
+    }
+
+    @Override
+    public boolean isSpreadsheetTag() {
+        return SheetCursor.isSpreadsheetNamespace(parser.getNamespaceURI());
+    }
+
+    @Override
+    public int attributeIndex(String localName) {
+        for (int i = 0, count = parser.getAttributeCount(); i < count; i++) {
+            String namespace = parser.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && localName.equals(parser.getAttributeLocalName(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getAttributeValue(int index) {
+        return parser.getAttributeValue(index);
+    }
+
+    @Override
+    public CharSequence getAttributeChars(int index) {
+        return parser.getAttributeValue(index);
+    }
+
+    @Override
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * close the parser and the stream, XMLStreamReader doesn't close the stream it reads
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+}
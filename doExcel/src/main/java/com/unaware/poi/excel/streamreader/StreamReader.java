@@ -0,0 +1,522 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.NotSupportedException;
+import com.unaware.poi.excel.exception.ParameterException;
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * @author Unaware
+ * @date 2018/7/12 15:24
+ * obtain the information of .xlsx and .xls File by using streaming method.
+ * It's based on org.apache.poi, override the methods of poi. Therefore you could use this like poi.
+ * It's a good solution for the memory overflow problem.
+ * The example of using this:
+ * <pre>
+ * File file = new File("/path/to/workbook.xlsx");
+ * Workbook workbook = StreamingReader.builder()
+ * .sstCacheSize(-1)      // number of rows to keep in memory for the SharedString table (defaults to 10, -1 represents keeping all in memory)
+ * .rowCacheSize(10)      // number of rows to keep in memory (defaults to 10, greater than 0)
+ * .lazySst(false)        // read the SharedString table on demand, the first rows don't wait for the whole table (defaults to false)
+ * .stringPoolSize(0)     // number of distinct values to pool, so the cells of the same value share one String (defaults to 0, no pool)
+ * .sheetIndex(-1)        // index of sheet to use (defaults to -1, representing that you can read all sheets)
+ * .sheetName("Sheet1")   // name of sheet to use, or .sheets(name -> name.startsWith("2018")) to select the sheets by their name
+ * .rows(0, 99)           // range of rows to read, the rest of the sheet is not read (defaults to all the rows)
+ * .singlePass(false)     // parse every sheet only once, the merged regions are known after the last row (defaults to false)
+ * .reuseRows(false)      // recycle the rows and cells, a row is only valid until the iterator is advanced (defaults to false)
+ * .streamingXls(false)   // read .xls from its records like .xlsx instead of loading the whole workbook by HSSFWorkbook (defaults to false)
+ * .xmlScanner(false)     // parse the sheets of .xlsx from their bytes instead of XMLStreamReader (defaults to false)
+ * .columns("A", "C:F")   // read only the cells of the columns, by their names or their indexes (defaults to all the columns)
+ * .open(file);           // File for XLSX/XLS file (required)
+ *
+ * Or (Not recommended)
+ * InputStream is = new FileInputStream(new File("/path/to/workbook.xlsx"));
+ * Workbook workbook = StreamingReader.builder()
+ * .sstCacheSize(-1)      // number of rows to keep in memory for the SharedString table (defaults to 10, -1 represents keeping all in memory)
+ * .rowCacheSize(10)      // number of rows to keep in memory (defaults to 10)
+ * .bufferSize(65536)     // buffer size to use when reading InputStream to file (defaults to 65536)
+ * .sheetIndex(-1)        // index of sheet to use (defaults to -1, representing that you can read all sheets)
+ * .open(is, excelType);  // InputStream for XLSX/XLS file (required)
+ *
+ * Or from the bytes in memory or a channel, without a temporary .xlsx file
+ * Workbook workbook = StreamingReader.builder()
+ * .open(bytes);          // byte[], ByteBuffer or SeekableByteChannel for XLSX/XLS file (required)
+ * </pre>
+ */
+public class StreamReader {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * streaming .xlsx File
+     */
+    public static class Builder {
+        public enum ExcelType {XLSX, XLS}
+
+        /**
+         * The number of rows to keep in memory
+         */
+        private int rowCacheSize = 10;
+        /**
+         * The number of bytes to read once into memory from the inputStream
+         */
+        private int bufferSize = 1 << 16;
+        /**
+         * The size of the SharedString table cache.
+         * -1 represents that you can keep all in memory
+         */
+        private int sstCacheSize = 10;
+        /**
+         * Whether to read the SharedString table of a .xlsx file on demand.
+         * The table is only scanned as far as the strings which are looked up, and a string is decoded the first time it's looked up,
+         * so the first rows are read without waiting for the whole table.
+         * The sstCacheSize is then the number of decoded strings to keep in memory, -1 keeps all of them.
+         * The SharedString table of a .xls file is always read with the global records of the workbook.
+         */
+        private boolean lazySst = false;
+        /**
+         * The number of the distinct values of the cells to keep in a pool, so the cells of the same value share one String.
+         * The shared strings are pooled by their index in the SharedString table, the other values and the values written by
+         * {@link com.unaware.poi.excel.util.DataUtil#getCellValue} by their contents.
+         * It saves the memory of the rows when the same values repeat a lot, like the categories of a column.
+         * 0 represents that the values are not pooled
+         */
+        private int stringPoolSize = 0;
+        /**
+         * The index of the sheet opened
+         * There can only be one sheet open for a single instance of {@link StreamReader}.
+         * If you want to read more sheets at the same time, you can create new instances.
+         * -1 represents that you can read all sheets
+         */
+        private int sheetIndex = -1;
+        /**
+         * The name of the sheet opened, the case of the name is ignored like Excel.
+         * null represents that the sheets are not selected by their name
+         */
+        private String sheetName;
+        /**
+         * Select the sheets opened by their name, null represents all sheets.
+         * The sheets which are not selected are never read.
+         */
+        private Predicate<String> sheets;
+
+        /**
+         * The index of the first row to read (0-based), the rows before it are skipped by the parser
+         */
+        private int fromRow = 0;
+        /**
+         * The index of the last row to read (0-based and inclusive).
+         * The stream of a sheet is closed once the parser passes it, the rest of the sheet is not read,
+         * so the merged regions of a sheet parsed in a single pass are not known.
+         * The range of the rows of a sheet, see {@link Sheet#getLastRowNum()}, is still that of the whole sheet.
+         * The .xls file loaded by HSSFWorkbook, see {@link #streamingXls}, always has all the rows.
+         */
+        private int toRow = Integer.MAX_VALUE;
+
+        /**
+         * The password to unlock this .xlsx file
+         */
+        private String password;
+
+        /**
+         * Whether to parse every sheet in a single pass.
+         * By default, every sheet is traversed in advance to obtain its merged regions, which are at the end of the sheet.
+         * In single pass, the merged regions are collected while the rows are read,
+         * and they are all known only after the last row has been read.
+         */
+        private boolean singlePass = false;
+
+        /**
+         * Whether to recycle the rows and their cells.
+         * If it is enabled, the iterator of a sheet reuses a fixed pool of rowCacheSize + 1 rows and their cells.
+         * A row and its cells are only valid until the next call of next() of the iterator,
+         * so don't keep them, copy the values you need instead.
+         */
+        private boolean reuseRows = false;
+
+        /**
+         * Whether to read .xls files record by record, and return a {@link StreamWorkbook} like .xlsx files.
+         * Otherwise the whole workbook is loaded by HSSFWorkbook.
+         * The formulas are not rendered in streaming, only their cached results are read,
+         * so the values of the formula cells may differ from those of HSSFWorkbook, it's opt-in for that reason.
+         * An encrypted .xls file is always loaded by HSSFWorkbook.
+         */
+        private boolean streamingXls = false;
+
+        /**
+         * Whether to parse the sheets of a .xlsx file by {@link SheetXmlScanner} instead of the XMLStreamReader of StAX.
+         * The scanner reads the nodes from the UTF-8 bytes of the sheet without creating a String for the names and the attributes,
+         * it only implements the part of XML which the sheets use, and rejects the rest.
+         * It's enabled by the conversion into .csv files which writes the cells as they are parsed, see
+         * {@link com.unaware.poi.excel.SSConverter#directCsv(boolean)}.
+         */
+        private boolean xmlScanner = false;
+
+        /**
+         * The indexes of the columns to read, null represents all the columns.
+         * The cells of the other columns are skipped by the parser, their values and styles are never resolved,
+         * and the rows only contain the cells of these columns.
+         * The .xls file loaded by HSSFWorkbook, see {@link #streamingXls}, always has all the columns, so does an encrypted .xls file.
+         */
+        private BitSet columns;
+
+        /**
+         * @param is        文件流
+         * @param excelType 文件类型
+         * @return org.apache.poi.ss.usermodel.Workbook
+         * read a giver {@link InputStream} and return a new instance of {@link Workbook}.
+         * a temporary file will be written to create a streaming iterator.
+         * In this way, we can read little by little from InputStream.
+         * Not recommended
+         */
+        public Workbook open(InputStream is, ExcelType excelType) throws IOException {
+            if (excelType == ExcelType.XLSX) {
+                WorkbookReader workbookReader = new WorkbookReader(this);
+                workbookReader.init(is);
+                return new StreamWorkbook(workbookReader);
+            } else if (excelType == ExcelType.XLS) {
+                if (!streamingXls) {
+                    return new HSSFWorkbook(is);
+                }
+                XlsWorkbookReader workbookReader = new XlsWorkbookReader(this);
+                workbookReader.init(is);
+                return openXls(workbookReader);
+            } else {
+                throw new NotSupportedException("Only support for .XLSX and .XLS!");
+            }
+        }
+
+        /**
+         * @return org.apache.poi.ss.usermodel.Workbook
+         * read a giver {@link File} and return a new instance of {@link Workbook}.
+         * recommended
+         * @params file
+         */
+        public Workbook open(File file) throws IOException {
+            if (file.getName().toUpperCase().endsWith(".XLSX")) {
+                // using the user model of XSSF to compare with this project
+                //return new XSSFWorkbook(file);
+
+                WorkbookReader workbookReader = new WorkbookReader(this);
+                workbookReader.init(file);
+                return new StreamWorkbook(workbookReader);
+            } else if (file.getName().toUpperCase().endsWith(".XLS")) {
+                if (!streamingXls) {
+                    try (InputStream is = new FileInputStream(file)) {
+                        return new HSSFWorkbook(is);
+                    }
+                }
+                XlsWorkbookReader workbookReader = new XlsWorkbookReader(this);
+                workbookReader.init(file);
+                return openXls(workbookReader);
+            } else {
+                throw new NotSupportedException("Only support for .XLSX and .XLS!");
+            }
+        }
+
+        /**
+         * read the workbook from the bytes in memory, see {@link #open(ByteBuffer)}
+         *
+         * @param bytes the bytes of XLSX/XLS file
+         * @return org.apache.poi.ss.usermodel.Workbook
+         * @throws IOException
+         */
+        public Workbook open(byte[] bytes) throws IOException {
+            return open(ByteBuffer.wrap(bytes));
+        }
+
+        /**
+         * read the workbook from the bytes between the position and the limit of the buffer.
+         * The type is detected from the bytes, an OLE2 file is read as an encrypted .xlsx file if the password is set.
+         * The entries of a .xlsx file are read from the buffer, which must not be changed until the workbook is closed.
+         * A .xls file is copied into a temporary file.
+         *
+         * @param buffer the bytes of XLSX/XLS file
+         * @return org.apache.poi.ss.usermodel.Workbook
+         * @throws IOException
+         */
+        public Workbook open(ByteBuffer buffer) throws IOException {
+            return open(WorkbookSource.of(buffer));
+        }
+
+        /**
+         * read the workbook from the channel like {@link #open(ByteBuffer)}.
+         * The channel is read by the position of the entries, and it's kept open by the caller until the workbook is closed.
+         * A FileChannel is read without moving its position, so the sheets can be read at the same time.
+         *
+         * @param channel the channel of XLSX/XLS file
+         * @return org.apache.poi.ss.usermodel.Workbook
+         * @throws IOException
+         */
+        public Workbook open(SeekableByteChannel channel) throws IOException {
+            return open(WorkbookSource.of(channel));
+        }
+
+        private Workbook open(WorkbookSource source) throws IOException {
+            if (source.detectType(password != null) == ExcelType.XLSX) {
+                WorkbookReader workbookReader = new WorkbookReader(this);
+                workbookReader.init(source);
+                return new StreamWorkbook(workbookReader);
+            }
+            if (!streamingXls) {
+                return new HSSFWorkbook(source.newInputStream(0, source.size()));
+            }
+            XlsWorkbookReader workbookReader = new XlsWorkbookReader(this);
+            workbookReader.init(source);
+            return openXls(workbookReader);
+        }
+
+        /**
+         * @param workbookReader
+         * @return the workbook of the reader, or the workbook loaded by HSSFWorkbook if it is encrypted
+         * @throws IOException
+         */
+        private Workbook openXls(XlsWorkbookReader workbookReader) throws IOException {
+            if (!workbookReader.isEncrypted()) {
+                return new StreamWorkbook(workbookReader);
+            }
+            try (InputStream is = new FileInputStream(workbookReader.getFile())) {
+                return new HSSFWorkbook(is);
+            } finally {
+                new StreamWorkbook(workbookReader).close();
+            }
+        }
+
+        public int getRowCacheSize() {
+            return rowCacheSize;
+        }
+
+        public Builder rowCacheSize(int rowCacheSize) {
+            this.rowCacheSize = rowCacheSize;
+            return this;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * If less than 0, no cache will be used and the entire table will be loaded into memory.
+         *
+         * @return the size of SharedString table cache
+         */
+        public int getSstCacheSize() {
+            return sstCacheSize;
+        }
+
+        public Builder sstCacheSize(int sstCacheSize) {
+            this.sstCacheSize = sstCacheSize;
+            return this;
+        }
+
+        public boolean isLazySst() {
+            return lazySst;
+        }
+
+        public Builder lazySst(boolean lazySst) {
+            this.lazySst = lazySst;
+            return this;
+        }
+
+        public int getStringPoolSize() {
+            return stringPoolSize;
+        }
+
+        public Builder stringPoolSize(int stringPoolSize) {
+            this.stringPoolSize = stringPoolSize;
+            return this;
+        }
+
+        public int getSheetIndex() {
+            return sheetIndex;
+        }
+
+        public Builder sheetIndex(int sheetIndex) {
+            this.sheetIndex = sheetIndex;
+            return this;
+        }
+
+        public String getSheetName() {
+            return sheetName;
+        }
+
+        /**
+         * read only the sheet with the name
+         *
+         * @param sheetName
+         * @return
+         */
+        public Builder sheetName(String sheetName) {
+            this.sheetName = sheetName;
+            return this;
+        }
+
+        public Predicate<String> getSheets() {
+            return sheets;
+        }
+
+        /**
+         * read only the sheets whose name is accepted by the predicate
+         *
+         * @param sheets
+         * @return
+         */
+        public Builder sheets(Predicate<String> sheets) {
+            this.sheets = sheets;
+            return this;
+        }
+
+        public int getFromRow() {
+            return fromRow;
+        }
+
+        public int getToRow() {
+            return toRow;
+        }
+
+        /**
+         * read only the rows in the range
+         *
+         * @param from the index of the first row (0-based)
+         * @param to   the index of the last row (0-based and inclusive)
+         * @return
+         */
+        public Builder rows(int from, int to) {
+            if (from < 0 || to < from) {
+                throw new ParameterException("the range of the rows '" + from + ":" + to + "' is invalid");
+            }
+            this.fromRow = from;
+            this.toRow = to;
+            return this;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public Builder password(String password) {
+            this.password = password;
+            return this;
+        }
+
+        public boolean isSinglePass() {
+            return singlePass;
+        }
+
+        public Builder singlePass(boolean singlePass) {
+            this.singlePass = singlePass;
+            return this;
+        }
+
+        public boolean isReuseRows() {
+            return reuseRows;
+        }
+
+        public Builder reuseRows(boolean reuseRows) {
+            this.reuseRows = reuseRows;
+            return this;
+        }
+
+        public BitSet getColumns() {
+            return columns;
+        }
+
+        /**
+         * read only the cells of the columns
+         *
+         * @param columns the indexes of the columns (0-based)
+         * @return
+         */
+        public Builder columns(int... columns) {
+            if (columns.length == 0) {
+                throw new ParameterException("at least one column must be selected");
+            }
+            BitSet selected = new BitSet();
+            for (int column : columns) {
+                if (column < 0) {
+                    throw new ParameterException("the index of the column '" + column + "' must not be negative");
+                }
+                selected.set(column);
+            }
+            this.columns = selected;
+            return this;
+        }
+
+        /**
+         * read only the cells of the columns
+         *
+         * @param columns the names of the columns like "A", or the ranges of the columns like "C:F"
+         * @return
+         */
+        public Builder columns(String... columns) {
+            if (columns.length == 0) {
+                throw new ParameterException("at least one column must be selected");
+            }
+            BitSet selected = new BitSet();
+            for (String column : columns) {
+                int separator = column.indexOf(':');
+                int first = columnIndex(separator == -1 ? column : column.substring(0, separator));
+                int last = separator == -1 ? first : columnIndex(column.substring(separator + 1));
+                selected.set(Math.min(first, last), Math.max(first, last) + 1);
+            }
+            this.columns = selected;
+            return this;
+        }
+
+        /**
+         * @param name the name of a column like "A" or "AB"
+         * @return the index of the column (0-based)
+         */
+        private static int columnIndex(String name) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty() || trimmed.length() > 3) {
+                throw new ParameterException("the column '" + name + "' is invalid");
+            }
+            int index = 0;
+            for (int i = 0; i < trimmed.length(); i++) {
+                char c = Character.toUpperCase(trimmed.charAt(i));
+                if (c < 'A' || c > 'Z') {
+                    throw new ParameterException("the column '" + name + "' is invalid");
+                }
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+
+        public boolean isStreamingXls() {
+            return streamingXls;
+        }
+
+        public Builder streamingXls(boolean streamingXls) {
+            this.streamingXls = streamingXls;
+            return this;
+        }
+
+        public boolean isXmlScanner() {
+            return xmlScanner;
+        }
+
+        public Builder xmlScanner(boolean xmlScanner) {
+            this.xmlScanner = xmlScanner;
+            return this;
+        }
+    }
+}
@@ -3,22 +3,26 @@ package com.unaware.poi.excel.streamreader;
 import com.unaware.poi.excel.exception.ParameterException;
 import com.unaware.poi.excel.exception.ReadException;
 import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.sstimpl.LazySST;
 import com.unaware.poi.excel.sstimpl.StreamSST;
 import com.unaware.poi.excel.util.XmlUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.crypt.EncryptionInfo;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
-import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.model.SharedStringsTable;
 import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTFont;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import javax.xml.stream.XMLStreamException;
 import java.io.*;
 import java.net.URI;
 import java.nio.file.Files;
@@ -30,17 +34,11 @@ import java.util.*;
  * @date 2018/7/12 15:22
  * obtain the information of the workbook, sharedString, styles and sheets.
  * For workbook and styles, directly put all their contents in memory.
- * For sharedString, you can choose to put some or all of it in memory according to the parameter sstCacheSize.
+ * For sharedString, you can choose to put some or all of it in memory according to the parameter sstCacheSize,
+ * or read it on demand according to the parameter lazySst.
  * For sheets, put some rows in memory, the number is up to the parameter rowCacheSize.
  */
-public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
-    /**
-     * this holds the StreamSheet objects attached to this workbook
-     */
-    private final List<StreamSheet> sheets;
-    private final List<Map<String, String>> sheetProperties;
-    private final StreamReader.Builder builder;
-
+public class WorkbookReader extends AbstractWorkbookReader {
     /**
      * shared string table - a cache of strings in this workbook
      */
@@ -58,13 +56,9 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
 
     private File sstCache;
 
-    private boolean use1904Dates = false;
-
 
     public WorkbookReader(StreamReader.Builder builder) {
-        this.sheets = new ArrayList<>();
-        this.sheetProperties = new ArrayList<>();
-        this.builder = builder;
+        super(builder);
     }
 
 
@@ -73,12 +67,13 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
      *
      * @param is
      */
+    @Override
     public void init(InputStream is) {
         try {
             if (builder.getBufferSize() <= 0) {
                 throw new ParameterException("the bufferSize must be greater than 0");
             }
-            tempFile = writeInputStreamToTempFile(is, builder.getBufferSize());
+            tempFile = writeInputStreamToTempFile(is, builder.getBufferSize(), ".xlsx");
             //System.out.println("Debug: Created temp file [" + tempFile.getAbsolutePath() + "]");
             this.init(tempFile);
         } catch (IOException e) {
@@ -91,34 +86,83 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
      *
      * @param file
      */
+    @Override
     public void init(File file) {
         try {
-            if (builder.getPassword() != null) {
-                /*
-                  Based on: https://poi.apache.org/encryption.html
-                 */
-                POIFSFileSystem poifs = new POIFSFileSystem(file);
-                EncryptionInfo info = new EncryptionInfo(poifs);
-                Decryptor d = Decryptor.getInstance(info);
-                if (!d.verifyPassword(builder.getPassword())) {
-                    throw new RuntimeException("Unable to process: this document is encrypted, the password is wrong!");
-                }
-                OPCpkg = OPCPackage.open(d.getDataStream(poifs));
-            } else {
-                OPCpkg = OPCPackage.open(file);
-            }
+            OPCpkg = builder.getPassword() != null ? decrypt(new POIFSFileSystem(file)) : OPCPackage.open(file);
+        } catch (GeneralSecurityException e) {
+            throw new ReadException("Unable to read workbook: Decryption failed", e);
+        } catch (IOException e) {
+            throw new ReadException("Unable to open workbook", e);
+        } catch (OpenXML4JException e) {
+            throw new ReadException("Unable to read workbook", e);
+        }
+        load();
+    }
+
+    /**
+     * read the workbook from the bytes in memory or behind a channel.
+     * The entries of the zip file are read from their position in the source, without a temporary file.
+     *
+     * @param source
+     */
+    void init(WorkbookSource source) {
+        try {
+            OPCpkg = builder.getPassword() != null
+                    ? decrypt(new POIFSFileSystem(source.newInputStream(0, source.size())))
+                    : OPCPackage.open(new ZipChannelSource(source));
+        } catch (GeneralSecurityException e) {
+            throw new ReadException("Unable to read workbook: Decryption failed", e);
+        } catch (IOException e) {
+            throw new ReadException("Unable to open workbook", e);
+        } catch (OpenXML4JException e) {
+            throw new ReadException("Unable to read workbook", e);
+        }
+        load();
+    }
 
+    /**
+     * Based on: https://poi.apache.org/encryption.html
+     *
+     * @param poifs the encrypted workbook
+     * @return the decrypted package
+     * @throws IOException
+     * @throws GeneralSecurityException
+     * @throws InvalidFormatException
+     */
+    private OPCPackage decrypt(POIFSFileSystem poifs) throws IOException, GeneralSecurityException, InvalidFormatException {
+        EncryptionInfo info = new EncryptionInfo(poifs);
+        Decryptor d = Decryptor.getInstance(info);
+        if (!d.verifyPassword(builder.getPassword())) {
+            throw new RuntimeException("Unable to process: this document is encrypted, the password is wrong!");
+        }
+        return OPCPackage.open(d.getDataStream(poifs));
+    }
+
+    /**
+     * parse the workbook, the shared strings, the styles and the sheets of the package
+     */
+    private void load() {
+        try {
             XSSFReader reader = new XSSFReader(OPCpkg);
 
-            if (builder.getSstCacheSize() > 0) {
+            if (builder.isLazySst()) {
                 sstCache = Files.createTempFile("", "").toFile();
+                sharedStringSource = LazySST.getSharedStringTable(sstCache, builder.getSstCacheSize(), OPCpkg);
+            }
+            // a table which is not encoded in UTF-8 is read in advance
+            if (sharedStringSource == null && builder.getSstCacheSize() > 0) {
+                if (sstCache == null) {
+                    sstCache = Files.createTempFile("", "").toFile();
+                }
                 //System.out.println("Debug: Created sst cache file [" + sstCache.getAbsolutePath() + "]");
                 sharedStringSource = StreamSST.getSharedStringTable(sstCache, builder.getSstCacheSize(), OPCpkg);
-            } else {
+            } else if (sharedStringSource == null) {
                 sharedStringSource = reader.getSharedStringsTable();
             }
 
             stylesSource = reader.getStylesTable();
+            styles = new StreamStyles(stylesSource);
 
             NodeList workbookPr = XmlUtils.searchForNodeList(XmlUtils.document(reader.getWorkbookData()), "/workbook/workbookPr");
             if (workbookPr.getLength() == 1) {
@@ -131,32 +175,31 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
             if (builder.getRowCacheSize() <= 0) {
                 throw new ParameterException("the rowCacheSize must be greater than 0");
             }
-            LoadSheets(reader, sharedStringSource, stylesSource, builder.getRowCacheSize());
-        } catch (GeneralSecurityException e) {
-            throw new ReadException("Unable to read workbook: Decryption failed", e);
+            LoadSheets(reader, sharedStringSource, styles, builder.getRowCacheSize());
         } catch (IOException e) {
             throw new ReadException("Unable to open workbook", e);
-        } catch (OpenXML4JException | XMLStreamException e) {
+        } catch (OpenXML4JException e) {
             throw new ReadException("Unable to read workbook", e);
         }
     }
 
     /**
-     * obtain the stream of all sheet from reader
+     * obtain the stream of the selected sheets from reader.
+     * The streams of the other sheets are closed without being read, so their parts are never decompressed.
      *
      * @param reader
      * @param sharedStringSource
-     * @param stylesSource
+     * @param styles
      * @param rowCacheSize
      * @throws IOException
      * @throws InvalidFormatException
-     * @throws XMLStreamException
      */
-    private void LoadSheets(XSSFReader reader, SharedStringsTable sharedStringSource, StylesTable stylesSource, int rowCacheSize) throws IOException, InvalidFormatException, XMLStreamException {
+    private void LoadSheets(XSSFReader reader, SharedStringsTable sharedStringSource, StreamStyles styles, int rowCacheSize) throws IOException, InvalidFormatException {
         /*
           obtain the name of all sheets
          */
         int numSheet = lookupSheetNames(reader);
+        checkSelectedSheets();
 
         /*
           Some workbooks have multiple references to the same sheet.
@@ -164,32 +207,24 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
           The sheets are listed in order, so we must keep track of insertion order.
          */
         XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) reader.getSheetsData();
-        Map<URI, InputStream> sheetStreams = new LinkedHashMap<>();
+        Map<URI, PackagePart> sheetParts = new LinkedHashMap<>();
         while (iter.hasNext()) {
-            InputStream is = iter.next();
-            sheetStreams.put(iter.getSheetPart().getPartName().getURI(), is);
+            // the iterator opens the stream of every sheet, it's closed at once without being read
+            iter.next().close();
+            sheetParts.put(iter.getSheetPart().getPartName().getURI(), iter.getSheetPart());
         }
 
         /*
-          Iterate over the loaded streams
+          Iterate over the parts, only the selected sheets are opened
          */
         int i = 0;
-        for (URI uri : sheetStreams.keySet()) {
-            //InputStream mergedStream = reader.getSheet("rId" + (i+1));
-            if (builder.getSheetIndex() != -1) {
-                if (builder.getSheetIndex() < 0 || builder.getSheetIndex() >= numSheet) {
-                    throw new ParameterException("the sheet with the index '" + builder.getSheetIndex() + "' does not exist");
-                }
-                if (builder.getSheetIndex() == i) {
-                    //XMLEventReader parser = StaxHelper.newXMLInputFactory().createXMLEventReader(sheetStreams.get(uri));
-                    sheets.add(new StreamSheet(sheetProperties.get(i).get("name"),
-                            new SheetReader(sharedStringSource, stylesSource, sheetStreams.get(uri), reader.getSheet("rId" + (i+1)), use1904Dates, rowCacheSize)));
-                    break;
-                }
-            } else {
-                //XMLEventReader parser = StaxHelper.newXMLInputFactory().createXMLEventReader(sheetStreams.get(uri));
+        for (PackagePart part : sheetParts.values()) {
+            if (i < numSheet && isSelectedSheet(i)) {
+                // in single pass, there is no second stream to obtain the mergeCells in advance
                 sheets.add(new StreamSheet(sheetProperties.get(i).get("name"),
-                        new SheetReader(sharedStringSource, stylesSource, sheetStreams.get(uri), reader.getSheet("rId" + (i+1)), use1904Dates, rowCacheSize)));
+                        new SheetReader(sharedStringSource, styles, part.getInputStream(), builder.isSinglePass() ? null : part::getInputStream,
+                                use1904Dates, rowCacheSize, builder.isReuseRows(), builder.getColumns(), builder.getFromRow(), builder.getToRow(), stringPool,
+                                builder.isXmlScanner())));
             }
             i++;
         }
@@ -217,27 +252,6 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
         return nodeList.getLength();
     }
 
-    /**
-     * create the temporary file
-     *
-     * @param is
-     * @param bufferSize
-     * @return
-     * @throws IOException
-     */
-    private static File writeInputStreamToTempFile(InputStream is, int bufferSize) throws IOException {
-        File file = Files.createTempFile("temp_", ".xlsx").toFile();
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            int num;
-            byte[] bytes = new byte[bufferSize];
-            while ((num = is.read(bytes)) != -1) {
-                fos.write(bytes, 0, num);
-            }
-            is.close();
-            return file;
-        }
-    }
-
     /**
      * Return a object representing a collection of shared objects used for styling content,
      * e.g. fonts, cell styles, colors, etc.
@@ -246,12 +260,24 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
         return this.stylesSource;
     }
 
-    public List<StreamSheet> getSheets() {
-        return sheets;
+    @Override
+    public short getNumberOfFonts() {
+        return (short) stylesSource.getFonts().size();
     }
 
-    public List<Map<String, String>> getSheetProperties() {
-        return sheetProperties;
+    @Override
+    public Font getFontAt(short idx) {
+        if (idx < 0 || idx >= stylesSource.getFonts().size()) {
+            return null;
+        }
+        return stylesSource.getFonts().get(idx);
+    }
+
+    @Override
+    public Font createFont() {
+        XSSFFont font = new XSSFFont(CTFont.Factory.newInstance());
+        font.registerTo(stylesSource);
+        return font;
     }
 
     /**
@@ -311,44 +337,15 @@ public class WorkbookReader implements Iterable<Sheet>, AutoCloseable {
                 //System.out.println("Debug: Deleting tmp file [" + tempFile.getAbsolutePath() + "]");
                 tempFile.delete();
             }
-            if (sharedStringSource instanceof StreamSST) {
+            if (sharedStringSource instanceof AutoCloseable) {
                 //System.out.println("Debug: Deleting sst cache file [" + this.sstCache.getAbsolutePath() + "]");
-                ((StreamSST) sharedStringSource).close();
-                sstCache.delete();
+                ((AutoCloseable) sharedStringSource).close();
+            }
+            // the mapped segments of the cache file may still be held until they are garbage collected
+            if (sstCache != null && !sstCache.delete()) {
+                sstCache.deleteOnExit();
             }
             sheetProperties.clear();
         }
     }
-
-    @Override
-    public Iterator<Sheet> iterator() {
-        return new StreamSheetIterator(sheets.iterator());
-    }
-
-    /**
-     * add inner class to achieve iterator Sheets
-     * implements Iterator<Sheet>
-     */
-    private static class StreamSheetIterator implements Iterator<Sheet> {
-        private final Iterator<StreamSheet> iterator;
-
-        public StreamSheetIterator(Iterator<StreamSheet> iterator) {
-            this.iterator = iterator;
-        }
-
-        @Override
-        public boolean hasNext() {
-            return iterator.hasNext();
-        }
-
-        @Override
-        public Sheet next() {
-            return iterator.next();
-        }
-
-        @Override
-        public void remove() {
-            throw new RuntimeException("NotSupported");
-        }
-    }
 }
@@ -0,0 +1,261 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.NotSupportedException;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Unaware
+ * @Description: the bytes of a workbook in memory or behind a channel, read by their position.
+ *                 The reads don't move a shared cursor (except for a channel which isn't a FileChannel, whose reads are synchronized),
+ *                 so the parts of a .xlsx workbook can be read by the sheets at the same time, see {@link ZipChannelSource}.
+ *                 The source is not closed with the workbook, it's kept open by the caller until the workbook is closed.
+ * @Title: WorkbookSource
+ * @ProjectName doExcel
+ * @date 2026/10/17 20:40
+ */
+abstract class WorkbookSource {
+    private static final long OLE2_SIGNATURE = 0xE11AB1A1E011CFD0L;
+    private static final int ZIP_SIGNATURE = 0x04034B50;
+    private static final int EMPTY_ZIP_SIGNATURE = 0x06054B50;
+
+    static WorkbookSource of(ByteBuffer buffer) {
+        return new BufferSource(buffer.slice());
+    }
+
+    static WorkbookSource of(SeekableByteChannel channel) {
+        return new ChannelSource(channel);
+    }
+
+    /**
+     * @return the number of bytes
+     * @throws IOException
+     */
+    abstract long size() throws IOException;
+
+    /**
+     * read the bytes from the position
+     *
+     * @param position
+     * @param bytes
+     * @param off
+     * @param len
+     * @return the number of bytes read, -1 at the end of the source
+     * @throws IOException
+     */
+    abstract int read(long position, byte[] bytes, int off, int len) throws IOException;
+
+    /**
+     * copy the bytes into a temporary file, for the workbooks which are only read from a file
+     *
+     * @param suffix the extension of the file
+     * @return
+     * @throws IOException
+     */
+    abstract File copyToTempFile(String suffix) throws IOException;
+
+    /**
+     * read the bytes from the position into the array
+     *
+     * @param position
+     * @param bytes
+     * @throws IOException if there are not enough bytes
+     */
+    void readFully(long position, byte[] bytes) throws IOException {
+        int off = 0;
+        while (off < bytes.length) {
+            int n = read(position + off, bytes, off, bytes.length - off);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of the workbook at " + (position + off));
+            }
+            off += n;
+        }
+    }
+
+    /**
+     * @param position
+     * @param length
+     * @return the stream of the bytes from the position
+     */
+    InputStream newInputStream(long position, long length) {
+        return new RangeInputStream(position, position + length);
+    }
+
+    /**
+     * A .xlsx workbook is a zip file, a .xls workbook or an encrypted .xlsx workbook is an OLE2 file.
+     *
+     * @param encrypted whether an OLE2 file is an encrypted .xlsx workbook
+     * @return
+     * @throws IOException
+     */
+    StreamReader.Builder.ExcelType detectType(boolean encrypted) throws IOException {
+        if (size() >= 8) {
+            byte[] header = new byte[8];
+            readFully(0, header);
+            ByteBuffer bytes = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            if (bytes.getInt(0) == ZIP_SIGNATURE || bytes.getInt(0) == EMPTY_ZIP_SIGNATURE) {
+                return StreamReader.Builder.ExcelType.XLSX;
+            } else if (bytes.getLong(0) == OLE2_SIGNATURE) {
+                return encrypted ? StreamReader.Builder.ExcelType.XLSX : StreamReader.Builder.ExcelType.XLS;
+            }
+        }
+        throw new NotSupportedException("Only support for .XLSX and .XLS!");
+    }
+
+    private static File createTempFile(String suffix) throws IOException {
+        return Files.createTempFile("temp_", suffix).toFile();
+    }
+
+    /**
+     * the bytes of a ByteBuffer, every read uses its own view of the buffer
+     */
+    private static final class BufferSource extends WorkbookSource {
+        private final ByteBuffer buffer;
+
+        private BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        long size() {
+            return buffer.limit();
+        }
+
+        @Override
+        int read(long position, byte[] bytes, int off, int len) {
+            if (position >= buffer.limit()) {
+                return -1;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position((int) position);
+            len = Math.min(len, view.remaining());
+            view.get(bytes, off, len);
+            return len;
+        }
+
+        @Override
+        File copyToTempFile(String suffix) throws IOException {
+            File file = createTempFile(suffix);
+            try (FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                ByteBuffer view = buffer.duplicate();
+                while (view.hasRemaining()) {
+                    target.write(view);
+                }
+            }
+            return file;
+        }
+    }
+
+    /**
+     * the bytes of a channel, a FileChannel is read by its position without moving its cursor
+     */
+    private static final class ChannelSource extends WorkbookSource {
+        private final SeekableByteChannel channel;
+
+        private ChannelSource(SeekableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        int read(long position, byte[] bytes, int off, int len) throws IOException {
+            ByteBuffer dst = ByteBuffer.wrap(bytes, off, len);
+            if (channel instanceof FileChannel) {
+                return ((FileChannel) channel).read(dst, position);
+            }
+            synchronized (channel) {
+                channel.position(position);
+                return channel.read(dst);
+            }
+        }
+
+        @Override
+        File copyToTempFile(String suffix) throws IOException {
+            File file = createTempFile(suffix);
+            try (FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                long size = channel.size(), position = 0;
+                if (channel instanceof FileChannel) {
+                    // the bytes are copied by the file system if it can
+                    while (position < size) {
+                        long n = ((FileChannel) channel).transferTo(position, size - position, target);
+                        if (n <= 0) {
+                            break;
+                        }
+                        position += n;
+                    }
+                } else {
+                    synchronized (channel) {
+                        channel.position(0);
+                        while (position < size) {
+                            long n = target.transferFrom(channel, position, size - position);
+                            if (n <= 0) {
+                                break;
+                            }
+                            position += n;
+                        }
+                    }
+                }
+            }
+            return file;
+        }
+    }
+
+    /**
+     * read the bytes from start to end
+     */
+    private final class RangeInputStream extends InputStream {
+        private long position;
+        private final long end;
+
+        private RangeInputStream(long start, long end) {
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            int n = WorkbookSource.this.read(position, b, off, (int) Math.min(len, end - position));
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            n = Math.max(0, Math.min(n, end - position));
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+}
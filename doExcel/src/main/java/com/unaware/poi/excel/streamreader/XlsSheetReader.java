@@ -0,0 +1,511 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.ReadException;
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.util.StringPool;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.ColumnInfoRecord;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MergeCellsRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+
+/**
+ * @author Unaware
+ * @Title: XlsSheetReader
+ * @ProjectName doExcel
+ * @Description: Read a sheet of a .xls workbook record by record, starting at the BOF record of the sheet.
+ *                 The records are pulled from a RecordFactoryInputStream, which also turns the RK and MulRK records into NumberRecords,
+ *                 so only the rows in the rowCache are kept in memory.
+ *                 The sheet has its own file system, the reads of a file system are not thread-safe.
+ *                 The merged regions and the last row are at the end of the sheet,
+ *                 so the sheet is scanned in advance by the headers of its records, and only the bodies of those records are read.
+ *                 The scan runs the first time the merged regions or the range of the rows are asked for.
+ *                 The value of a formula cell is its cached result, the formula itself is not rendered.
+ * @date 2026/10/17 17:45
+ */
+public class XlsSheetReader extends AbstractSheetReader {
+    private static final String FALSE_AS_STRING = "0";
+    private static final String TRUE_AS_STRING = "1";
+    /**
+     * the codes of the types of the cached results of the formulas, like those of CellType.
+     * FormulaRecord of POI 3.17 has no getCachedResultTypeEnum(), and CellType.forInt and getCode are deprecated
+     */
+    private static final int CACHED_STRING = 1;
+    private static final int CACHED_BOOLEAN = 4;
+    private static final int CACHED_ERROR = 5;
+
+    private final NPOIFSFileSystem fileSystem;
+    private final DocumentInputStream documentStream;
+    private final RecordFactoryInputStream recordStream;
+    private final IntFunction<String> sharedStrings;
+    private final boolean singlePass;
+    private final String entryName;
+    private final int bofPosition;
+    /**
+     * whether the sheet has been scanned in advance, or doesn't need to be
+     */
+    private boolean scanned;
+
+    /**
+     * the rows which have a row record, but whose cells have not been read yet
+     */
+    private final PriorityQueue<Integer> emptyRows = new PriorityQueue<>();
+    /**
+     * the record which is handled again, after a row has been put into the rowCache
+     */
+    private Record pendingRecord;
+    /**
+     * the formula cell whose string result is in the following StringRecord
+     */
+    private StreamCell formulaCell;
+    /**
+     * the depth of the BOF records, the charts embedded in the sheet are nested substreams
+     */
+    private int depth;
+    private boolean finished;
+
+    /**
+     * constructor
+     * @param file          the .xls file
+     * @param entryName     the name of the workbook document in the file system
+     * @param bofPosition   the offset of the BOF record of the sheet in the workbook document
+     * @param sharedStrings look up the strings of the SharedString table by their index
+     * @param styles        the classified styles of the workbook
+     * @param singlePass    whether to collect the merged regions while the sheet is read, instead of scanning the sheet in advance
+     * @param use1904Dates
+     * @param rowCacheSize
+     * @param reuseRows     whether to recycle the rows and their cells once the iterator is advanced
+     * @param columns       the indexes of the columns which are read, the records of the other cells are skipped. null represents all the columns
+     * @param fromRow       the index of the first row which is read, the records of the rows before it are skipped
+     * @param toRow         the index of the last row which is read, the stream is closed at the first cell behind it
+     * @param stringPool    the pool of the values of the cells, null represents the values are not pooled
+     * @throws IOException
+     */
+    XlsSheetReader(File file, String entryName, int bofPosition, IntFunction<String> sharedStrings, StreamStyles styles, boolean singlePass,
+                   boolean use1904Dates, int rowCacheSize, boolean reuseRows, BitSet columns, int fromRow, int toRow, StringPool stringPool) throws IOException {
+        super(styles, use1904Dates, rowCacheSize, reuseRows, columns, fromRow, toRow, stringPool);
+        this.sharedStrings = sharedStrings;
+        this.singlePass = singlePass;
+        this.entryName = entryName;
+        this.bofPosition = bofPosition;
+        this.scanned = singlePass;
+        this.fileSystem = new NPOIFSFileSystem(file, true);
+        try {
+            this.documentStream = openSheet(entryName, bofPosition);
+            this.recordStream = new RecordFactoryInputStream(documentStream, false);
+        } catch (IOException | RuntimeException e) {
+            fileSystem.close();
+            throw e;
+        }
+    }
+
+    /**
+     * open the workbook document, and move to the BOF record of the sheet
+     *
+     * @param entryName
+     * @param bofPosition
+     * @return
+     * @throws IOException
+     */
+    private DocumentInputStream openSheet(String entryName, int bofPosition) throws IOException {
+        DocumentInputStream in = fileSystem.createDocumentInputStream(entryName);
+        if (in.skip(bofPosition) != bofPosition) {
+            in.close();
+            throw new IOException("The sheet at " + bofPosition + " is beyond the end of the workbook");
+        }
+        return in;
+    }
+
+    /**
+     * scan the sheet in advance, the first time the merged regions or the range of the rows are asked for
+     */
+    @Override
+    protected synchronized void loadMergedRegions() {
+        if (scanned) {
+            return;
+        }
+        scanned = true;
+        try (DocumentInputStream scanStream = openSheet(entryName, bofPosition)) {
+            scanSheet(scanStream);
+        } catch (IOException e) {
+            throw new ReadException("Unable to read the sheet at " + bofPosition, e);
+        }
+        mergedRegionsLoaded = true;
+    }
+
+    @Override
+    public int getFirstRowNum() {
+        // the range of the rows is obtained by the same scan
+        loadMergedRegions();
+        return super.getFirstRowNum();
+    }
+
+    @Override
+    public int getLastRowNum() {
+        loadMergedRegions();
+        return super.getLastRowNum();
+    }
+
+    /**
+     * obtain the merged regions and the range of the rows from the headers of the records,
+     * the bodies of the other records are skipped without being parsed.
+     *
+     * @param in
+     * @throws IOException
+     */
+    private void scanSheet(DocumentInputStream in) throws IOException {
+        int level = 0, first = -1, last = -1;
+        while (in.available() >= 4) {
+            int sid = in.readUShort(), size = in.readUShort(), read = 0;
+            switch (sid) {
+                case BOFRecord.sid:
+                    level++;
+                    break;
+                case EOFRecord.sid:
+                    level--;
+                    break;
+                case MergeCellsRecord.sid:
+                    if (level == 1) {
+                        int count = in.readUShort();
+                        for (int i = 0; i < count; i++) {
+                            int firstRow = in.readUShort(), lastRow = in.readUShort();
+                            int firstCol = in.readUShort(), lastCol = in.readUShort();
+                            mergedRegions.add(new CellRangeAddress(firstRow, lastRow, firstCol, lastCol));
+                        }
+                        read = 2 + count * 8;
+                    }
+                    break;
+                case RowRecord.sid:
+                case NumberRecord.sid:
+                case RKRecord.sid:
+                case MulRKRecord.sid:
+                case LabelSSTRecord.sid:
+                case LabelRecord.sid:
+                case FormulaRecord.sid:
+                case BoolErrRecord.sid:
+                case BlankRecord.sid:
+                case MulBlankRecord.sid:
+                    if (level == 1) {
+                        // the first field of these records is the index of the row
+                        int row = in.readUShort();
+                        first = first == -1 ? row : Math.min(first, row);
+                        last = Math.max(last, row);
+                        read = 2;
+                    }
+                    break;
+            }
+            if (level == 0) {
+                break;
+            }
+            in.skip(size - read);
+        }
+        numMergedRegions = mergedRegions.size();
+        firstRowNum = Math.max(first, 0);
+        lastRowNum = Math.max(last, 0);
+    }
+
+    @Override
+    protected boolean hasMoreRecords() {
+        return !finished;
+    }
+
+    @Override
+    protected void readNextRecord() {
+        Record record = pendingRecord;
+        pendingRecord = null;
+        if (record == null) {
+            record = recordStream.nextRecord();
+            if (record == null) {
+                // the workbook ends without the EOF record of the sheet
+                record = EOFRecord.instance;
+            }
+        }
+        switch (record.getSid()) {
+            case BOFRecord.sid:
+                depth++;
+                return;
+            case EOFRecord.sid:
+                if (depth > 1) {
+                    depth--;
+                } else if (flushRowsBefore(Integer.MAX_VALUE, record)) {
+                    finished = true;
+                }
+                return;
+        }
+        if (depth == 1) {
+            handleRecord(record);
+        }
+    }
+
+    /**
+     * handle a record of the sheet itself
+     *
+     * @param record
+     */
+    private void handleRecord(Record record) {
+        int cellRow = record instanceof CellValueRecordInterface ? ((CellValueRecordInterface) record).getRow()
+                : record instanceof MulBlankRecord ? ((MulBlankRecord) record).getRow() : -1;
+        if (cellRow != -1 && isBeforeRows(cellRow)) {
+            formulaCell = null;
+            return;
+        }
+        if (cellRow != -1 && isAfterRows(cellRow)) {
+            // the rows of the range are put into the rowCache, then the rest of the sheet is not read
+            if (flushRowsBefore(Integer.MAX_VALUE, record)) {
+                finished = true;
+                stopped = true;
+                documentStream.close();
+            }
+            return;
+        }
+        switch (record.getSid()) {
+            case RowRecord.sid:
+                int rowIndex = ((RowRecord) record).getRowNumber();
+                if (isBeforeRows(rowIndex) || isAfterRows(rowIndex)) {
+                    // the row records of a block come before its cells, so a row behind the range doesn't stop the sheet
+                    break;
+                }
+                if (currentRow == null || currentRow.getRowNum() != rowIndex) {
+                    emptyRows.add(rowIndex);
+                }
+                break;
+            case NumberRecord.sid:
+                NumberRecord number = (NumberRecord) record;
+                if (startCell(number.getRow(), record) && isSelected(number.getColumn())) {
+                    addCell(number, "n", contentsOf(Double.toString(number.getValue())));
+                }
+                break;
+            case LabelSSTRecord.sid:
+                LabelSSTRecord labelSST = (LabelSSTRecord) record;
+                if (startCell(labelSST.getRow(), record) && isSelected(labelSST.getColumn())) {
+                    addCell(labelSST, "s", sharedString(labelSST.getSSTIndex(), sharedStrings))
+                            .setSharedStringIndex(labelSST.getSSTIndex());
+                }
+                break;
+            case LabelRecord.sid:
+                LabelRecord label = (LabelRecord) record;
+                if (startCell(label.getRow(), record) && isSelected(label.getColumn())) {
+                    addCell(label, "s", contentsOf(label.getValue()));
+                }
+                break;
+            case BoolErrRecord.sid:
+                BoolErrRecord boolErr = (BoolErrRecord) record;
+                if (startCell(boolErr.getRow(), record) && isSelected(boolErr.getColumn())) {
+                    if (boolErr.isBoolean()) {
+                        addCell(boolErr, "b", boolErr.getBooleanValue() ? TRUE_AS_STRING : FALSE_AS_STRING);
+                    } else {
+                        addCell(boolErr, "e", FormulaError.forInt(boolErr.getErrorValue()).getString());
+                    }
+                }
+                break;
+            case FormulaRecord.sid:
+                FormulaRecord formula = (FormulaRecord) record;
+                if (startCell(formula.getRow(), record)) {
+                    if (isSelected(formula.getColumn())) {
+                        handleFormula(formula);
+                    } else {
+                        // the string result behind it belongs to no cell
+                        formulaCell = null;
+                    }
+                }
+                break;
+            case StringRecord.sid:
+                // the string result of the previous formula
+                if (formulaCell != null) {
+                    formulaCell.setRawContents(contentsOf(((StringRecord) record).getString()));
+                    formulaCell = null;
+                }
+                break;
+            case BlankRecord.sid:
+                BlankRecord blank = (BlankRecord) record;
+                if (startCell(blank.getRow(), record) && isSelected(blank.getColumn())) {
+                    addCell(blank, null, null);
+                }
+                break;
+            case MulBlankRecord.sid:
+                MulBlankRecord mulBlank = (MulBlankRecord) record;
+                if (startCell(mulBlank.getRow(), record)) {
+                    for (int i = 0; i < mulBlank.getNumColumns(); i++) {
+                        if (!isSelected(mulBlank.getFirstColumn() + i)) {
+                            continue;
+                        }
+                        StreamCell cell = newCell(mulBlank.getFirstColumn() + i, mulBlank.getRow());
+                        cell.setStyleIndex(mulBlank.getXFAt(i) & 0xFFFF);
+                        currentRow.addCell(cell);
+                    }
+                }
+                break;
+            case DimensionsRecord.sid:
+                // the range of the rows is known from the scan unless the sheet is parsed in a single pass
+                if (singlePass) {
+                    DimensionsRecord dimensions = (DimensionsRecord) record;
+                    firstRowNum = dimensions.getFirstRow();
+                    lastRowNum = Math.max(dimensions.getLastRow() - 1, 0);
+                }
+                break;
+            case ColumnInfoRecord.sid:
+                colWidth.add(((ColumnInfoRecord) record).getColumnWidth() / 256.0);
+                break;
+            case MergeCellsRecord.sid:
+                // in single pass, the merged regions are collected here
+                if (singlePass) {
+                    MergeCellsRecord mergeCells = (MergeCellsRecord) record;
+                    for (int i = 0; i < mergeCells.getNumAreas(); i++) {
+                        mergedRegions.add(mergeCells.getAreaAt(i));
+                    }
+                    numMergedRegions += mergeCells.getNumAreas();
+                }
+                break;
+        }
+    }
+
+    /**
+     * the value of the formula cell is its cached result,
+     * the type of the result is kept like the formula cells of .xlsx
+     *
+     * @param formula
+     */
+    private void handleFormula(FormulaRecord formula) {
+        StreamCell cell = addCell(formula, null, null);
+        switch (formula.getCachedResultType()) {
+            case CACHED_STRING:
+                cell.setType("s");
+                if (formula.hasCachedResultString()) {
+                    formulaCell = cell;
+                } else {
+                    cell.setRawContents("");
+                }
+                break;
+            case CACHED_BOOLEAN:
+                cell.setType("b");
+                cell.setRawContents(formula.getCachedBooleanValue() ? TRUE_AS_STRING : FALSE_AS_STRING);
+                break;
+            case CACHED_ERROR:
+                cell.setType("e");
+                cell.setRawContents(FormulaError.forInt(formula.getCachedErrorValue()).getString());
+                break;
+            default:
+                cell.setType("n");
+                cell.setRawContents(contentsOf(Double.toString(formula.getValue())));
+                break;
+        }
+        cell.setType("str");
+    }
+
+    /**
+     * move to the row of a cell, the rows before it are put into the rowCache
+     *
+     * @param rowIndex
+     * @param record   the record of the cell
+     * @return whether the cell can be added to the current row, otherwise the record is handled again later
+     */
+    private boolean startCell(int rowIndex, Record record) {
+        if (!flushRowsBefore(rowIndex, record)) {
+            return false;
+        }
+        if (currentRow == null) {
+            while (!emptyRows.isEmpty() && emptyRows.peek() == rowIndex) {
+                emptyRows.poll();
+            }
+            currentRow = newRow(rowIndex);
+        }
+        return true;
+    }
+
+    /**
+     * put one of the rows before the row into the rowCache, the current row first and then the empty rows.
+     * Only one row is put for every record, so the rowCache never grows beyond the rowCacheSize,
+     * and the record is handled again until all the rows before the row are put.
+     *
+     * @param rowIndex
+     * @param record
+     * @return whether all the rows before the row have been put into the rowCache
+     */
+    private boolean flushRowsBefore(int rowIndex, Record record) {
+        if (currentRow != null) {
+            if (currentRow.getRowNum() == rowIndex) {
+                return true;
+            }
+            rowCache.add(currentRow);
+            currentRow = null;
+            formulaCell = null;
+        } else if (!emptyRows.isEmpty() && emptyRows.peek() < rowIndex) {
+            int emptyRow = emptyRows.poll();
+            while (!emptyRows.isEmpty() && emptyRows.peek() == emptyRow) {
+                emptyRows.poll();
+            }
+            rowCache.add(newRow(emptyRow));
+        } else {
+            return true;
+        }
+        pendingRecord = record;
+        return false;
+    }
+
+    /**
+     * add a cell of the record to the current row
+     *
+     * @param record
+     * @param type     the type of the value like the attribute "t" of .xlsx, null for a blank cell
+     * @param contents
+     * @return
+     */
+    private StreamCell addCell(CellValueRecordInterface record, String type, String contents) {
+        StreamCell cell = newCell(record.getColumn(), record.getRow());
+        cell.setStyleIndex(record.getXFIndex() & 0xFFFF);
+        if (type != null) {
+            cell.setType(type);
+        }
+        cell.setRawContents(contents);
+        currentRow.addCell(cell);
+        return cell;
+    }
+
+    @Override
+    protected String sharedStringAt(int index) {
+        return sharedStrings.apply(index);
+    }
+
+    /**
+     * Closes the stream and the file system of this sheet
+     *
+     * @throws IOException
+     */
+    @Override
+    protected void closeSource() throws IOException {
+        try {
+            documentStream.close();
+        } finally {
+            scanned = true;
+            fileSystem.close();
+            emptyRows.clear();
+            pendingRecord = null;
+            formulaCell = null;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.unaware.poi.excel.streamreader;
+
+import com.unaware.poi.excel.exception.ParameterException;
+import com.unaware.poi.excel.exception.ReadException;
+import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.ssimpl.StreamStyles;
+import com.unaware.poi.excel.sstimpl.MappedStringList;
+import org.apache.poi.hssf.model.InternalWorkbook;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.DrawingGroupRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FilePassRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Unaware
+ * @Title: XlsWorkbookReader
+ * @ProjectName doExcel
+ * @Description: obtain the information of a .xls workbook from its BIFF8 records, without loading the whole workbook.
+ *                 The global records (formats, fonts, cell styles, the names of the sheets, ...) are read once into an InternalWorkbook,
+ *                 which backs the HSSF cell styles and fonts through HSSFWorkbook.create, so they are those of HSSFWorkbook.
+ *                 If sstCacheSize is greater than 0, the SharedString table is copied into a {@link MappedStringList}
+ *                 and only the cached strings are kept in memory.
+ *                 Every sheet is read by its own {@link XlsSheetReader} from the BOF record of the sheet.
+ *                 An encrypted workbook is not read, see {@link #isEncrypted()}.
+ * @date 2026/10/17 17:40
+ */
+public class XlsWorkbookReader extends AbstractWorkbookReader {
+    private InternalWorkbook workbook;
+
+    /**
+     * an empty HSSFWorkbook around the InternalWorkbook, it creates the cell styles and the fonts
+     */
+    private HSSFWorkbook hssfWorkbook;
+
+    /**
+     * the fonts of the workbook by their index, created once so the sheets can share them
+     */
+    private Font[] fonts;
+
+    /**
+     * the SharedString table, if it is not copied into the sstList
+     */
+    private SSTRecord sst;
+
+    private MappedStringList sstList;
+
+    private File sstCache;
+
+    private File tempFile;
+
+    private File file;
+
+    private boolean encrypted;
+
+
+    public XlsWorkbookReader(StreamReader.Builder builder) {
+        super(builder);
+    }
+
+    /**
+     * init the inputStream, and create the temporary file for inputStream
+     *
+     * @param is
+     */
+    @Override
+    public void init(InputStream is) {
+        if (builder.getBufferSize() <= 0) {
+            throw new ParameterException("the bufferSize must be greater than 0");
+        }
+        try {
+            tempFile = writeInputStreamToTempFile(is, builder.getBufferSize(), ".xls");
+        } catch (IOException e) {
+            throw new ReadException("Unable to open workbook", e);
+        }
+        this.init(tempFile);
+    }
+
+    /**
+     * the records of the sheets are read from a file by their position, so the bytes are copied into a temporary file
+     *
+     * @param source
+     */
+    void init(WorkbookSource source) {
+        try {
+            tempFile = source.copyToTempFile(".xls");
+        } catch (IOException e) {
+            throw new ReadException("Unable to open workbook", e);
+        }
+        this.init(tempFile);
+    }
+
+    /**
+     * read the global records of the workbook, and open the sheets
+     *
+     * @param file
+     */
+    @Override
+    public void init(File file) {
+        if (builder.getRowCacheSize() <= 0) {
+            throw new ParameterException("the rowCacheSize must be greater than 0");
+        }
+        this.file = file;
+        try (NPOIFSFileSystem fileSystem = new NPOIFSFileSystem(file, true)) {
+            String entryName = HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot());
+            List<BoundSheetRecord> boundSheets = new ArrayList<>();
+            try (InputStream is = fileSystem.createDocumentInputStream(entryName)) {
+                readGlobals(is, boundSheets);
+            }
+            if (encrypted) {
+                return;
+            }
+            use1904Dates = workbook.isUsing1904DateWindowing();
+            hssfWorkbook = HSSFWorkbook.create(workbook);
+
+            List<CellStyle> cellStyles = new ArrayList<>(workbook.getNumExFormats());
+            for (int i = 0; i < workbook.getNumExFormats(); i++) {
+                cellStyles.add(hssfWorkbook.getCellStyleAt(i));
+            }
+            styles = new StreamStyles(cellStyles);
+            loadFonts();
+
+            if (sst != null && builder.getSstCacheSize() > 0) {
+                sstCache = Files.createTempFile("", "").toFile();
+                sstList = new MappedStringList(sstCache, builder.getSstCacheSize());
+                for (int i = 0; i < sst.getNumUniqueStrings(); i++) {
+                    sstList.add(sst.getString(i).getString());
+                }
+                sstList.seal();
+                sst = null;
+            }
+
+            loadSheets(entryName, boundSheets);
+        } catch (IOException e) {
+            throw new ReadException("Unable to open workbook", e);
+        }
+    }
+
+    /**
+     * read the records of the workbook globals up to their EOF record.
+     * The SharedString table is kept out of the InternalWorkbook, and the drawings are dropped.
+     *
+     * @param is
+     * @param boundSheets the sheets of the workbook in the order of their records
+     */
+    private void readGlobals(InputStream is, List<BoundSheetRecord> boundSheets) {
+        RecordFactoryInputStream recordStream = new RecordFactoryInputStream(is, false);
+        List<Record> records = new ArrayList<>();
+        Record record;
+        while ((record = recordStream.nextRecord()) != null) {
+            switch (record.getSid()) {
+                case FilePassRecord.sid:
+                    encrypted = true;
+                    return;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    continue;
+                case DrawingGroupRecord.sid:
+                    continue;
+                case BoundSheetRecord.sid:
+                    boundSheets.add((BoundSheetRecord) record);
+                    break;
+            }
+            records.add(record);
+            if (record.getSid() == EOFRecord.sid) {
+                break;
+            }
+        }
+        workbook = InternalWorkbook.createWorkbook(records);
+    }
+
+    /**
+     * create the fonts like HSSFWorkbook, there is no font at the index 4
+     */
+    private void loadFonts() {
+        int numberOfFonts = workbook.getNumberOfFontRecords();
+        fonts = new Font[numberOfFonts > 4 ? numberOfFonts + 1 : numberOfFonts];
+        for (int i = 0; i < fonts.length; i++) {
+            fonts[i] = hssfWorkbook.getFontAt((short) i);
+        }
+    }
+
+    /**
+     * create the reader of every sheet
+     *
+     * @param entryName   the name of the workbook document
+     * @param boundSheets
+     * @throws IOException
+     */
+    private void loadSheets(String entryName, List<BoundSheetRecord> boundSheets) throws IOException {
+        sheetProperties.clear();
+        for (BoundSheetRecord boundSheet : boundSheets) {
+            Map<String, String> props = new HashMap<>();
+            props.put("name", boundSheet.getSheetname());
+            props.put("state", boundSheet.isVeryHidden() ? "veryHidden" : boundSheet.isHidden() ? "hidden" : "visible");
+            sheetProperties.add(props);
+        }
+
+        checkSelectedSheets();
+        for (int i = 0; i < boundSheets.size(); i++) {
+            if (!isSelectedSheet(i)) {
+                continue;
+            }
+            sheets.add(new StreamSheet(sheetProperties.get(i).get("name"),
+                    new XlsSheetReader(file, entryName, boundSheets.get(i).getPositionOfBof(), this::getSharedString, styles, builder.isSinglePass(),
+                            use1904Dates, builder.getRowCacheSize(), builder.isReuseRows(), builder.getColumns(), builder.getFromRow(), builder.getToRow(), stringPool)));
+        }
+    }
+
+    /**
+     * @param idx the index of the string in the SharedString table
+     * @return the string
+     */
+    private String getSharedString(int idx) {
+        return sstList != null ? sstList.get(idx) : sst.getString(idx).getString();
+    }
+
+    /**
+     * Whether the workbook is encrypted.
+     * The records of an encrypted workbook are not read, open it with HSSFWorkbook instead.
+     *
+     * @return
+     */
+    public boolean isEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * @return the file which is read, it's a temporary file if the workbook is read from an InputStream
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Return the InternalWorkbook which holds the global records of the workbook
+     */
+    public InternalWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    @Override
+    public short getNumberOfFonts() {
+        return (short) workbook.getNumberOfFontRecords();
+    }
+
+    @Override
+    public Font getFontAt(short idx) {
+        return idx < 0 || idx >= fonts.length ? null : fonts[idx];
+    }
+
+    @Override
+    public Font createFont() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * close the sheets, and delete the temporary files
+     *
+     * @throws Exception if this resource cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            for (StreamSheet sheet : sheets) {
+                sheet.getReader().close();
+            }
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            if (sstList != null) {
+                sstList.close();
+                // the mapped segments of the cache file may still be held until they are garbage collected
+                if (!sstCache.delete()) {
+                    sstCache.deleteOnExit();
+                }
+            }
+            sheetProperties.clear();
+        }
+    }
+}
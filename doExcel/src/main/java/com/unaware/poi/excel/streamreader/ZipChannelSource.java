@@ -0,0 +1,340 @@
+package com.unaware.poi.excel.streamreader;
+
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * @author Unaware
+ * @Description: the entries of a zip file in a {@link WorkbookSource}, which is opened by OPCPackage instead of a ZipFile.
+ *                 The central directory is read once, every entry is read from its own position in the source,
+ *                 so the parts are not copied into a temporary file or into memory before they are parsed.
+ *                 The names of the entries are decoded in UTF-8 like a ZipFile, and ZIP64 is supported.
+ *                 The entries are checked like the ZipSecureFile which OPCPackage opens a file with,
+ *                 see {@link CheckedEntryInputStream}.
+ * @Title: ZipChannelSource
+ * @ProjectName doExcel
+ * @date 2026/10/17 20:40
+ */
+final class ZipChannelSource implements ZipEntrySource {
+    private static final int LOCAL_HEADER = 0x04034B50;
+    private static final int CENTRAL_HEADER = 0x02014B50;
+    private static final int END_HEADER = 0x06054B50;
+    private static final int ZIP64_END_HEADER = 0x06064B50;
+    private static final int ZIP64_LOCATOR = 0x07064B50;
+    private static final int END_LENGTH = 22;
+    private static final int ZIP64_LOCATOR_LENGTH = 20;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * the expanded size of an entry below which its inflate ratio is not checked, the same as ZipSecureFile
+     */
+    private static final long GRACE_ENTRY_SIZE = 100 * 1024;
+
+    private final WorkbookSource source;
+    private final List<Entry> entries;
+    private boolean closed;
+
+    ZipChannelSource(WorkbookSource source) throws IOException {
+        this.source = source;
+        this.entries = readCentralDirectory();
+    }
+
+    /**
+     * read the end of the central directory, then all entries of the central directory at once
+     *
+     * @return
+     * @throws IOException
+     */
+    private List<Entry> readCentralDirectory() throws IOException {
+        long size = source.size();
+        // the end record is followed by a comment of up to 65535 bytes
+        int tailLength = (int) Math.min(size, END_LENGTH + 0xFFFF);
+        ByteBuffer tail = read(size - tailLength, tailLength);
+        int end = tailLength - END_LENGTH;
+        while (end >= 0 && tail.getInt(end) != END_HEADER) {
+            end--;
+        }
+        if (end < 0) {
+            throw new ZipException("The end of the central directory is not found");
+        }
+        long count = tail.getShort(end + 10) & 0xFFFF;
+        long length = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        long offset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        int locator = end - ZIP64_LOCATOR_LENGTH;
+        if (locator >= 0 && tail.getInt(locator) == ZIP64_LOCATOR) {
+            ByteBuffer zip64End = read(tail.getLong(locator + 8), 56);
+            if (zip64End.getInt(0) != ZIP64_END_HEADER) {
+                throw new ZipException("Invalid ZIP64 end of the central directory");
+            }
+            count = zip64End.getLong(32);
+            length = zip64End.getLong(40);
+            offset = zip64End.getLong(48);
+        }
+        if (length > Integer.MAX_VALUE || count > length / 46) {
+            throw new ZipException("Invalid central directory");
+        }
+
+        ByteBuffer directory = read(offset, (int) length);
+        List<Entry> entries = new ArrayList<>((int) count);
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if (directory.getInt(position) != CENTRAL_HEADER) {
+                throw new ZipException("Invalid central directory header at " + (offset + position));
+            }
+            int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            Entry entry = new Entry(new String(directory.array(), position + 46, nameLength, StandardCharsets.UTF_8));
+            entry.setMethod(directory.getShort(position + 10) & 0xFFFF);
+            entry.setCrc(directory.getInt(position + 16) & 0xFFFFFFFFL);
+            long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+            long uncompressedSize = directory.getInt(position + 24) & 0xFFFFFFFFL;
+            long localOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+
+            // the sizes and the offset of a ZIP64 entry are in its extra field, in this order
+            int extra = position + 46 + nameLength, extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                int id = directory.getShort(extra) & 0xFFFF, dataLength = directory.getShort(extra + 2) & 0xFFFF;
+                if (id == ZIP64_EXTRA) {
+                    int field = extra + 4;
+                    if (uncompressedSize == 0xFFFFFFFFL) {
+                        uncompressedSize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL) {
+                        compressedSize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (localOffset == 0xFFFFFFFFL) {
+                        localOffset = directory.getLong(field);
+                    }
+                    break;
+                }
+                extra += 4 + dataLength;
+            }
+            entry.setSize(uncompressedSize);
+            entry.setCompressedSize(compressedSize);
+            entry.localOffset = localOffset;
+            entries.add(entry);
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        source.readFully(position, bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public Enumeration<? extends ZipEntry> getEntries() {
+        return Collections.enumeration(entries);
+    }
+
+    @Override
+    public InputStream getInputStream(ZipEntry zipEntry) throws IOException {
+        Entry entry = (Entry) zipEntry;
+        ByteBuffer header = read(entry.localOffset, 30);
+        if (header.getInt(0) != LOCAL_HEADER) {
+            throw new ZipException("Invalid local header of " + entry.getName());
+        }
+        long start = entry.localOffset + 30 + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+        InputStream in = source.newInputStream(start, entry.getCompressedSize());
+        switch (entry.getMethod()) {
+            case ZipEntry.STORED:
+                return new CheckedEntryInputStream(entry, in, null);
+            case ZipEntry.DEFLATED:
+                EntryInflaterInputStream inflater = new EntryInflaterInputStream(in);
+                return new CheckedEntryInputStream(entry, inflater, inflater);
+            default:
+                throw new ZipException("Unsupported compression method " + entry.getMethod() + " of " + entry.getName());
+        }
+    }
+
+    /**
+     * the source belongs to the caller, it's not closed here
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private static final class Entry extends ZipEntry {
+        private long localOffset;
+
+        private Entry(String name) {
+            super(name);
+        }
+    }
+
+    /**
+     * inflate an entry like ZipFile does: the inflater is released when the stream is closed,
+     * and a dummy byte is given to the inflater at the end of the entry
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private long compressedCount;
+        private boolean eof;
+        private boolean closed;
+
+        private EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), BUFFER_SIZE);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            } else {
+                compressedCount += len;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * check an entry as it's read, like ZipSecureFile does for OPCPackage:
+     * the expanded size is limited by {@link ZipSecureFile#getMaxEntrySize()},
+     * and once it exceeds the grace size, the ratio of the compressed size to it by {@link ZipSecureFile#getMinInflateRatio()},
+     * so a zip bomb is rejected before it's inflated.
+     * At the end of the entry, its size and CRC-32 are checked against the central directory.
+     */
+    private static final class CheckedEntryInputStream extends FilterInputStream {
+        private final Entry entry;
+        private final EntryInflaterInputStream inflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] single = new byte[1];
+        private long counter;
+        private boolean verified;
+
+        /**
+         * @param entry
+         * @param in       the stream of the expanded data
+         * @param inflater the stream which inflates the entry, null if the entry is stored
+         */
+        private CheckedEntryInputStream(Entry entry, InputStream in, EntryInflaterInputStream inflater) {
+            super(in);
+            this.entry = entry;
+            this.inflater = inflater;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                crc.update(b, off, n);
+                counter += n;
+                checkThreshold();
+            } else if (n == -1) {
+                verify();
+            }
+            return n;
+        }
+
+        /**
+         * the skipped bytes are read, so they are counted and checked too
+         *
+         * @param n
+         * @return
+         * @throws IOException
+         */
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), BUFFER_SIZE)];
+            long skipped = 0;
+            while (skipped < n) {
+                int count = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+                if (count == -1) {
+                    break;
+                }
+                skipped += count;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        private void checkThreshold() throws IOException {
+            if (counter > ZipSecureFile.getMaxEntrySize()) {
+                throw new IOException("Zip bomb detected! The entry " + entry.getName()
+                        + " would exceed the max size of the expanded data in the zip-file, " + ZipSecureFile.getMaxEntrySize() + " bytes.\n"
+                        + "You can adjust this limit via ZipSecureFile.setMaxEntrySize() if you need to work with files which are very large.");
+            }
+            if (inflater != null && counter > GRACE_ENTRY_SIZE
+                    && (double) inflater.compressedCount / counter < ZipSecureFile.getMinInflateRatio()) {
+                throw new IOException("Zip bomb detected! The entry " + entry.getName()
+                        + " would exceed the max. ratio of compressed file size to the size of the expanded data.\n"
+                        + "Counter: " + counter + ", compressed: " + inflater.compressedCount + ", ratio: " + (double) inflater.compressedCount / counter
+                        + ", limits: MIN_INFLATE_RATIO: " + ZipSecureFile.getMinInflateRatio() + "\n"
+                        + "You can adjust this limit via ZipSecureFile.setMinInflateRatio() if you need to work with files which exceed this limit.");
+            }
+        }
+
+        private void verify() throws IOException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+            if (counter != entry.getSize()) {
+                throw new ZipException("Invalid entry size of " + entry.getName() + " (expected " + entry.getSize() + " but got " + counter + " bytes)");
+            }
+            if (crc.getValue() != entry.getCrc()) {
+                throw new ZipException(String.format("Invalid entry CRC of %s (expected 0x%x but got 0x%x)", entry.getName(), entry.getCrc(), crc.getValue()));
+            }
+        }
+    }
+}
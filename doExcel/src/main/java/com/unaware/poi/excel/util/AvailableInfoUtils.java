@@ -44,7 +44,7 @@ public class AvailableInfoUtils {
      */
     public static Map<OutputField, Object> initDefault(int row, int column) {
         Map<OutputField, Object> map = OutputField.SORTED_FIELDS.stream().collect(Collectors.toMap(f -> f, f -> -1));
-        fillingIndexAndMergeInfo(map, row, column, new ArrayList<>(0));
+        fillingIndexAndMergeInfo(map, row, column, MergedCellIndex.EMPTY);
         return map;
     }
 
@@ -105,6 +105,23 @@ public class AvailableInfoUtils {
         return mergedId != -1;
     }
 
+    /**
+     * 装填行列标识以及合并信息, the merged regions are looked up in the index
+     *
+     * @param map         信息
+     * @param row         第几行 （0-based physical & logical）
+     * @param column      第几列 （0-based physical & logical）
+     * @param mergedIndex 合并信息的索引
+     */
+    public static boolean fillingIndexAndMergeInfo(Map<OutputField, Object> map, int row, int column, MergedCellIndex mergedIndex) {
+        map.put(OutputField.RowLabel, row);
+        map.put(OutputField.ColumnLabel, column);
+        int position = mergedIndex.getMergedIndex(row, column);
+        int mergedId = position == -1 ? -1 : mergedIndex.get(position).getMergedId();
+        map.put(OutputField.MergerCell, mergedId);
+        return mergedId != -1;
+    }
+
     /**
      * 按照一定顺序,写出来
      * 行标识、列标识 自动加一
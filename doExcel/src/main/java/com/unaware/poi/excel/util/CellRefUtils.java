@@ -0,0 +1,93 @@
+package com.unaware.poi.excel.util;
+
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * @author Unaware
+ * @Description: Decode the A1-style cell references of the sheet XML, e.g. "AB1234" or "$A$1",
+ *                 without the regular expressions of {@link CellReference} and without creating any object.
+ *                 The row and the column are packed into a long, use {@link #row(long)} and {@link #column(long)} to unpack them.
+ *                 Both are 0-based, -1 represents the part is missing, e.g. the row of "A" or the column of "1".
+ *                 A reference which can't be decoded here is handed over to {@link CellReference}, so it fails in the same way.
+ * @Title: CellRefUtils
+ * @ProjectName doExcel
+ * @date 2026/10/17 13:20
+ */
+public final class CellRefUtils {
+
+    private CellRefUtils() {
+    }
+
+    /**
+     * decode the whole reference
+     *
+     * @param ref
+     * @return the packed row and column
+     */
+    public static long decode(CharSequence ref) {
+        return decode(ref, 0, ref.length());
+    }
+
+    /**
+     * decode the reference in [from, to) of the chars
+     *
+     * @param ref
+     * @param from
+     * @param to
+     * @return the packed row and column
+     */
+    public static long decode(CharSequence ref, int from, int to) {
+        int i = from;
+        if (i < to && ref.charAt(i) == '$') {
+            i++;
+        }
+        int column = 0;
+        int letters = 0;
+        char c;
+        while (i < to && ((c = ref.charAt(i)) >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z')) {
+            column = column * 26 + ((c & 0xDF) - 'A' + 1);
+            letters++;
+            i++;
+        }
+        if (i < to && ref.charAt(i) == '$' && letters > 0) {
+            i++;
+        }
+        int row = 0;
+        int digits = 0;
+        while (i < to && (c = ref.charAt(i)) >= '0' && c <= '9') {
+            row = row * 10 + (c - '0');
+            digits++;
+            i++;
+        }
+        if (i != to || letters + digits == 0 || letters > 3 || digits > 7 || digits > 0 && row == 0) {
+            CellReference reference = new CellReference(ref.subSequence(from, to).toString());
+            return pack(reference.getRow(), reference.getCol());
+        }
+        return pack(digits == 0 ? -1 : row - 1, letters == 0 ? -1 : column - 1);
+    }
+
+    /**
+     * @param ref
+     * @return the index of ':' in a range like "A1:F25", -1 if the reference is a single cell
+     */
+    public static int rangeSeparator(CharSequence ref) {
+        for (int i = 0, length = ref.length(); i < length; i++) {
+            if (ref.charAt(i) == ':') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static long pack(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    public static int row(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int column(long packed) {
+        return (int) packed;
+    }
+}
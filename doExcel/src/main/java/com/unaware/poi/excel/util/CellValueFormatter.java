@@ -0,0 +1,351 @@
+package com.unaware.poi.excel.util;
+
+import com.unaware.poi.excel.streamreader.CellEvent;
+import org.apache.poi.util.LocaleUtil;
+
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.TimeZone;
+
+/**
+ * @author Unaware
+ * @Description: Write the value of a {@link CellEvent} as {@link DataUtil#getCellValue} writes the value of its cell,
+ *                 without creating the cell, a Date or a String.
+ *                 The strings are returned as they are, the integers of the format "General", the numbers of the formats like "0" and "0.00",
+ *                 the decimals of the formats classified by {@link CompiledFormat}, the dates and the booleans are written into a reusable buffer.
+ *                 The other values, like the percentages, the errors, the numbers of a format with a pattern
+ *                 and the dates when the offset of the time zone changes, are written by DataUtil from the cell of the event,
+ *                 so the value is always the same as DataUtil's. A formatter is used by one sheet at a time.
+ * @Title: CellValueFormatter
+ * @ProjectName doExcel
+ * @date 2026/10/18 10:40
+ */
+public final class CellValueFormatter {
+    private static final long DAY_MILLISECONDS = 86400000L;
+    /**
+     * the first day after 9999-12-31, the later dates are written by DataUtil
+     */
+    private static final double MAX_DATE = 2958466;
+    /**
+     * the day 0 of the 1904 date system, the days of the 1900 date system count from 1900-01-01 as the day 1
+     */
+    private static final long EPOCH_DAY_1900 = LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final long EPOCH_DAY_1904 = LocalDate.of(1904, 1, 1).toEpochDay();
+    /**
+     * the integers which the format "General" writes without an exponent
+     */
+    private static final double MAX_GENERAL_INTEGER = 1e11;
+    /**
+     * the numbers of the formats like "0.00" whose digits are exact
+     */
+    private static final double MAX_FIXED = 1e15;
+
+    private final StringBuilder chars = new StringBuilder(32);
+    /**
+     * whether the number formats of POI write the ASCII digits, '-' and '.' in the locale of the user
+     */
+    private final boolean asciiDigits;
+    /**
+     * the last format looked up by {@link #fixedScale(CompiledFormat)}, most of the cells of a column share it
+     */
+    private CompiledFormat lastFormat;
+    private int lastScale;
+    /**
+     * the time zone of the dates, null if it isn't the default time zone which writes them,
+     * then all the dates are written by DataUtil
+     */
+    private final TimeZone timeZone;
+    /**
+     * the rules of the default time zone, which DataUtil writes the dates in
+     */
+    private final ZoneRules zoneRules;
+
+    public CellValueFormatter() {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(LocaleUtil.getUserLocale());
+        asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-' && symbols.getDecimalSeparator() == '.';
+        TimeZone userTimeZone = LocaleUtil.getUserTimeZone();
+        ZoneId zone = ZoneId.systemDefault();
+        timeZone = userTimeZone.toZoneId().equals(zone) ? userTimeZone : null;
+        zoneRules = zone.getRules();
+    }
+
+    /**
+     * @param cell
+     * @return the value of the cell, a buffer of the formatter or the contents of the cell, which are only valid until the next call
+     */
+    public CharSequence format(CellEvent cell) {
+        CharSequence contents = cell.getContents();
+        if (contents == null || contents.length() == 0) {
+            return "";
+        }
+        if (cell.isFormula()) {
+            return formulaValue(cell, contents);
+        }
+        switch (cell.getType()) {
+            case "n":
+                return numericValue(cell, contents);
+            case "s":
+            case "inlineStr":
+                // the escaped characters like "_x000D_" are decoded by the formatter of DataUtil
+                return indexOf(contents, '_', 'x') == -1 ? contents : cellValue(cell);
+            case "b":
+                return "1".contentEquals(contents) ? "TRUE" : "FALSE";
+            default:
+                return cellValue(cell);
+        }
+    }
+
+    /**
+     * @param cell
+     * @param contents
+     * @return the cached result of the formula, the numbers are written with the precision of the format or 14 digits
+     */
+    private CharSequence formulaValue(CellEvent cell, CharSequence contents) {
+        double value = DecimalUtils.parse(contents);
+        if (Double.isNaN(value)) {
+            // the numbers which aren't plain decimals are parsed by BigDecimal, the other results are written as they are
+            return DecimalUtils.isDecimal(contents) ? cellValue(cell) : contents;
+        }
+        StyleInfo style = cell.getStyleInfo();
+        if (style == null) {
+            return cellValue(cell);
+        }
+        CompiledFormat format = style.getFormat();
+        int precision = format.getPrecision();
+        if (precision < 0) {
+            return plain(value, 14);
+        }
+        return format.isPercentage() ? cellValue(cell) : plain(value, precision);
+    }
+
+    /**
+     * @param cell
+     * @param contents
+     * @return the number, or the date of a date format
+     */
+    private CharSequence numericValue(CellEvent cell, CharSequence contents) {
+        StyleInfo style = cell.getStyleInfo();
+        double value = DecimalUtils.parse(contents);
+        if (style == null || Double.isNaN(value)) {
+            return cellValue(cell);
+        }
+        CompiledFormat format = style.getFormat();
+        if (format.getDateFormatter() != null) {
+            return appendDate(value, cell.isUse1904Dates(), format.getDateFormatter()) ? chars : cellValue(cell);
+        } else if (format.isDateTimeIfValid() && value >= 0) {
+            return appendDate(value, cell.isUse1904Dates(), CompiledFormat.DATE_TIME_FORMATTER) ? chars : cellValue(cell);
+        }
+        int precision = format.getPrecision();
+        if (precision >= 0) {
+            return format.isPercentage() ? cellValue(cell) : plain(value, precision);
+        }
+        if (!asciiDigits) {
+            return cellValue(cell);
+        }
+        int scale = fixedScale(format);
+        if (scale >= 0) {
+            return appendFixed(value, scale) ? chars : cellValue(cell);
+        }
+        // the integers which the formatter of DataUtil writes as their digits
+        String formatString = format.getFormatString();
+        if (("General".equalsIgnoreCase(formatString) || "@".equals(formatString))
+                && value == Math.rint(value) && Math.abs(value) < MAX_GENERAL_INTEGER) {
+            chars.setLength(0);
+            return chars.append((long) value);
+        }
+        return cellValue(cell);
+    }
+
+    /**
+     * @param format
+     * @return the number of the decimal places of a format like "0" or "0.00", -1 for the other formats
+     */
+    private int fixedScale(CompiledFormat format) {
+        if (format != lastFormat) {
+            String formatString = format.getFormatString();
+            int scale = -1;
+            if (formatString != null && formatString.startsWith("0")) {
+                scale = formatString.length() == 1 ? 0 : formatString.length() - 2;
+                for (int i = 1; i < formatString.length() && scale >= 0; i++) {
+                    if (formatString.charAt(i) != (i == 1 ? '.' : '0') || formatString.length() == 2) {
+                        scale = -1;
+                    }
+                }
+            }
+            lastFormat = format;
+            lastScale = scale;
+        }
+        return lastScale;
+    }
+
+    /**
+     * write the value like the DecimalFormat of a format like "0.00" with the rounding mode HALF_UP, which the formatter of DataUtil creates.
+     * The DecimalFormat rounds the digits of Double.toString, unless they end with a 5 right after the last decimal place,
+     * then the exact binary value decides, and the value is left to DataUtil
+     *
+     * @param value
+     * @param scale the number of the decimal places
+     * @return false if the value is left to DataUtil
+     */
+    private boolean appendFixed(double value, int scale) {
+        if (!(Math.abs(value) < MAX_FIXED) || isTie(value, scale)) {
+            return false;
+        }
+        chars.setLength(0);
+        DecimalUtils.appendPlain(value, scale, chars);
+        if (value < 0 && chars.charAt(0) != '-') {
+            // DecimalFormat writes "-0.00"
+            return false;
+        }
+        if (scale > 0) {
+            int point = chars.indexOf(".");
+            if (point == -1) {
+                point = chars.length();
+                chars.append('.');
+            }
+            for (int i = chars.length() - point - 1; i < scale; i++) {
+                chars.append('0');
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param value
+     * @param scale
+     * @return whether the digits of Double.toString end with a 5 right after the last decimal place of the scale
+     */
+    private static boolean isTie(double value, int scale) {
+        String text = Double.toString(value);
+        int exponent = text.indexOf('E');
+        int end = exponent < 0 ? text.length() : exponent;
+        int dot = text.indexOf('.');
+        // the last significant digit of the mantissa, the trailing zeros are dropped
+        int last = end - 1;
+        while (last > dot + 1 && text.charAt(last) == '0') {
+            last--;
+        }
+        if (text.charAt(last) != '5') {
+            return false;
+        }
+        // the decimal place of the last digit
+        int place = last - dot;
+        if (exponent >= 0) {
+            int shift = 0;
+            boolean negative = text.charAt(exponent + 1) == '-';
+            for (int i = negative ? exponent + 2 : exponent + 1; i < text.length(); i++) {
+                shift = shift * 10 + (text.charAt(i) - '0');
+            }
+            place += negative ? shift : -shift;
+        }
+        return place == scale + 1;
+    }
+
+    private CharSequence plain(double value, int scale) {
+        chars.setLength(0);
+        DecimalUtils.appendPlain(value, scale, chars);
+        return chars;
+    }
+
+    /**
+     * write the serial date like DataUtil writes the Date of HSSFDateUtil.getJavaDate in the default time zone,
+     * whose milliseconds are rounded. The local time is kept unless the offset of the time zone changes within a day,
+     * or the Calendar of POI and java.time see different offsets, like the local mean time of the old dates
+     *
+     * @param value        the serial date, whose integral part is the day and fractional part is the time of the day
+     * @param use1904Dates
+     * @param formatter    one of the formatters of the time, the date and both
+     * @return false if the date is left to DataUtil
+     */
+    private boolean appendDate(double value, boolean use1904Dates, DateTimeFormatter formatter) {
+        boolean time = formatter == CompiledFormat.TIME_FORMATTER || formatter == CompiledFormat.DATE_TIME_FORMATTER;
+        boolean date = formatter == CompiledFormat.DATE_FORMATTER || formatter == CompiledFormat.DATE_TIME_FORMATTER;
+        if (timeZone == null || !(time || date) || !(value >= 0) || value >= MAX_DATE) {
+            return false;
+        }
+        int wholeDays = (int) Math.floor(value);
+        int millisecondsInDay = (int) ((value - wholeDays) * DAY_MILLISECONDS + 0.5);
+        long epochDay = use1904Dates ? EPOCH_DAY_1904 + wholeDays
+                // the 1900 date system counts the 29th February 1900 which doesn't exist
+                : EPOCH_DAY_1900 + wholeDays - (wholeDays < 61 ? 1 : 2);
+        long local = epochDay * DAY_MILLISECONDS + millisecondsInDay;
+        int offset = timeZone.getOffset(local);
+        if (timeZone.getOffset(local - DAY_MILLISECONDS) != offset || timeZone.getOffset(local + DAY_MILLISECONDS) != offset
+                || zoneRules.getOffset(Instant.ofEpochMilli(local - offset)).getTotalSeconds() * 1000L != offset) {
+            return false;
+        }
+        epochDay = Math.floorDiv(local, DAY_MILLISECONDS);
+        int seconds = (int) (Math.floorMod(local, DAY_MILLISECONDS) / 1000);
+
+        chars.setLength(0);
+        if (date) {
+            appendDate(epochDay);
+        }
+        if (time) {
+            if (date) {
+                chars.append(' ');
+            }
+            appendTwoDigits(seconds / 3600);
+            chars.append(':');
+            appendTwoDigits(seconds / 60 % 60);
+            chars.append(':');
+            appendTwoDigits(seconds % 60);
+        }
+        return true;
+    }
+
+    /**
+     * append the date as "yyyy-MM-dd", the civil date of the epoch day is computed like LocalDate.ofEpochDay
+     *
+     * @param epochDay
+     */
+    private void appendDate(long epochDay) {
+        long zeroDay = epochDay + 719468;
+        long era = Math.floorDiv(zeroDay, 146097);
+        long dayOfEra = zeroDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        appendTwoDigits(year / 100);
+        appendTwoDigits(year % 100);
+        chars.append('-');
+        appendTwoDigits(month);
+        chars.append('-');
+        appendTwoDigits(day);
+    }
+
+    private void appendTwoDigits(int value) {
+        chars.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * @param cell
+     * @return the value written by DataUtil from the cell of the event
+     */
+    private static String cellValue(CellEvent cell) {
+        return DataUtil.getCellValue(cell.toCell());
+    }
+
+    /**
+     * @param chars
+     * @param first
+     * @param second
+     * @return the index of the two characters, -1 if they are not found
+     */
+    private static int indexOf(CharSequence chars, char first, char second) {
+        for (int i = 0, last = chars.length() - 1; i < last; i++) {
+            if (chars.charAt(i) == first && chars.charAt(i + 1) == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
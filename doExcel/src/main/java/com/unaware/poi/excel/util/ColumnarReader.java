@@ -0,0 +1,615 @@
+package com.unaware.poi.excel.util;
+
+import com.unaware.poi.excel.exception.ParseException;
+import com.unaware.poi.excel.util.ColumnarWriter.ColumnType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Unaware
+ * @Description: read the columnar file written by {@link ColumnarWriter}.
+ *                 Only the footer is read when the reader is opened, it describes every chunk with its statistics,
+ *                 then the chunks are read one by one, so the chunks whose statistics don't match are never read.
+ *                 <pre>
+ *                 try (ColumnarReader reader = ColumnarReader.open(file)) {
+ *                     for (int group = 0; group &lt; reader.getNumRowGroups(); group++) {
+ *                         ColumnarReader.Chunk chunk = reader.getChunk(group, 2);
+ *                         if (chunk.getType() != ColumnType.STRING &amp;&amp; chunk.getMaxDouble() &lt; 100) {
+ *                             continue;
+ *                         }
+ *                         ColumnarReader.ColumnVector vector = reader.read(chunk);
+ *                     }
+ *                 }
+ *                 </pre>
+ * @Title: ColumnarReader
+ * @ProjectName doExcel
+ * @date 2026/10/18 02:10
+ */
+public final class ColumnarReader implements Closeable {
+    /**
+     * the powers of 10 of the scales of DECIMAL, which has at most 15 digits
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    /**
+     * the file, or null if the bytes are in memory
+     */
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private String sheetName;
+    private int numColumns;
+    private long numRows;
+    private RowGroup[] rowGroups;
+
+    private ColumnarReader(FileChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @param file the columnar file
+     * @return
+     * @throws IOException
+     * @throws ParseException if it isn't a columnar file
+     */
+    public static ColumnarReader open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ColumnarReader reader = new ColumnarReader(channel, null);
+            reader.readFooter(channel.size());
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param buffer the bytes of the columnar file, like {@link SheetOutput#getBuffer()} of {@link OutputSink#memory()}
+     * @return
+     * @throws ParseException if it isn't a columnar file
+     */
+    public static ColumnarReader open(ByteBuffer buffer) {
+        ColumnarReader reader = new ColumnarReader(null, buffer.slice());
+        try {
+            reader.readFooter(buffer.remaining());
+        } catch (IOException e) {
+            throw new ParseException(e);
+        }
+        return reader;
+    }
+
+    private void readFooter(long size) throws IOException {
+        if (size < 12 || read(0, 4).readInt() != ColumnarWriter.MAGIC) {
+            throw new ParseException("Not a columnar file");
+        }
+        ByteInput tail = read(size - 8, 8);
+        int footerLength = tail.readInt();
+        if (tail.readInt() != ColumnarWriter.MAGIC || footerLength < 0 || footerLength > size - 12) {
+            throw new ParseException("Not a columnar file");
+        }
+        ByteInput footer = read(size - 8 - footerLength, footerLength);
+        sheetName = footer.readString();
+        numColumns = (int) footer.readVarLong();
+        rowGroups = new RowGroup[(int) footer.readVarLong()];
+        ColumnType[] types = ColumnType.values();
+        for (int i = 0; i < rowGroups.length; i++) {
+            RowGroup group = new RowGroup((int) footer.readVarLong(), numRows, footer.readVarLong(), (int) footer.readVarLong());
+            int columns = (int) footer.readVarLong();
+            group.chunks = new Chunk[numColumns];
+            for (int j = 0; j < numColumns; j++) {
+                Chunk chunk = new Chunk(i, j, group.rows, j < columns ? types[footer.bytes[footer.position++]] : ColumnType.NULL);
+                if (chunk.type != ColumnType.NULL) {
+                    chunk.offset = footer.readVarLong();
+                    chunk.length = (int) footer.readVarLong();
+                    chunk.nullCount = (int) footer.readVarLong();
+                    if (chunk.type == ColumnType.DECIMAL) {
+                        chunk.scale = (int) footer.readVarLong();
+                    }
+                    if (chunk.type == ColumnType.LONG || chunk.type == ColumnType.DECIMAL) {
+                        chunk.minLong = footer.readZigZag();
+                        chunk.maxLong = footer.readZigZag();
+                        chunk.minDouble = chunk.minLong / POWERS_OF_TEN[chunk.scale];
+                        chunk.maxDouble = chunk.maxLong / POWERS_OF_TEN[chunk.scale];
+                    } else if (chunk.type == ColumnType.DOUBLE) {
+                        chunk.minDouble = Double.longBitsToDouble(footer.readLong());
+                        chunk.maxDouble = Double.longBitsToDouble(footer.readLong());
+                    } else {
+                        chunk.minString = footer.readString();
+                        chunk.maxString = footer.readString();
+                    }
+                }
+                group.chunks[j] = chunk;
+            }
+            rowGroups[i] = group;
+            numRows += group.rows;
+        }
+    }
+
+    /**
+     * @param offset
+     * @param length
+     * @return a copy of the bytes from the offset
+     * @throws IOException
+     */
+    private ByteInput read(long offset, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        if (channel == null) {
+            ByteBuffer source = buffer.duplicate();
+            source.limit((int) offset + length).position((int) offset);
+            bytes.put(source);
+        } else {
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, offset + bytes.position()) < 0) {
+                    throw new ParseException("Unexpected end of the columnar file");
+                }
+            }
+        }
+        return new ByteInput(bytes.array());
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * @return the number of the columns, the width of the widest record
+     */
+    public int getNumColumns() {
+        return numColumns;
+    }
+
+    /**
+     * @return the number of the records
+     */
+    public long getNumRows() {
+        return numRows;
+    }
+
+    public int getNumRowGroups() {
+        return rowGroups.length;
+    }
+
+    /**
+     * @param group the index of the row group
+     * @return the number of the records of the row group
+     */
+    public int getRowGroupSize(int group) {
+        return rowGroups[group].rows;
+    }
+
+    /**
+     * @param group the index of the row group
+     * @return the index of the first record of the row group in the file
+     */
+    public long getFirstRow(int group) {
+        return rowGroups[group].firstRow;
+    }
+
+    /**
+     * @param group  the index of the row group
+     * @param column the index of the column
+     * @return the description and the statistics of the chunk, without reading it
+     */
+    public Chunk getChunk(int group, int column) {
+        return rowGroups[group].chunks[column];
+    }
+
+    /**
+     * @param group the index of the row group
+     * @return the number of the fields of every record of the row group
+     * @throws IOException
+     */
+    public int[] readWidths(int group) throws IOException {
+        RowGroup rowGroup = rowGroups[group];
+        ByteInput bytes = read(rowGroup.widthsOffset, rowGroup.widthsLength);
+        int[] widths = new int[rowGroup.rows];
+        for (int i = 0; i < widths.length; ) {
+            int end = i + (int) bytes.readVarLong();
+            Arrays.fill(widths, i, end, (int) bytes.readVarLong());
+            i = end;
+        }
+        return widths;
+    }
+
+    /**
+     * read the values of a chunk
+     *
+     * @param chunk see {@link #getChunk(int, int)}
+     * @return
+     * @throws IOException
+     */
+    public ColumnVector read(Chunk chunk) throws IOException {
+        ColumnVector vector = new ColumnVector(chunk.type, chunk.rowCount, chunk.scale);
+        if (chunk.type == ColumnType.NULL) {
+            return vector;
+        }
+        ByteInput bytes = read(chunk.offset, chunk.length);
+        if (chunk.type == ColumnType.STRING) {
+            vector.dictionary = new String[(int) bytes.readVarLong()];
+            for (int i = 0; i < vector.dictionary.length; i++) {
+                vector.dictionary[i] = bytes.readString();
+            }
+            vector.codes = new int[chunk.rowCount];
+        } else if (chunk.type == ColumnType.LONG || chunk.type == ColumnType.DECIMAL) {
+            vector.longs = new long[chunk.rowCount];
+        } else {
+            vector.doubles = new double[chunk.rowCount];
+        }
+        for (int i = 0; i < chunk.rowCount; ) {
+            long header = bytes.readVarLong();
+            int end = i + (int) (header >>> 1);
+            if ((header & 1) == 0) {
+                // most of the runs of the numbers have only one value
+                if (vector.longs != null) {
+                    vector.longs[i] = bytes.readZigZag();
+                    if (end > i + 1) {
+                        Arrays.fill(vector.longs, i + 1, end, vector.longs[i]);
+                    }
+                } else if (chunk.type == ColumnType.DOUBLE) {
+                    vector.doubles[i] = Double.longBitsToDouble(bytes.readLong());
+                    if (end > i + 1) {
+                        Arrays.fill(vector.doubles, i + 1, end, vector.doubles[i]);
+                    }
+                } else {
+                    vector.codes[i] = (int) bytes.readVarLong();
+                    if (end > i + 1) {
+                        Arrays.fill(vector.codes, i + 1, end, vector.codes[i]);
+                    }
+                }
+                setBits(vector.present, i, end);
+            }
+            i = end;
+        }
+        return vector;
+    }
+
+    /**
+     * set the bits from the index from to the index to (exclusive)
+     */
+    private static void setBits(long[] bits, int from, int to) {
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        if (first == last) {
+            bits[first] |= (-1L << from) & (-1L >>> -to);
+            return;
+        }
+        bits[first] |= -1L << from;
+        for (int i = first + 1; i < last; i++) {
+            bits[i] = -1L;
+        }
+        bits[last] |= -1L >>> -to;
+    }
+
+    /**
+     * read the records of a row group, the same as the records of the .csv file, the null values are empty
+     *
+     * @param group the index of the row group
+     * @return
+     * @throws IOException
+     */
+    public List<List<String>> readRecords(int group) throws IOException {
+        int[] widths = readWidths(group);
+        ColumnVector[] vectors = new ColumnVector[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            vectors[i] = read(getChunk(group, i));
+        }
+        List<List<String>> records = new ArrayList<>(widths.length);
+        for (int row = 0; row < widths.length; row++) {
+            List<String> record = new ArrayList<>(widths[row]);
+            for (int i = 0; i < widths[row]; i++) {
+                String value = vectors[i].getString(row);
+                record.add(value == null ? "" : value);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * read the bytes of a chunk or of the footer, like ByteOutput of {@link ColumnarWriter} writes them
+     */
+    private static final class ByteInput {
+        private final byte[] bytes;
+        private int position;
+
+        private ByteInput(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        int readInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = value << 8 | bytes[position++] & 0xFF;
+            }
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = value << 8 | bytes[position++] & 0xFF;
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+
+    private static final class RowGroup {
+        private final int rows;
+        private final long firstRow;
+        private final long widthsOffset;
+        private final int widthsLength;
+        private Chunk[] chunks;
+
+        private RowGroup(int rows, long firstRow, long widthsOffset, int widthsLength) {
+            this.rows = rows;
+            this.firstRow = firstRow;
+            this.widthsOffset = widthsOffset;
+            this.widthsLength = widthsLength;
+        }
+    }
+
+    /**
+     * The description of the chunk of a column in a row group, and its statistics.
+     * Only the min and max of its type are valid, they are not given for the type NULL.
+     * The min and max of LONG and DECIMAL are also given as doubles.
+     */
+    public static final class Chunk {
+        private final int rowGroup;
+        private final int column;
+        private final int rowCount;
+        private final ColumnType type;
+        private long offset;
+        private int length;
+        private int nullCount;
+        private int scale;
+        private long minLong;
+        private long maxLong;
+        private double minDouble;
+        private double maxDouble;
+        private String minString;
+        private String maxString;
+
+        private Chunk(int rowGroup, int column, int rowCount, ColumnType type) {
+            this.rowGroup = rowGroup;
+            this.column = column;
+            this.rowCount = rowCount;
+            this.type = type;
+            this.nullCount = rowCount;
+        }
+
+        public int getRowGroup() {
+            return rowGroup;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        /**
+         * @return the number of the bytes of the chunk in the file
+         */
+        public int getLength() {
+            return length;
+        }
+
+        public int getNullCount() {
+            return nullCount;
+        }
+
+        /**
+         * @return the number of the digits after the point of DECIMAL, 0 for the other types
+         */
+        public int getScale() {
+            return scale;
+        }
+
+        /**
+         * @return the min of LONG, or the unscaled min of DECIMAL
+         */
+        public long getMinLong() {
+            return minLong;
+        }
+
+        /**
+         * @return the max of LONG, or the unscaled max of DECIMAL
+         */
+        public long getMaxLong() {
+            return maxLong;
+        }
+
+        /**
+         * @return the min of LONG, DECIMAL or DOUBLE
+         */
+        public double getMinDouble() {
+            return minDouble;
+        }
+
+        /**
+         * @return the max of LONG, DECIMAL or DOUBLE
+         */
+        public double getMaxDouble() {
+            return maxDouble;
+        }
+
+        public String getMinString() {
+            return minString;
+        }
+
+        public String getMaxString() {
+            return maxString;
+        }
+    }
+
+    /**
+     * The values of a chunk, the position of a value is the position of its record in the row group.
+     * Only the array of the type of the chunk is not null, and only the values which are not null are valid.
+     */
+    public static final class ColumnVector {
+        private final ColumnType type;
+        private final int size;
+        private final int scale;
+        private final long[] present;
+        private long[] longs;
+        private double[] doubles;
+        private int[] codes;
+        private String[] dictionary;
+
+        private ColumnVector(ColumnType type, int size, int scale) {
+            this.type = type;
+            this.size = size;
+            this.scale = scale;
+            this.present = new long[(size + 63) >>> 6];
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the number of the digits after the point of DECIMAL, 0 for the other types
+         */
+        public int getScale() {
+            return scale;
+        }
+
+        /**
+         * @param row the position of the record in the row group
+         * @return whether the value is empty
+         */
+        public boolean isNull(int row) {
+            return (present[row >>> 6] & (1L << row)) == 0;
+        }
+
+        /**
+         * @param row the position of the record in the row group
+         * @return the value of the type LONG, or the unscaled value of DECIMAL
+         */
+        public long getLong(int row) {
+            return longs[row];
+        }
+
+        /**
+         * @param row the position of the record in the row group
+         * @return the value of the type LONG, DECIMAL or DOUBLE
+         */
+        public double getDouble(int row) {
+            return longs != null ? longs[row] / POWERS_OF_TEN[scale] : doubles[row];
+        }
+
+        /**
+         * @param row the position of the record in the row group
+         * @return the value as it's written in the .csv file, null if it's empty
+         */
+        public String getString(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            switch (type) {
+                case LONG:
+                    return Long.toString(longs[row]);
+                case DECIMAL:
+                    return decimalString(longs[row], scale);
+                case DOUBLE:
+                    return DecimalUtils.toPlainString(doubles[row], ColumnarWriter.PLAIN_SCALE);
+                default:
+                    return dictionary[codes[row]];
+            }
+        }
+
+        private static String decimalString(long unscaled, int scale) {
+            String digits = Long.toString(Math.abs(unscaled));
+            StringBuilder sb = new StringBuilder(digits.length() + 3);
+            if (unscaled < 0) {
+                sb.append('-');
+            }
+            for (int i = digits.length(); i <= scale; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+            return sb.insert(sb.length() - scale, '.').toString();
+        }
+
+        /**
+         * @return the bitmap of the values which are not null, the bit (row &amp; 63) of the word (row &gt;&gt;&gt; 6)
+         */
+        public long[] getPresent() {
+            return present;
+        }
+
+        /**
+         * @return the values of LONG, or the unscaled values of DECIMAL
+         */
+        public long[] getLongs() {
+            return longs;
+        }
+
+        public double[] getDoubles() {
+            return doubles;
+        }
+
+        /**
+         * @return the indexes of the STRING values in the dictionary
+         */
+        public int[] getCodes() {
+            return codes;
+        }
+
+        public String[] getDictionary() {
+            return dictionary;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.unaware.poi.excel.util;
+
+import com.unaware.poi.excel.exception.ParameterException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @author Unaware
+ * @Description: write the records of a sheet, the same as those of its .csv file, into a binary columnar file,
+ *                 so the converted sheets are loaded without parsing text again, see {@link ColumnarReader}.
+ *                 The records are cut into row groups, and every column of a row group is written as a chunk of one type:
+ *                 LONG if all its values are integers, DECIMAL if they are decimals of the same number of digits after the point,
+ *                 like the values of the format "0.00", DOUBLE if they are other decimals, STRING otherwise.
+ *                 A value is only read as a number if the number is written back as the same text,
+ *                 and the empty values are null.
+ *                 A chunk is a sequence of runs of the same value or of nulls, the strings are the indexes in the dictionary of the chunk.
+ *                 The footer at the end of the file describes the chunks with their offset, the number of their nulls and their min/max,
+ *                 so a reader skips the chunks by their statistics without reading them.
+ *                 <pre>
+ *                 file:    MAGIC, widths and chunks of every row group, footer, the length of the footer (int), MAGIC
+ *                 footer:  sheet name, number of columns, number of row groups, and for every row group:
+ *                          number of rows, offset and length of the widths, number of columns, and for every column:
+ *                          type, then for the types other than NULL: offset, length, number of nulls, the scale for DECIMAL, min and max
+ *                 widths:  the number of the fields of every record, as runs of (length, width)
+ *                 chunk:   the dictionary for STRING, then runs of (length &lt;&lt; 1 | null) followed by the value if it isn't null
+ *                 </pre>
+ *                 The integers are varints, LONG values and the unscaled DECIMAL values are zigzag varints,
+ *                 DOUBLE values are 8 bytes, strings are UTF-8 after their length.
+ * @Title: ColumnarWriter
+ * @ProjectName doExcel
+ * @date 2026/10/18 02:10
+ */
+public final class ColumnarWriter implements AutoCloseable {
+    public static final String EXTENSION = ".dxc";
+    public static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+
+    /**
+     * "DXC1"
+     */
+    static final int MAGIC = 0x44584331;
+    /**
+     * the scale to write every digit of a DOUBLE value, see {@link DecimalUtils#toPlainString(double, int)}
+     */
+    static final int PLAIN_SCALE = 340;
+
+    /**
+     * the type of the values of a chunk
+     */
+    public enum ColumnType {
+        /**
+         * all the values are null, the chunk isn't written
+         */
+        NULL,
+        LONG,
+        /**
+         * the values are kept as their unscaled longs and the scale of the chunk
+         */
+        DECIMAL,
+        DOUBLE,
+        STRING
+    }
+
+    /**
+     * a decimal of at most 15 digits is read like {@link DecimalUtils#parse(String)}, its unscaled long divided by a power of 10
+     */
+    private static final int MAX_DECIMAL_DIGITS = 15;
+
+    private final WritableByteChannel channel;
+    private final String sheetName;
+    private final int rowGroupSize;
+    /**
+     * the number of the bytes written into the channel
+     */
+    private long position;
+
+    /**
+     * the values of the records of the current row group, by column
+     */
+    private String[][] columns = new String[0][];
+    private int[] widths = new int[16];
+    private int rows;
+    /**
+     * the number of the columns of the current row group and of the file
+     */
+    private int groupColumns;
+    private int numColumns;
+    private int rowGroups;
+
+    /**
+     * the LONG values, the unscaled DECIMAL values, the bits of the DOUBLE values or the indexes of the STRING values of the chunk which is written
+     */
+    private long[] keys = new long[16];
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> entries = new ArrayList<>();
+
+    private final ByteOutput chunk = new ByteOutput();
+    /**
+     * the description of the row groups in the footer
+     */
+    private final ByteOutput groups = new ByteOutput();
+
+    private ColumnarWriter(WritableByteChannel channel, String sheetName, int rowGroupSize) {
+        this.channel = channel;
+        this.sheetName = sheetName == null ? "" : sheetName;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /**
+     * @param output    it's closed with the writer
+     * @param sheetName
+     * @return
+     * @throws IOException
+     */
+    public static ColumnarWriter open(SheetOutput output, String sheetName) throws IOException {
+        return open(output.open(), sheetName, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    /**
+     * @param channel      it's closed with the writer
+     * @param sheetName
+     * @param rowGroupSize the maximum number of the records of a row group (defaults to 65536, greater than 0)
+     * @return
+     * @throws IOException
+     */
+    public static ColumnarWriter open(WritableByteChannel channel, String sheetName, int rowGroupSize) throws IOException {
+        if (rowGroupSize <= 0) {
+            throw new ParameterException("the size of a row group must be greater than 0");
+        }
+        ColumnarWriter writer = new ColumnarWriter(channel, sheetName, rowGroupSize);
+        writer.chunk.writeInt(MAGIC);
+        writer.flushChunk();
+        return writer;
+    }
+
+    /**
+     * write a record
+     *
+     * @param values the fields of the record, null and empty fields are null
+     * @throws IOException
+     */
+    public void write(List<String> values) throws IOException {
+        int width = values.size();
+        if (width > columns.length) {
+            columns = Arrays.copyOf(columns, Math.max(width, columns.length << 1));
+        }
+        for (int i = 0; i < width; i++) {
+            String value = values.get(i);
+            if (value != null && !value.isEmpty()) {
+                String[] column = columns[i];
+                if (column == null || column.length <= rows) {
+                    column = columns[i] = Arrays.copyOf(column == null ? new String[0] : column, grow(column == null ? 0 : column.length));
+                }
+                column[rows] = value;
+            }
+        }
+        if (widths.length <= rows) {
+            widths = Arrays.copyOf(widths, grow(widths.length));
+        }
+        widths[rows] = width;
+        groupColumns = Math.max(groupColumns, width);
+        if (++rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    private int grow(int length) {
+        return Math.min(Math.max(rows + 1, Math.max(16, length << 1)), rowGroupSize);
+    }
+
+    private String valueAt(String[] column, int row) {
+        return column == null || row >= column.length ? null : column[row];
+    }
+
+    /**
+     * write the chunks of the current row group, and describe them in the footer
+     *
+     * @throws IOException
+     */
+    private void flushRowGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        if (keys.length < rows) {
+            keys = new long[Math.max(rows, keys.length << 1)];
+        }
+        groups.writeVarLong(rows);
+        long offset = position;
+        for (int i = 0; i < rows; ) {
+            int end = i + 1;
+            while (end < rows && widths[end] == widths[i]) {
+                end++;
+            }
+            chunk.writeVarLong(end - i);
+            chunk.writeVarLong(widths[i]);
+            i = end;
+        }
+        groups.writeVarLong(offset);
+        groups.writeVarLong(flushChunk());
+        groups.writeVarLong(groupColumns);
+        for (int i = 0; i < groupColumns; i++) {
+            writeChunk(columns[i]);
+            if (columns[i] != null) {
+                Arrays.fill(columns[i], null);
+            }
+        }
+        numColumns = Math.max(numColumns, groupColumns);
+        rowGroups++;
+        rows = 0;
+        groupColumns = 0;
+    }
+
+    /**
+     * decide the type of the column, and write its chunk
+     *
+     * @param column the values of the column in the current row group
+     * @throws IOException
+     */
+    private void writeChunk(String[] column) throws IOException {
+        int nulls = 0;
+        boolean allLong = true;
+        long minLong = Long.MAX_VALUE, maxLong = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            String value = valueAt(column, i);
+            if (value == null) {
+                nulls++;
+            } else if (allLong) {
+                if (isLong(value)) {
+                    long number = Long.parseLong(value);
+                    keys[i] = number;
+                    minLong = Math.min(minLong, number);
+                    maxLong = Math.max(maxLong, number);
+                } else {
+                    allLong = false;
+                }
+            }
+        }
+        if (nulls == rows) {
+            groups.writeByte(ColumnType.NULL.ordinal());
+            return;
+        }
+
+        ColumnType type = allLong ? ColumnType.LONG : ColumnType.DECIMAL;
+        int scale = -1;
+        if (!allLong) {
+            minLong = Long.MAX_VALUE;
+            maxLong = Long.MIN_VALUE;
+            for (int i = 0; i < rows && type == ColumnType.DECIMAL; i++) {
+                String value = valueAt(column, i);
+                if (value != null) {
+                    if (scale == -1) {
+                        scale = scaleOf(value);
+                    }
+                    if (scale <= 0 || scaleOf(value) != scale) {
+                        type = ColumnType.DOUBLE;
+                    } else {
+                        long unscaled = unscaledOf(value);
+                        keys[i] = unscaled;
+                        minLong = Math.min(minLong, unscaled);
+                        maxLong = Math.max(maxLong, unscaled);
+                    }
+                }
+            }
+        }
+        double minDouble = Double.POSITIVE_INFINITY, maxDouble = Double.NEGATIVE_INFINITY;
+        if (type == ColumnType.DOUBLE) {
+            for (int i = 0; i < rows; i++) {
+                String value = valueAt(column, i);
+                if (value != null) {
+                    double number = toDouble(value);
+                    if (Double.isNaN(number)) {
+                        type = ColumnType.STRING;
+                        break;
+                    }
+                    keys[i] = Double.doubleToRawLongBits(number);
+                    minDouble = Math.min(minDouble, number);
+                    maxDouble = Math.max(maxDouble, number);
+                }
+            }
+        }
+        String minString = null, maxString = null;
+        if (type == ColumnType.STRING) {
+            dictionary.clear();
+            entries.clear();
+            for (int i = 0; i < rows; i++) {
+                String value = valueAt(column, i);
+                if (value != null) {
+                    Integer index = dictionary.get(value);
+                    if (index == null) {
+                        index = entries.size();
+                        dictionary.put(value, index);
+                        entries.add(value);
+                        if (minString == null || value.compareTo(minString) < 0) {
+                            minString = value;
+                        }
+                        if (maxString == null || value.compareTo(maxString) > 0) {
+                            maxString = value;
+                        }
+                    }
+                    keys[i] = index;
+                }
+            }
+            chunk.writeVarLong(entries.size());
+            entries.forEach(chunk::writeString);
+        }
+
+        for (int i = 0; i < rows; ) {
+            boolean isNull = valueAt(column, i) == null;
+            int end = i + 1;
+            while (end < rows && (valueAt(column, end) == null) == isNull && (isNull || keys[end] == keys[i])) {
+                end++;
+            }
+            chunk.writeVarLong((long) (end - i) << 1 | (isNull ? 1 : 0));
+            if (!isNull) {
+                if (type == ColumnType.LONG || type == ColumnType.DECIMAL) {
+                    chunk.writeVarLong(keys[i] << 1 ^ keys[i] >> 63);
+                } else if (type == ColumnType.DOUBLE) {
+                    chunk.writeLong(keys[i]);
+                } else {
+                    chunk.writeVarLong(keys[i]);
+                }
+            }
+            i = end;
+        }
+
+        groups.writeByte(type.ordinal());
+        groups.writeVarLong(position);
+        groups.writeVarLong(flushChunk());
+        groups.writeVarLong(nulls);
+        if (type == ColumnType.DECIMAL) {
+            groups.writeVarLong(scale);
+        }
+        if (type == ColumnType.LONG || type == ColumnType.DECIMAL) {
+            groups.writeVarLong(minLong << 1 ^ minLong >> 63);
+            groups.writeVarLong(maxLong << 1 ^ maxLong >> 63);
+        } else if (type == ColumnType.DOUBLE) {
+            groups.writeLong(Double.doubleToRawLongBits(minDouble));
+            groups.writeLong(Double.doubleToRawLongBits(maxDouble));
+        } else {
+            groups.writeString(minString);
+            groups.writeString(maxString);
+        }
+    }
+
+    /**
+     * whether the value is an integer of at most 18 digits written like Long.toString
+     *
+     * @param value not empty
+     * @return
+     */
+    private static boolean isLong(String value) {
+        int length = value.length();
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int digits = length - i;
+        if (digits == 0 || digits > 18 || value.charAt(i) == '0' && (digits > 1 || i == 1)) {
+            return false;
+        }
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param value not empty
+     * @return the number of the digits after the point of a decimal like "-12.30" of at most 15 digits,
+     * 0 if there is no point, or -1 if the decimal isn't written back as the same text from its unscaled long and scale
+     */
+    private static int scaleOf(String value) {
+        int length = value.length();
+        int start = value.charAt(0) == '-' ? 1 : 0;
+        int point = -1;
+        boolean zero = true;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && point < 0) {
+                point = i;
+            } else if (c >= '0' && c <= '9') {
+                zero &= c == '0';
+            } else {
+                return -1;
+            }
+        }
+        int integerDigits = (point < 0 ? length : point) - start;
+        int scale = point < 0 ? 0 : length - point - 1;
+        if (integerDigits == 0 || point >= 0 && scale == 0 || integerDigits + scale > MAX_DECIMAL_DIGITS
+                || integerDigits > 1 && value.charAt(start) == '0' || start == 1 && zero) {
+            return -1;
+        }
+        return scale;
+    }
+
+    /**
+     * @param value a decimal whose scale isn't -1, see {@link #scaleOf(String)}
+     * @return the digits of the decimal without the point
+     */
+    private static long unscaledOf(String value) {
+        long unscaled = 0;
+        for (int i = value.charAt(0) == '-' ? 1 : 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '.') {
+                unscaled = unscaled * 10 + (c - '0');
+            }
+        }
+        return value.charAt(0) == '-' ? -unscaled : unscaled;
+    }
+
+    /**
+     * @param value not empty
+     * @return the decimal, or NaN if it isn't written back as the same text by {@link DecimalUtils#toPlainString(double, int)}
+     */
+    private static double toDouble(String value) {
+        double number = DecimalUtils.parse(value);
+        if (Double.isNaN(number)) {
+            if (!DecimalUtils.isDecimal(value)) {
+                return Double.NaN;
+            }
+            number = Double.parseDouble(value);
+            if (Double.isInfinite(number)) {
+                return Double.NaN;
+            }
+        }
+        return DecimalUtils.toPlainString(number, PLAIN_SCALE).equals(value) ? number : Double.NaN;
+    }
+
+    /**
+     * write the chunk into the channel
+     *
+     * @return the length of the chunk
+     * @throws IOException
+     */
+    private int flushChunk() throws IOException {
+        int length = chunk.size;
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        position += length;
+        chunk.size = 0;
+        return length;
+    }
+
+    /**
+     * write the last row group and the footer, then close the channel
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushRowGroup();
+            chunk.writeString(sheetName);
+            chunk.writeVarLong(numColumns);
+            chunk.writeVarLong(rowGroups);
+            chunk.write(groups.bytes, groups.size);
+            chunk.writeInt(chunk.size);
+            chunk.writeInt(MAGIC);
+            flushChunk();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * the bytes which are written, in an array which grows like an ArrayList
+     */
+    private static final class ByteOutput {
+        private byte[] bytes = new byte[1 << 12];
+        private int size;
+
+        private void ensure(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length << 1));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            write(utf8, utf8.length);
+        }
+
+        void write(byte[] b, int length) {
+            ensure(length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.unaware.poi.excel.util;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * @author Unaware
+ * @Description: A number format which has been classified for {@link DataUtil#getCellValue}.
+ *                 A format string is matched against the patterns only once, and the formats are cached by their index and string,
+ *                 so the cells of the same format only look up the result, and write the value with the formatter kept here.
+ *                 It's immutable and the formatters are thread-safe, so it can be shared by the threads.
+ * @Title: CompiledFormat
+ * @ProjectName doExcel
+ * @date 2026/10/17 15:05
+ */
+public final class CompiledFormat {
+    /**
+     * the kinds of the date formats, see {@link #getReservedKind()} and {@link #getPatternKind()}
+     */
+    public static final int UNKNOWN = -1;
+    public static final int TIME = 0;
+    public static final int DATE = 1;
+    public static final int DATE_TIME = 2;
+
+    /**
+     * the same as the SimpleDateFormat of "HH:mm:ss", "yyyy-MM-dd" and "yyyy-MM-dd HH:mm:ss"
+     */
+    public static final DateTimeFormatter TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("HH:mm:ss").toFormatter();
+    public static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR_OF_ERA, 4, 19, SignStyle.NORMAL).appendPattern("-MM-dd").toFormatter();
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .append(DATE_FORMATTER).appendLiteral(' ').append(TIME_FORMATTER).toFormatter();
+    /**
+     * the same as the SimpleDateFormat of "HH:mm", "yyyy-MM" and "MM-dd", which StreamCell writes for some Chinese formats
+     */
+    public static final DateTimeFormatter HOUR_MINUTE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("HH:mm").toFormatter();
+    public static final DateTimeFormatter YEAR_MONTH_FORMATTER = new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR_OF_ERA, 4, 19, SignStyle.NORMAL).appendPattern("-MM").toFormatter();
+    public static final DateTimeFormatter MONTH_DAY_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("MM-dd").toFormatter();
+
+    private static final Pattern BRACKETS = Pattern.compile("^\\[.*]");
+    private static final Pattern TIME_FORMAT = Pattern.compile("^((?![YD]).)*((H.*M)|(M.*S))((?![YD]).)*$");
+    private static final Pattern DATE_FORMAT = Pattern.compile("^((?![SH]).)*(M|AAAA;|AAA;)((?![SH]).)*$");
+
+    private static final Pattern NUMBER_FORMAT = Pattern.compile("^0(\\.0+)?_\\s$");
+    private static final Pattern NUMBER_FORMAT_SUFFIX = Pattern.compile("_\\s$");
+    private static final Pattern SIGNED_NUMBER_FORMAT = Pattern.compile("^0(\\.0+)?_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$");
+    private static final Pattern SIGNED_NUMBER_FORMAT_SUFFIX = Pattern.compile("_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$");
+    private static final Pattern PERCENTAGE_FORMAT = Pattern.compile("^0(.0+)?%$");
+    private static final Pattern PERCENTAGE_FORMAT_SUFFIX = Pattern.compile("%$");
+    private static final Pattern DOT = Pattern.compile("\\.");
+
+    /**
+     * the compiled formats, a workbook rarely has more than a few hundred of formats,
+     * the cache is cleared when it is full in case of a workbook generating a format for every cell.
+     */
+    private static final int CACHE_SIZE = 4096;
+    private static final Map<Key, CompiledFormat> CACHE = new ConcurrentHashMap<>();
+
+    private final short formatIndex;
+    private final String formatString;
+    private final String numericFormat;
+    private final int reservedKind;
+    private final int patternKind;
+    private final boolean dateFormat;
+    private final boolean znDateFormat;
+    private final int precision;
+    private final boolean percentage;
+
+    /**
+     * the formatter of the dates, which is decided by the format alone, or null
+     */
+    private final DateTimeFormatter dateFormatter;
+
+    private CompiledFormat(short formatIndex, String formatString) {
+        this.formatIndex = formatIndex;
+        this.formatString = formatString;
+        this.numericFormat = formatString != null ? formatString : BuiltinFormats.getBuiltinFormat(formatIndex);
+        this.reservedKind = DataUtil.isReserved(formatIndex);
+        this.dateFormat = DateUtil.isADateFormat(formatIndex, formatString);
+        this.znDateFormat = DataUtil.isZnDateFormat(formatString);
+
+        int kind = UNKNOWN;
+        int scale = -1;
+        boolean isPercentage = false;
+        if (formatString != null) {
+            /*
+              Remove the "[...]" in front of the string, because sometimes it contains the letter D.
+             */
+            String format = BRACKETS.matcher(formatString).replaceAll("").toUpperCase();
+            if (TIME_FORMAT.matcher(format).matches()) {
+                kind = TIME;
+            } else if (DATE_FORMAT.matcher(format).matches()) {
+                kind = DATE;
+            }
+
+            format = formatString.toUpperCase();
+            String[] fItem = new String[0];
+            if (NUMBER_FORMAT.matcher(format).matches()) {
+                fItem = DOT.split(NUMBER_FORMAT_SUFFIX.matcher(format).replaceAll(""));
+            } else if (SIGNED_NUMBER_FORMAT.matcher(format).matches()) {
+                fItem = DOT.split(SIGNED_NUMBER_FORMAT_SUFFIX.matcher(format).replaceAll(""));
+            } else if (PERCENTAGE_FORMAT.matcher(format).matches()) {
+                isPercentage = true;
+                fItem = DOT.split(PERCENTAGE_FORMAT_SUFFIX.matcher(format).replaceAll(""));
+            }
+            if (fItem.length > 0) {
+                scale = fItem.length == 2 ? fItem[1].length() : 0;
+            }
+        }
+        this.patternKind = kind;
+        this.precision = scale;
+        this.percentage = isPercentage;
+
+        if (reservedKind != UNKNOWN) {
+            this.dateFormatter = formatterOf(reservedKind);
+        } else if (formatString != null && patternKind != UNKNOWN) {
+            this.dateFormatter = formatterOf(patternKind);
+        } else {
+            this.dateFormatter = null;
+        }
+    }
+
+    /**
+     * look up the compiled format, it is classified when it is used for the first time
+     *
+     * @param formatIndex  the index of the format
+     * @param formatString the format string, it may be null
+     * @return
+     */
+    public static CompiledFormat of(short formatIndex, String formatString) {
+        Key key = new Key(formatIndex, formatString);
+        CompiledFormat format = CACHE.get(key);
+        if (format == null) {
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            format = new CompiledFormat(formatIndex, formatString);
+            CACHE.putIfAbsent(key, format);
+        }
+        return format;
+    }
+
+    private static DateTimeFormatter formatterOf(int kind) {
+        switch (kind) {
+            case TIME:
+                return TIME_FORMATTER;
+            case DATE:
+                return DATE_FORMATTER;
+            default:
+                return DATE_TIME_FORMATTER;
+        }
+    }
+
+    public short getFormatIndex() {
+        return formatIndex;
+    }
+
+    /**
+     * @return the format string, it may be null
+     */
+    public String getFormatString() {
+        return formatString;
+    }
+
+    /**
+     * @return the format string, or the built-in format of its index if there is no format string
+     */
+    public String getNumericFormat() {
+        return numericFormat;
+    }
+
+    /**
+     * @return the kind of the date format reserved for the Chinese dates, UNKNOWN if the format index is not reserved
+     */
+    public int getReservedKind() {
+        return reservedKind;
+    }
+
+    /**
+     * @return TIME or DATE if the format string looks like a time or a date, otherwise UNKNOWN
+     */
+    public int getPatternKind() {
+        return patternKind;
+    }
+
+    /**
+     * @return the formatter of the dates if the format alone decides the value is a date, otherwise null
+     */
+    public DateTimeFormatter getDateFormatter() {
+        return dateFormatter;
+    }
+
+    /**
+     * @return whether a valid date of this format is written with its date and time,
+     * it's only considered when {@link #getDateFormatter()} is null
+     */
+    public boolean isDateTimeIfValid() {
+        return dateFormatter == null && formatString != null && dateFormat;
+    }
+
+    /**
+     * @return whether POI regards the format as a date format
+     */
+    public boolean isDateFormat() {
+        return dateFormat;
+    }
+
+    /**
+     * @return whether the format string is one of the Chinese date formats
+     */
+    public boolean isZnDateFormat() {
+        return znDateFormat;
+    }
+
+    /**
+     * @return the number of the decimal places of a plain number or percentage format, -1 for the other formats
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    public boolean isPercentage() {
+        return percentage;
+    }
+
+    private static final class Key {
+        private final short formatIndex;
+        private final String formatString;
+
+        Key(short formatIndex, String formatString) {
+            this.formatIndex = formatIndex;
+            this.formatString = formatString;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return formatIndex == key.formatIndex && Objects.equals(formatString, key.formatString);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * formatIndex + Objects.hashCode(formatString);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.unaware.poi.excel.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Unaware
+ * @Description: write the records like the CSVPrinter of CSVFormat.INFORMIX_UNLOAD_CSV with the record separator "\r\n",
+ *                 empty lines are kept and the fields are only quoted when they need to be.
+ *                 Every field is scanned once to decide whether it is quoted,
+ *                 then it is encoded into a reusable buffer of 64K bytes which is written to the channel when it is full.
+ *                 UTF-8 is encoded by hand, the other charsets use their CharsetEncoder.
+ *                 A record is either written at once by {@link #write(Iterable)},
+ *                 or field by field by {@link #writeField(CharSequence)} and {@link #endRecord()}, like the values formatted into a reusable buffer.
+ * @Title: CsvWriter
+ * @ProjectName doExcel
+ * @date 2018/9/11 1:30
+ */
+public final class CsvWriter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CsvWriter.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    /**
+     * the fields which start with a character up to '#' (the comment marker) are quoted, like CSVPrinter
+     */
+    private static final char COMMENT = '#';
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] bytes = buffer.array();
+    /**
+     * null for UTF-8
+     */
+    private final CharsetEncoder encoder;
+    /**
+     * whether the next field is the first field of a record
+     */
+    private boolean newRecord = true;
+
+    private CsvWriter(WritableByteChannel channel, CharsetEncoder encoder) {
+        this.channel = channel;
+        this.encoder = encoder;
+    }
+
+    public static CsvWriter utf8(File file) {
+        return build(file, "UTF-8");
+    }
+
+    public static CsvWriter gbk(File file) {
+        return build(file, "gbk");
+    }
+
+    public static CsvWriter utf8(SheetOutput output) {
+        WritableByteChannel channel;
+        try {
+            channel = output.open();
+        } catch (IOException var2) {
+            throw new IllegalArgumentException("文件操作失败");
+        }
+
+        return build(channel, "UTF-8");
+    }
+
+    public static CsvWriter build(File file, String charsetName) {
+        WritableByteChannel channel;
+        try {
+            Charset.forName(charsetName);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException | IllegalArgumentException var4) {
+            throw new IllegalArgumentException("文件操作失败");
+        }
+
+        return build(channel, charsetName);
+    }
+
+    /**
+     * @param channel     it's closed with the writer
+     * @param charsetName
+     * @return
+     */
+    public static CsvWriter build(WritableByteChannel channel, String charsetName) {
+        CharsetEncoder encoder;
+        try {
+            Charset charset = Charset.forName(charsetName);
+            // the malformed and unmappable characters are replaced like an OutputStreamWriter
+            encoder = StandardCharsets.UTF_8.equals(charset) ? null : charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } catch (IllegalArgumentException var4) {
+            throw new IllegalArgumentException("文件操作失败");
+        }
+
+        return new CsvWriter(channel, encoder);
+    }
+
+    public boolean write(Iterable<String> values) {
+        boolean flag = true;
+
+        try {
+            for (String value : values) {
+                putField(value);
+            }
+            putRecordSeparator();
+        } catch (IOException var4) {
+            flag = false;
+            newRecord = true;
+            LOGGER.error("写一行数据,发生了错误:{}", var4.getMessage());
+        }
+
+        return flag;
+    }
+
+    /**
+     * write a field of the current record, the characters are encoded at once, so the value can be a reused buffer
+     *
+     * @param value null is written as an empty field
+     * @return
+     */
+    public boolean writeField(CharSequence value) {
+        try {
+            putField(value);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("写一个字段,发生了错误:{}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * end the current record which has been written by {@link #writeField(CharSequence)}, an empty record is an empty line
+     *
+     * @return
+     */
+    public boolean endRecord() {
+        try {
+            putRecordSeparator();
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("写一行数据,发生了错误:{}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void putField(CharSequence value) throws IOException {
+        if (!newRecord) {
+            put(DELIMITER);
+        }
+        writeField(value, newRecord);
+        newRecord = false;
+    }
+
+    private void putRecordSeparator() throws IOException {
+        put('\r');
+        put('\n');
+        newRecord = true;
+    }
+
+    /**
+     * write a field, the quotes in a quoted field are doubled
+     *
+     * @param value     null is written as an empty field
+     * @param newRecord whether it is the first field of the record
+     * @throws IOException
+     */
+    private void writeField(CharSequence value, boolean newRecord) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        if (length == 0) {
+            // an empty record would be read as an empty line
+            if (newRecord) {
+                put(QUOTE);
+                put(QUOTE);
+            }
+            return;
+        }
+        if (!needsQuote(value, length, newRecord)) {
+            encode(value, 0, length);
+            return;
+        }
+        put(QUOTE);
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) == QUOTE) {
+                encode(value, start, i + 1);
+                // the quote is written again at the beginning of the next chunk
+                start = i;
+            }
+        }
+        encode(value, start, length);
+        put(QUOTE);
+    }
+
+    /**
+     * the quoting of QuoteMode.MINIMAL
+     *
+     * @param value
+     * @param length    greater than 0
+     * @param newRecord the first field of a record is also quoted if it doesn't start with the TEXTDATA of RFC4180
+     * @return
+     */
+    private static boolean needsQuote(CharSequence value, int length, boolean newRecord) {
+        char first = value.charAt(0);
+        if (first <= COMMENT || value.charAt(length - 1) <= ' ' || newRecord && (first == DELIMITER || first > 0x7E)) {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == DELIMITER || c == QUOTE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * put an ASCII character into the buffer
+     *
+     * @param c
+     * @throws IOException
+     */
+    private void put(char c) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) c);
+    }
+
+    /**
+     * encode the characters from start to end into the buffer
+     *
+     * @param value
+     * @param start
+     * @param end
+     * @throws IOException
+     */
+    private void encode(CharSequence value, int start, int end) throws IOException {
+        if (encoder != null) {
+            encodeWithEncoder(value, start, end);
+            return;
+        }
+        int position = buffer.position();
+        for (int i = start; i < end; i++) {
+            // the longest sequence has 4 bytes
+            if (position > BUFFER_SIZE - 4) {
+                buffer.position(position);
+                flush();
+                position = 0;
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                // a lone surrogate is replaced like the encoder of OutputStreamWriter does
+                bytes[position++] = '?';
+            }
+        }
+        buffer.position(position);
+    }
+
+    private void encodeWithEncoder(CharSequence value, int start, int end) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(value, start, end);
+        CoderResult result;
+        while ((result = encoder.encode(chars, buffer, false)).isOverflow()) {
+            flush();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        if (chars.hasRemaining()) {
+            // a high surrogate at the end of the field is never followed by its low surrogate
+            byte[] replacement = encoder.replacement();
+            for (byte b : replacement) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put(b);
+            }
+        }
+    }
+
+    /**
+     * write the buffer to the channel
+     *
+     * @throws IOException
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public void close() {
+        try {
+            flush();
+        } catch (IOException var2) {
+            LOGGER.error("DataWriter 关流发生了错误:{}", var2.getMessage());
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException var3) {
+                LOGGER.error("DataWriter 关流发生了错误:{}", var3.getMessage());
+            }
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.unaware.poi.excel.util;
 
+import com.unaware.poi.excel.ssimpl.StreamCell;
 import org.apache.poi.hssf.usermodel.HSSFDataFormatter;
 import org.apache.poi.hssf.usermodel.HSSFDateUtil;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.FormulaError;
 
-import java.math.BigDecimal;
 import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
-import static org.apache.poi.ss.usermodel.CellType.FORMULA;
-import static org.apache.poi.ss.usermodel.CellType.NUMERIC;
+import static org.apache.poi.ss.usermodel.CellType.*;
 
 /**
  * @author Unaware
@@ -21,7 +24,12 @@ import static org.apache.poi.ss.usermodel.CellType.NUMERIC;
  * @date 2018/7/27 13:46
  */
 public class DataUtil {
-    private static final NumberFormat percent = NumberFormat.getPercentInstance();
+    /**
+     * NumberFormat and HSSFDataFormatter aren't thread-safe, so every thread keeps its own.
+     * The percentage formats are kept for every precision.
+     */
+    private static final ThreadLocal<NumberFormat[]> PERCENT_FORMATS = ThreadLocal.withInitial(() -> new NumberFormat[16]);
+    private static final ThreadLocal<HSSFDataFormatter> DATA_FORMATTER = ThreadLocal.withInitial(HSSFDataFormatter::new);
     /**
      * yyyy-MM-dd: dataFormat=14,dataFormatString=m/d/yy
      * yyyy"年"m"月"d"日": dataFormat=31/30,dataFormatString=reserved-0x1F
@@ -85,6 +93,17 @@ public class DataUtil {
      * @return
      */
     public static String getCellValue(Cell cell) {
+        String value = cellValue(cell);
+        // the same values of a workbook whose values are pooled share one String
+        StringPool stringPool = cell instanceof StreamCell ? ((StreamCell) cell).getStringPool() : null;
+        return stringPool == null ? value : stringPool.intern(value);
+    }
+
+    /**
+     * @param cell
+     * @return the value of the cell, see {@link #getCellValue(Cell)}
+     */
+    private static String cellValue(Cell cell) {
         if (cell == null)
             return "";
         try {
@@ -93,46 +112,29 @@ public class DataUtil {
               Excel will turn the date into NUMERIC to store
              */
             if (cell.getCellTypeEnum() == NUMERIC) {
-                Date d = cell.getDateCellValue();
-                String format = cell.getCellStyle().getDataFormatString();
-                int tt;
-                if ((tt = isReserved(cell.getCellStyle().getDataFormat())) != -1) {
-                    switch (tt) {
-                        case 0:
-                            return new SimpleDateFormat("HH:mm:ss").format(d);
-                        case 1:
-                            return new SimpleDateFormat("yyyy-MM-dd").format(d);
-                        case 2:
-                            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(d);
-                    }
-                } else if (format != null) {
-                    /*
-                      Remove the "[...]" in front of the string, because sometimes it contains the letter D.
-                     */
-                    format = format.replaceAll("^\\[.*]", "").toUpperCase();
-
-                    if (format.matches("^((?![YD]).)*((H.*M)|(M.*S))((?![YD]).)*$")) {
-                        return new SimpleDateFormat("HH:mm:ss").format(d);
-                    } else if (format.matches("^((?![SH]).)*(M|AAAA;|AAA;)((?![SH]).)*$")) {
-                        return new SimpleDateFormat("yyyy-MM-dd").format(d);
-                    } else if (HSSFDateUtil.isCellDateFormatted(cell)) {
-                        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(d);
-                    }
+                CompiledFormat format = formatOf(cell);
+                if (format.getDateFormatter() != null) {
+                    return formatDate(format.getDateFormatter(), cell.getDateCellValue());
+                } else if (format.isDateTimeIfValid() && HSSFDateUtil.isValidExcelDate(cell.getNumericCellValue())) {
+                    return formatDate(CompiledFormat.DATE_TIME_FORMATTER, cell.getDateCellValue());
                 }
                 // handle some numeric cells.
-                String temp = handleNumeric(cell);
+                String temp = handleNumeric(cell, format);
                 if(temp != null) {
                     return temp;
                 }
             } else if (cell.getCellTypeEnum() == FORMULA) {
+                // the results of a StreamWorkbook which are not numbers are known without trying to parse them
+                if (cell instanceof StreamCell && ((StreamCell) cell).getValueKind() != StreamCell.ValueKind.NUMBER) {
+                    return cell.getStringCellValue();
+                }
                 try {
                     // handle some numeric cells.
-                    String temp = handleNumeric(cell);
+                    String temp = handleNumeric(cell, formatOf(cell));
                     if(temp != null) {
                         return temp;
                     } else {
-                        BigDecimal bigDecimal = new BigDecimal(String.valueOf(cell.getNumericCellValue())).setScale(14, BigDecimal.ROUND_HALF_UP);
-                        return bigDecimal.stripTrailingZeros().toPlainString();
+                        return DecimalUtils.toPlainString(cell.getNumericCellValue(), 14);
                     }
                 } catch (IllegalStateException | NumberFormatException e) {
                     try {
@@ -142,11 +144,25 @@ public class DataUtil {
                     }
                 }
             }
+            /*
+              the strings of a StreamWorkbook are returned as they are,
+              unless they have the escaped characters like "_x000D_" which the formatter decodes
+             */
+            if (cell instanceof StreamCell) {
+                CellType cellType = cell.getCellTypeEnum();
+                if (cellType == BLANK) {
+                    return "";
+                } else if (cellType == STRING) {
+                    String value = cell.getStringCellValue();
+                    if (value.indexOf("_x") == -1) {
+                        return value;
+                    }
+                }
+            }
             /*
               convert others' format to String, the value is determined by the actual data type
              */
-            HSSFDataFormatter df = new HSSFDataFormatter();
-            return df.formatCellValue(cell);
+            return DATA_FORMATTER.get().formatCellValue(cell);
         } catch (Exception e) {
             System.out.println("ERROR: " + cell.getAddress().toString() + " -> " + e.getMessage());
             return "#ERROR";
@@ -162,7 +178,7 @@ public class DataUtil {
      * 0  represents time
      * -1 unknown
      */
-    private static int isReserved(short reserved) {
+    static int isReserved(short reserved) {
         /*
          * If it is the date of the Chinese type, convert its format to "yyyy-MM-dd".
          */
@@ -193,7 +209,7 @@ public class DataUtil {
      * @param isNotDate
      * @return
      */
-    private static boolean isZnDateFormat(String isNotDate) {
+    static boolean isZnDateFormat(String isNotDate) {
         if (isNotDate == null || isNotDate.length() == 0) {
             return false;
         }
@@ -211,13 +227,44 @@ public class DataUtil {
         if (cell == null) {
             return false;
         }
-        if (HSSFDateUtil.isCellDateFormatted(cell)) {
+        StyleInfo style = cell instanceof StreamCell ? ((StreamCell) cell).getStyleInfo() : null;
+        if (style != null) {
+            // the same as HSSFDateUtil.isCellDateFormatted, whose check of the format has been done once for the style
+            if (style.getFormat().isDateFormat() && HSSFDateUtil.isValidExcelDate(cell.getNumericCellValue())) {
+                return true;
+            }
+        } else if (HSSFDateUtil.isCellDateFormatted(cell)) {
             return true;
         }
-        if (isReserved(cell.getCellStyle().getDataFormat()) != -1) {
-            return true;
+        CompiledFormat format = formatOf(cell);
+        return format.getReservedKind() != CompiledFormat.UNKNOWN || format.isZnDateFormat();
+    }
+
+    /**
+     * The cells of a StreamWorkbook keep the format of their style,
+     * the format of the others is looked up by its index and string.
+     *
+     * @param cell
+     * @return
+     */
+    private static CompiledFormat formatOf(Cell cell) {
+        StyleInfo style = cell instanceof StreamCell ? ((StreamCell) cell).getStyleInfo() : null;
+        if (style != null) {
+            return style.getFormat();
         }
-        return isZnDateFormat(cell.getCellStyle().getDataFormatString());
+        CellStyle cellStyle = cell.getCellStyle();
+        return CompiledFormat.of(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+    }
+
+    /**
+     * write the date in the default time zone, like a SimpleDateFormat
+     *
+     * @param formatter
+     * @param date
+     * @return
+     */
+    public static String formatDate(DateTimeFormatter formatter, Date date) {
+        return formatter.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
     }
 
     /**
@@ -225,41 +272,43 @@ public class DataUtil {
      * "^0(\.0+)?_\s$" matches the format like "0.0000_ "
      * "^0(\.0+)?_?[\s\)]?;(\[RED])?(\\\-|\\\()?0(\.0+)?(\\\s|\\\))?$" matches the format like "0.0000;[Red]0.0000", "0.0000_);[Red]\(0.0000\)", "0.0000_);\(0.0000\)" and "0.0000_ ;[Red]\-0.0000\ "
      * "^0(.0+)?%$" matches the format of the percentage, like "0.00%", "0%"
-     * Notice: The BigDecimal is used here instead of the DecimalFormat. The DecimalFormat will lose precision.
+     * Notice: The digits of the value are rounded by {@link DecimalUtils} like BigDecimal instead of the DecimalFormat. The DecimalFormat will lose precision.
+     * The patterns are matched once per format by {@link CompiledFormat}.
      * @param cell
+     * @param format
      * @return
      */
-    private static String handleNumeric(Cell cell) {
-        boolean isPercentage = false;
-        String[] fItem = new String[0];
-        String format = cell.getCellStyle().getDataFormatString();
-        if(format == null) {
-            return null;
-        } else {
-            format = format.toUpperCase();
-        }
-        if (format.matches("^0(\\.0+)?_\\s$")) {
-            fItem = format.replaceAll("_\\s$", "").split("\\.");
-        } else if (format.matches("^0(\\.0+)?_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$")){
-            fItem = format.replaceAll("_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$", "").split("\\.");
-        } else if (format.matches("^0(.0+)?%$")) {
-            isPercentage = true;
-            fItem = format.replaceAll("%$", "").split("\\.");
-        }
-        if(fItem.length > 0) {
-            int precision = fItem.length == 2 ? fItem[1].length():0;
-            BigDecimal bigDecimal = new BigDecimal(String.valueOf(cell.getNumericCellValue())).setScale(precision, BigDecimal.ROUND_HALF_UP);
-            if(isPercentage) {
-                percent.setMaximumFractionDigits(precision);
-                return percent.format(bigDecimal.doubleValue());
+    private static String handleNumeric(Cell cell, CompiledFormat format) {
+        int precision = format.getPrecision();
+        if(precision >= 0) {
+            String plain = DecimalUtils.toPlainString(cell.getNumericCellValue(), precision);
+            if(format.isPercentage()) {
+                return percentFormat(precision).format(Double.parseDouble(plain));
             }else {
-                return bigDecimal.stripTrailingZeros().toPlainString();
+                return plain;
             }
         } else {
             return null;
         }
     }
 
+    /**
+     * @param precision the maximum number of the fraction digits
+     * @return the percentage format of this thread
+     */
+    private static NumberFormat percentFormat(int precision) {
+        NumberFormat[] formats = PERCENT_FORMATS.get();
+        if (precision >= formats.length) {
+            formats = Arrays.copyOf(formats, precision + 1);
+            PERCENT_FORMATS.set(formats);
+        }
+        if (formats[precision] == null) {
+            formats[precision] = NumberFormat.getPercentInstance();
+            formats[precision].setMaximumFractionDigits(precision);
+        }
+        return formats[precision];
+    }
+
     /**
      * return UUID whose length is 32
      * @return
@@ -0,0 +1,228 @@
+package com.unaware.poi.excel.util;
+
+import java.math.BigDecimal;
+
+/**
+ * @author Unaware
+ * @Description: Parse and write the decimal numbers of the cells without {@link BigDecimal}.
+ *                 {@link #parse(CharSequence)} reads the plain decimals of at most 15 digits, which are nearly all the numbers of a sheet,
+ *                 with an exact division by a power of 10, so it returns the same double as BigDecimal.doubleValue().
+ *                 {@link #toPlainString(double, int)} rounds the digits of Double.toString in the same way as
+ *                 new BigDecimal(String.valueOf(value)).setScale(scale, ROUND_HALF_UP).stripTrailingZeros().toPlainString(),
+ *                 {@link #appendPlain(double, int, StringBuilder)} writes the same digits into a buffer.
+ * @Title: DecimalUtils
+ * @ProjectName doExcel
+ * @date 2026/10/18 00:20
+ */
+public final class DecimalUtils {
+    /**
+     * the powers of 10 which are exact doubles
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * a long of 15 digits and its double are exact
+     */
+    private static final int MAX_DIGITS = 15;
+
+    private DecimalUtils() {
+    }
+
+    /**
+     * parse a plain decimal like "-123.045", without an exponent
+     *
+     * @param text
+     * @return the value, or NaN if the text isn't a plain decimal of at most 15 significant digits,
+     * then parse it with {@link BigDecimal}, which also reports the invalid numbers
+     */
+    public static double parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        // the number of the digits after the point, -1 represents there is no point
+        int scale = -1;
+        boolean hasDigit = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > MAX_DIGITS) {
+                        return Double.NaN;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (scale >= 0 && ++scale >= POWERS_OF_TEN.length) {
+                    return Double.NaN;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!hasDigit) {
+            return Double.NaN;
+        }
+        if (mantissa == 0) {
+            // BigDecimal has no negative zero
+            return 0.0;
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * check the syntax of a decimal of {@link BigDecimal#BigDecimal(String)}, like "-1.5", ".5" or "1.5E-3",
+     * so the contents which aren't numbers are known without throwing a NumberFormatException
+     *
+     * @param text
+     * @return whether the text is a decimal
+     */
+    public static boolean isDecimal(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            for (; i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * write the value rounded half up to the scale, without the trailing zeros and without an exponent
+     *
+     * @param value
+     * @param scale the maximum number of the digits after the point
+     * @return the plain decimal
+     * @throws NumberFormatException if the value is NaN or infinite, like BigDecimal
+     */
+    public static String toPlainString(double value, int scale) {
+        StringBuilder sb = new StringBuilder(24);
+        appendPlain(value, scale, sb);
+        return sb.toString();
+    }
+
+    /**
+     * append the value like {@link #toPlainString(double, int)}, the digits are rounded in the buffer itself
+     *
+     * @param value
+     * @param scale the maximum number of the digits after the point
+     * @param sb    the buffer the plain decimal is appended to
+     * @throws NumberFormatException if the value is NaN or infinite, like BigDecimal
+     */
+    public static void appendPlain(double value, int scale, StringBuilder sb) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException("Infinite or NaN");
+        }
+        String text = Double.toString(value);
+        boolean negative = text.charAt(0) == '-';
+        int exponent = text.indexOf('E');
+        int end = exponent < 0 ? text.length() : exponent;
+        int dot = text.indexOf('.');
+        // the digits without the point from start, and the number of the digits before the point
+        int start = sb.length();
+        sb.append(text, negative ? 1 : 0, dot).append(text, dot + 1, end);
+        int point = dot - (negative ? 1 : 0);
+        if (exponent >= 0) {
+            point += parseExponent(text, exponent + 1);
+        }
+
+        int keep = point + scale;
+        if (keep < sb.length() - start) {
+            boolean up = keep >= 0 && sb.charAt(start + keep) >= '5';
+            sb.setLength(start + Math.max(keep, 0));
+            if (up) {
+                int i = keep - 1;
+                while (i >= 0 && sb.charAt(start + i) == '9') {
+                    sb.setCharAt(start + i--, '0');
+                }
+                if (i >= 0) {
+                    sb.setCharAt(start + i, (char) (sb.charAt(start + i) + 1));
+                } else {
+                    sb.insert(start, '1');
+                    point++;
+                }
+            }
+        }
+        while (sb.length() - start > Math.max(point, 0) && sb.charAt(sb.length() - 1) == '0') {
+            sb.setLength(sb.length() - 1);
+        }
+        int leading = 0;
+        while (start + leading < sb.length() && leading < point && sb.charAt(start + leading) == '0') {
+            leading++;
+        }
+        sb.delete(start, start + leading);
+        point -= leading;
+        int length = sb.length() - start;
+        if (length == 0) {
+            sb.append('0');
+            return;
+        }
+
+        if (point <= 0) {
+            for (int i = point; i < 0; i++) {
+                sb.insert(start, '0');
+            }
+            sb.insert(start, "0.");
+        } else if (point >= length) {
+            for (int i = length; i < point; i++) {
+                sb.append('0');
+            }
+        } else {
+            sb.insert(start + point, '.');
+        }
+        if (negative) {
+            sb.insert(start, '-');
+        }
+    }
+
+    /**
+     * @param text the text of Double.toString
+     * @param from the index of the exponent after the 'E'
+     * @return the exponent
+     */
+    private static int parseExponent(String text, int from) {
+        boolean negative = text.charAt(from) == '-';
+        int exponent = 0;
+        for (int i = negative ? from + 1 : from; i < text.length(); i++) {
+            exponent = exponent * 10 + (text.charAt(i) - '0');
+        }
+        return negative ? -exponent : exponent;
+    }
+}
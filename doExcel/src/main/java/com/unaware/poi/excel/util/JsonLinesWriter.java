@@ -0,0 +1,187 @@
+package com.unaware.poi.excel.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.unaware.poi.excel.exception.ParameterException;
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.*;
+
+/**
+ * @author Unaware
+ * @Description: write the records of a sheet, the same as those of its .csv file, as JSON Lines (NDJSON),
+ *                 one object for every record after the header row, whose values are the names of the fields.
+ *                 The header row is configured by its index, or it is the first record which has a value.
+ *                 A configured header row which is blank or isn't read (see StreamReader.Builder#rows) is reported by a ParameterException.
+ *                 The fields of the columns without a name, or behind the header, are named by their column, like "F",
+ *                 a repeated name is followed by "_2", "_3"...
+ *                 The empty values are left out, and the records without a value aren't written.
+ *                 The values of the numeric and boolean cells are written without quotes if they are written like JSON numbers
+ *                 or are TRUE/FALSE, the others (dates, percentages, texts...) are strings.
+ *                 Every record is streamed by Jackson's JsonGenerator, only the names of the header are kept.
+ * @Title: JsonLinesWriter
+ * @ProjectName doExcel
+ * @date 2026/10/18 03:20
+ */
+public final class JsonLinesWriter implements AutoCloseable {
+    public static final String EXTENSION = ".jsonl";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    /**
+     * the index of the header row, -1 represents the first record which has a value
+     */
+    private final int headerRow;
+    /**
+     * the names of the fields, null until the header row is written.
+     * It grows with the columns behind the header
+     */
+    private String[] names;
+    /**
+     * the names which have been given to the fields
+     */
+    private final Set<String> used = new HashSet<>();
+
+    private JsonLinesWriter(JsonGenerator generator, int headerRow) {
+        this.generator = generator;
+        this.headerRow = headerRow;
+        // the records are separated by "\n" instead of a space
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * @param output    it's closed with the writer
+     * @param headerRow the index of the header row, -1 represents the first record which has a value
+     * @return
+     * @throws IOException
+     */
+    public static JsonLinesWriter open(SheetOutput output, int headerRow) throws IOException {
+        return new JsonLinesWriter(JSON_FACTORY.createGenerator(Channels.newOutputStream(output.open()), JsonEncoding.UTF8), headerRow);
+    }
+
+    /**
+     * write a record as an object, or take it as the header
+     *
+     * @param rowNum the index of the row of the record
+     * @param values the fields of the record
+     * @param typed  the fields whose cells are numeric or boolean
+     * @throws IOException
+     * @throws ParameterException if the header row is configured, but the record is behind it and the header row has no value
+     */
+    public void write(int rowNum, List<String> values, BitSet typed) throws IOException {
+        if (names == null) {
+            if ((headerRow == -1 || rowNum == headerRow) && hasValue(values)) {
+                names = new String[0];
+                addNames(values);
+            } else if (headerRow != -1 && rowNum >= headerRow) {
+                throw new ParameterException("The header row " + headerRow + " of the JSON Lines is blank or not read");
+            }
+            return;
+        }
+        if (!hasValue(values)) {
+            return;
+        }
+        if (values.size() > names.length) {
+            addNames(Collections.nCopies(values.size(), null));
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            generator.writeFieldName(names[i]);
+            if (!typed.get(i)) {
+                generator.writeString(value);
+            } else if ("TRUE".equalsIgnoreCase(value) || "FALSE".equalsIgnoreCase(value)) {
+                generator.writeBoolean(value.length() == 4);
+            } else if (isNumber(value)) {
+                // the number is written as it is converted, like "12.30"
+                generator.writeNumber(value);
+            } else {
+                generator.writeString(value);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static boolean hasValue(List<String> values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * name the fields of the columns behind the current names
+     *
+     * @param values the values of the header, or the nulls of a record which is wider than the header
+     */
+    private void addNames(List<String> values) {
+        int from = names.length;
+        names = Arrays.copyOf(names, values.size());
+        for (int i = from; i < names.length; i++) {
+            String name = values.get(i);
+            if (name == null || name.isEmpty()) {
+                name = CellReference.convertNumToColString(i);
+            }
+            String unique = name;
+            for (int n = 2; !used.add(unique); n++) {
+                unique = name + "_" + n;
+            }
+            names[i] = unique;
+        }
+    }
+
+    /**
+     * whether the value is a number of the grammar of JSON, like "-12.5E3", but not "007", ".5" or "12%"
+     *
+     * @param value not empty
+     * @return
+     */
+    private static boolean isNumber(String value) {
+        int length = value.length();
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int start = i;
+        while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == start || value.charAt(start) == '0' && i - start > 1) {
+            return false;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            start = ++i;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            start = i;
+            while (i < length && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
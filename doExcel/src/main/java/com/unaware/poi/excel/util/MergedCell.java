@@ -16,6 +16,10 @@ public class MergedCell extends CellRangeAddress {
      */
     private int mergedId;
     private String value;
+    /**
+     * whether the cell of the value is numeric or boolean
+     */
+    private boolean typed;
 
     public MergedCell(int firstRow, int lastRow, int firstCol, int lastCol) {
         super(firstRow, lastRow, firstCol, lastCol);
@@ -68,4 +72,12 @@ public class MergedCell extends CellRangeAddress {
     public void setValue(String value) {
         this.value = value;
     }
+
+    public boolean isTyped() {
+        return typed;
+    }
+
+    public void setTyped(boolean typed) {
+        this.typed = typed;
+    }
 }
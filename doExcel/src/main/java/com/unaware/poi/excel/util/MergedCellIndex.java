@@ -0,0 +1,257 @@
+package com.unaware.poi.excel.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Unaware
+ * @Description: An index over the merged regions of a sheet, which answers the same questions as
+ *                 {@link AvailableInfoUtils#isMergedBegin(int, int, List)} and {@link AvailableInfoUtils#getMergedIndex(int, int, List)}
+ *                 without scanning all the regions for every cell.
+ *                 The top left cells of the regions are kept in a hash table.
+ *                 The regions are sorted by their first row and swept row by row: the regions covering the current row
+ *                 are kept sorted by their first column, so a cell is found by a binary search.
+ *                 The sweep is amortized O(1) per row when the rows are visited in ascending order,
+ *                 going back to a previous row restarts the sweep.
+ *                 Like the list, the lowest position in the list wins if several regions match.
+ *                 It's not thread-safe, use one index per sheet and thread.
+ * @Title: MergedCellIndex
+ * @ProjectName doExcel
+ * @date 2026/10/17 15:40
+ */
+public class MergedCellIndex {
+    /**
+     * an index without any region
+     */
+    public static final MergedCellIndex EMPTY = new MergedCellIndex(Collections.emptyList());
+
+    private final List<MergedCell> mergedCells;
+
+    /**
+     * the positions of the regions sorted by their first row
+     */
+    private final int[] byFirstRow;
+
+    /**
+     * an open addressing hash table from the packed top left cell to the lowest position of the regions starting there
+     */
+    private final long[] beginKeys;
+    private final int[] beginPositions;
+    private final int beginMask;
+
+    /**
+     * the sweep: the row of the active regions, the next region to activate in byFirstRow,
+     * and the active regions sorted by their first column
+     */
+    private int sweepRow = -1;
+    private int next;
+    private int[] active = new int[16];
+    private int activeSize;
+    private boolean activeOverlapped;
+    private boolean activeSorted = true;
+    private long[] sortBuffer = new long[16];
+
+    /**
+     * @param mergedCells the merged regions, the position of a region in the list is returned by the lookups
+     */
+    public MergedCellIndex(List<MergedCell> mergedCells) {
+        this.mergedCells = mergedCells;
+        int size = mergedCells.size();
+
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = sortKey(mergedCells.get(i).getFirstRow(), i);
+        }
+        Arrays.sort(sorted);
+        this.byFirstRow = new int[size];
+        for (int i = 0; i < size; i++) {
+            byFirstRow[i] = (int) sorted[i];
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(size * 2, 8) - 1) << 1;
+        this.beginKeys = new long[capacity];
+        this.beginPositions = new int[capacity];
+        this.beginMask = capacity - 1;
+        Arrays.fill(beginPositions, -1);
+        for (int i = 0; i < size; i++) {
+            MergedCell cell = mergedCells.get(i);
+            long key = CellRefUtils.pack(cell.getFirstRow(), cell.getFirstColumn());
+            int slot = slot(key);
+            while (beginPositions[slot] != -1 && beginKeys[slot] != key) {
+                slot = (slot + 1) & beginMask;
+            }
+            if (beginPositions[slot] == -1) {
+                beginKeys[slot] = key;
+                beginPositions[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * determine whether (row, column) is the top left cell of a merged region
+     *
+     * @param row
+     * @param column
+     * @return the position of the region, -1 if there is none
+     */
+    public int isMergedBegin(int row, int column) {
+        long key = CellRefUtils.pack(row, column);
+        int slot = slot(key);
+        while (beginPositions[slot] != -1) {
+            if (beginKeys[slot] == key) {
+                return beginPositions[slot];
+            }
+            slot = (slot + 1) & beginMask;
+        }
+        return -1;
+    }
+
+    /**
+     * determine whether (row, column) is in a merged region
+     *
+     * @param row
+     * @param column
+     * @return the position of the region, -1 if there is none
+     */
+    public int getMergedIndex(int row, int column) {
+        if (byFirstRow.length == 0) {
+            return -1;
+        }
+        sweep(row);
+        if (activeSize == 0) {
+            return -1;
+        }
+        if (!activeSorted) {
+            sortActive();
+        }
+        if (activeOverlapped) {
+            // the regions overlap, the lowest position which contains the cell wins
+            int found = -1;
+            for (int i = 0; i < activeSize; i++) {
+                int position = active[i];
+                if ((found == -1 || position < found) && mergedCells.get(position).containsColumn(column)) {
+                    found = position;
+                }
+            }
+            return found;
+        }
+        // the last region starting at or before the column
+        int low = 0, high = activeSize - 1, found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (mergedCells.get(active[mid]).getFirstColumn() <= column) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found != -1 && mergedCells.get(active[found]).getLastColumn() >= column ? active[found] : -1;
+    }
+
+    /**
+     * @param position the position of the region
+     * @return the region
+     */
+    public MergedCell get(int position) {
+        return mergedCells.get(position);
+    }
+
+    public int size() {
+        return mergedCells.size();
+    }
+
+    public boolean isEmpty() {
+        return mergedCells.isEmpty();
+    }
+
+    /**
+     * move the sweep to the row, the active regions are those covering the row
+     *
+     * @param row
+     */
+    private void sweep(int row) {
+        if (row == sweepRow) {
+            return;
+        }
+        if (row < sweepRow) {
+            next = 0;
+            activeSize = 0;
+            activeSorted = true;
+            activeOverlapped = false;
+        }
+        sweepRow = row;
+        int kept = 0;
+        for (int i = 0; i < activeSize; i++) {
+            if (mergedCells.get(active[i]).getLastRow() >= row) {
+                active[kept++] = active[i];
+            }
+        }
+        boolean changed = kept != activeSize;
+        activeSize = kept;
+        while (next < byFirstRow.length && mergedCells.get(byFirstRow[next]).getFirstRow() <= row) {
+            int position = byFirstRow[next++];
+            if (mergedCells.get(position).getLastRow() >= row) {
+                if (activeSize == active.length) {
+                    active = Arrays.copyOf(active, activeSize << 1);
+                }
+                active[activeSize++] = position;
+                activeSorted = false;
+            }
+        }
+        if (changed && activeSorted) {
+            // removing keeps the order, but an overlap may be gone
+            activeOverlapped = overlapped();
+        }
+    }
+
+    private void sortActive() {
+        if (sortBuffer.length < activeSize) {
+            sortBuffer = new long[active.length];
+        }
+        for (int i = 0; i < activeSize; i++) {
+            sortBuffer[i] = sortKey(mergedCells.get(active[i]).getFirstColumn(), active[i]);
+        }
+        Arrays.sort(sortBuffer, 0, activeSize);
+        for (int i = 0; i < activeSize; i++) {
+            active[i] = (int) sortBuffer[i];
+        }
+        activeSorted = true;
+        activeOverlapped = overlapped();
+    }
+
+    /**
+     * @return whether two of the sorted active regions share a column
+     */
+    private boolean overlapped() {
+        for (int i = 1; i < activeSize; i++) {
+            if (mergedCells.get(active[i]).getFirstColumn() <= mergedCells.get(active[i - 1]).getLastColumn()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param value    a row or a column, which is not negative
+     * @param position
+     * @return a key sorted by the value and then by the position
+     */
+    private static long sortKey(int value, int position) {
+        return ((long) value << 32) | position;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & beginMask;
+    }
+
+    /**
+     * @param mergedCells
+     * @return an index over the list, or {@link #EMPTY} if there is no region
+     */
+    public static MergedCellIndex of(List<MergedCell> mergedCells) {
+        return mergedCells.isEmpty() ? EMPTY : new MergedCellIndex(mergedCells);
+    }
+}
@@ -0,0 +1,187 @@
+package com.unaware.poi.excel.util;
+
+import com.google.common.collect.Range;
+
+import java.io.File;
+import java.io.Serializable;
+
+public class MixedFile implements Serializable {
+    private static final long serialVersionUID = 1705493650770372671L;
+
+    /**
+     * 原始文件
+     */
+    private File original;
+
+    /**
+     * 合并信息文件（csv文件没有,Excel 才有）
+     */
+    private File merge;
+
+    /**
+     * 列式文件, 见 ColumnarWriter（没有写列式文件时为 null）
+     */
+    private File columnar;
+
+    /**
+     * JSON Lines 文件, 见 JsonLinesWriter（没有写 JSON Lines 时为 null）
+     */
+    private File json;
+
+    /**
+     * 原始文件的输出, 不是文件时 original 为 null
+     */
+    private transient SheetOutput originalOutput;
+
+    /**
+     * 合并信息文件的输出, 不是文件时 merge 为 null
+     */
+    private transient SheetOutput mergeOutput;
+
+    /**
+     * 列式文件的输出, 不是文件时 columnar 为 null
+     */
+    private transient SheetOutput columnarOutput;
+
+    /**
+     * JSON Lines 文件的输出, 不是文件时 json 为 null
+     */
+    private transient SheetOutput jsonOutput;
+
+    /**
+     * sheet 名字（csv 没有）
+     */
+    private String sheetName = "";
+
+    /**
+     * 有效行, (1-base)
+     */
+    private Range<Integer> validRows;
+
+    /**
+     * 有效列, (1-base)
+     */
+    private Range<Integer> validCols;
+
+
+    public MixedFile() {
+    }
+
+    public MixedFile(File original) {
+        this(original, null);
+    }
+
+    public MixedFile(File original, File merge) {
+        this(original, merge, "");
+    }
+
+    public MixedFile(File original, File merge, String sheetName) {
+        this.original = original;
+        this.merge = merge;
+        this.sheetName = sheetName;
+    }
+
+    public MixedFile(SheetOutput originalOutput, SheetOutput mergeOutput, String sheetName) {
+        this(originalOutput, mergeOutput, null, sheetName);
+    }
+
+    public MixedFile(SheetOutput originalOutput, SheetOutput mergeOutput, SheetOutput columnarOutput, String sheetName) {
+        this(originalOutput, mergeOutput, columnarOutput, null, sheetName);
+    }
+
+    public MixedFile(SheetOutput originalOutput, SheetOutput mergeOutput, SheetOutput columnarOutput, SheetOutput jsonOutput, String sheetName) {
+        this(originalOutput.getFile(), mergeOutput.getFile(), sheetName);
+        this.originalOutput = originalOutput;
+        this.mergeOutput = mergeOutput;
+        this.columnarOutput = columnarOutput;
+        this.columnar = columnarOutput == null ? null : columnarOutput.getFile();
+        this.jsonOutput = jsonOutput;
+        this.json = jsonOutput == null ? null : jsonOutput.getFile();
+    }
+
+    public File getOriginal() {
+        return original;
+    }
+
+    public void setOriginal(File original) {
+        this.original = original;
+    }
+
+    public File getMerge() {
+        return merge;
+    }
+
+    public void setMerge(File merge) {
+        this.merge = merge;
+    }
+
+    public File getColumnar() {
+        return columnar;
+    }
+
+    public void setColumnar(File columnar) {
+        this.columnar = columnar;
+    }
+
+    public File getJson() {
+        return json;
+    }
+
+    public void setJson(File json) {
+        this.json = json;
+    }
+
+    public SheetOutput getOriginalOutput() {
+        return originalOutput;
+    }
+
+    public SheetOutput getMergeOutput() {
+        return mergeOutput;
+    }
+
+    public SheetOutput getColumnarOutput() {
+        return columnarOutput;
+    }
+
+    public SheetOutput getJsonOutput() {
+        return jsonOutput;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public void setSheetName(String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    public Range<Integer> getValidRows() {
+        return validRows;
+    }
+
+    public void setValidRows(Range<Integer> validRows) {
+        this.validRows = validRows;
+    }
+
+    public Range<Integer> getValidCols() {
+        return validCols;
+    }
+
+    public void setValidCols(Range<Integer> validCols) {
+        this.validCols = validCols;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MixedFile{");
+        sb.append("original=").append(original);
+        sb.append(", merge=").append(merge);
+        sb.append(", columnar=").append(columnar);
+        sb.append(", json=").append(json);
+        sb.append(", sheetName='").append(sheetName).append('\'');
+        sb.append(", validRows=").append(validRows);
+        sb.append(",  validCols=").append(validCols);
+        sb.append('}');
+        return sb.toString();
+    }
+}
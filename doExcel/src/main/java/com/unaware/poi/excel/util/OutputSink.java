@@ -0,0 +1,200 @@
+package com.unaware.poi.excel.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @author Unaware
+ * @Description: where the .csv files of the sheets are written.
+ *                 Every sheet has two outputs, the values of the cells and their style information (the available information).
+ *                 The sheets converted at the same time ask the sink for their outputs concurrently.
+ * @Title: OutputSink
+ * @ProjectName doExcel
+ * @date 2026/10/17 20:10
+ */
+public abstract class OutputSink {
+
+    /**
+     * create the output of a file of a sheet
+     *
+     * @param sheetName     the name of the sheet
+     * @param availableInfo false for the values of the cells, true for the style information of the cells
+     * @return
+     */
+    public abstract SheetOutput newOutput(String sheetName, boolean availableInfo);
+
+    /**
+     * write the files into the directory, they are named in random.
+     * The directory is created if it doesn't exist.
+     *
+     * @param directory
+     * @return
+     */
+    public static OutputSink directory(File directory) {
+        return directory(directory, ".csv");
+    }
+
+    /**
+     * write the files into the directory like {@link #directory(File)}, with the extension,
+     * like {@link ColumnarWriter#EXTENSION} for the columnar files
+     *
+     * @param directory
+     * @param extension
+     * @return
+     */
+    public static OutputSink directory(File directory, String extension) {
+        if (directory == null) {
+            throw new IllegalArgumentException("the directory must not be null");
+        }
+        return new OutputSink() {
+            @Override
+            public SheetOutput newOutput(String sheetName, boolean availableInfo) {
+                return new FileOutput(new File(directory, DataUtil.getUUID() + extension));
+            }
+        };
+    }
+
+    /**
+     * keep the files in memory, see {@link SheetOutput#getBuffer()}
+     *
+     * @return
+     */
+    public static OutputSink memory() {
+        return new OutputSink() {
+            @Override
+            public SheetOutput newOutput(String sheetName, boolean availableInfo) {
+                return new MemoryOutput();
+            }
+        };
+    }
+
+    /**
+     * write the files into the channels supplied by the caller.
+     * Every channel is opened once and closed when its file is complete,
+     * so the sheets parsed in single pass are spooled until their merged regions are known.
+     *
+     * @param factory it must be thread safe if the sheets are converted at the same time
+     * @return
+     */
+    public static OutputSink channels(ChannelFactory factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("the factory must not be null");
+        }
+        return new OutputSink() {
+            @Override
+            public SheetOutput newOutput(String sheetName, boolean availableInfo) {
+                return new SheetOutput() {
+                    @Override
+                    public WritableByteChannel open() throws IOException {
+                        return factory.open(sheetName, availableInfo);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * write the files into the streams supplied by the caller, like {@link #channels(ChannelFactory)}
+     *
+     * @param factory it must be thread safe if the sheets are converted at the same time
+     * @return
+     */
+    public static OutputSink streams(StreamFactory factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("the factory must not be null");
+        }
+        return channels((sheetName, availableInfo) -> Channels.newChannel(factory.open(sheetName, availableInfo)));
+    }
+
+    @FunctionalInterface
+    public interface ChannelFactory {
+        WritableByteChannel open(String sheetName, boolean availableInfo) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface StreamFactory {
+        OutputStream open(String sheetName, boolean availableInfo) throws IOException;
+    }
+
+    private static final class FileOutput extends SheetOutput {
+        private final File file;
+
+        private FileOutput(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public WritableByteChannel open() throws IOException {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null) {
+                Files.createDirectories(directory.toPath());
+            }
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public boolean isRewritable() {
+            return true;
+        }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
+    }
+
+    /**
+     * the written bytes are kept in an array which grows like an ArrayList
+     */
+    private static final class MemoryOutput extends SheetOutput {
+        private byte[] bytes = new byte[0];
+        private int size;
+
+        @Override
+        public WritableByteChannel open() {
+            size = 0;
+            return new WritableByteChannel() {
+                private boolean open = true;
+
+                @Override
+                public int write(ByteBuffer src) {
+                    int length = src.remaining();
+                    if (size + length > bytes.length) {
+                        bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length + (bytes.length >> 1)));
+                    }
+                    src.get(bytes, size, length);
+                    size += length;
+                    return length;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return open;
+                }
+
+                @Override
+                public void close() {
+                    open = false;
+                }
+            };
+        }
+
+        @Override
+        public boolean isRewritable() {
+            return true;
+        }
+
+        @Override
+        public ByteBuffer getBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size).slice().asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.unaware.poi.excel.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * @author Unaware
+ * @Description: Spool the values of the rows of a sheet into a temporary file, and read them back in order.
+ *                 When a sheet is parsed in a single pass, its merged regions are only known after the last row,
+ *                 so the converted values of the rows are kept here to be written again once the merged regions are known,
+ *                 instead of parsing the sheet a second time.
+ *                 For every cell, the column index, the converted value, the index of the cell style
+ *                 and whether the cell is numeric or boolean are kept.
+ * @Title: RowSpool
+ * @ProjectName doExcel
+ * @date 2026/10/17 11:05
+ */
+public class RowSpool implements AutoCloseable {
+    private static final int END_OF_ROW = -1;
+    private static final int NULL_VALUE = -1;
+
+    private final File file;
+    private DataOutputStream output;
+    private DataInputStream input;
+
+    /**
+     * the row which is read currently
+     */
+    private int rowNum;
+    private int cellCount;
+    private int[] columns = new int[32];
+    private String[] values = new String[32];
+    private int[] styleIndexes = new int[32];
+    private boolean[] typed = new boolean[32];
+
+    public RowSpool() throws IOException {
+        this.file = Files.createTempFile("spool_", ".bin").toFile();
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    public void startRow(int rowNum) {
+        try {
+            output.writeInt(rowNum);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param column     the index of the column
+     * @param value      the converted value of the cell
+     * @param styleIndex the index of the cell style, -1 represents there is no style
+     * @param typed      whether the cell is numeric or boolean
+     */
+    public void addCell(int column, String value, int styleIndex, boolean typed) {
+        try {
+            output.writeInt(column);
+            if (value == null) {
+                output.writeInt(NULL_VALUE);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            output.writeInt(styleIndex);
+            output.writeBoolean(typed);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void endRow() {
+        try {
+            output.writeInt(END_OF_ROW);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * read the next spooled row, the first call finishes writing.
+     *
+     * @return false if there is no more row
+     */
+    public boolean nextRow() {
+        try {
+            if (input == null) {
+                output.close();
+                output = null;
+                input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            }
+            try {
+                rowNum = input.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            cellCount = 0;
+            int column;
+            while ((column = input.readInt()) != END_OF_ROW) {
+                if (cellCount == columns.length) {
+                    columns = Arrays.copyOf(columns, cellCount << 1);
+                    values = Arrays.copyOf(values, cellCount << 1);
+                    styleIndexes = Arrays.copyOf(styleIndexes, cellCount << 1);
+                    typed = Arrays.copyOf(typed, cellCount << 1);
+                }
+                columns[cellCount] = column;
+                int length = input.readInt();
+                if (length == NULL_VALUE) {
+                    values[cellCount] = null;
+                } else {
+                    byte[] bytes = new byte[length];
+                    input.readFully(bytes);
+                    values[cellCount] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                styleIndexes[cellCount] = input.readInt();
+                typed[cellCount] = input.readBoolean();
+                cellCount++;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getColumn(int i) {
+        return columns[i];
+    }
+
+    public String getValue(int i) {
+        return values[i];
+    }
+
+    public int getStyleIndex(int i) {
+        return styleIndexes[i];
+    }
+
+    public boolean isTyped(int i) {
+        return typed[i];
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (output != null) {
+                output.close();
+            }
+            if (input != null) {
+                input.close();
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.unaware.poi.excel.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @author Unaware
+ * @Description: the target of a .csv file of a sheet, created by an {@link OutputSink}.
+ *                 The converter opens it, writes the records into the channel and closes the channel when the file is complete.
+ * @Title: SheetOutput
+ * @ProjectName doExcel
+ * @date 2026/10/17 20:10
+ */
+public abstract class SheetOutput {
+
+    /**
+     * open the channel to write the file.
+     * If the output is rewritable, opening it again discards what was written before.
+     *
+     * @return
+     * @throws IOException
+     */
+    public abstract WritableByteChannel open() throws IOException;
+
+    /**
+     * Whether the output can be opened more than once.
+     * A sheet parsed in single pass is written again if it turns out to have merged regions,
+     * its rows are only spooled until the end of the sheet if it can't be rewritten.
+     *
+     * @return
+     */
+    public boolean isRewritable() {
+        return false;
+    }
+
+    /**
+     * @return the file which is written, null if the output isn't a file
+     */
+    public File getFile() {
+        return null;
+    }
+
+    /**
+     * @return a read-only view of the written bytes, null if the output isn't kept in memory
+     */
+    public ByteBuffer getBuffer() {
+        return null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.unaware.poi.excel.util;
+
+import com.unaware.poi.excel.exception.ParameterException;
+
+import java.util.function.IntFunction;
+
+/**
+ * @author Unaware
+ * @Description: A bounded pool of the values of the cells, so the cells which have the same value share one String,
+ *                 and so do the values which are written by {@link DataUtil#getCellValue}.
+ *                 The shared strings are kept by their index in the SharedString table, the other values by their hash code.
+ *                 Both are direct-mapped tables of a fixed capacity: a value replaces the one in its slot,
+ *                 so the pool never grows, and the values which repeat the most stay in it.
+ *                 A pool is shared by the sheets of a workbook, and its slots are read and written without a lock:
+ *                 the strings and the entries are immutable, so a thread always sees a valid value in a slot, at worst an older one.
+ * @Title: StringPool
+ * @ProjectName doExcel
+ * @date 2026/10/17 22:10
+ */
+public final class StringPool {
+    private final SharedString[] sharedStrings;
+    private final String[] values;
+    private final int mask;
+
+    /**
+     * @param capacity the number of the values to keep, it's rounded up to a power of 2
+     */
+    public StringPool(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new ParameterException("the capacity of the string pool must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.sharedStrings = new SharedString[size];
+        this.values = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param index  the index of the string in the SharedString table
+     * @param loader read the string of the index from the SharedString table, only if it is not in the pool
+     * @return the string of the index
+     */
+    public String sharedString(int index, IntFunction<String> loader) {
+        int slot = index & mask;
+        SharedString entry = sharedStrings[slot];
+        if (entry != null && entry.index == index) {
+            return entry.value;
+        }
+        String value = intern(loader.apply(index));
+        sharedStrings[slot] = new SharedString(index, value);
+        return value;
+    }
+
+    /**
+     * @param value
+     * @return the string in the pool which is equal to the value, or the value which is put into the pool
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int slot = spread(hash) & mask;
+        String pooled = values[slot];
+        if (pooled != null && (pooled == value || pooled.hashCode() == hash && pooled.equals(value))) {
+            return pooled;
+        }
+        values[slot] = value;
+        return value;
+    }
+
+    /**
+     * look up the characters without creating a String, like the contents of a cell in the buffer of the parser
+     *
+     * @param chars
+     * @return the string in the pool which is equal to the characters, or a new string which is put into the pool
+     */
+    public String intern(CharSequence chars) {
+        if (chars instanceof String) {
+            return intern((String) chars);
+        }
+        // the same hash code as String#hashCode
+        int hash = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        int slot = spread(hash) & mask;
+        String pooled = values[slot];
+        if (pooled != null && pooled.hashCode() == hash && pooled.contentEquals(chars)) {
+            return pooled;
+        }
+        String value = chars.toString();
+        values[slot] = value;
+        return value;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * a string of the SharedString table and its index
+     */
+    private static final class SharedString {
+        private final int index;
+        private final String value;
+
+        private SharedString(int index, String value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
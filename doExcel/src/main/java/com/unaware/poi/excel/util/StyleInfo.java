@@ -0,0 +1,60 @@
+package com.unaware.poi.excel.util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+
+/**
+ * @author Unaware
+ * @Description: A cell style with its number format, which is resolved only once per style.
+ *                 The format string of a style is resolved and classified by {@link CompiledFormat} when it is created,
+ *                 so the cells with the same style share the result instead of resolving the format again for every cell.
+ *                 It's immutable, so it can be shared by the sheets of a workbook.
+ * @Title: StyleInfo
+ * @ProjectName doExcel
+ * @date 2026/10/17 14:10
+ */
+public final class StyleInfo {
+    private final CellStyle cellStyle;
+    private final CompiledFormat format;
+
+    private StyleInfo(CellStyle cellStyle) {
+        this.cellStyle = cellStyle;
+        this.format = CompiledFormat.of(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+    }
+
+    /**
+     * resolve the format of a cell style
+     *
+     * @param cellStyle
+     * @return
+     * @throws NullPointerException if the cell style is null
+     */
+    public static StyleInfo of(CellStyle cellStyle) {
+        return new StyleInfo(cellStyle);
+    }
+
+    public CellStyle getCellStyle() {
+        return cellStyle;
+    }
+
+    public CompiledFormat getFormat() {
+        return format;
+    }
+
+    public short getFormatIndex() {
+        return format.getFormatIndex();
+    }
+
+    /**
+     * @return the format string of the style, it may be null
+     */
+    public String getFormatString() {
+        return format.getFormatString();
+    }
+
+    /**
+     * @return the format string of the style, or the built-in format of its index if the style has none
+     */
+    public String getNumericFormat() {
+        return format.getNumericFormat();
+    }
+}
@@ -0,0 +1,39 @@
+import com.unaware.poi.excel.util.CellRefUtils;
+import org.apache.poi.ss.util.CellReference;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CellRefUtilsTest {
+
+    @Test
+    public void testSameAsCellReference() {
+        String[] refs = {"A1", "Z9", "AA10", "AB1234", "XFD1048576", "$C$7", "$D5", "e12", "A", "17"};
+        for (String ref : refs) {
+            CellReference expected = new CellReference(ref);
+            long packed = CellRefUtils.decode(ref);
+            assertEquals(ref, expected.getRow(), CellRefUtils.row(packed));
+            assertEquals(ref, expected.getCol(), CellRefUtils.column(packed));
+        }
+        for (int col = 0; col < 16384; col += 7) {
+            String ref = CellReference.convertNumToColString(col) + (col * 61 + 1);
+            long packed = CellRefUtils.decode(ref);
+            assertEquals(ref, col * 61, CellRefUtils.row(packed));
+            assertEquals(ref, col, CellRefUtils.column(packed));
+        }
+    }
+
+    @Test
+    public void testRange() {
+        String ref = "B3:AF25";
+        int separator = CellRefUtils.rangeSeparator(ref);
+        assertEquals(2, separator);
+        long first = CellRefUtils.decode(ref, 0, separator);
+        long last = CellRefUtils.decode(ref, separator + 1, ref.length());
+        assertEquals(2, CellRefUtils.row(first));
+        assertEquals(1, CellRefUtils.column(first));
+        assertEquals(24, CellRefUtils.row(last));
+        assertEquals(31, CellRefUtils.column(last));
+        assertEquals(-1, CellRefUtils.rangeSeparator("C4"));
+    }
+}
@@ -0,0 +1,142 @@
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.util.*;
+import com.unaware.poi.excel.util.ColumnarWriter.ColumnType;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class ColumnarTest {
+
+    @Test
+    public void testSameAsCsv() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                for (boolean singlePass : new boolean[]{false, true}) {
+                    List<MixedFile> mixedFiles;
+                    try (SSConverter converter = new SSConverter()) {
+                        converter.singlePass(singlePass);
+                        converter.outputSink(OutputSink.memory());
+                        converter.columnarOutputSink(OutputSink.memory());
+                        converter.path(file);
+                        mixedFiles = converter.getMixedFiles();
+                    }
+                    for (MixedFile mixedFile : mixedFiles) {
+                        SheetOutput csv = OutputSink.memory().newOutput(mixedFile.getSheetName(), false);
+                        try (ColumnarReader reader = ColumnarReader.open(mixedFile.getColumnarOutput().getBuffer());
+                             CsvWriter writer = CsvWriter.utf8(csv)) {
+                            assertEquals(mixedFile.getSheetName(), reader.getSheetName());
+                            for (int group = 0; group < reader.getNumRowGroups(); group++) {
+                                reader.readRecords(group).forEach(writer::write);
+                            }
+                        }
+                        assertEquals(file.getName(), mixedFile.getOriginalOutput().getBuffer(), csv.getBuffer());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+        try (ColumnarWriter writer = ColumnarWriter.open(output.open(), "Sheet1", 3)) {
+            writer.write(Arrays.asList("1", "1.5", "a", ""));
+            writer.write(Arrays.asList("-20", "", "b"));
+            writer.write(Arrays.asList("", "0.25", "a"));
+            writer.write(Arrays.asList("7", "007", "-0", "1E5", "12345678901234567890"));
+            writer.write(new ArrayList<>());
+        }
+        try (ColumnarReader reader = ColumnarReader.open(output.getBuffer())) {
+            assertEquals(5, reader.getNumColumns());
+            assertEquals(5, reader.getNumRows());
+            assertEquals(2, reader.getNumRowGroups());
+            assertArrayEquals(new int[]{4, 3, 3}, reader.readWidths(0));
+
+            ColumnarReader.Chunk chunk = reader.getChunk(0, 0);
+            assertEquals(ColumnType.LONG, chunk.getType());
+            assertEquals(1, chunk.getNullCount());
+            assertEquals(-20, chunk.getMinLong());
+            assertEquals(1, chunk.getMaxLong());
+            ColumnarReader.ColumnVector vector = reader.read(chunk);
+            assertEquals(-20, vector.getLong(1));
+            assertTrue(vector.isNull(2));
+
+            chunk = reader.getChunk(0, 1);
+            assertEquals(ColumnType.DOUBLE, chunk.getType());
+            assertEquals(0.25, chunk.getMinDouble(), 0);
+            assertEquals(1.5, chunk.getMaxDouble(), 0);
+            assertEquals("0.25", reader.read(chunk).getString(2));
+
+            chunk = reader.getChunk(0, 2);
+            assertEquals(ColumnType.STRING, chunk.getType());
+            assertEquals("a", chunk.getMinString());
+            assertEquals("b", chunk.getMaxString());
+            vector = reader.read(chunk);
+            assertEquals(2, vector.getDictionary().length);
+            assertEquals(vector.getCodes()[0], vector.getCodes()[2]);
+
+            assertEquals(ColumnType.NULL, reader.getChunk(0, 3).getType());
+            assertEquals(ColumnType.NULL, reader.getChunk(0, 4).getType());
+
+            // the numbers which aren't written back as the same text are strings
+            for (int column = 1; column < 5; column++) {
+                assertEquals(ColumnType.STRING, reader.getChunk(1, column).getType());
+            }
+            assertEquals(Arrays.asList(Arrays.asList("7", "007", "-0", "1E5", "12345678901234567890"), new ArrayList<>()), reader.readRecords(1));
+        }
+    }
+
+    @Test
+    public void testDecimals() throws Exception {
+        SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+        try (ColumnarWriter writer = ColumnarWriter.open(output, "Sheet1")) {
+            for (String[] record : new String[][]{{"12.30", "0.1"}, {"-0.05", "1.25"}, {"7.00", "-3"}, {"", "1.00"}}) {
+                writer.write(Arrays.asList(record));
+            }
+        }
+        try (ColumnarReader reader = ColumnarReader.open(output.getBuffer())) {
+            ColumnarReader.Chunk chunk = reader.getChunk(0, 0);
+            assertEquals(ColumnType.DECIMAL, chunk.getType());
+            assertEquals(2, chunk.getScale());
+            assertEquals(-0.05, chunk.getMinDouble(), 0);
+            assertEquals(12.3, chunk.getMaxDouble(), 0);
+            ColumnarReader.ColumnVector vector = reader.read(chunk);
+            assertEquals(-5, vector.getLong(1));
+            assertEquals(-0.05, vector.getDouble(1), 0);
+            assertEquals("-0.05", vector.getString(1));
+            assertEquals("7.00", vector.getString(2));
+
+            // the decimals of different scales are kept as they are written
+            assertEquals(ColumnType.STRING, reader.getChunk(0, 1).getType());
+            assertEquals(Arrays.asList("", "1.00"), reader.readRecords(0).get(3));
+        }
+    }
+
+    @Test
+    public void testRuns() throws Exception {
+        SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+        try (ColumnarWriter writer = ColumnarWriter.open(output, "Sheet1")) {
+            for (int i = 0; i < 100000; i++) {
+                writer.write(Arrays.asList(i % 1000 == 0 ? "" : "same", Integer.toString(i / 10000)));
+            }
+        }
+        ByteBuffer buffer = output.getBuffer();
+        assertTrue(buffer.remaining() < 2000);
+        try (ColumnarReader reader = ColumnarReader.open(buffer)) {
+            assertEquals(2, reader.getNumRowGroups());
+            ColumnarReader.ColumnVector vector = reader.read(reader.getChunk(1, 1));
+            assertEquals(100000 - ColumnarWriter.DEFAULT_ROW_GROUP_SIZE, vector.size());
+            assertEquals(9, vector.getLong(vector.size() - 1));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColumnsTest {
+
+    @Test
+    public void testSameAsFiltered() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                String expected;
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                    // the encrypted .xls file is loaded by HSSFWorkbook
+                    if (!(workbook instanceof StreamWorkbook)) {
+                        continue;
+                    }
+                    expected = TestWorkbooks.dump(workbook, row -> true, column -> column == 0 || column >= 2 && column <= 3 || column == 27);
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).columns("A", "D:C", "ab").open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).singlePass(true).reuseRows(true).columns(0, 2, 3, 27).open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                }
+            }
+        }
+    }
+}
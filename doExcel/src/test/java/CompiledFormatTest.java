@@ -0,0 +1,168 @@
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.CompiledFormat;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CompiledFormatTest {
+    /**
+     * the kinds of the reserved formats and the Chinese date formats of DataUtil
+     */
+    private static final Map<Short, Integer> RESERVED = new HashMap<>();
+    private static final Set<String> ZN = new HashSet<>(Arrays.asList("年", "月", "日", "时", "分", "秒", "上午", "下午", "aaa;", "aaaa;", "AM", "PM"));
+
+    static {
+        for (short index : new short[]{20, 32, 33, 55, 56}) {
+            RESERVED.put(index, 0);
+        }
+        for (short index : new short[]{14, 30, 31, 57, 58}) {
+            RESERVED.put(index, 1);
+        }
+        RESERVED.put((short) 22, 2);
+    }
+
+    @Test
+    public void testSameAsSimpleDateFormat() {
+        double[] values = {0, 1, 59.5, 61, 43000.123456, 2958465.999988426, 3000000.25, 10000000};
+        for (double value : values) {
+            Date d = DateUtil.getJavaDate(value, false);
+            LocalDateTime dateTime = LocalDateTime.ofInstant(d.toInstant(), ZoneId.systemDefault());
+            assertEquals(new SimpleDateFormat("HH:mm:ss").format(d), CompiledFormat.TIME_FORMATTER.format(dateTime));
+            assertEquals(new SimpleDateFormat("yyyy-MM-dd").format(d), CompiledFormat.DATE_FORMATTER.format(dateTime));
+            assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(d), CompiledFormat.DATE_TIME_FORMATTER.format(dateTime));
+            assertEquals(new SimpleDateFormat("HH:mm").format(d), CompiledFormat.HOUR_MINUTE_FORMATTER.format(dateTime));
+            assertEquals(new SimpleDateFormat("yyyy-MM").format(d), CompiledFormat.YEAR_MONTH_FORMATTER.format(dateTime));
+            assertEquals(new SimpleDateFormat("MM-dd").format(d), CompiledFormat.MONTH_DAY_FORMATTER.format(dateTime));
+        }
+    }
+
+    @Test
+    public void testClassification() {
+        CompiledFormat reserved = CompiledFormat.of((short) 31, "reserved-0x1F");
+        assertEquals(CompiledFormat.DATE, reserved.getReservedKind());
+        assertSame(CompiledFormat.DATE_FORMATTER, reserved.getDateFormatter());
+        assertSame(reserved, CompiledFormat.of((short) 31, "reserved-0x1F"));
+
+        CompiledFormat time = CompiledFormat.of((short) 176, "[$-F400]h:mm:ss\\ AM/PM");
+        assertEquals(CompiledFormat.TIME, time.getPatternKind());
+        assertSame(CompiledFormat.TIME_FORMATTER, time.getDateFormatter());
+
+        CompiledFormat percentage = CompiledFormat.of((short) 10, "0.00%");
+        assertTrue(percentage.isPercentage());
+        assertEquals(2, percentage.getPrecision());
+        assertNull(percentage.getDateFormatter());
+
+        CompiledFormat number = CompiledFormat.of((short) 177, "0.000_);[Red]\\(0.000\\)");
+        assertFalse(number.isPercentage());
+        assertEquals(3, number.getPrecision());
+
+        CompiledFormat general = CompiledFormat.of((short) 0, "General");
+        assertEquals(-1, general.getPrecision());
+        assertFalse(general.isDateTimeIfValid());
+        assertNull(general.getDateFormatter());
+    }
+
+    /**
+     * the formats of the styles are classified once by StreamStyles, the same as DataUtil did for every cell with the regular expressions
+     */
+    @Test
+    public void testSameAsPerCellChecks() throws Exception {
+        String[] custom = {"0.00_ ", "0.000_ ", "0_ ", "0.00_);[Red]\\(0.00\\)", "0.0000_ ;[Red]\\-0.0000\\ ", "0.00;[Red]0.00",
+                "0.00%", "0%", "0.0%", "#,##0.00", "yyyy\"年\"m\"月\"d\"日\"", "yyyy\"年\"m\"月\"", "m\"月\"d\"日\"",
+                "h\"时\"mm\"分\"ss\"秒\"", "上午/下午h\"时\"mm\"分\"", "[h]:mm:ss", "[$-F400]h:mm:ss\\ AM/PM", "[DBNum1][$-804]m\"月\"d\"日\"",
+                "hh:mm", "mm:ss", "mmm-yy", "yyyy-mm-dd", "yyyy/m/d h:mm", "d-mmm", "aaaa;", "aaa;", "General", "@", "年", "AM"};
+        Workbook workbook = new XSSFWorkbook();
+        DataFormat dataFormat = workbook.createDataFormat();
+        Row row = workbook.createSheet("Sheet1").createRow(0);
+        int column = 0;
+        for (short index = 0; index <= 58; index++) {
+            setFormat(row.createCell(column++), workbook.createCellStyle(), index);
+        }
+        for (String format : custom) {
+            setFormat(row.createCell(column++), workbook.createCellStyle(), dataFormat.getFormat(format));
+        }
+        File file = TestWorkbooks.write(workbook, "formats_");
+        try {
+            try (Workbook expected = new XSSFWorkbook(file); Workbook actual = StreamReader.builder().open(file)) {
+                Row expectedRow = expected.getSheetAt(0).getRow(0);
+                int count = 0;
+                for (Cell cell : actual.getSheetAt(0).iterator().next()) {
+                    CellStyle style = expectedRow.getCell(cell.getColumnIndex()).getCellStyle();
+                    String formatString = style.getDataFormatString();
+                    CompiledFormat format = ((StreamCell) cell).getStyleInfo().getFormat();
+                    assertEquals(formatString, classify(style.getDataFormat(), formatString), classify(format));
+                    assertSame(format, CompiledFormat.of(style.getDataFormat(), formatString));
+                    count++;
+                }
+                assertEquals(59 + custom.length, count);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void setFormat(Cell cell, CellStyle style, short index) {
+        style.setDataFormat(index);
+        cell.setCellStyle(style);
+        cell.setCellValue(43000.5);
+    }
+
+    private static String classify(CompiledFormat format) {
+        return Arrays.toString(new Object[]{format.getReservedKind(), format.getPatternKind(),
+                format.isDateFormat(), format.isZnDateFormat(), format.getPrecision(), format.isPercentage()});
+    }
+
+    /**
+     * classify a format with the checks which DataUtil did for every cell
+     */
+    private static String classify(short index, String formatString) {
+        Integer reserved = RESERVED.get(index);
+        int reservedKind = reserved == null ? -1 : reserved;
+        int patternKind = -1;
+        int precision = -1;
+        boolean percentage = false;
+        if (formatString != null) {
+            String format = formatString.replaceAll("^\\[.*]", "").toUpperCase();
+            if (format.matches("^((?![YD]).)*((H.*M)|(M.*S))((?![YD]).)*$")) {
+                patternKind = 0;
+            } else if (format.matches("^((?![SH]).)*(M|AAAA;|AAA;)((?![SH]).)*$")) {
+                patternKind = 1;
+            }
+
+            format = formatString.toUpperCase();
+            String[] fItem = new String[0];
+            if (format.matches("^0(\\.0+)?_\\s$")) {
+                fItem = format.replaceAll("_\\s$", "").split("\\.");
+            } else if (format.matches("^0(\\.0+)?_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$")) {
+                fItem = format.replaceAll("_?[\\s)]?;(\\[RED])?(\\\\-|\\\\\\()?0(\\.0+)?(\\\\\\s|\\\\\\))?$", "").split("\\.");
+            } else if (format.matches("^0(.0+)?%$")) {
+                percentage = true;
+                fItem = format.replaceAll("%$", "").split("\\.");
+            }
+            if (fItem.length > 0) {
+                precision = fItem.length == 2 ? fItem[1].length() : 0;
+            }
+        }
+        boolean znDateFormat = formatString != null && !formatString.isEmpty() && ZN.contains(formatString);
+        return Arrays.toString(new Object[]{reservedKind, patternKind, DateUtil.isADateFormat(index, formatString), znDateFormat, precision, percentage});
+    }
+}
@@ -0,0 +1,68 @@
+import com.unaware.poi.excel.util.CsvWriter;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class CsvWriterTest {
+    private static final String[] PIECES = {"a", "中文", ",", "\"", "\r", "\n", "\r\n", " ", "#", "!", "\t", "x\u0000", "😀", "\uD800", "\uDC00", "_x000D_", "1.5"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsCSVPrinter() throws Exception {
+        Random random = new Random(42);
+        List<List<String>> records = new ArrayList<>();
+        records.add(Collections.emptyList());
+        records.add(Collections.singletonList(""));
+        records.add(Arrays.asList("", ""));
+        records.add(Arrays.asList(null, "a", null));
+        records.add(Arrays.asList("a\"b\"\"c", "\"", "#a", "a ", " a", "$a"));
+        for (int i = 0; i < 20000; i++) {
+            List<String> record = new ArrayList<>();
+            for (int j = random.nextInt(8); j > 0; j--) {
+                StringBuilder field = new StringBuilder();
+                for (int k = random.nextInt(6); k > 0; k--) {
+                    field.append(PIECES[random.nextInt(PIECES.length)]);
+                }
+                record.add(field.toString());
+            }
+            records.add(record);
+        }
+        // the fields longer than the buffer
+        char[] chars = new char[100000];
+        Arrays.fill(chars, '字');
+        records.add(Arrays.asList(new String(chars), "\"" + new String(chars, 0, 70000) + "\""));
+
+        for (String charsetName : new String[]{"UTF-8", "gbk"}) {
+            File expected = folder.newFile(), actual = folder.newFile();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(expected), charsetName);
+                 CSVPrinter printer = CSVFormat.INFORMIX_UNLOAD_CSV.withIgnoreEmptyLines(false).withAllowMissingColumnNames().withRecordSeparator("\r\n").print(writer)) {
+                for (List<String> record : records) {
+                    printer.printRecord(record);
+                }
+            }
+            try (CsvWriter writer = CsvWriter.build(actual, charsetName)) {
+                for (List<String> record : records) {
+                    writer.write(record);
+                }
+            }
+            assertArrayEquals(charsetName, Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import com.unaware.poi.excel.util.DecimalUtils;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DecimalUtilsTest {
+
+    @Test
+    public void testSameAsBigDecimal() {
+        double[] values = {0, -0.0, 0.5, -0.5, 1.5, 2.5, 9.995, 0.045, 99.999, 1234567.891, 1e-20, -1e-20, 1e20, 1.5e-7,
+                123456789012345678.0, Double.MIN_VALUE, Double.MAX_VALUE, 0.1 + 0.2, 43000.999999999999};
+        for (double value : values) {
+            for (int scale = 0; scale <= 16; scale++) {
+                assertPlain(value, scale);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            assertPlain(value, random.nextInt(16));
+            if (i % 2 == 0) {
+                // the decimals written in a sheet
+                value = Math.round(value * 1000) / 1000.0;
+                assertPlain(value, random.nextInt(4));
+            }
+        }
+    }
+
+    @Test
+    public void testParse() {
+        String[] texts = {"0", "-0", "+5", "5.", ".5", "-.25", "123456789012345", "0.000000000000000000001", "43000.5", "007.10"};
+        for (String text : texts) {
+            assertEquals(text, new BigDecimal(text).doubleValue(), DecimalUtils.parse(text), 0);
+            assertEquals(text, DecimalUtils.parse(text), DecimalUtils.parse(new StringBuilder(text)), 0);
+        }
+        // the other texts are left to BigDecimal
+        String[] others = {"", ".", "-", "1E5", "1234567890123456", "0.00000000000000000000001", "NaN", "1,5", "1.2.3"};
+        for (String text : others) {
+            assertTrue(text, Double.isNaN(DecimalUtils.parse(text)));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String text = BigDecimal.valueOf(random.nextLong() % 1000000000000000L, random.nextInt(20)).toPlainString();
+            assertEquals(text, new BigDecimal(text).doubleValue(), DecimalUtils.parse(text), 0);
+        }
+    }
+
+    private static void assertPlain(double value, int scale) {
+        String expected = new BigDecimal(String.valueOf(value)).setScale(scale, BigDecimal.ROUND_HALF_UP).stripTrailingZeros().toPlainString();
+        assertEquals(value + " " + scale, expected, DecimalUtils.toPlainString(value, scale));
+        // appended after what the buffer already holds
+        StringBuilder sb = new StringBuilder("a,");
+        DecimalUtils.appendPlain(value, scale, sb);
+        assertEquals(value + " " + scale, "a," + expected, sb.toString());
+    }
+}
@@ -0,0 +1,244 @@
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.streamreader.CellEvent;
+import com.unaware.poi.excel.streamreader.CellHandler;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.CompiledFormat;
+import com.unaware.poi.excel.util.DataUtil;
+import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DirectCsvTest {
+    private static final String[] FORMATS = {"General", "0", "0.0", "0.00", "0.000", "0.000_ ", "0.00_);[Red]\\(0.00\\)", "0.00%", "0%", "#,##0",
+            "0.00E+00", "@", "yyyy-mm-dd", "hh:mm:ss", "yyyy-mm-dd hh:mm", "[h]:mm:ss", "mmm-yy", "yyyy\"年\"m\"月\"d\"日\""};
+    private static final short[] BUILT_IN_FORMATS = {14, 20, 22, 31, 32, 57, 58, 49};
+    private static final double[] NUMBERS = {0, 1, -1, 0.5, -5.5, 1.005, 60, 61, 43000.5, 43000.999999, 0.9999999999, 43170.09375,
+            99999999999.0, 100000000000.0, 123456789012.0, 999999999999999.0, 1e15, -123456789, 1e20, 1e-12, 1.5e-7,
+            3.14159265358979, 2958465.9999, 2958466};
+    private static final String[] STRINGS = {"plain", "a,b", "say \"hi\"", "line1\nline2", "cr\r\nlf", "#comment", " lead", "中文",
+            "_x000D_", "a_x0041_b", "plain"};
+
+    @Test
+    public void testSameAsRows() throws Exception {
+        for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/xlsx").listFiles())) {
+            if (file.length() > (1 << 20)) {
+                continue;
+            }
+            assertSameOutput(file);
+        }
+    }
+
+    @Test
+    public void testSameValuesOfFormats() throws Exception {
+        TimeZone timeZone = TimeZone.getDefault();
+        try {
+            for (String zone : new String[]{"UTC", "Asia/Shanghai", "America/New_York"}) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                for (boolean date1904 : new boolean[]{false, true}) {
+                    File file = createWorkbook(new XSSFWorkbook(), date1904);
+                    try {
+                        assertSameOutput(file);
+                    } finally {
+                        file.delete();
+                    }
+                }
+                // the strings are written inline
+                File file = createWorkbook(new SXSSFWorkbook(), false);
+                try {
+                    assertSameOutput(file);
+                } finally {
+                    file.delete();
+                }
+            }
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+    }
+
+    @Test
+    public void testCellsOfRows() throws Exception {
+        File file = createWorkbook(new XSSFWorkbook(), false);
+        try {
+            StringBuilder expected = new StringBuilder();
+            try (Workbook workbook = StreamReader.builder().open(file)) {
+                for (Row row : workbook.getSheetAt(0)) {
+                    expected.append(row.getRowNum()).append(':');
+                    for (Cell cell : row) {
+                        expected.append(cell.getColumnIndex()).append('=').append(DataUtil.getCellValue(cell)).append(';');
+                    }
+                    expected.append('\n');
+                }
+            }
+            StringBuilder actual = new StringBuilder();
+            try (Workbook workbook = StreamReader.builder().open(file)) {
+                assertTrue(((StreamSheet) workbook.getSheetAt(0)).readCells(new CellHandler() {
+                    @Override
+                    public void startRow(int rowNum) {
+                        actual.append(rowNum).append(':');
+                    }
+
+                    @Override
+                    public void cell(CellEvent cell) {
+                        actual.append(cell.getColumnIndex()).append('=').append(DataUtil.getCellValue(cell.toCell())).append(';');
+                    }
+
+                    @Override
+                    public void endRow() {
+                        actual.append('\n');
+                    }
+                }));
+            }
+            assertEquals(expected.toString(), actual.toString());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * a negative number can't be formatted as a date, both conversions write #ERROR for it
+     */
+    @Test
+    public void testNegativeDates() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        // the reserved format of a Chinese date
+        CellStyle reserved = workbook.createCellStyle();
+        reserved.setDataFormat((short) 57);
+        Row row = workbook.createSheet("Sheet1").createRow(0);
+        row.createCell(0).setCellValue(-1);
+        row.getCell(0).setCellStyle(date);
+        row.createCell(1).setCellValue(-1);
+        row.getCell(1).setCellStyle(reserved);
+        row.createCell(2).setCellValue(-1);
+        File file = TestWorkbooks.write(workbook, "direct_");
+        try {
+            for (boolean directCsv : new boolean[]{false, true}) {
+                ByteBuffer output = convert(file, directCsv).get(0).getOriginalOutput().getBuffer();
+                assertEquals("directCsv " + directCsv, "\"#ERROR\",\"#ERROR\",-1\r\n", StandardCharsets.UTF_8.decode(output).toString());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void assertSameOutput(File file) throws Exception {
+        List<MixedFile> expected = convert(file, false);
+        List<MixedFile> actual = convert(file, true);
+        assertEquals(file.getName(), expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            String message = file.getName() + " " + expected.get(i).getSheetName() + " " + TimeZone.getDefault().getID();
+            ByteBuffer original = expected.get(i).getOriginalOutput().getBuffer();
+            assertEquals(message + "\n" + StandardCharsets.UTF_8.decode(original.duplicate()) + "\n"
+                            + StandardCharsets.UTF_8.decode(actual.get(i).getOriginalOutput().getBuffer()),
+                    original, actual.get(i).getOriginalOutput().getBuffer());
+            assertEquals(message, expected.get(i).getMergeOutput().getBuffer(), actual.get(i).getMergeOutput().getBuffer());
+        }
+    }
+
+    private static List<MixedFile> convert(File file, boolean directCsv) throws Exception {
+        try (SSConverter converter = new SSConverter()) {
+            converter.enableAvailableInfo(true);
+            converter.directCsv(directCsv);
+            converter.outputSink(OutputSink.memory());
+            converter.path(file);
+            return converter.getMixedFiles();
+        }
+    }
+
+    /**
+     * every number in every format, the strings, the booleans, the errors and the results of the formulas,
+     * with the blank cells, the gaps and the merged regions among them
+     */
+    private static File createWorkbook(Workbook workbook, boolean date1904) throws Exception {
+        if (date1904) {
+            ((XSSFWorkbook) workbook).getCTWorkbook().addNewWorkbookPr().setDate1904(true);
+        }
+        DataFormat dataFormat = workbook.createDataFormat();
+        CellStyle[] styles = new CellStyle[FORMATS.length + BUILT_IN_FORMATS.length];
+        boolean[] dates = new boolean[styles.length];
+        for (int i = 0; i < styles.length; i++) {
+            styles[i] = workbook.createCellStyle();
+            styles[i].setDataFormat(i < FORMATS.length ? dataFormat.getFormat(FORMATS[i]) : BUILT_IN_FORMATS[i - FORMATS.length]);
+            CompiledFormat format = CompiledFormat.of(styles[i].getDataFormat(), styles[i].getDataFormatString());
+            dates[i] = format.isDateFormat() || format.getDateFormatter() != null;
+        }
+
+        Sheet sheet = workbook.createSheet("Sheet1");
+        int rowNum = 0;
+        for (double number : NUMBERS) {
+            for (double value : new double[]{number, -number}) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(value);
+                for (int i = 0; i < styles.length; i++) {
+                    // a negative date is not formatted, see testNegativeDates
+                    if (value < 0 && dates[i]) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(i + 1);
+                    cell.setCellValue(value);
+                    cell.setCellStyle(styles[i]);
+                }
+            }
+        }
+        // the decimals of a few digits, many of them are rounded at a 5
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Row row = sheet.createRow(rowNum++);
+            for (int j = 0; j < 6; j++) {
+                double value = Math.round((random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(10))) / Math.pow(10, random.nextInt(5));
+                Cell cell = row.createCell(j);
+                cell.setCellValue(value);
+                cell.setCellStyle(styles[j]);
+            }
+        }
+        // the results of the formulas, numbers in every format
+        for (String formula : new String[]{"1/3", "2/3*100", "43000.25", "10^12", "1/0", "\"text\"", "1<2", "\"\""}) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellFormula(formula);
+            for (int i = 0; i < styles.length; i += 3) {
+                Cell cell = row.createCell(i + 1);
+                cell.setCellFormula(formula);
+                cell.setCellStyle(styles[i]);
+            }
+        }
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < STRINGS.length; i++) {
+            row.createCell(i * 2).setCellValue(STRINGS[i]);
+        }
+        row = sheet.createRow(rowNum++);
+        row.createCell(0).setCellValue(true);
+        row.createCell(1).setCellValue(false);
+        row.createCell(2).setCellErrorValue(FormulaError.NA.getCode());
+        row.createCell(3).setCellStyle(styles[2]);
+        row.createCell(7).setCellStyle(styles[5]);
+        // an empty row, and a row after a gap
+        sheet.createRow(rowNum++);
+        row = sheet.createRow(rowNum + 3);
+        row.createCell(5).setCellValue("after the gap");
+        row.createCell(6).setCellValue(42);
+
+        sheet.addMergedRegion(new CellRangeAddress(0, 1, 0, 1));
+        sheet.addMergedRegion(new CellRangeAddress(4, 6, 3, 3));
+        sheet.addMergedRegion(new CellRangeAddress(rowNum - 2, rowNum - 2, 2, 5));
+        if (workbook instanceof XSSFWorkbook) {
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        }
+        return TestWorkbooks.write(workbook, "direct_");
+    }
+}
@@ -0,0 +1,164 @@
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.exception.ParameterException;
+import com.unaware.poi.excel.util.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class JsonLinesTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @Test
+    public void testHeaderAndTypes() throws Exception {
+        SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+        BitSet typed = new BitSet();
+        typed.set(1, 3);
+        try (JsonLinesWriter writer = JsonLinesWriter.open(output, -1)) {
+            writer.write(0, Arrays.asList("", ""), typed);
+            writer.write(1, Arrays.asList("name", "value", "", "name"), new BitSet());
+            writer.write(2, Arrays.asList("a", "12.30", "TRUE", "x", "extra"), typed);
+            writer.write(3, Arrays.asList("", "", ""), typed);
+            writer.write(4, Arrays.asList("007", "007", "12%"), typed);
+        }
+        String[] lines = linesOf(output.getBuffer());
+        assertEquals(2, lines.length);
+        assertEquals("{\"name\":\"a\",\"value\":12.30,\"C\":true,\"name_2\":\"x\",\"E\":\"extra\"}", lines[0]);
+        // only the numbers written like JSON numbers are unquoted
+        assertEquals("{\"name\":\"007\",\"value\":\"007\",\"C\":\"12%\"}", lines[1]);
+
+        output = OutputSink.memory().newOutput("Sheet1", false);
+        typed = new BitSet();
+        typed.set(0);
+        try (JsonLinesWriter writer = JsonLinesWriter.open(output, 2)) {
+            writer.write(1, Arrays.asList("title"), new BitSet());
+            writer.write(2, Arrays.asList("id"), new BitSet());
+            writer.write(3, Arrays.asList("-1.5E3"), typed);
+            writer.write(4, Arrays.asList("2"), new BitSet());
+        }
+        assertArrayEquals(new String[]{"{\"id\":-1.5E3}", "{\"id\":\"2\"}"}, linesOf(output.getBuffer()));
+    }
+
+    @Test
+    public void testNamesBehindHeader() throws Exception {
+        SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+        try (JsonLinesWriter writer = JsonLinesWriter.open(output, -1)) {
+            writer.write(0, Arrays.asList("C", "", "B_2"), new BitSet());
+            writer.write(1, Arrays.asList("a", "b", "c", "d"), new BitSet());
+            writer.write(2, Arrays.asList("e", "", "", "", "f"), new BitSet());
+        }
+        // the columns behind the header don't repeat the names of the header
+        assertArrayEquals(new String[]{"{\"C\":\"a\",\"B\":\"b\",\"B_2\":\"c\",\"D\":\"d\"}", "{\"C\":\"e\",\"E\":\"f\"}"},
+                linesOf(output.getBuffer()));
+
+        output = OutputSink.memory().newOutput("Sheet1", false);
+        try (JsonLinesWriter writer = JsonLinesWriter.open(output, 1)) {
+            writer.write(0, Arrays.asList("title", "", "", "C"), new BitSet());
+            writer.write(1, Arrays.asList("C"), new BitSet());
+            writer.write(2, Arrays.asList("a", "b", "c", "d"), new BitSet());
+        }
+        assertArrayEquals(new String[]{"{\"C\":\"a\",\"B\":\"b\",\"C_2\":\"c\",\"D\":\"d\"}"}, linesOf(output.getBuffer()));
+    }
+
+    @Test
+    public void testMissingHeader() throws Exception {
+        for (List<String> header : Arrays.asList(Arrays.asList("", ""), null)) {
+            SheetOutput output = OutputSink.memory().newOutput("Sheet1", false);
+            try (JsonLinesWriter writer = JsonLinesWriter.open(output, 1)) {
+                writer.write(0, Arrays.asList("title"), new BitSet());
+                if (header != null) {
+                    writer.write(1, header, new BitSet());
+                }
+                writer.write(2, Arrays.asList("a"), new BitSet());
+                fail("the header row is blank or not read");
+            } catch (ParameterException e) {
+                assertTrue(e.getMessage().contains("header row 1"));
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsRecords() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                List<MixedFile> expected = convert(file, false);
+                List<MixedFile> singlePass = convert(file, true);
+                for (int i = 0; i < expected.size(); i++) {
+                    ByteBuffer json = expected.get(i).getJsonOutput().getBuffer();
+                    assertEquals(file.getName(), json, singlePass.get(i).getJsonOutput().getBuffer());
+                    assertSameAsRecords(file.getName(), linesOf(json), expected.get(i).getColumnarOutput().getBuffer());
+                }
+            }
+        }
+    }
+
+    private static List<MixedFile> convert(File file, boolean singlePass) throws Exception {
+        try (SSConverter converter = new SSConverter()) {
+            converter.singlePass(singlePass);
+            converter.outputSink(OutputSink.memory());
+            converter.columnarOutputSink(OutputSink.memory());
+            converter.jsonOutputSink(OutputSink.memory());
+            converter.path(file);
+            return converter.getMixedFiles();
+        }
+    }
+
+    /**
+     * the records of the columnar file are the same as the records of the .csv file, see ColumnarTest
+     */
+    private static void assertSameAsRecords(String message, String[] lines, ByteBuffer columnar) throws Exception {
+        List<List<String>> records = new ArrayList<>();
+        try (ColumnarReader reader = ColumnarReader.open(columnar)) {
+            for (int group = 0; group < reader.getNumRowGroups(); group++) {
+                records.addAll(reader.readRecords(group));
+            }
+        }
+        records.removeIf(record -> record.stream().allMatch(String::isEmpty));
+        if (records.isEmpty()) {
+            assertEquals(message, 0, lines.length);
+            return;
+        }
+        List<String> header = records.remove(0);
+        assertEquals(message, records.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Iterator<Map.Entry<String, JsonNode>> fields = MAPPER.readTree(lines[i]).fields();
+            for (int column = 0; column < records.get(i).size(); column++) {
+                String value = records.get(i).get(column);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (column < header.size() && !header.get(column).isEmpty()) {
+                    assertTrue(message, field.getKey().startsWith(header.get(column)));
+                }
+                JsonNode node = field.getValue();
+                if (node.isNumber()) {
+                    assertEquals(message, 0, new BigDecimal(value).compareTo(node.decimalValue()));
+                } else if (node.isBoolean()) {
+                    assertTrue(message, Boolean.toString(node.booleanValue()).equalsIgnoreCase(value));
+                } else {
+                    assertEquals(message, value, node.textValue());
+                }
+            }
+            assertFalse(message, fields.hasNext());
+        }
+    }
+
+    private static String[] linesOf(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return text.isEmpty() ? new String[0] : text.split("\n");
+    }
+}
@@ -0,0 +1,92 @@
+import com.unaware.poi.excel.exception.ParseException;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LazySstTest {
+
+    @Test
+    public void testSameAsEager() throws Exception {
+        for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/xlsx").listFiles())) {
+            if (file.length() > (1 << 20)) {
+                continue;
+            }
+            String expected;
+            try (Workbook workbook = StreamReader.builder().sstCacheSize(-1).open(file)) {
+                expected = TestWorkbooks.dump(workbook);
+            }
+            try (Workbook workbook = StreamReader.builder().lazySst(true).sstCacheSize(-1).open(file)) {
+                assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+            }
+            // the strings are decoded again once they are dropped from the cache
+            try (Workbook workbook = StreamReader.builder().lazySst(true).sstCacheSize(2).singlePass(true).open(file)) {
+                assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+            }
+        }
+    }
+
+    @Test
+    public void testEntries() throws Exception {
+        String[] entries = {
+                "<si><t>a&amp;b&lt;c&gt;&quot;d&quot;&apos;e&apos;&#65;&#x4E2D;&#x1F600;</t></si>",
+                "<si><t><![CDATA[<x>&amp;</x>]]></t></si>",
+                "<si><!-- <t>hidden</t> --><t>vis<!-- <t>x</t> -->ible</t><?pi <t>x</t>?></si>",
+                "<si><r><rPr><b/></rPr><t>漢字</t></r><r><t xml:space=\"preserve\"> &lt;&gt;</t></r>"
+                        + "<rPh sb=\"0\" eb=\"2\"><t>かんじ</t></rPh><phoneticPr fontId=\"1\" type=\"noConversion\"/></si>",
+                "<si><t xml:space=\"preserve\">line1\r\nline2\rline3\nline4</t></si>",
+                "<si><t/></si>",
+                "<si/>",
+                "<si>\r\n  <t>spaces</t>\r\n</si>",
+                "<si><t>a_x000D_b_x0041_</t></si>"
+        };
+        String expected = "0:A1=a&b<c>\"d\"'e'A中😀,\n1:A2=<x>&amp;</x>,\n2:A3=visible,\n3:A4=漢字 <>,\n"
+                + "4:A5=line1\nline2\nline3\nline4,\n5:A6=,\n6:A7=,\n7:A8=spaces,\n8:A9=a\rbA,\n";
+        File file = createWorkbook(entries);
+        try (Workbook workbook = StreamReader.builder().lazySst(true).open(file)) {
+            assertEquals(expected, TestWorkbooks.dump(workbook).substring("Sheet1\n".length()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMalformedEntries() throws Exception {
+        for (String entry : new String[]{"<si><t>&#xD800;</t></si>", "<si><t>&unknown;</t></si>", "<si><t>&amp</t></si>"}) {
+            File file = createWorkbook(new String[]{entry});
+            try (Workbook workbook = StreamReader.builder().lazySst(true).open(file)) {
+                TestWorkbooks.dump(workbook);
+                fail(entry);
+            } catch (ParseException e) {
+                assertEquals(entry, true, e.getMessage().endsWith(" in the SharedString table"));
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * a workbook whose cell An is the entry n of the SharedString table
+     */
+    private static File createWorkbook(String[] entries) throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("Sheet1");
+        StringBuilder sst = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"" + entries.length
+                + "\" uniqueCount=\"" + entries.length + "\">");
+        for (int i = 0; i < entries.length; i++) {
+            sheet.createRow(i).createCell(0).setCellValue("s" + i);
+            sst.append(entries[i]);
+        }
+        sst.append("</sst>");
+        return TestWorkbooks.replacePart(workbook, "xl/sharedStrings.xml", sst.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,43 @@
+import com.unaware.poi.excel.sstimpl.MappedStringList;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MappedStringListTest {
+
+    @Test
+    public void testReadBackAllEntries() throws Exception {
+        File file = Files.createTempFile("sst_", ".bin").toFile();
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 200_000) {
+            large.append("生产数据-").append(large.length());
+        }
+        List<String> expected = new ArrayList<>();
+        expected.add("");
+        expected.add(null);
+        expected.add("合计");
+        expected.add(large.toString());
+        for (int i = 0; i < 5000; i++) {
+            expected.add("value " + i);
+        }
+        try (MappedStringList list = new MappedStringList(file, 2)) {
+            expected.forEach(list::add);
+            list.seal();
+            assertEquals(expected.size(), list.size());
+            for (int round = 0; round < 2; round++) {
+                for (int i = expected.size() - 1; i >= 0; i--) {
+                    assertEquals(expected.get(i), list.get(i));
+                }
+            }
+            assertNull(list.get(1));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import com.unaware.poi.excel.util.AvailableInfoUtils;
+import com.unaware.poi.excel.util.MergedCell;
+import com.unaware.poi.excel.util.MergedCellIndex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MergedCellIndexTest {
+
+    @Test
+    public void testSameAsList() {
+        Random random = new Random(42);
+        List<MergedCell> mergedCells = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int firstRow = random.nextInt(200), firstCol = random.nextInt(40);
+            mergedCells.add(new MergedCell(i, "", firstRow, firstRow + random.nextInt(6), firstCol, firstCol + random.nextInt(4)));
+        }
+        MergedCellIndex index = new MergedCellIndex(mergedCells);
+        // ascending rows, then a second sweep which restarts from the first row
+        for (int round = 0; round < 2; round++) {
+            for (int row = 0; row < 210; row++) {
+                for (int col = 0; col < 50; col++) {
+                    assertEquals(AvailableInfoUtils.isMergedBegin(row, col, mergedCells), index.isMergedBegin(row, col));
+                    assertEquals(AvailableInfoUtils.getMergedIndex(row, col, mergedCells), index.getMergedIndex(row, col));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDisjointRegions() {
+        List<MergedCell> mergedCells = new ArrayList<>();
+        for (int row = 0; row < 100; row += 2) {
+            for (int col = 0; col < 30; col += 3) {
+                mergedCells.add(new MergedCell(mergedCells.size(), "", row, row + 1, col, col + 1));
+            }
+        }
+        MergedCellIndex index = MergedCellIndex.of(mergedCells);
+        for (int row = 0; row < 100; row++) {
+            for (int col = 0; col < 31; col++) {
+                assertEquals(AvailableInfoUtils.isMergedBegin(row, col, mergedCells), index.isMergedBegin(row, col));
+                assertEquals(AvailableInfoUtils.getMergedIndex(row, col, mergedCells), index.getMergedIndex(row, col));
+            }
+        }
+        assertEquals(-1, MergedCellIndex.EMPTY.getMergedIndex(0, 0));
+        assertEquals(-1, MergedCellIndex.EMPTY.isMergedBegin(0, 0));
+    }
+}
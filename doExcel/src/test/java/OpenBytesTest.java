@@ -0,0 +1,117 @@
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class OpenBytesTest {
+
+    @Test
+    public void testSameAsFile() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                String expected;
+                try (Workbook workbook = StreamReader.builder().open(file)) {
+                    expected = TestWorkbooks.dump(workbook) + TestWorkbooks.merged(workbook);
+                }
+                try (Workbook workbook = StreamReader.builder().open(Files.readAllBytes(file.toPath()))) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook) + TestWorkbooks.merged(workbook));
+                }
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                     Workbook workbook = StreamReader.builder().sstCacheSize(-1).open(channel)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook) + TestWorkbooks.merged(workbook));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZipBomb() throws Exception {
+        // a sheet of 4 MB which is deflated into a few KB
+        char[] text = new char[4 << 20];
+        Arrays.fill(text, 'a');
+        String sheetXml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData><row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>" + new String(text) + "</t></is></c></row></sheetData></worksheet>";
+        byte[] bytes = zipBytes(sheetXml.getBytes(StandardCharsets.UTF_8));
+        assertRejected(bytes, "Zip bomb detected! The entry xl/worksheets/sheet1.xml would exceed the max. ratio");
+
+        double minInflateRatio = ZipSecureFile.getMinInflateRatio();
+        long maxEntrySize = ZipSecureFile.getMaxEntrySize();
+        try {
+            ZipSecureFile.setMinInflateRatio(0.0001);
+            try (Workbook workbook = StreamReader.builder().open(bytes)) {
+                assertEquals(text.length, workbook.getSheetAt(0).iterator().next().getCell(0).getStringCellValue().length());
+            }
+            ZipSecureFile.setMaxEntrySize(1 << 20);
+            assertRejected(bytes, "Zip bomb detected! The entry xl/worksheets/sheet1.xml would exceed the max size");
+        } finally {
+            ZipSecureFile.setMinInflateRatio(minInflateRatio);
+            ZipSecureFile.setMaxEntrySize(maxEntrySize);
+        }
+    }
+
+    @Test
+    public void testEntryCrc() throws Exception {
+        byte[] bytes = zipBytes(("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData><row r=\"1\">"
+                + "<c r=\"A1\"><v>1</v></c></row></sheetData></worksheet>").getBytes(StandardCharsets.UTF_8));
+        // the CRC-32 of the sheet in the central directory
+        byte[] name = "xl/worksheets/sheet1.xml".getBytes(StandardCharsets.UTF_8);
+        int header = -1;
+        for (int i = 0; i + 46 + name.length <= bytes.length && header == -1; i++) {
+            if (bytes[i] == 0x50 && bytes[i + 1] == 0x4B && bytes[i + 2] == 0x01 && bytes[i + 3] == 0x02
+                    && Arrays.equals(Arrays.copyOfRange(bytes, i + 46, i + 46 + name.length), name)) {
+                header = i;
+            }
+        }
+        assertNotEquals(-1, header);
+        bytes[header + 16] ^= 1;
+        assertRejected(bytes, "Invalid entry CRC of xl/worksheets/sheet1.xml");
+    }
+
+    /**
+     * @return the bytes of a .xlsx file whose first sheet is the sheet XML
+     */
+    private static byte[] zipBytes(byte[] sheetXml) throws Exception {
+        XSSFWorkbook source = new XSSFWorkbook();
+        source.createSheet("Sheet1");
+        File file = TestWorkbooks.replacePart(source, "xl/worksheets/sheet1.xml", sheetXml);
+        try {
+            return Files.readAllBytes(file.toPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * the rows of the workbook can't be read, the failure or one of its causes has the message.
+     * XMLStreamReader keeps the message of the IOException it fails with, but not the IOException itself
+     */
+    private static void assertRejected(byte[] bytes, String message) throws Exception {
+        try (Workbook workbook = StreamReader.builder().open(bytes)) {
+            workbook.getSheetAt(0).forEach(row -> {
+            });
+            fail(message);
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && (cause.getMessage() == null || !cause.getMessage().contains(message))) {
+                cause = cause.getCause();
+            }
+            if (cause == null) {
+                throw e;
+            }
+        }
+    }
+}
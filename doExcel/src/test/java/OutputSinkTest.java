@@ -0,0 +1,67 @@
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class OutputSinkTest {
+    private static final File FILE = new File("src/test/resources/testCase/xlsx/16-48  建筑业指标(2009年).xlsx");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameAsDirectory() throws Exception {
+        File directory = new File(folder.getRoot(), "output");
+        List<MixedFile> expected = convert(OutputSink.directory(directory), false);
+        assertEquals(directory, expected.get(0).getOriginal().getParentFile());
+
+        List<MixedFile> memory = convert(OutputSink.memory(), true);
+        // the streams are only written once in single pass, after the merged regions are known
+        List<ByteArrayOutputStream> streams = new ArrayList<>();
+        convert(OutputSink.streams((sheetName, availableInfo) -> {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            streams.add(os);
+            return os;
+        }), true);
+
+        assertEquals(expected.size() * 2, streams.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertNull(memory.get(i).getOriginal());
+            byte[] original = Files.readAllBytes(expected.get(i).getOriginal().toPath());
+            byte[] merge = Files.readAllBytes(expected.get(i).getMerge().toPath());
+            assertArrayEquals(original, bytesOf(memory.get(i).getOriginalOutput().getBuffer()));
+            assertArrayEquals(merge, bytesOf(memory.get(i).getMergeOutput().getBuffer()));
+            assertArrayEquals(original, streams.get(2 * i).toByteArray());
+            assertArrayEquals(merge, streams.get(2 * i + 1).toByteArray());
+        }
+    }
+
+    private static List<MixedFile> convert(OutputSink outputSink, boolean singlePass) throws Exception {
+        try (SSConverter converter = new SSConverter()) {
+            converter.enableAvailableInfo(true);
+            converter.singlePass(singlePass);
+            converter.outputSink(outputSink);
+            converter.path(FILE, -1, 10, -1);
+            return converter.getMixedFiles();
+        }
+    }
+
+    private static byte[] bytesOf(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
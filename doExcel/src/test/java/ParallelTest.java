@@ -0,0 +1,119 @@
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
+import com.unaware.poi.excel.util.SheetOutput;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class ParallelTest {
+    private static final int SHEETS = 8;
+
+    @Test
+    public void testSameAsSequential() throws Exception {
+        for (Workbook source : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            File file = createWorkbook(source);
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                for (boolean singlePass : new boolean[]{false, true}) {
+                    List<MixedFile> expected = convert(file, OutputSink.memory(), converter -> converter.singlePass(singlePass));
+                    assertEquals(SHEETS, expected.size());
+                    assertSame(expected, convert(file, OutputSink.memory(), converter -> {
+                        converter.singlePass(singlePass);
+                        converter.parallelism(4);
+                    }));
+                    assertSame(expected, convert(file, OutputSink.memory(), converter -> {
+                        converter.singlePass(singlePass);
+                        converter.executor(executor);
+                    }));
+                }
+                // the executor isn't shut down by the converter
+                assertFalse(executor.isShutdown());
+            } finally {
+                executor.shutdownNow();
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testFirstFailingSheet() throws Exception {
+        for (Workbook source : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            File file = createWorkbook(source);
+            try {
+                // the sheets 2 and 5 fail, the failure of the first one in the order of the sheets is thrown
+                OutputSink failing = new OutputSink() {
+                    private final OutputSink memory = OutputSink.memory();
+
+                    @Override
+                    public SheetOutput newOutput(String sheetName, boolean availableInfo) {
+                        if (sheetName.equals("sheet2") || sheetName.equals("sheet5")) {
+                            throw new IllegalStateException(sheetName);
+                        }
+                        return memory.newOutput(sheetName, availableInfo);
+                    }
+                };
+                try {
+                    convert(file, failing, converter -> converter.parallelism(SHEETS));
+                    fail("the sheets fail");
+                } catch (IllegalStateException e) {
+                    assertEquals("sheet2", e.getMessage());
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    private static void assertSame(List<MixedFile> expected, List<MixedFile> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            String sheetName = expected.get(i).getSheetName();
+            // the results are in the order of the sheets
+            assertEquals(sheetName, actual.get(i).getSheetName());
+            assertEquals(sheetName, expected.get(i).getOriginalOutput().getBuffer(), actual.get(i).getOriginalOutput().getBuffer());
+            assertEquals(sheetName, expected.get(i).getMergeOutput().getBuffer(), actual.get(i).getMergeOutput().getBuffer());
+        }
+    }
+
+    private static List<MixedFile> convert(File file, OutputSink outputSink, Consumer<SSConverter> options) throws Exception {
+        try (SSConverter converter = new SSConverter()) {
+            converter.enableAvailableInfo(true);
+            converter.outputSink(outputSink);
+            options.accept(converter);
+            converter.path(file);
+            return converter.getMixedFiles();
+        }
+    }
+
+    /**
+     * the sheets have different numbers of rows, shared strings and merged regions
+     */
+    private static File createWorkbook(Workbook workbook) throws Exception {
+        for (int s = 0; s < SHEETS; s++) {
+            Sheet sheet = workbook.createSheet("sheet" + s);
+            for (int r = 0; r < 50 + s * 40; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("name" + (r % 7));
+                row.createCell(1).setCellValue(r * 1.25 + s);
+                row.createCell(3).setCellValue(s % 2 == 0);
+            }
+            if (s % 3 != 0) {
+                sheet.addMergedRegion(new CellRangeAddress(s, s + 2, 0, 1));
+            }
+        }
+        return TestWorkbooks.write(workbook, "parallel_");
+    }
+}
@@ -0,0 +1,125 @@
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.DataUtil;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReuseRowsTest {
+
+    @Test
+    public void testRecycledRowsAreReset() throws Exception {
+        for (Workbook source : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            File file = createWorkbook(source);
+            try {
+                String expected;
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                    expected = TestWorkbooks.dump(workbook, ReuseRowsTest::dumpRow);
+                }
+                assertTrue(expected.contains("FORMULA/BOOLEAN"));
+                for (int rowCacheSize : new int[]{1, 2, 3}) {
+                    for (boolean singlePass : new boolean[]{false, true}) {
+                        try (Workbook workbook = StreamReader.builder().streamingXls(true).reuseRows(true).singlePass(singlePass).rowCacheSize(rowCacheSize).open(file)) {
+                            assertEquals(file.getName() + " " + rowCacheSize, expected, TestWorkbooks.dump(workbook, ReuseRowsTest::dumpRow));
+                        }
+                    }
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * refilling the rowCache in hasNext() doesn't recycle the row which has been handed out last
+     */
+    @Test
+    public void testRowValidUntilNext() throws Exception {
+        for (Workbook source : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            File file = createWorkbook(source);
+            try {
+                for (int rowCacheSize : new int[]{1, 2, 3}) {
+                    try (Workbook workbook = StreamReader.builder().streamingXls(true).reuseRows(true).rowCacheSize(rowCacheSize).open(file)) {
+                        Iterator<Row> rows = workbook.getSheetAt(0).iterator();
+                        while (rows.hasNext()) {
+                            Row row = rows.next();
+                            StringBuilder before = new StringBuilder();
+                            dumpRow(before, row);
+                            rows.hasNext();
+                            StringBuilder after = new StringBuilder();
+                            dumpRow(after, row);
+                            assertEquals(file.getName() + " " + rowCacheSize, before.toString(), after.toString());
+                        }
+                    }
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * the rows have different numbers of cells, of different types and styles,
+     * so a recycled cell takes the place of a cell of another kind
+     */
+    private static File createWorkbook(Workbook workbook) throws Exception {
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle percent = workbook.createCellStyle();
+        percent.setDataFormat(workbook.createDataFormat().getFormat("0.00%"));
+
+        Sheet sheet = workbook.createSheet("Sheet1");
+        Row row = sheet.createRow(0);
+        row.createCell(0).setCellFormula("\"a\"&\"b\"");
+        row.createCell(1).setCellValue(43000);
+        row.getCell(1).setCellStyle(date);
+        row.createCell(2).setCellValue("shared");
+        row.createCell(3).setCellValue(true);
+        row.createCell(4).setCellErrorValue(FormulaError.DIV0.getCode());
+        row.createCell(5).setCellFormula("1+2");
+        row.getCell(5).setCellStyle(percent);
+        row.createCell(6).setCellValue("other");
+        row = sheet.createRow(1);
+        row.createCell(0).setCellValue(0.5);
+        row.createCell(2).setCellFormula("1<2");
+        row.createCell(3);
+        row.getCell(3).setCellStyle(percent);
+        row = sheet.createRow(2);
+        row.createCell(1).setCellValue("shared");
+        row.createCell(6).setCellFormula("1/0");
+        sheet.createRow(3);
+        row = sheet.createRow(4);
+        for (int i = 0; i < 12; i++) {
+            row.createCell(i).setCellValue(i);
+        }
+        row = sheet.createRow(5);
+        row.createCell(4).setCellValue("last");
+
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        return TestWorkbooks.write(workbook, "reuse_");
+    }
+
+    private static void dumpRow(StringBuilder sb, Row row) {
+        sb.append(row.getRowNum()).append('[').append(row.getFirstCellNum()).append(',').append(row.getLastCellNum()).append("):");
+        for (Cell cell : row) {
+            StreamCell streamCell = (StreamCell) cell;
+            CellType type = cell.getCellTypeEnum();
+            sb.append(cell.getAddress()).append(':').append(type);
+            if (type == CellType.FORMULA) {
+                sb.append('/').append(cell.getCachedFormulaResultTypeEnum()).append('/').append(cell.getCellFormula());
+            }
+            sb.append(':').append(streamCell.getStyleIndex()).append('/').append(streamCell.getNumericFormat())
+                    .append(':').append(streamCell.getSharedStringIndex())
+                    .append(':').append(streamCell.getValueKind())
+                    .append('=').append(DataUtil.getCellValue(cell)).append(';');
+        }
+        sb.append('\n');
+    }
+}
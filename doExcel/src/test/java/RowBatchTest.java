@@ -0,0 +1,97 @@
+import com.unaware.poi.excel.ssimpl.RowBatch;
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamSheet;
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+
+public class RowBatchTest {
+
+    @Test
+    public void testSameAsRows() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                String expected;
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                    // the encrypted .xls file is loaded by HSSFWorkbook
+                    if (!(workbook instanceof StreamWorkbook)) {
+                        continue;
+                    }
+                    expected = dumpRows(workbook);
+                }
+                for (int batchSize : new int[]{7, 100}) {
+                    try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                        assertEquals(file.getName(), expected, dumpBatches(workbook, batchSize));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String dumpRows(Workbook workbook) {
+        StringBuilder sb = new StringBuilder();
+        for (Sheet sheet : workbook) {
+            sheet.forEach(row -> {
+                sb.append(row.getRowNum()).append(':');
+                for (Cell cell : row) {
+                    StreamCell.ValueKind kind = ((StreamCell) cell).getValueKind();
+                    if (kind == StreamCell.ValueKind.BLANK) {
+                        continue;
+                    }
+                    sb.append(cell.getColumnIndex()).append(kind).append('=');
+                    if (kind == StreamCell.ValueKind.NUMBER || kind == StreamCell.ValueKind.DATE) {
+                        sb.append(cell.getNumericCellValue());
+                    } else if (kind == StreamCell.ValueKind.BOOLEAN) {
+                        sb.append(cell.getBooleanCellValue() ? 1.0 : 0.0);
+                    } else {
+                        sb.append(cell.getStringCellValue());
+                    }
+                    sb.append(',');
+                }
+                sb.append('\n');
+            });
+        }
+        return sb.toString();
+    }
+
+    private static String dumpBatches(Workbook workbook, int batchSize) {
+        StringBuilder sb = new StringBuilder();
+        for (Sheet sheet : workbook) {
+            Iterator<RowBatch> batches = ((StreamSheet) sheet).batchIterator(batchSize);
+            while (batches.hasNext()) {
+                RowBatch batch = batches.next();
+                for (int row = 0; row < batch.size(); row++) {
+                    sb.append(batch.getRowNum(row)).append(':');
+                    for (int col = 0; col < batch.getNumColumns(); col++) {
+                        RowBatch.Column column = batch.getColumn(col);
+                        if (column == null || column.isNull(row)) {
+                            continue;
+                        }
+                        StreamCell.ValueKind kind = column.getKind(row);
+                        sb.append(col).append(kind).append('=');
+                        if (kind == StreamCell.ValueKind.STRING || kind == StreamCell.ValueKind.ERROR) {
+                            sb.append(batch.getString(column.getStrings()[row]));
+                        } else {
+                            sb.append(column.getNumbers()[row]);
+                        }
+                        sb.append(',');
+                    }
+                    sb.append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,53 @@
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SelectionTest {
+
+    @Test
+    public void testSameAsFiltered() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                String expected, merged, lastSheet;
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                    // the encrypted .xls file is loaded by HSSFWorkbook
+                    if (!(workbook instanceof StreamWorkbook)) {
+                        continue;
+                    }
+                    expected = TestWorkbooks.dump(workbook, row -> row >= 3 && row <= 7, column -> true);
+                    merged = TestWorkbooks.merged(workbook);
+                    lastSheet = workbook.getSheetName(workbook.getNumberOfSheets() - 1);
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).rows(3, 7).open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                    // the merged regions are still obtained in advance
+                    assertEquals(file.getName(), merged, TestWorkbooks.merged(workbook));
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).singlePass(true).reuseRows(true).rows(3, 7).open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).sheetName(lastSheet.toUpperCase()).open(file)) {
+                    StringBuilder names = new StringBuilder();
+                    workbook.forEach(sheet -> names.append(sheet.getSheetName()).append(';'));
+                    assertEquals(file.getName(), lastSheet + ';', names.toString());
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).sheets(name -> !name.equals(lastSheet)).open(file)) {
+                    for (Sheet sheet : workbook) {
+                        assertFalse(file.getName(), sheet.getSheetName().equals(lastSheet));
+                    }
+                }
+            }
+        }
+    }
+}
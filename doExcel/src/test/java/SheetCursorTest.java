@@ -0,0 +1,175 @@
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.StaxHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * the rows and the cells read by the cursors of the sheet reader are the ones read by XMLEventReader
+ */
+public class SheetCursorTest {
+
+    @Test
+    public void testSameAsEventReader() throws Exception {
+        for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/xlsx").listFiles())) {
+            if (file.length() > (1 << 20)) {
+                continue;
+            }
+            String expected = readEvents(file);
+            for (boolean xmlScanner : new boolean[]{false, true}) {
+                try (Workbook workbook = StreamReader.builder().sstCacheSize(-1).xmlScanner(xmlScanner).open(file)) {
+                    assertEquals(file.getName() + (xmlScanner ? " scanned" : ""), expected, dump(workbook));
+                }
+            }
+        }
+    }
+
+    private static String dump(Workbook workbook) {
+        StringBuilder sb = new StringBuilder();
+        for (Sheet sheet : workbook) {
+            sb.append(sheet.getSheetName()).append('\n');
+            for (Row row : sheet) {
+                sb.append(row.getRowNum()).append(':');
+                for (Cell cell : row) {
+                    StreamCell streamCell = (StreamCell) cell;
+                    append(sb, streamCell.getColumnIndex(), streamCell.getRowIndex(), streamCell.getType(), streamCell.getStyleIndex(),
+                            streamCell.getRawContents());
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, int column, int row, String type, int style, String contents) {
+        sb.append(column).append(',').append(row).append(',').append(type).append(',').append(style).append('=').append(contents).append(';');
+    }
+
+    /**
+     * read the sheets by XMLEventReader, like the sheet reader did before the cursors
+     */
+    private static String readEvents(File file) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStringsTable sst = reader.getSharedStringsTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            Set<String> parts = new HashSet<>();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    if (parts.add(sheets.getSheetPart().getPartName().getName())) {
+                        sb.append(sheets.getSheetName()).append('\n');
+                        readSheet(in, sst, sb);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void readSheet(InputStream in, SharedStringsTable sst, StringBuilder sb) throws Exception {
+        XMLEventReader parser = StaxHelper.newXMLInputFactory().createXMLEventReader(in);
+        StringBuilder text = new StringBuilder();
+        int rowNum = 0, colNum = 0, firstColNum = 0, column = 0, row = 0, style = 0;
+        String type = null, contents = null;
+        boolean inRow = false;
+        while (parser.hasNext()) {
+            XMLEvent event = parser.nextEvent();
+            if (event.isCharacters()) {
+                text.append(event.asCharacters().getData());
+            } else if (event.isStartElement() && isSpreadsheetTag(event.asStartElement().getName())) {
+                StartElement element = event.asStartElement();
+                String r = attribute(element, "r");
+                switch (element.getName().getLocalPart()) {
+                    case "dimension":
+                        String ref = attribute(element, "ref");
+                        if (ref != null) {
+                            firstColNum = new CellReference(ref.split(":")[0]).getCol();
+                        }
+                        break;
+                    case "row":
+                        if (r != null) {
+                            rowNum = Integer.parseInt(r) - 1;
+                        }
+                        sb.append(rowNum).append(':');
+                        colNum = firstColNum;
+                        inRow = true;
+                        break;
+                    case "c":
+                        column = colNum;
+                        row = rowNum;
+                        if (r != null) {
+                            CellReference reference = new CellReference(r);
+                            column = reference.getCol();
+                            row = reference.getRow();
+                        }
+                        type = attribute(element, "t") != null ? attribute(element, "t") : "n";
+                        String s = attribute(element, "s");
+                        style = s != null ? Integer.parseInt(s) : 0;
+                        contents = null;
+                        break;
+                    case "f":
+                        type = "str";
+                        break;
+                }
+                text.setLength(0);
+            } else if (event.isEndElement() && isSpreadsheetTag(event.asEndElement().getName())) {
+                switch (event.asEndElement().getName().getLocalPart()) {
+                    case "v":
+                    case "t":
+                        if ("s".equals(type)) {
+                            contents = text.length() > 0 ? new XSSFRichTextString(sst.getEntryAt(Integer.parseInt(text.toString()))).toString() : "";
+                        } else if ("inlineStr".equals(type)) {
+                            contents = new XSSFRichTextString(text.toString()).toString();
+                        } else {
+                            contents = text.toString();
+                        }
+                        break;
+                    case "c":
+                        append(sb, column, row, type, style, contents);
+                        colNum++;
+                        break;
+                    case "row":
+                        if (inRow) {
+                            sb.append('\n');
+                            rowNum++;
+                            inRow = false;
+                        }
+                        break;
+                }
+            }
+        }
+        parser.close();
+    }
+
+    private static boolean isSpreadsheetTag(QName name) {
+        return name.getNamespaceURI() != null && name.getNamespaceURI().endsWith("/main");
+    }
+
+    private static String attribute(StartElement element, String localName) {
+        Attribute attribute = element.getAttributeByName(new QName(localName));
+        return attribute == null ? null : attribute.getValue();
+    }
+}
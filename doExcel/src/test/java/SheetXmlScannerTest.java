@@ -0,0 +1,179 @@
+import com.unaware.poi.excel.exception.ParseException;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.DataUtil;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * the sheet XML is written by hand into a workbook, and read by the sheet reader with SheetXmlScanner.
+ * It's read with XMLStreamReader too, which gives the same rows or rejects the same XML
+ */
+public class SheetXmlScannerTest {
+    private static final String MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    @Test
+    public void testText() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n"
+                + "<!DOCTYPE worksheet [<!ENTITY unused \"x\">]>"
+                + "<worksheet xmlns=\"" + MAIN + "\"><sheetData>"
+                + "<row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>a&amp;b&lt;c&gt;&quot;d&quot;&apos;e&apos;</t></is></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><t><![CDATA[<x>&amp;</x>]]></t></is></c>"
+                + "<!-- <c r=\"C1\"><v>1</v></c> -->"
+                + "<c r=\"D1\" t=\"inlineStr\"><is><t>line1\r\nline2\rline3\nline4</t></is></c>"
+                + "<c r=\"E1\" t=\"inlineStr\"><is><t>&#65;&#x4E2D;&#x1F600;</t></is></c>"
+                + "<?pi <c r=\"F1\"><v>1</v></c> ?>"
+                + "<c r=\"G1\"><v>1.5</v></c>"
+                + "</row></sheetData></worksheet>";
+        assertEquals("0:0=a&b<c>\"d\"'e';1=<x>&amp;</x>;3=line1\nline2\nline3\nline4;4=A中😀;6=1.5;\n",
+                read(xml, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNamespacePrefixes() throws Exception {
+        String xml = "<x:worksheet xmlns:x=\"" + MAIN + "\" xmlns:o=\"urn:other\"><x:sheetData>"
+                + "<x:row r=\"1\" o:custom=\"1\"><x:c r=\"A1\" t=\"inlineStr\" o:t=\"n\"><x:is><x:t>a</x:t></x:is></x:c>"
+                + "<x:c r=\"B1\"><x:v>2</x:v></x:c>"
+                // the elements of another namespace are not the cells
+                + "<o:c r=\"C1\"><o:v>3</o:v></o:c></x:row>"
+                + "<x:row r=\"2\"><x:c r=\"A2\"><x:v>4</x:v></x:c></x:row>"
+                + "</x:sheetData><x:mergeCells count=\"1\"><x:mergeCell ref=\"A2:B2\"/></x:mergeCells></x:worksheet>";
+        assertEquals("0:0=a;1=2;\n1:0=4;\nmerged=A2:B2\n", read(xml, StandardCharsets.UTF_8));
+        // the default namespace of the root element is not SpreadsheetML
+        assertEquals("", read(xml.replace("xmlns:x=\"" + MAIN + "\"", "xmlns:x=\"urn:other\""), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNamespaceDeclarations() throws Exception {
+        String xml = "<worksheet xmlns=\"urn:other\" xmlns:m=\"" + MAIN + "\"><m:sheetData>"
+                // the default namespace is redeclared by the row, and undeclared by a cell
+                + "<row xmlns=\"" + MAIN + "\" r=\"1\"><c r=\"A1\"><v>1</v></c><c xmlns=\"urn:other\" r=\"B1\"><v>2</v></c>"
+                // another prefix is bound to SpreadsheetML by the cell itself
+                + "<s:c xmlns:s=\"" + MAIN + "\" r=\"C1\"><s:v>3</s:v></s:c></row>"
+                // the declarations of the row are out of scope
+                + "<row r=\"2\"><c r=\"A2\"><v>5</v></c></row>"
+                + "<m:row r=\"3\"><m:c r=\"A3\"><m:v>6</m:v></m:c><c r=\"B3\" xmlns=\"" + MAIN + "\"/></m:row>"
+                + "</m:sheetData><m:mergeCells xmlns:m=\"urn:other\" count=\"1\"><m:mergeCell ref=\"A1:B1\"/></m:mergeCells>"
+                + "<mergeCells xmlns=\"" + MAIN + "\" count=\"2\"><m:mergeCell ref=\"A2:B2\"/><mergeCell ref=\"A3:B3\"/></mergeCells></worksheet>";
+        assertEquals("0:0=1;2=3;\n2:0=6;1=;\nmerged=A2:B2\nmerged=A3:B3\n", read(xml, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLongCharacterReferences() throws Exception {
+        String xml = "<worksheet xmlns=\"" + MAIN + "\"><sheetData><row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>&#0000000065;&#x000000004E2D;&#00000000000000000000000128512;</t></is></c>"
+                + "</row></sheetData></worksheet>";
+        assertEquals("0:0=A中😀;\n", read(xml, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMalformedUtf8() throws Exception {
+        String[][] sequences = {{"FF", "FF"}, {"80", "80"}, {"C0 AF", "C0 AF"}, {"E0 80 AF", "E0 80 AF"}, {"ED A0 80", "ED A0 80"},
+                {"F4 90 80 80", "F4 90 80 80"}, {"E4 41", "E4 41"}, {"E4 B8 41", "E4 B8 41"}};
+        for (String[] sequence : sequences) {
+            String[] hex = sequence[0].split(" ");
+            byte[] bytes = new byte[hex.length];
+            for (int i = 0; i < hex.length; i++) {
+                bytes[i] = (byte) Integer.parseInt(hex[i], 16);
+            }
+            String head = "<worksheet xmlns=\"" + MAIN + "\"><sheetData><row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>a";
+            String tail = "b</t></is></c></row></sheetData></worksheet>";
+            byte[] xml = (head + new String(bytes, StandardCharsets.ISO_8859_1) + tail).getBytes(StandardCharsets.ISO_8859_1);
+            assertRejected(xml, "Invalid UTF-8 sequence '" + sequence[1] + "' at offset " + (head.length()) + " in the sheet");
+        }
+    }
+
+    @Test
+    public void testEncodings() throws Exception {
+        String body = "<worksheet xmlns=\"" + MAIN + "\"><sheetData><row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>café</t></is></c>"
+                + "<c r=\"B1\"><v>1</v></c></row></sheetData></worksheet>";
+        String expected = "0:0=café;1=1;\n";
+        assertEquals(expected, read("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" + body, StandardCharsets.ISO_8859_1));
+        assertEquals(expected, read("<?xml version='1.0' encoding='windows-1252'?>" + body, Charset.forName("windows-1252")));
+        assertEquals("0:0=中文;1=1;\n", read("<?xml version=\"1.0\" encoding=\"GBK\"?>" + body.replace("café", "中文"), Charset.forName("GBK")));
+        assertEquals(expected, read("<?xml version=\"1.0\" encoding=\"UTF-16\"?>" + body, StandardCharsets.UTF_16));
+        assertEquals(expected, read("\uFEFF<?xml version=\"1.0\" encoding=\"UTF-16\"?>" + body, StandardCharsets.UTF_16LE));
+        assertEquals(expected, read("<?xml version=\"1.0\" encoding=\"UTF-16\"?>" + body, StandardCharsets.UTF_16BE));
+        assertEquals(expected, read("\uFEFF<?xml version=\"1.0\"?>" + body, StandardCharsets.UTF_8));
+        // a long part is transcoded across several buffers
+        StringBuilder rows = new StringBuilder();
+        StringBuilder expectedRows = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            rows.append("<row r=\"").append(i + 1).append("\"><c r=\"A").append(i + 1).append("\" t=\"inlineStr\"><is><t>中文").append(i)
+                    .append("</t></is></c></row>");
+            expectedRows.append(i).append(":0=中文").append(i).append(";\n");
+        }
+        String xml = "<?xml version=\"1.0\" encoding=\"GBK\"?><worksheet xmlns=\"" + MAIN + "\"><sheetData>" + rows + "</sheetData></worksheet>";
+        assertEquals(expectedRows.toString(), read(xml, Charset.forName("GBK")));
+    }
+
+    @Test
+    public void testMalformedCharacterReferences() throws Exception {
+        for (String reference : new String[]{"&#xZZ;", "&#;", "&#x;", "&#12a;", "&#0;", "&#xD800;", "&#1114112;", "&#x110000;"}) {
+            String xml = "<worksheet xmlns=\"" + MAIN + "\"><sheetData><row r=\"1\">"
+                    + "<c r=\"A1\" t=\"inlineStr\"><is><t>a" + reference + "</t></is></c></row></sheetData></worksheet>";
+            assertRejected(xml.getBytes(StandardCharsets.UTF_8), "Malformed character reference '" + reference + "' in the sheet");
+        }
+    }
+
+    /**
+     * @return the values of the rows and the merged regions of the sheet, which are the same with either cursor
+     */
+    private static String read(String sheetXml, Charset charset) throws Exception {
+        byte[] bytes = sheetXml.getBytes(charset);
+        String scanned = read(bytes, true);
+        assertEquals(read(bytes, false), scanned);
+        return scanned;
+    }
+
+    /**
+     * the scanner rejects the sheet with the message, and XMLStreamReader rejects it too
+     */
+    private static void assertRejected(byte[] sheetXml, String message) throws Exception {
+        for (boolean xmlScanner : new boolean[]{true, false}) {
+            try {
+                read(sheetXml, xmlScanner);
+                fail(message + (xmlScanner ? "" : " by XMLStreamReader"));
+            } catch (ParseException e) {
+                if (xmlScanner) {
+                    assertEquals(message, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String read(byte[] sheetXml, boolean xmlScanner) throws Exception {
+        Workbook source = new XSSFWorkbook();
+        source.createSheet("Sheet1");
+        File file = TestWorkbooks.replacePart(source, "xl/worksheets/sheet1.xml", sheetXml);
+        try (Workbook workbook = StreamReader.builder().xmlScanner(xmlScanner).open(file)) {
+            StringBuilder sb = new StringBuilder();
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                sb.append(row.getRowNum()).append(':');
+                for (Cell cell : row) {
+                    sb.append(cell.getColumnIndex()).append('=').append(DataUtil.getCellValue(cell)).append(';');
+                }
+                sb.append('\n');
+            }
+            for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+                sb.append("merged=").append(sheet.getMergedRegion(i).formatAsString()).append('\n');
+            }
+            return sb.toString();
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import com.unaware.poi.excel.SSConverter;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.MixedFile;
+import com.unaware.poi.excel.util.OutputSink;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SinglePassTest {
+
+    @Test
+    public void testSameAsTwoPasses() throws Exception {
+        int merged = 0;
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                merged += numMergedRegions(file);
+                List<MixedFile> expected = convert(file, false, OutputSink.memory());
+                // the outputs in memory are written while the rows are read, and rewritten if the sheet has merged regions
+                List<MixedFile> rewritten = convert(file, true, OutputSink.memory());
+                // the streams can't be rewritten, so they are only written from the spooled rows
+                Map<String, ByteArrayOutputStream> streams = Collections.synchronizedMap(new LinkedHashMap<>());
+                List<MixedFile> spooled = convert(file, true, OutputSink.streams((sheetName, availableInfo) -> {
+                    ByteArrayOutputStream os = new ByteArrayOutputStream();
+                    assertNull("every stream is opened once", streams.put(sheetName + availableInfo, os));
+                    return os;
+                }));
+
+                assertEquals(file.getName(), expected.size(), rewritten.size());
+                assertEquals(file.getName(), expected.size(), spooled.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    String sheetName = expected.get(i).getSheetName();
+                    String message = file.getName() + " " + sheetName;
+                    ByteBuffer original = expected.get(i).getOriginalOutput().getBuffer();
+                    ByteBuffer availableInfo = expected.get(i).getMergeOutput().getBuffer();
+                    assertEquals(message, sheetName, rewritten.get(i).getSheetName());
+                    assertEquals(message, original, rewritten.get(i).getOriginalOutput().getBuffer());
+                    assertEquals(message, availableInfo, rewritten.get(i).getMergeOutput().getBuffer());
+                    assertEquals(message, original, ByteBuffer.wrap(streams.get(sheetName + false).toByteArray()));
+                    assertEquals(message, availableInfo, ByteBuffer.wrap(streams.get(sheetName + true).toByteArray()));
+                }
+            }
+        }
+        // the merged regions are written again in single pass
+        assertTrue(merged > 0);
+    }
+
+    private static List<MixedFile> convert(File file, boolean singlePass, OutputSink outputSink) throws Exception {
+        try (SSConverter converter = new SSConverter()) {
+            converter.enableAvailableInfo(true);
+            converter.singlePass(singlePass);
+            converter.outputSink(outputSink);
+            converter.path(file);
+            return converter.getMixedFiles();
+        }
+    }
+
+    private static int numMergedRegions(File file) throws Exception {
+        int count = 0;
+        try (Workbook workbook = StreamReader.builder().open(file)) {
+            for (Sheet sheet : workbook) {
+                count += sheet.getNumMergedRegions();
+            }
+        }
+        return count;
+    }
+}
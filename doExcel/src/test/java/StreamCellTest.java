@@ -0,0 +1,61 @@
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.util.DataUtil;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StreamCellTest {
+
+    @Test
+    public void testValueKind() {
+        assertEquals(StreamCell.ValueKind.BLANK, cell("n", "").getValueKind());
+        assertEquals(StreamCell.ValueKind.NUMBER, cell("n", "1.5").getValueKind());
+        assertEquals(StreamCell.ValueKind.STRING, cell("s", "1.5").getValueKind());
+        assertEquals(StreamCell.ValueKind.BOOLEAN, cell("b", "1").getValueKind());
+        assertEquals(StreamCell.ValueKind.ERROR, cell("e", "#N/A").getValueKind());
+
+        // the kind of a formula is that of its result
+        assertEquals(StreamCell.ValueKind.NUMBER, formula("n", "1.5E3").getValueKind());
+        assertEquals(StreamCell.ValueKind.STRING, formula("s", "abc").getValueKind());
+        assertEquals(StreamCell.ValueKind.BOOLEAN, formula("b", "TRUE").getValueKind());
+        assertEquals(StreamCell.ValueKind.ERROR, formula("e", "#DIV/0!").getValueKind());
+
+        StreamCell cell = cell("n", "2");
+        assertEquals(2.0, cell.getNumericCellValue(), 0);
+        cell.setRawContents("abc");
+        assertEquals(StreamCell.ValueKind.NUMBER, cell.getValueKind());
+        try {
+            cell.getNumericCellValue();
+            fail();
+        } catch (IllegalStateException e) {
+            // the contents are not a number
+        }
+    }
+
+    @Test
+    public void testFormulaResult() {
+        assertEquals(CellType.FORMULA, formula("s", "abc").getCellTypeEnum());
+        assertEquals("abc", DataUtil.getCellValue(formula("s", "abc")));
+        assertEquals(1500, formula("n", "1.5E3").getNumericCellValue(), 0);
+        // a string result which looks like a number is still read as a number
+        assertEquals(12.5, formula("s", "12.50").getNumericCellValue(), 0);
+        assertEquals(FormulaError.DIV0.getCode(), formula("e", "#DIV/0!").getErrorCellValue());
+        assertEquals(-1, formula("n", "-0.5").getErrorCellValue());
+        assertTrue(formula("b", "1").getBooleanCellValue());
+    }
+
+    private static StreamCell cell(String type, String contents) {
+        StreamCell cell = new StreamCell(0, 0, false);
+        cell.setType(type);
+        cell.setRawContents(contents);
+        return cell;
+    }
+
+    private static StreamCell formula(String type, String contents) {
+        StreamCell cell = cell(type, contents);
+        cell.setType("str");
+        return cell;
+    }
+}
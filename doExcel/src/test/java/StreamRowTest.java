@@ -0,0 +1,123 @@
+import com.unaware.poi.excel.ssimpl.StreamCell;
+import com.unaware.poi.excel.ssimpl.StreamRow;
+import org.apache.poi.ss.usermodel.Cell;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StreamRowTest {
+
+    @Test
+    public void testOutOfOrder() {
+        StreamRow row = row(5, 1, 3, 0, 7);
+        assertEquals("0,1,3,5,7", columns(row));
+        assertEquals(0, row.getFirstCellNum());
+        assertEquals(8, row.getLastCellNum());
+        assertEquals(5, row.getPhysicalNumberOfCells());
+        for (int column : new int[]{0, 1, 3, 5, 7}) {
+            assertEquals(column, row.getCell(column).getColumnIndex());
+        }
+        for (int column : new int[]{-1, 2, 4, 6, 8}) {
+            assertNull(row.getCell(column));
+        }
+    }
+
+    @Test
+    public void testReplace() {
+        StreamRow row = row(1, 2, 3);
+        Cell last = new StreamCell(3, 0, false);
+        row.addCell(last);
+        Cell middle = new StreamCell(2, 0, false);
+        row.addCell(middle);
+        assertEquals("1,2,3", columns(row));
+        assertSame(middle, row.getCell(2));
+        assertSame(last, row.getCell(3));
+    }
+
+    @Test
+    public void testGaps() {
+        // more cells than the initial capacity, the contiguous ones are looked up by their offset from the first column
+        StreamRow row = new StreamRow(0);
+        for (int column = 2; column < 22; column++) {
+            row.addCell(new StreamCell(column, 0, false));
+        }
+        for (int column = 2; column < 22; column++) {
+            assertEquals(column, row.getCell(column).getColumnIndex());
+        }
+        assertNull(row.getCell(1));
+        assertNull(row.getCell(22));
+
+        row = row(1, 2, 3, 10, 11, 30);
+        assertEquals(10, row.getCell(10).getColumnIndex());
+        assertEquals(30, row.getCell(30).getColumnIndex());
+        assertNull(row.getCell(4));
+        assertNull(row.getCell(29));
+        assertEquals(31, row.getLastCellNum());
+    }
+
+    @Test
+    public void testRemoveCell() {
+        StreamRow row = row(0, 1, 2, 3, 4, 5);
+        row.removeCell(row.getCell(3));
+        assertEquals("0,1,2,4,5", columns(row));
+        // the cells behind the removed one are no longer at the offset of their column
+        assertEquals(4, row.getCell(4).getColumnIndex());
+        assertEquals(5, row.getCell(5).getColumnIndex());
+        assertNull(row.getCell(3));
+
+        row.removeCell(row.getCell(0));
+        row.removeCell(row.getCell(5));
+        assertEquals("1,2,4", columns(row));
+        assertEquals(1, row.getFirstCellNum());
+        assertEquals(5, row.getLastCellNum());
+
+        // a cell which is not one of the row is not removed, even if it has the same column
+        row.removeCell(new StreamCell(2, 0, false));
+        assertEquals("1,2,4", columns(row));
+
+        row.addCell(new StreamCell(3, 0, false));
+        assertEquals("1,2,3,4", columns(row));
+        for (int column : new int[]{1, 2, 4}) {
+            row.removeCell(row.getCell(column));
+        }
+        row.removeCell(row.getCell(3));
+        assertEquals("", columns(row));
+        assertEquals(-1, row.getFirstCellNum());
+        assertEquals(-1, row.getLastCellNum());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testCellMap() {
+        StreamRow row = row(4, 0, 2);
+        Map<Integer, Cell> cellMap = row.getCellMap();
+        assertEquals("[0, 2, 4]", cellMap.keySet().toString());
+        for (Map.Entry<Integer, Cell> entry : cellMap.entrySet()) {
+            assertSame(row.getCell(entry.getKey()), entry.getValue());
+        }
+        // the map is a copy
+        cellMap.remove(2);
+        assertEquals("0,2,4", columns(row));
+    }
+
+    private static StreamRow row(int... columns) {
+        StreamRow row = new StreamRow(0);
+        for (int column : columns) {
+            row.addCell(new StreamCell(column, 0, false));
+        }
+        return row;
+    }
+
+    /**
+     * @return the columns of the cells in the order of the iterator
+     */
+    private static String columns(StreamRow row) {
+        StringBuilder sb = new StringBuilder();
+        for (Cell cell : row) {
+            sb.append(sb.length() == 0 ? "" : ",").append(cell.getColumnIndex());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,70 @@
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.DataUtil;
+import com.unaware.poi.excel.util.StringPool;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StringPoolTest {
+
+    @Test
+    public void testSameAsUnpooled() throws Exception {
+        for (String type : new String[]{"xlsx", "xls"}) {
+            for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/" + type).listFiles())) {
+                if (file.length() > (1 << 20)) {
+                    continue;
+                }
+                String expected;
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                    if (!(workbook instanceof StreamWorkbook)) {
+                        continue;
+                    }
+                    expected = TestWorkbooks.dump(workbook);
+                }
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).stringPoolSize(4096).open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                }
+                // a small pool replaces its values all the time
+                try (Workbook workbook = StreamReader.builder().streamingXls(true).stringPoolSize(2).reuseRows(true).open(file)) {
+                    assertEquals(file.getName(), expected, TestWorkbooks.dump(workbook));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        File file = new File("src/test/resources/testCase/xlsx/8月生产数据xlsx.xlsx");
+        Set<String> values = new HashSet<>();
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        int[] cells = new int[1];
+        try (Workbook workbook = StreamReader.builder().streamingXls(true).stringPoolSize(1 << 16).open(file)) {
+            workbook.forEach(sheet -> sheet.forEach(row -> row.forEach(cell -> {
+                String value = DataUtil.getCellValue(cell);
+                values.add(value);
+                instances.add(value);
+                cells[0]++;
+            })));
+        }
+        // a value is only created again when another value has taken its slot
+        assertTrue(instances.size() < values.size() * 2 && instances.size() < cells[0] / 4);
+
+        StringPool pool = new StringPool(16);
+        String value = pool.intern(new StringBuilder("category"));
+        assertSame(value, pool.intern(new StringBuilder("category")));
+        assertSame(value, pool.intern("category"));
+        assertSame(value, pool.sharedString(7, i -> "category"));
+        assertSame(value, pool.sharedString(7, i -> null));
+    }
+}
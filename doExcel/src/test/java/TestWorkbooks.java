@@ -0,0 +1,142 @@
+import com.unaware.poi.excel.util.DataUtil;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.function.BiConsumer;
+import java.util.function.IntPredicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * the workbooks written by the tests, and the dumps of the workbooks which the tests compare
+ */
+final class TestWorkbooks {
+
+    private TestWorkbooks() {
+    }
+
+    /**
+     * write the workbook into a temporary file, .xls for a HSSFWorkbook and .xlsx for the others
+     *
+     * @param workbook it's closed
+     * @param prefix   the prefix of the file name
+     * @return the file of the workbook, which the test deletes
+     */
+    static File write(Workbook workbook, String prefix) throws IOException {
+        File file = Files.createTempFile(prefix, workbook instanceof HSSFWorkbook ? ".xls" : ".xlsx").toFile();
+        try (OutputStream os = new FileOutputStream(file)) {
+            workbook.write(os);
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                ((SXSSFWorkbook) workbook).dispose();
+            }
+            workbook.close();
+        }
+        return file;
+    }
+
+    /**
+     * write the workbook of POI, and replace one of its parts by the bytes
+     *
+     * @param workbook it's closed
+     * @param partName like "xl/worksheets/sheet1.xml"
+     * @param bytes
+     * @return the file of the workbook
+     */
+    static File replacePart(Workbook workbook, String partName, byte[] bytes) throws IOException {
+        File source = write(workbook, "source_");
+        File file = Files.createTempFile("replaced_", ".xlsx").toFile();
+        try (ZipInputStream in = new ZipInputStream(new FileInputStream(source));
+             ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            byte[] buffer = new byte[8192];
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals(partName)) {
+                    out.write(bytes);
+                } else {
+                    for (int n; (n = in.read(buffer)) > 0; ) {
+                        out.write(buffer, 0, n);
+                    }
+                }
+                out.closeEntry();
+            }
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        } finally {
+            source.delete();
+        }
+        return file;
+    }
+
+    /**
+     * @return the values of all the cells, see {@link #dump(Workbook, IntPredicate, IntPredicate)}
+     */
+    static String dump(Workbook workbook) {
+        return dump(workbook, row -> true, column -> true);
+    }
+
+    /**
+     * the name of every sheet, followed by a line of the selected cells with their values of {@link DataUtil#getCellValue} for every selected row
+     *
+     * @param workbook
+     * @param rows     the indexes of the selected rows
+     * @param columns  the indexes of the selected columns
+     * @return
+     */
+    static String dump(Workbook workbook, IntPredicate rows, IntPredicate columns) {
+        return dump(workbook, (sb, row) -> {
+            if (rows.test(row.getRowNum())) {
+                sb.append(row.getRowNum()).append(':');
+                for (Cell cell : row) {
+                    if (columns.test(cell.getColumnIndex())) {
+                        sb.append(cell.getAddress()).append('=').append(DataUtil.getCellValue(cell)).append(',');
+                    }
+                }
+                sb.append('\n');
+            }
+        });
+    }
+
+    /**
+     * the name of every sheet, followed by its rows.
+     * Every row is written out before the iterator is advanced, while the cells of a reused row are valid.
+     *
+     * @param workbook
+     * @param rowWriter writes a row into the builder
+     * @return
+     */
+    static String dump(Workbook workbook, BiConsumer<StringBuilder, Row> rowWriter) {
+        StringBuilder sb = new StringBuilder();
+        for (Sheet sheet : workbook) {
+            sb.append(sheet.getSheetName()).append('\n');
+            for (Row row : sheet) {
+                rowWriter.accept(sb, row);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the merged regions of every sheet
+     */
+    static String merged(Workbook workbook) {
+        StringBuilder sb = new StringBuilder();
+        workbook.forEach(sheet -> sb.append(sheet.getNumMergedRegions()).append(sheet.getMergedRegions()).append('\n'));
+        return sb.toString();
+    }
+}
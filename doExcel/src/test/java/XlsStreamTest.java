@@ -0,0 +1,231 @@
+import com.unaware.poi.excel.ssimpl.StreamWorkbook;
+import com.unaware.poi.excel.streamreader.StreamReader;
+import com.unaware.poi.excel.util.DataUtil;
+import com.unaware.poi.excel.util.DecimalUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.*;
+
+public class XlsStreamTest {
+
+    @Test
+    public void testSameAsHSSF() throws Exception {
+        for (File file : Objects.requireNonNull(new File("src/test/resources/testCase/xls").listFiles())) {
+            if (file.length() > (1 << 20)) {
+                continue;
+            }
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                // the encrypted .xls file is loaded by HSSFWorkbook
+                if (!(workbook instanceof StreamWorkbook)) {
+                    continue;
+                }
+                assertEquals(file.getName(), dumpHSSF(file, row -> true, column -> true, true), dump(workbook, true));
+            }
+        }
+    }
+
+    /**
+     * the .xls file is loaded by HSSFWorkbook unless the streaming is enabled.
+     * The formulas are rendered by HSSFWorkbook, a StreamWorkbook only reads their cached results
+     */
+    @Test
+    public void testStreamingIsOptIn() throws Exception {
+        File file = createWorkbook();
+        try {
+            try (Workbook workbook = StreamReader.builder().open(file)) {
+                assertTrue(workbook instanceof HSSFWorkbook);
+                Cell cell = workbook.getSheetAt(0).getRow(0).getCell(4);
+                assertEquals("1+2", cell.getCellFormula());
+                assertEquals("3", DataUtil.getCellValue(cell));
+            }
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).open(file)) {
+                assertTrue(workbook instanceof StreamWorkbook);
+                Cell cell = workbook.getSheetAt(0).iterator().next().getCell(4);
+                assertEquals(CellType.FORMULA, cell.getCellTypeEnum());
+                assertNull(cell.getCellFormula());
+                assertEquals("3", DataUtil.getCellValue(cell));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testFormulaResults() throws Exception {
+        File file = createWorkbook();
+        try {
+            String expected = dumpHSSF(file, row -> true, column -> true, true);
+            assertTrue(expected.contains("B1:FORMULA/STRING=ab"));
+            assertTrue(expected.contains("C1:FORMULA/ERROR=#DIV/0!"));
+            assertTrue(expected.contains("D1:FORMULA/BOOLEAN=TRUE"));
+            assertTrue(expected.contains("E1:FORMULA/NUMERIC=3"));
+            assertTrue(expected.contains("F1:BLANK=,"));
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).rowCacheSize(2).open(file)) {
+                assertEquals(expected, dump(workbook, true));
+            }
+            // in single pass, the range of the rows is that of the DimensionsRecord, which POI doesn't shrink
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).singlePass(true).rowCacheSize(2).open(file)) {
+                assertEquals(dumpHSSF(file, row -> true, column -> true, false), dump(workbook, false));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testColumnsAndRows() throws Exception {
+        File file = createWorkbook();
+        try {
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).columns("B", "D:E").open(file)) {
+                assertEquals(dumpHSSF(file, row -> true, column -> column == 1 || column == 3 || column == 4, true), dump(workbook, true));
+            }
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).rows(2, 4).open(file)) {
+                assertEquals(dumpHSSF(file, row -> row >= 2 && row <= 4, column -> true, true), dump(workbook, true));
+            }
+            try (Workbook workbook = StreamReader.builder().streamingXls(true).reuseRows(true).rowCacheSize(1).columns(0, 2).rows(1, 3).open(file)) {
+                assertEquals(dumpHSSF(file, row -> row >= 1 && row <= 3, column -> column == 0 || column == 2, true), dump(workbook, true));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * a sheet with the formulas of every type of cached result, a date, a merged region and a blank row,
+     * and a second sheet with a merged region
+     */
+    private static File createWorkbook() throws Exception {
+        HSSFWorkbook workbook = new HSSFWorkbook();
+        CellStyle date = workbook.createCellStyle();
+        date.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        CellStyle header = workbook.createCellStyle();
+        header.setFont(bold);
+        header.setAlignment(HorizontalAlignment.CENTER);
+
+        Sheet sheet = workbook.createSheet("formulas");
+        Row row = sheet.createRow(0);
+        row.createCell(0).setCellValue("name");
+        row.getCell(0).setCellStyle(header);
+        row.createCell(1).setCellFormula("\"a\"&\"b\"");
+        row.createCell(2).setCellFormula("1/0");
+        row.createCell(3).setCellFormula("1<2");
+        row.createCell(4).setCellFormula("1+2");
+        row.createCell(5).setCellFormula("\"\"");
+        row = sheet.createRow(1);
+        row.createCell(0).setCellValue(1.5);
+        row.createCell(1).setCellValue(true);
+        row.createCell(2).setCellValue(43000);
+        row.getCell(2).setCellStyle(date);
+        row.createCell(3).setCellErrorValue(FormulaError.NA.getCode());
+        row.createCell(4);
+        sheet.createRow(2);
+        row = sheet.createRow(3);
+        row.createCell(0).setCellValue("merged");
+        row.createCell(4).setCellValue(-7);
+        sheet.addMergedRegion(new CellRangeAddress(3, 4, 0, 2));
+        row = sheet.createRow(5);
+        row.createCell(3).setCellValue("last");
+
+        sheet = workbook.createSheet("second");
+        sheet.createRow(2).createCell(1).setCellValue("x");
+        sheet.addMergedRegion(new CellRangeAddress(2, 2, 1, 3));
+
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        return TestWorkbooks.write(workbook, "xls_");
+    }
+
+    private static String dumpHSSF(File file, IntPredicate rows, IntPredicate columns, boolean withRange) throws Exception {
+        try (NPOIFSFileSystem fileSystem = new NPOIFSFileSystem(file, true);
+             HSSFWorkbook workbook = new HSSFWorkbook(fileSystem.getRoot(), true)) {
+            StringBuilder sb = new StringBuilder();
+            for (Sheet sheet : workbook) {
+                sb.append(sheet.getSheetName()).append('\n');
+                for (Row row : sheet) {
+                    if (rows.test(row.getRowNum())) {
+                        dumpRow(sb, workbook, row, columns);
+                    }
+                }
+                dumpRegions(sb, sheet, withRange);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static String dump(Workbook workbook, boolean withRange) {
+        StringBuilder sb = new StringBuilder();
+        for (Sheet sheet : workbook) {
+            sb.append(sheet.getSheetName()).append('\n');
+            for (Row row : sheet) {
+                dumpRow(sb, workbook, row, column -> true);
+            }
+            dumpRegions(sb, sheet, withRange);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * in single pass, the merged regions and the range of the rows are known once the sheet is read
+     */
+    private static void dumpRegions(StringBuilder sb, Sheet sheet, boolean withRange) {
+        if (withRange) {
+            sb.append(sheet.getFirstRowNum()).append(':').append(sheet.getLastRowNum()).append(' ');
+        }
+        sb.append(sheet.getNumMergedRegions()).append(sheet.getMergedRegions()).append('\n');
+    }
+
+    private static void dumpRow(StringBuilder sb, Workbook workbook, Row row, IntPredicate columns) {
+        sb.append(row.getRowNum()).append(':');
+        for (Cell cell : row) {
+            if (!columns.test(cell.getColumnIndex())) {
+                continue;
+            }
+            CellType type = cell.getCellTypeEnum();
+            sb.append(cell.getAddress()).append(':');
+            if (isEmptyString(cell)) {
+                // a StreamCell without contents is blank, like the cells of .xlsx
+                sb.append(CellType.BLANK).append('=');
+            } else if (type == CellType.FORMULA) {
+                sb.append(type).append('/').append(cell.getCachedFormulaResultTypeEnum()).append('=').append(cachedResultOf(cell));
+            } else {
+                sb.append(type).append('=').append(DataUtil.getCellValue(cell));
+            }
+            CellStyle style = cell.getCellStyle();
+            Font font = workbook.getFontAt(style.getFontIndex());
+            sb.append(',').append(style.getIndex()).append('/').append(style.getDataFormatString())
+                    .append('/').append(style.getAlignmentEnum()).append('/').append(font.getBold()).append(font.getFontHeightInPoints())
+                    .append(';');
+        }
+        sb.append('\n');
+    }
+
+    private static boolean isEmptyString(Cell cell) {
+        CellType type = cell.getCellTypeEnum();
+        if (type == CellType.FORMULA) {
+            type = cell.getCachedFormulaResultTypeEnum();
+        }
+        return type == CellType.STRING && cell.getStringCellValue().isEmpty();
+    }
+
+    private static String cachedResultOf(Cell cell) {
+        switch (cell.getCachedFormulaResultTypeEnum()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case BOOLEAN:
+                return Boolean.toString(cell.getBooleanCellValue()).toUpperCase();
+            case ERROR:
+                return FormulaError.forInt(cell.getErrorCellValue()).getString();
+            default:
+                return DecimalUtils.toPlainString(cell.getNumericCellValue(), 14);
+        }
+    }
+}